@@ -65,6 +65,7 @@ import dev.ultreon.qvoxel.network.Connection;
 import dev.ultreon.qvoxel.network.packets.c2s.C2SLoginPacket;
 import dev.ultreon.qvoxel.network.system.DevFlag;
 import dev.ultreon.qvoxel.network.system.DeveloperMode;
+import dev.ultreon.qvoxel.network.system.NetworkTransport;
 import dev.ultreon.qvoxel.network.system.PacketStages;
 import dev.ultreon.qvoxel.registry.Registries;
 import dev.ultreon.qvoxel.resource.ReloadContext;
@@ -77,7 +78,6 @@ import dev.ultreon.qvoxel.world.World;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.MultiThreadIoEventLoopGroup;
 import io.netty.channel.local.LocalIoHandler;
-import io.netty.channel.nio.NioIoHandler;
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.loader.api.FabricLoader;
@@ -114,12 +114,17 @@ import static dev.ultreon.qvoxel.CommonConstants.id;
  * Quantum Voxel's main class.
  */
 public final class QuantumClient extends PollingExecutorService implements AutoCloseable {
+    /**
+     * The transport used for connections to remote servers, the native one when it's available.
+     */
+    public static final NetworkTransport REMOTE_TRANSPORT = NetworkTransport.best();
+
     /**
      * A shared {@code EventLoopGroup} instance used to handle remote communication
      * tasks within the client. This group is configured to use a number of threads
-     * matching the available processors as an NIO-based I/O handler.
+     * matching the available processors as an I/O handler for the {@linkplain #REMOTE_TRANSPORT remote transport}.
      */
-    public static final EventLoopGroup REMOTE_EVENT_GROUP = new MultiThreadIoEventLoopGroup(Runtime.getRuntime().availableProcessors(), NioIoHandler.newFactory());
+    public static final EventLoopGroup REMOTE_EVENT_GROUP = REMOTE_TRANSPORT.newEventLoopGroup(Runtime.getRuntime().availableProcessors());
 
     /**
      * A shared {@code EventLoopGroup} instance used to handle remote communication
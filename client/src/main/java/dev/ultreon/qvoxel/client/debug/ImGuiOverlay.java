@@ -2,6 +2,7 @@ package dev.ultreon.qvoxel.client.debug;
 
 import dev.ultreon.libs.commons.v0.Identifier;
 import dev.ultreon.qvoxel.CommonConstants;
+import dev.ultreon.qvoxel.PollingExecutorService;
 import dev.ultreon.qvoxel.block.state.BlockState;
 import dev.ultreon.qvoxel.block.state.property.StatePropertyKey;
 import dev.ultreon.qvoxel.client.QuantumClient;
@@ -105,6 +106,7 @@ public class ImGuiOverlay {
     private static final ImBoolean SHOW_PROFILER = new ImBoolean(false);
     private static final ImBoolean SHOW_OCCLUSION_DEBUG = new ImBoolean(false);
     private static final ImBoolean SHOW_NETWORK_LOGGING = new ImBoolean(false);
+    private static final ImBoolean SHOW_TASK_QUEUES = new ImBoolean(false);
 
     private static final ImBoolean SHOW_ABOUT = new ImBoolean(false);
     private static final ImBoolean SHOW_METRICS = new ImBoolean(false);
@@ -360,6 +362,39 @@ public class ImGuiOverlay {
         if (ImGuiOverlay.SHOW_MODEL_VIEWER.get()) ImGuiOverlay.showModelViewer();
         if (ImGuiOverlay.SHOW_CLASS_ATTACHER.get()) showClassAttacher();
         if (ImGuiOverlay.SHOW_NETWORK_LOGGING.get()) ImGuiOverlay.showNetworkLogging();
+        if (ImGuiOverlay.SHOW_TASK_QUEUES.get()) ImGuiOverlay.showTaskQueues();
+    }
+
+    private static void showTaskQueues() {
+        if (ImGui.begin("Task Queues")) {
+            showTaskQueue("Client", QuantumClient.get());
+            QuantumServer server = QuantumServer.get();
+            if (server != null) showTaskQueue("Server", server);
+        }
+        ImGui.end();
+    }
+
+    private static void showTaskQueue(String name, PollingExecutorService executor) {
+        ImGui.text(name + ": " + executor.getQueueSize() + " queued, " + executor.getDiscardedTasks() + " discarded");
+        if (ImGui.beginTable("##TaskQueue[" + name + "]", 4, ImGuiTableFlags.Borders)) {
+            ImGui.tableSetupColumn("Task");
+            ImGui.tableSetupColumn("Count");
+            ImGui.tableSetupColumn("Avg (ms)");
+            ImGui.tableSetupColumn("Max (ms)");
+            ImGui.tableHeadersRow();
+            for (PollingExecutorService.TaskLatency latency : executor.getQueueLatencies()) {
+                ImGui.tableNextRow();
+                ImGui.tableNextColumn();
+                ImGui.text(latency.getName());
+                ImGui.tableNextColumn();
+                ImGui.text(String.valueOf(latency.getCount()));
+                ImGui.tableNextColumn();
+                ImGui.text(String.format("%.3f", latency.getAverageMillis()));
+                ImGui.tableNextColumn();
+                ImGui.text(String.format("%.3f", latency.getMaxMillis()));
+            }
+            ImGui.endTable();
+        }
     }
 
     private static void showNetworkLogging() {
@@ -1527,6 +1562,7 @@ public class ImGuiOverlay {
                 }
                 ImGui.menuItem("Model Viewer", null, ImGuiOverlay.SHOW_MODEL_VIEWER);
                 ImGui.menuItem("Network Logging", null, ImGuiOverlay.SHOW_NETWORK_LOGGING);
+                ImGui.menuItem("Task Queues", null, ImGuiOverlay.SHOW_TASK_QUEUES);
                 ImGui.separator();
                 ImGui.menuItem("Show Hidden Fields", null, SHOW_HIDDEN_FIELDS);
                 ImGui.menuItem("Show Occlusion Debug", null, SHOW_OCCLUSION_DEBUG);
@@ -1591,6 +1627,8 @@ public class ImGuiOverlay {
             if (server != null) {
                 ImGui.text(" Server TPS: " + QuantumServer.getCurrentTps() + " ");
                 ImGui.sameLine();
+                ImGui.text(" MSPT: " + String.format("%.2f", server.getTickTimings().getAverageTickMillis()) + " ");
+                ImGui.sameLine();
             }
             ImGui.text(" Window ID: " + QuantumClient.get().getWindow().getObjectId() + " ");
             ImGui.endMenuBar();
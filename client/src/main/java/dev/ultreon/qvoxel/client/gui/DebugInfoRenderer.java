@@ -25,6 +25,8 @@ import dev.ultreon.qvoxel.client.world.ClientWorld;
 import dev.ultreon.qvoxel.client.world.WorldRenderer;
 import dev.ultreon.qvoxel.resource.GameNode;
 import dev.ultreon.qvoxel.server.QuantumServer;
+import dev.ultreon.qvoxel.server.TickPhase;
+import dev.ultreon.qvoxel.server.TickTimings;
 import dev.ultreon.qvoxel.server.ServerPlayerEntity;
 import dev.ultreon.qvoxel.server.ServerWorld;
 import dev.ultreon.qvoxel.server.WorldChunk;
@@ -109,6 +111,13 @@ public class DebugInfoRenderer extends GameNode {
             QuantumServer server = QuantumServer.get();
             if (server != null) {
                 renderLeft(guiRenderer, "Current Server TPS: " + QuantumServer.getCurrentTps());
+                TickTimings timings = server.getTickTimings();
+                renderLeft(guiRenderer, "Server MSPT: " + String.format("%.2f avg, %.2f max", timings.getAverageTickMillis(), timings.getMaxTickMillis()) + ", skipped: " + timings.getSkippedTicks());
+                StringBuilder phases = new StringBuilder("Tick Phases:");
+                for (TickPhase phase : TickPhase.values()) {
+                    phases.append(' ').append(phase.getDisplayName()).append(String.format(" %.2f", timings.getAverageMillis(phase)));
+                }
+                renderLeft(guiRenderer, phases.toString());
             }
         }
     }
@@ -35,7 +35,6 @@ import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.*;
 import io.netty.channel.local.LocalAddress;
 import io.netty.channel.local.LocalChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 
 import java.nio.channels.ClosedChannelException;
 import java.util.concurrent.CompletableFuture;
@@ -73,7 +72,8 @@ public class ClientConnection extends Connection<ClientPacketHandler, ServerPack
                                 clientConnection.init(ch.pipeline(), QuantumClient.get().registries);
                             }
                         })
-                        .channelFactory(NioSocketChannel::new);
+                        .channelFactory(QuantumClient.REMOTE_TRANSPORT.channelFactory())
+                        .option(ChannelOption.TCP_NODELAY, true);
                 bootstrap.remoteAddress(location, 38800);
                 bootstrap.connect().awaitUninterruptibly(10, TimeUnit.SECONDS);
                 return clientConnection;
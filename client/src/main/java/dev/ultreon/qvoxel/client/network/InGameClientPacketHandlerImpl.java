@@ -31,7 +31,9 @@ import dev.ultreon.qvoxel.network.PacketDestination;
 import dev.ultreon.qvoxel.network.handler.ClientPacketHandler;
 import dev.ultreon.qvoxel.network.handler.InGameClientPacketHandler;
 import dev.ultreon.qvoxel.network.handler.ServerPacketHandler;
+import dev.ultreon.qvoxel.network.packets.c2s.C2SChunkCacheMissPacket;
 import dev.ultreon.qvoxel.network.packets.c2s.C2SKeepAlivePacket;
+import dev.ultreon.qvoxel.network.packets.c2s.C2SPingPacket;
 import dev.ultreon.qvoxel.network.packets.s2c.*;
 import dev.ultreon.qvoxel.network.system.IConnection;
 import dev.ultreon.qvoxel.particle.ParticleData;
@@ -102,7 +104,8 @@ public class InGameClientPacketHandlerImpl implements InGameClientPacketHandler
 
     @Override
     public void onPing(S2CPingPacket packet) {
-
+        // Echo the server's time back, so it can measure the round trip.
+        connection.send(new C2SPingPacket(packet.time()));
     }
 
     @Override
@@ -147,6 +150,76 @@ public class InGameClientPacketHandlerImpl implements InGameClientPacketHandler
         }
     }
 
+    @Override
+    public void onChunkBlocks(S2CChunkBlocksPacket packet) {
+        ClientWorld world = client.getWorld();
+        if (world != null) {
+            world.onChunkBlocks(packet);
+        } else {
+            CommonConstants.LOGGER.warn("Received chunk blocks packet while not in game!");
+        }
+    }
+
+    @Override
+    public void onChunkUnload(S2CChunkUnloadPacket packet) {
+        ClientWorld world = client.getWorld();
+        if (world != null) {
+            world.onChunkUnload(packet);
+        } else {
+            CommonConstants.LOGGER.warn("Received chunk unload packet while not in game!");
+        }
+    }
+
+    @Override
+    public void onChunkCached(S2CChunkCachedPacket packet) {
+        ClientWorld world = client.getWorld();
+        if (world == null || !world.onChunkCached(packet)) {
+            connection.send(new C2SChunkCacheMissPacket(packet.chunkVec()));
+        }
+    }
+
+    @Override
+    public void onLightUpdate(S2CLightUpdatePacket packet) {
+        ClientWorld world = client.getWorld();
+        if (world != null) {
+            world.onLightUpdate(packet);
+        } else {
+            CommonConstants.LOGGER.warn("Received light update packet while not in game!");
+        }
+    }
+
+    @Override
+    public void onPlayerSpawn(S2CPlayerSpawnPacket packet) {
+        QuantumClient.invoke(() -> {
+            ClientWorld world = client.getWorld();
+            if (world != null) world.onPlayerSpawn(packet);
+        });
+    }
+
+    @Override
+    public void onEntityDespawn(S2CEntityDespawnPacket packet) {
+        QuantumClient.invoke(() -> {
+            ClientWorld world = client.getWorld();
+            if (world != null) world.onEntityDespawn(packet);
+        });
+    }
+
+    @Override
+    public void onEntityMoves(S2CEntityMovesPacket packet) {
+        QuantumClient.invoke(() -> {
+            ClientWorld world = client.getWorld();
+            if (world != null) world.onEntityMoves(packet);
+        });
+    }
+
+    @Override
+    public void onEntityTeleport(S2CEntityTeleportPacket packet) {
+        QuantumClient.invoke(() -> {
+            ClientWorld world = client.getWorld();
+            if (world != null) world.onEntityTeleport(packet);
+        });
+    }
+
     @Override
     public void onChatMessage(S2CChatMessagePacket packet) {
         Overlays.CHAT.addMessage(ChatMessage.system(packet.message()));
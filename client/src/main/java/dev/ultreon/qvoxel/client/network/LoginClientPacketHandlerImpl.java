@@ -57,6 +57,11 @@ public class LoginClientPacketHandlerImpl implements LoginClientPacketHandler {
         client.registries.load(s2CRegistrySyncPacket);
     }
 
+    @Override
+    public void onSetCompression(S2CSetCompressionPacket packet) {
+        connection.setCompression(packet.threshold());
+    }
+
     @Override
     public void onLoginAccepted(S2CLoginAcceptedPacket packet) {
         connection.moveTo(PacketStages.IN_GAME.get(), new InGameClientPacketHandlerImpl(connection, player));
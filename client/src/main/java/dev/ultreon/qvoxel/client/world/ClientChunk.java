@@ -17,13 +17,17 @@
 package dev.ultreon.qvoxel.client.world;
 
 import dev.ultreon.libs.commons.v0.Identifier;
+import dev.ultreon.qvoxel.block.actor.BlockActor;
 import dev.ultreon.qvoxel.block.state.BlockState;
+import dev.ultreon.qvoxel.block.state.BlockStateIds;
 import dev.ultreon.qvoxel.client.QuantumClient;
 import dev.ultreon.qvoxel.client.debug.DebugRenderer;
 import dev.ultreon.qvoxel.client.debug.ImGuiEx;
 import dev.ultreon.qvoxel.client.debug.ImGuiOverlay;
 import dev.ultreon.qvoxel.client.debug.Renderer;
+import dev.ultreon.qvoxel.network.packets.s2c.S2CChunkBlocksPacket;
 import dev.ultreon.qvoxel.network.packets.s2c.S2CChunkDataPacket;
+import dev.ultreon.qvoxel.network.packets.s2c.S2CLightUpdatePacket;
 import dev.ultreon.qvoxel.registry.Registries;
 import dev.ultreon.qvoxel.util.BlockVec;
 import dev.ultreon.qvoxel.util.ChunkVec;
@@ -35,6 +39,7 @@ import org.jetbrains.annotations.Nullable;
 import org.joml.Vector3d;
 import org.joml.Vector3f;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
@@ -151,9 +156,21 @@ public class ClientChunk extends Chunk {
         getWorld().remove(this);
     }
 
+    /**
+     * Captures the chunk data, so an unloaded chunk can be restored later with {@link #onChunkData(S2CChunkDataPacket)}.
+     * The data isn't copied, so the chunk shouldn't be used anymore after this.
+     */
+    public S2CChunkDataPacket snapshot() {
+        Map<BlockVec, Identifier> actors = new HashMap<>();
+        for (Map.Entry<BlockVec, BlockActor> entry : blockActors.entrySet()) {
+            actors.put(entry.getKey(), entry.getValue().getFactory().getId());
+        }
+        return new S2CChunkDataPacket(vec, blockStorage, biomeStorage, lightMap, null, lightHeights, actors);
+    }
+
     public void onChunkData(S2CChunkDataPacket s2CChunkDataPacket) {
-        blockStorage.set(s2CChunkDataPacket.statePalette(), s2CChunkDataPacket.states());
-        biomeStorage.set(s2CChunkDataPacket.biomePalette(), s2CChunkDataPacket.biomes());
+        blockStorage.set(s2CChunkDataPacket.blocks());
+        biomeStorage.set(s2CChunkDataPacket.biomes());
         if (s2CChunkDataPacket.lightMap() != null) {
             lightMap.load(s2CChunkDataPacket.lightMap().getData());
         }
@@ -169,6 +186,39 @@ public class ClientChunk extends Chunk {
         needRebuild = true;
     }
 
+    public void onChunkBlocks(S2CChunkBlocksPacket packet, BlockStateIds ids) {
+        int[] stateIds = packet.stateIds();
+        for (int i = 0; i < stateIds.length; i++) {
+            int index = packet.index(i);
+            super.set(index % World.CHUNK_SIZE, index / World.CHUNK_SIZE % World.CHUNK_SIZE, index / World.CHUNK_SURFACE, ids.byId(stateIds[i]));
+        }
+
+        // Rebuild once for the whole batch instead of once per block.
+        if (!initialized) return;
+        for (Direction dir : Direction.values()) {
+            ClientChunk neighbor = (ClientChunk) neighbors[dir.ordinal()];
+            if (neighbor == null) continue;
+            neighbor.needRebuild = true;
+        }
+        needRebuild = true;
+    }
+
+    public void onLightUpdate(S2CLightUpdatePacket packet) {
+        int[] light = packet.light();
+        for (int i = 0; i < light.length; i++) {
+            lightMap.setLight(packet.index(i), light[i]);
+        }
+
+        // Meshes sample the light of neighboring blocks, so the neighbors need to be rebuilt too.
+        if (!initialized) return;
+        for (Direction dir : Direction.values()) {
+            ClientChunk neighbor = (ClientChunk) neighbors[dir.ordinal()];
+            if (neighbor == null) continue;
+            neighbor.needRebuild = true;
+        }
+        needRebuild = true;
+    }
+
     public static class DebugRenderer implements Renderer<ClientChunk> {
         @Override
         public void render(ClientChunk object, @Nullable Consumer<ClientChunk> setter) {
@@ -19,10 +19,12 @@ package dev.ultreon.qvoxel.client.world;
 import dev.ultreon.qvoxel.CommonConstants;
 import dev.ultreon.qvoxel.block.Blocks;
 import dev.ultreon.qvoxel.block.state.BlockState;
+import dev.ultreon.qvoxel.block.state.BlockStateIds;
 import dev.ultreon.qvoxel.client.QuantumClient;
 import dev.ultreon.qvoxel.entity.Entity;
 import dev.ultreon.qvoxel.featureflags.FeatureSet;
-import dev.ultreon.qvoxel.network.packets.s2c.S2CChunkDataPacket;
+import dev.ultreon.qvoxel.network.packets.s2c.*;
+import dev.ultreon.qvoxel.registry.Registries;
 import dev.ultreon.qvoxel.registry.RegistryKey;
 import dev.ultreon.qvoxel.util.BlockVec;
 import dev.ultreon.qvoxel.util.ChunkVec;
@@ -31,12 +33,16 @@ import dev.ultreon.qvoxel.world.DimensionInfo;
 import dev.ultreon.qvoxel.world.HeightmapType;
 import dev.ultreon.qvoxel.world.World;
 import dev.ultreon.qvoxel.world.gen.biome.Biome;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The ClientWorld class represents a client-side implementation of a game world.
@@ -46,42 +52,69 @@ import java.util.concurrent.ConcurrentHashMap;
  * ensuring proper resource management and cleanup.
  */
 public class ClientWorld extends World implements AutoCloseable {
-    private final Map<ChunkVec, ClientChunk> chunks = new ConcurrentHashMap<>();
+    /**
+     * Loaded chunks keyed by {@link ChunkVec#toLong(int, int, int)}. The map is copy-on-write, so block lookups from
+     * the mesh builders never lock. Changes are made under {@link #chunksLock} and publish a new copy.
+     */
+    private volatile Long2ObjectOpenHashMap<ClientChunk> chunks = new Long2ObjectOpenHashMap<>();
+    private final Object chunksLock = new Object();
+    private final Long2ObjectLinkedOpenHashMap<CachedChunk> chunkCache = new Long2ObjectLinkedOpenHashMap<>();
     private final RegistryKey<DimensionInfo> dimension;
     private final ClientPlayerEntity localPlayer;
+    private final BlockStateIds blockStateIds = BlockStateIds.of(Registries.BLOCK);
+    private final Int2ObjectMap<RemotePlayerEntity> remotePlayers = new Int2ObjectOpenHashMap<>();
     private long time = 3000;
-    private BlockVec tmpBV = new BlockVec();
 
     public ClientWorld(RegistryKey<DimensionInfo> dimension, ClientPlayerEntity localPlayer) {
         this.dimension = dimension;
         this.localPlayer = localPlayer;
     }
 
+    private @Nullable ClientChunk getLoaded(int x, int y, int z) {
+        return chunks.get(ChunkVec.toLong(x, y, z));
+    }
+
+    private void putLoaded(ChunkVec vec, ClientChunk chunk) {
+        synchronized (chunksLock) {
+            Long2ObjectOpenHashMap<ClientChunk> copy = new Long2ObjectOpenHashMap<>(chunks);
+            copy.put(vec.toLong(), chunk);
+            chunks = copy;
+        }
+    }
+
+    private @Nullable ClientChunk removeLoaded(ChunkVec vec) {
+        long key = vec.toLong();
+        synchronized (chunksLock) {
+            if (!chunks.containsKey(key)) return null;
+            Long2ObjectOpenHashMap<ClientChunk> copy = new Long2ObjectOpenHashMap<>(chunks);
+            ClientChunk removed = copy.remove(key);
+            chunks = copy;
+            return removed;
+        }
+    }
+
     @Override
     public BlockState get(int x, int y, int z) {
-        ClientChunk clientChunk = chunks.get(new ChunkVec(BlockVec.chunkOf(x), BlockVec.chunkOf(y), BlockVec.chunkOf(z)));
+        ClientChunk clientChunk = getLoaded(BlockVec.chunkOf(x), BlockVec.chunkOf(y), BlockVec.chunkOf(z));
         if (clientChunk == null) return Blocks.VOID_BARRIER.getDefaultState();
         return clientChunk.get(BlockVec.localize(x), BlockVec.localize(y), BlockVec.localize(z));
     }
 
     public void tick() {
+        for (RemotePlayerEntity remotePlayer : remotePlayers.values()) {
+            remotePlayer.tick();
+        }
+
+        // Chunks are only removed when the server unloads them, the server keeps track of what the client has.
         for (ClientChunk chunk : getAllChunks()) {
             chunk.tick();
-
-            int distance = QuantumClient.get().renderDistance;
-            if (chunk.blockCenter.distanceSquared(localPlayer.getBlockVec(tmpBV)) > (long) distance * distance) {
-                chunk.close();
-                removeChunk(chunk.vec);
-                CommonConstants.LOGGER.debug("Removed chunk {} from client world", chunk.vec);
-            }
         }
     }
 
     @Override
     public boolean set(int x, int y, int z, BlockState state, int flags) {
-        ChunkVec chunkVec = new ChunkVec(BlockVec.chunkOf(x), BlockVec.chunkOf(y), BlockVec.chunkOf(z));
-        if (chunks.containsKey(chunkVec)) {
-            ClientChunk clientChunk = chunks.get(chunkVec);
+        ClientChunk clientChunk = getLoaded(BlockVec.chunkOf(x), BlockVec.chunkOf(y), BlockVec.chunkOf(z));
+        if (clientChunk != null) {
             if (clientChunk.vec.x != BlockVec.chunkOf(x) || clientChunk.vec.y != BlockVec.chunkOf(y) || clientChunk.vec.z != BlockVec.chunkOf(z)) {
                 CommonConstants.LOGGER.warn("Chunk relativePos mismatch: {} != {}", clientChunk.vec, new ChunkVec(x, y, z));
                 return false;
@@ -95,12 +128,12 @@ public class ClientWorld extends World implements AutoCloseable {
 
     @Override
     public Chunk getChunk(int x, int y, int z) {
-        return chunks.get(new ChunkVec(x, y, z));
+        return getLoaded(x, y, z);
     }
 
     @Override
     public Chunk getChunkAt(int x, int y, int z) {
-        return chunks.get(new ChunkVec(BlockVec.chunkOf(x), BlockVec.chunkOf(y), BlockVec.chunkOf(z)));
+        return getLoaded(BlockVec.chunkOf(x), BlockVec.chunkOf(y), BlockVec.chunkOf(z));
     }
 
     @Override
@@ -119,15 +152,18 @@ public class ClientWorld extends World implements AutoCloseable {
     }
 
     public void addChunk(ChunkVec chunkVec, ClientChunk chunk) {
-        chunks.put(chunkVec.copy(), chunk);
+        putLoaded(chunkVec, chunk);
     }
 
     public void removeChunk(ChunkVec chunkVec) {
-        chunks.remove(chunkVec);
+        removeLoaded(chunkVec);
     }
 
+    /**
+     * Returns a snapshot of the loaded chunks.
+     */
     public Collection<ClientChunk> getAllChunks() {
-        return chunks.values();
+        return Collections.unmodifiableCollection(chunks.values());
     }
 
     public ClientPlayerEntity getLocalPlayer() {
@@ -145,18 +181,78 @@ public class ClientWorld extends World implements AutoCloseable {
         QuantumClient.get().remove(this);
     }
 
+    private record CachedChunk(long version, S2CChunkDataPacket data) {
+    }
+
     public void onChunkData(int x, int y, int z, S2CChunkDataPacket s2CChunkDataPacket) {
-        ClientChunk chunk = chunks.get(new ChunkVec(x, y, z));
+        synchronized (chunkCache) {
+            chunkCache.remove(s2CChunkDataPacket.chunkVec().toLong());
+        }
+
+        ClientChunk chunk = getLoaded(x, y, z);
         if (chunk != null) {
             chunk.onChunkData(s2CChunkDataPacket);
             return;
         }
         chunk = new ClientChunk(this, new ChunkVec(x, y, z));
         chunk.onChunkData(s2CChunkDataPacket);
-        chunks.put(new ChunkVec(x, y, z), chunk);
+        putLoaded(chunk.vec, chunk);
         add("Chunk " + x + " , " + y + " , " + z, chunk);
     }
 
+    /**
+     * Unloads a chunk, keeping its data in the cache when the server gave it a version.
+     * The cache evicts the oldest chunk first, the server relies on that to know what the client has.
+     */
+    public void onChunkUnload(S2CChunkUnloadPacket packet) {
+        ClientChunk chunk = removeLoaded(packet.chunkVec());
+        long key = packet.chunkVec().toLong();
+        synchronized (chunkCache) {
+            chunkCache.remove(key);
+            if (chunk != null && packet.version() >= 0) {
+                chunkCache.putAndMoveToLast(key, new CachedChunk(packet.version(), chunk.snapshot()));
+                if (chunkCache.size() > S2CChunkUnloadPacket.CACHE_SIZE) {
+                    chunkCache.removeFirst();
+                }
+            }
+        }
+
+        if (chunk != null) QuantumClient.invoke(chunk::close);
+    }
+
+    /**
+     * Restores a chunk from the cache.
+     *
+     * @return {@code false} if the cache didn't have that version of the chunk.
+     */
+    public boolean onChunkCached(S2CChunkCachedPacket packet) {
+        CachedChunk cached;
+        synchronized (chunkCache) {
+            cached = chunkCache.remove(packet.chunkVec().toLong());
+        }
+        if (cached == null || cached.version() != packet.version()) return false;
+
+        ChunkVec vec = packet.chunkVec();
+        onChunkData(vec.x, vec.y, vec.z, cached.data());
+        return true;
+    }
+
+    public void onChunkBlocks(S2CChunkBlocksPacket packet) {
+        ChunkVec vec = packet.chunkVec();
+        ClientChunk chunk = getLoaded(vec.x, vec.y, vec.z);
+        if (chunk != null) {
+            chunk.onChunkBlocks(packet, blockStateIds);
+        }
+    }
+
+    public void onLightUpdate(S2CLightUpdatePacket packet) {
+        ChunkVec vec = packet.chunkVec();
+        ClientChunk chunk = getLoaded(vec.x, vec.y, vec.z);
+        if (chunk != null) {
+            chunk.onLightUpdate(packet);
+        }
+    }
+
     public RegistryKey<Biome> getBiome(BlockVec blockVec) {
         Chunk chunk = getChunkAt(blockVec);
         if (chunk == null) return null;
@@ -210,7 +306,44 @@ public class ClientWorld extends World implements AutoCloseable {
 
     @Override
     public Iterable<Entity> getEntities() {
-        return List.copyOf(QuantumClient.get().players);
+        List<Entity> entities = new ArrayList<>(QuantumClient.get().players);
+        entities.addAll(remotePlayers.values());
+        return entities;
+    }
+
+    /**
+     * Gets the other players that are within tracking range. Only access this from the client thread.
+     */
+    public Collection<RemotePlayerEntity> getRemotePlayers() {
+        return remotePlayers.values();
+    }
+
+    public void onPlayerSpawn(S2CPlayerSpawnPacket packet) {
+        remotePlayers.put(packet.entityId(), new RemotePlayerEntity(this, packet));
+    }
+
+    public void onEntityDespawn(S2CEntityDespawnPacket packet) {
+        for (int entityId : packet.entityIds()) {
+            remotePlayers.remove(entityId);
+        }
+    }
+
+    public void onEntityMoves(S2CEntityMovesPacket packet) {
+        int[] entityIds = packet.entityIds();
+        short[] deltas = packet.deltas();
+        byte[] rotations = packet.rotations();
+        for (int i = 0; i < entityIds.length; i++) {
+            RemotePlayerEntity remotePlayer = remotePlayers.get(entityIds[i]);
+            if (remotePlayer == null) continue;
+
+            int offset = i * 3;
+            remotePlayer.moveBy(deltas[offset], deltas[offset + 1], deltas[offset + 2], rotations[offset], rotations[offset + 1], rotations[offset + 2]);
+        }
+    }
+
+    public void onEntityTeleport(S2CEntityTeleportPacket packet) {
+        RemotePlayerEntity remotePlayer = remotePlayers.get(packet.entityId());
+        if (remotePlayer != null) remotePlayer.moveTo(packet.x(), packet.y(), packet.z());
     }
 
     public float getGlobalSunLight(float partialTick) {
@@ -233,9 +366,17 @@ public class ClientWorld extends World implements AutoCloseable {
     }
 
     public void unloadAllChunks() {
-        for (ClientChunk chunk : chunks.values()) {
+        Long2ObjectOpenHashMap<ClientChunk> unloaded;
+        synchronized (chunksLock) {
+            unloaded = chunks;
+            chunks = new Long2ObjectOpenHashMap<>();
+        }
+
+        for (ClientChunk chunk : unloaded.values()) {
             chunk.close();
         }
-        chunks.clear();
+        synchronized (chunkCache) {
+            chunkCache.clear();
+        }
     }
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.client.world;
+
+import dev.ultreon.qvoxel.network.packets.s2c.S2CEntityMovesPacket;
+import dev.ultreon.qvoxel.network.packets.s2c.S2CPlayerSpawnPacket;
+import dev.ultreon.qvoxel.player.PlayerAbilities;
+import dev.ultreon.qvoxel.player.PlayerEntity;
+
+/**
+ * Another player on the server, as seen by this client.
+ *
+ * <p>Remote players aren't simulated, they follow the positions sent by the server. The position is kept in the
+ * quantized form of {@link S2CEntityMovesPacket} so deltas add up exactly, and the client interpolates between the
+ * last two ticks when rendering.</p>
+ */
+public class RemotePlayerEntity extends PlayerEntity {
+    private long x, y, z;
+    private float targetYawBody, targetYawHead, targetPitchHead;
+
+    public RemotePlayerEntity(ClientWorld world, S2CPlayerSpawnPacket packet) {
+        super(world);
+        setId(packet.entityId());
+        setUuid(packet.uuid());
+        username = packet.username();
+        x = S2CEntityMovesPacket.quantize(packet.position().x);
+        y = S2CEntityMovesPacket.quantize(packet.position().y);
+        z = S2CEntityMovesPacket.quantize(packet.position().z);
+        targetYawBody = yawBody = packet.yawBody();
+        targetYawHead = yawHead = packet.yawHead();
+        targetPitchHead = pitchHead = packet.pitchHead();
+        teleport(S2CEntityMovesPacket.dequantize(x), S2CEntityMovesPacket.dequantize(y), S2CEntityMovesPacket.dequantize(z));
+    }
+
+    /**
+     * Applies a quantized move from the server.
+     */
+    public void moveBy(short dx, short dy, short dz, byte yawBody, byte yawHead, byte pitchHead) {
+        x += dx;
+        y += dy;
+        z += dz;
+        targetYawBody = S2CEntityMovesPacket.unpackAngle(yawBody);
+        targetYawHead = S2CEntityMovesPacket.unpackAngle(yawHead);
+        targetPitchHead = S2CEntityMovesPacket.unpackAngle(pitchHead);
+    }
+
+    /**
+     * Sets the quantized position, after a move that was too large for a delta.
+     */
+    public void moveTo(long x, long y, long z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    @Override
+    public void tick() {
+        oldPosition.set(position);
+        position.set(S2CEntityMovesPacket.dequantize(x), S2CEntityMovesPacket.dequantize(y), S2CEntityMovesPacket.dequantize(z));
+        yawBody = targetYawBody;
+        yawHead = targetYawHead;
+        pitchHead = targetPitchHead;
+    }
+
+    @Override
+    public void sendAbilitiesPacket(PlayerAbilities playerAbilities) {
+        // Abilities of other players are managed by the server.
+    }
+}
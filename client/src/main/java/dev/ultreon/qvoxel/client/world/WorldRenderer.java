@@ -142,6 +142,10 @@ public class WorldRenderer extends GameObject implements AutoCloseable {
 
                 playerRenderer.render(clientPlayerEntity, playerModel, source, partialTicks);
             }
+
+            for (RemotePlayerEntity remotePlayer : getWorld().getRemotePlayers()) {
+                playerRenderer.render(remotePlayer, playerModel, source, partialTicks);
+            }
         }
 
         particlesShaderProgram.use();
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+plugins {
+    id("java")
+}
+
+// Tools for measuring a server under load. Kept out of the server module so they don't ship with it.
+dependencies {
+    implementation(project(":server"))
+}
+
+tasks.register<JavaExec>("runNetworkBenchmark") {
+    group = "application"
+    description = "Measures the throughput and latency of the network stack over loopback."
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass = "dev.ultreon.qvoxel.loadtest.NetworkBenchmark"
+}
+
+tasks.register<JavaExec>("runLoadTest") {
+    group = "application"
+    description = "Connects headless bots to a server and reports how it holds up."
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass = "dev.ultreon.qvoxel.loadtest.LoadTest"
+}
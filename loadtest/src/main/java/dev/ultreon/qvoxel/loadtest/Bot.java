@@ -0,0 +1,289 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.loadtest;
+
+import dev.ultreon.qvoxel.CommonConstants;
+import dev.ultreon.qvoxel.network.packets.c2s.*;
+import dev.ultreon.qvoxel.network.packets.s2c.S2CChunkUnloadPacket;
+import dev.ultreon.qvoxel.network.packets.s2c.S2CLoginAcceptedPacket;
+import dev.ultreon.qvoxel.network.packets.s2c.S2CPingPacket;
+import dev.ultreon.qvoxel.network.packets.s2c.S2CTeleportPacket;
+import dev.ultreon.qvoxel.network.system.CloseCodes;
+import dev.ultreon.qvoxel.server.QuantumServer;
+import dev.ultreon.qvoxel.util.BlockVec;
+import dev.ultreon.qvoxel.util.ChunkVec;
+import dev.ultreon.qvoxel.world.World;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelInitializer;
+import it.unimi.dsi.fastutil.longs.Long2LongLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Random;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>A headless player that logs in to a server and plays like a player would, for load testing.</p>
+ *
+ * <p>A bot walks around in random directions, and every now and then breaks the block below it, uses its item and
+ * sends a chat message. It keeps track of which chunks the server should send it, to measure how long they take to
+ * arrive, but doesn't keep their contents.</p>
+ *
+ * <p>A bot is only accessed from the event loop of its connection. Its packets are handled there, and it ticks
+ * there.</p>
+ */
+public final class Bot {
+    private static final long TICK_MILLIS = 1000 / QuantumServer.TPS;
+    private static final double WALK_SPEED = 4.3 / QuantumServer.TPS;
+    private static final int TURN_INTERVAL = 100;
+    private static final int BREAK_INTERVAL = 60;
+    private static final int CHAT_INTERVAL = 400;
+    /**
+     * The amount of ticks between the server's pings.
+     */
+    private static final int SERVER_PING_INTERVAL = 20;
+
+    private final String name;
+    private final int renderDistance;
+    private final LoadStats stats;
+    private final Random random;
+    private final BotConnection connection;
+
+    private final Long2LongOpenHashMap wanted = new Long2LongOpenHashMap();
+    private final LongOpenHashSet loaded = new LongOpenHashSet();
+    private final Long2LongLinkedOpenHashMap cached = new Long2LongLinkedOpenHashMap();
+    private long center = Long.MIN_VALUE;
+
+    private double x, y, z;
+    private float yaw, pitch;
+    private int ticks;
+    private boolean useItemNext;
+    private long lastPing;
+    private volatile boolean disconnected;
+    private volatile @Nullable ScheduledFuture<?> ticker;
+
+    private Bot(String name, int renderDistance, long seed, LoadStats stats) {
+        this.name = name;
+        this.renderDistance = renderDistance;
+        this.stats = stats;
+        this.random = new Random(seed);
+        this.connection = new BotConnection(this);
+        this.wanted.defaultReturnValue(-1);
+        this.cached.defaultReturnValue(-1);
+
+        // Spread the actions of bots over different ticks.
+        this.ticks = random.nextInt(CHAT_INTERVAL);
+    }
+
+    /**
+     * Connects a bot to a server and starts logging in. The bot starts playing once the login is accepted.
+     *
+     * @param bootstrap      the bootstrap with the event loop group, channel factory and options to connect with.
+     * @param hostname       the hostname of the server.
+     * @param port           the port of the server.
+     * @param name           the name to log in with.
+     * @param renderDistance the render distance in blocks.
+     * @param seed           the seed for the actions of the bot, so runs can be reproduced.
+     * @param stats          the stats to record the measurements into.
+     * @return the connected bot.
+     */
+    public static Bot connect(Bootstrap bootstrap, String hostname, int port, String name, int renderDistance, long seed, LoadStats stats) {
+        Bot bot = new Bot(name, renderDistance, seed, stats);
+        Channel channel = bootstrap.clone()
+                .handler(new ChannelInitializer<>() {
+                    @Override
+                    protected void initChannel(Channel ch) {
+                        bot.connection.init(ch.pipeline(), BotRegistries.INSTANCE);
+                    }
+                })
+                .connect(hostname, port)
+                .syncUninterruptibly()
+                .channel();
+        channel.closeFuture().addListener(_ -> channel.eventLoop().execute(() -> bot.onDisconnected("Connection closed")));
+
+        bot.connection.send(new C2SLoginPacket(name, renderDistance));
+        return bot;
+    }
+
+    void onLoginAccepted(S2CLoginAcceptedPacket packet) {
+        x = packet.spawnPos().x;
+        y = packet.spawnPos().y;
+        z = packet.spawnPos().z;
+        yaw = packet.yaw();
+        pitch = packet.pitch();
+        updateChunks();
+
+        ticker = connection.getChannel().eventLoop().scheduleAtFixedRate(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void tick() {
+        ticks++;
+
+        if (ticks % TURN_INTERVAL == 0) yaw = random.nextFloat() * 360;
+        double radians = Math.toRadians(yaw);
+        x += Math.sin(radians) * WALK_SPEED;
+        z -= Math.cos(radians) * WALK_SPEED;
+
+        // Look straight down when interacting, so the server's ray cast hits the block the bot is standing on.
+        boolean interact = ticks % BREAK_INTERVAL == 0;
+        pitch = interact ? 90 : 0;
+        connection.send(new C2SMovePacket(yaw, pitch, x, y, z));
+
+        if (interact) {
+            if (useItemNext) connection.send(new C2SUseItemPacket());
+            else connection.send(new C2SBlockBreakPacket((int) Math.floor(x), (int) Math.floor(y) - 1, (int) Math.floor(z)));
+            useItemNext = !useItemNext;
+        }
+
+        if (ticks % CHAT_INTERVAL == 0) {
+            connection.send(new C2SChatMessagePacket("Hello from " + name + " at tick " + ticks));
+        }
+
+        updateChunks();
+    }
+
+    /**
+     * Updates the chunks the server should send, when the bot entered another chunk. Uses the same cube the server
+     * streams chunks in.
+     */
+    private void updateChunks() {
+        int cx = BlockVec.chunkOf((int) Math.floor(x));
+        int cy = BlockVec.chunkOf((int) Math.floor(y));
+        int cz = BlockVec.chunkOf((int) Math.floor(z));
+        long center = BlockVec.pack(cx, cy, cz);
+        if (center == this.center) return;
+        this.center = center;
+
+        int radius = Math.max(renderDistance / World.CHUNK_SIZE, 1);
+        for (LongIterator iterator = wanted.keySet().iterator(); iterator.hasNext(); ) {
+            long key = iterator.nextLong();
+            if (Math.abs(BlockVec.unpackX(key) - cx) > radius
+                    || Math.abs(BlockVec.unpackY(key) - cy) > radius
+                    || Math.abs(BlockVec.unpackZ(key) - cz) > radius) {
+                iterator.remove();
+            }
+        }
+
+        long now = System.nanoTime();
+        for (int x = cx - radius; x <= cx + radius; x++) {
+            for (int y = cy - radius; y <= cy + radius; y++) {
+                for (int z = cz - radius; z <= cz + radius; z++) {
+                    long key = BlockVec.pack(x, y, z);
+                    if (!loaded.contains(key)) wanted.putIfAbsent(key, now);
+                }
+            }
+        }
+    }
+
+    void onChunkData(ChunkVec vec) {
+        long key = BlockVec.pack(vec.x, vec.y, vec.z);
+        cached.remove(key);
+        onChunkLoaded(key);
+    }
+
+    void onChunkUnload(ChunkVec vec, long version) {
+        long key = BlockVec.pack(vec.x, vec.y, vec.z);
+        loaded.remove(key);
+
+        // Mirror the cache of the game client, so the server's view of it stays right.
+        cached.putAndMoveToLast(key, version);
+        if (cached.size() > S2CChunkUnloadPacket.CACHE_SIZE) cached.removeFirstLong();
+    }
+
+    void onChunkCached(ChunkVec vec, long version) {
+        long key = BlockVec.pack(vec.x, vec.y, vec.z);
+        if (cached.remove(key) != version) {
+            stats.recordCacheMiss();
+            connection.send(new C2SChunkCacheMissPacket(vec));
+            return;
+        }
+
+        stats.recordCacheHit();
+        onChunkLoaded(key);
+    }
+
+    private void onChunkLoaded(long key) {
+        loaded.add(key);
+        long since = wanted.remove(key);
+        stats.recordChunk(since < 0 ? -1 : System.nanoTime() - since);
+    }
+
+    void onTeleport(S2CTeleportPacket packet) {
+        x = packet.x();
+        y = packet.y();
+        z = packet.z();
+        yaw = packet.yaw();
+        pitch = packet.pitch();
+        updateChunks();
+    }
+
+    void onPing(S2CPingPacket packet) {
+        connection.send(new C2SPingPacket(packet.time()));
+
+        // The server pings every few ticks, the time between pings gives its tick rate.
+        if (lastPing != 0) stats.recordServerTicks(SERVER_PING_INTERVAL, packet.time() - lastPing);
+        lastPing = packet.time();
+    }
+
+    void onDeath() {
+        connection.send(new C2SRespawnPacket());
+    }
+
+    void onDisconnected(String message) {
+        if (disconnected) return;
+        disconnected = true;
+
+        if (ticker != null) ticker.cancel(false);
+        stats.recordDisconnect();
+        CommonConstants.LOGGER.info("Bot '{}' disconnected: {}", name, message);
+    }
+
+    /**
+     * Disconnects the bot from the server, without waiting for the connection to close.
+     */
+    public void disconnect() {
+        Channel channel = connection.getChannel();
+        channel.eventLoop().execute(() -> {
+            disconnected = true;
+            if (ticker != null) ticker.cancel(false);
+
+            ChannelFuture future = connection.send(new C2SDisconnectPacket(CloseCodes.NORMAL_CLOSURE.getCode(), "Load test finished"));
+            if (future != null) future.addListener(ChannelFutureListener.CLOSE);
+        });
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public BotConnection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Checks whether the bot is logged in and playing.
+     */
+    public boolean isPlaying() {
+        return ticker != null && !disconnected;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.loadtest;
+
+import dev.ultreon.qvoxel.Env;
+import dev.ultreon.qvoxel.network.Connection;
+import dev.ultreon.qvoxel.network.Packet;
+import dev.ultreon.qvoxel.network.PacketContext;
+import dev.ultreon.qvoxel.network.PacketIO;
+import dev.ultreon.qvoxel.network.handler.ClientPacketHandler;
+import dev.ultreon.qvoxel.network.handler.ServerPacketHandler;
+import dev.ultreon.qvoxel.network.packets.c2s.C2SDisconnectPacket;
+import dev.ultreon.qvoxel.network.system.PacketData;
+import dev.ultreon.qvoxel.network.system.PacketStages;
+import dev.ultreon.qvoxel.registry.RegistryHandle;
+import dev.ultreon.qvoxel.server.QuantumServer;
+import dev.ultreon.qvoxel.server.ServerPlayerEntity;
+import dev.ultreon.qvoxel.util.Result;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.*;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The connection of a {@link Bot} to a server. Works like the connection of the game client, but has no client to
+ * report to, and counts the bytes going over the socket.
+ */
+public class BotConnection extends Connection<ClientPacketHandler, ServerPacketHandler> {
+    private final Bot bot;
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private Channel channel;
+
+    BotConnection(Bot bot) {
+        super(Env.CLIENT, BotRegistries.INSTANCE);
+        this.bot = bot;
+    }
+
+    @Override
+    public void init(ChannelPipeline pipeline, RegistryHandle handle) {
+        channel = pipeline.channel();
+        super.init(pipeline, handle);
+
+        // First in the pipeline, so it sees the bytes as they are on the wire, after framing and compression.
+        pipeline.addFirst("Traffic Counter", new TrafficCounter());
+        moveTo(PacketStages.LOGIN.get(), new BotLoginHandler(bot));
+    }
+
+    /**
+     * Gets the amount of bytes received from the server, including framing.
+     */
+    public long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    /**
+     * Gets the amount of bytes sent to the server, including framing.
+     */
+    public long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    @Override
+    public boolean isSingleplayer() {
+        return false;
+    }
+
+    @Override
+    protected PacketData<ClientPacketHandler> getPackets() {
+        return stage.getClientPackets();
+    }
+
+    @Override
+    protected PacketData<ServerPacketHandler> getOtherSidePackets() {
+        return stage.getServerPackets();
+    }
+
+    @Override
+    protected PacketContext createPacketContext() {
+        return new PacketContext(null, this, Env.CLIENT);
+    }
+
+    @Override
+    public boolean isClientSide() {
+        return true;
+    }
+
+    @Override
+    public Packet<ClientPacketHandler> decode(int id, PacketIO buffer) {
+        return getPackets().decode(getOurHandler(), id, buffer);
+    }
+
+    @Override
+    protected boolean isRunning() {
+        return channel != null && channel.isOpen();
+    }
+
+    @Override
+    public ServerPlayerEntity getPlayer() {
+        return null;
+    }
+
+    @Override
+    public void setServer(QuantumServer server) {
+        // Bots never run in the same process as a server they're connected to.
+    }
+
+    @Override
+    public QuantumServer getServer() {
+        return null;
+    }
+
+    @Override
+    public Channel getChannel() {
+        return channel;
+    }
+
+    @Override
+    protected Packet<? extends ServerPacketHandler> createDisconnectPacket(int code, String message) {
+        return new C2SDisconnectPacket(code, message);
+    }
+
+    @Override
+    public Result<Void> on3rdPartyDisconnect(int statusCode, String message) {
+        bot.onDisconnected(message);
+        return super.on3rdPartyDisconnect(statusCode, message);
+    }
+
+    @Override
+    public void close() {
+        // Don't wait for the channel to close, this is also called from the event loop.
+        if (channel != null) channel.close();
+    }
+
+    private final class TrafficCounter extends ChannelDuplexHandler {
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            if (msg instanceof ByteBuf buf) bytesReceived.add(buf.readableBytes());
+            ctx.fireChannelRead(msg);
+        }
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+            if (msg instanceof ByteBuf buf) bytesSent.add(buf.readableBytes());
+            ctx.write(msg, promise);
+        }
+    }
+}
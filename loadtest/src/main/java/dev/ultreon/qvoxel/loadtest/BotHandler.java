@@ -0,0 +1,103 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.loadtest;
+
+import dev.ultreon.qvoxel.Env;
+import dev.ultreon.qvoxel.featureflags.FeatureSet;
+import dev.ultreon.qvoxel.network.Packet;
+import dev.ultreon.qvoxel.network.PacketContext;
+import dev.ultreon.qvoxel.network.PacketDestination;
+import dev.ultreon.qvoxel.network.handler.ClientPacketHandler;
+import dev.ultreon.qvoxel.network.handler.ServerPacketHandler;
+import dev.ultreon.qvoxel.network.packets.s2c.S2CAbilitiesPacket;
+import dev.ultreon.qvoxel.network.packets.s2c.S2CGameModePacket;
+import dev.ultreon.qvoxel.network.packets.s2c.S2CPingPacket;
+import dev.ultreon.qvoxel.network.system.IConnection;
+import dev.ultreon.qvoxel.registry.IdRegistry;
+import dev.ultreon.qvoxel.registry.Registry;
+import dev.ultreon.qvoxel.registry.RegistryKey;
+
+/**
+ * The packet handling shared by every stage of a bot's connection.
+ */
+abstract class BotHandler implements ClientPacketHandler {
+    protected final Bot bot;
+
+    BotHandler(Bot bot) {
+        this.bot = bot;
+    }
+
+    @Override
+    public PacketDestination destination() {
+        return PacketDestination.SERVER;
+    }
+
+    @Override
+    public void onDisconnect(String message) {
+        bot.onDisconnected(message);
+    }
+
+    @Override
+    public boolean isAcceptingPackets() {
+        return bot.getConnection().isConnected();
+    }
+
+    @Override
+    public PacketContext context() {
+        return new PacketContext(null, bot.getConnection(), Env.CLIENT);
+    }
+
+    @Override
+    public boolean isDisconnected() {
+        return !bot.getConnection().isConnected();
+    }
+
+    @Override
+    public Packet<?> reply(long sequenceId) {
+        return null;
+    }
+
+    @Override
+    public IConnection<ClientPacketHandler, ServerPacketHandler> connection() {
+        return bot.getConnection();
+    }
+
+    @Override
+    public void onAbilities(S2CAbilitiesPacket s2CAbilitiesPacket) {
+        // Bots don't fly, abilities don't change what they do.
+    }
+
+    @Override
+    public void onGameMode(S2CGameModePacket gameMode) {
+        // Bots act the same in every game mode.
+    }
+
+    @Override
+    public void onPing(S2CPingPacket packet) {
+        bot.onPing(packet);
+    }
+
+    @Override
+    public <T> IdRegistry<T> get(RegistryKey<? extends Registry<T>> key) {
+        return BotRegistries.INSTANCE.get(key);
+    }
+
+    @Override
+    public FeatureSet getFeatures() {
+        return BotRegistries.INSTANCE.getFeatures();
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.loadtest;
+
+import dev.ultreon.qvoxel.network.handler.LoginClientPacketHandler;
+import dev.ultreon.qvoxel.network.packets.s2c.S2CLoginAcceptedPacket;
+import dev.ultreon.qvoxel.network.packets.s2c.S2CRegistriesSyncPacket;
+import dev.ultreon.qvoxel.network.packets.s2c.S2CRegistrySyncPacket;
+import dev.ultreon.qvoxel.network.packets.s2c.S2CSetCompressionPacket;
+import dev.ultreon.qvoxel.network.system.PacketStages;
+
+final class BotLoginHandler extends BotHandler implements LoginClientPacketHandler {
+    BotLoginHandler(Bot bot) {
+        super(bot);
+    }
+
+    @Override
+    public void onRegistriesSync(S2CRegistriesSyncPacket packet) {
+        // Bots use the registries of this JVM, see BotRegistries.
+    }
+
+    @Override
+    public void onRegistrySync(S2CRegistrySyncPacket s2CRegistrySyncPacket) {
+        // Bots use the registries of this JVM, see BotRegistries.
+    }
+
+    @Override
+    public void onSetCompression(S2CSetCompressionPacket packet) {
+        bot.getConnection().setCompression(packet.threshold());
+    }
+
+    @Override
+    public void onLoginAccepted(S2CLoginAcceptedPacket packet) {
+        BotConnection connection = bot.getConnection();
+        connection.moveTo(PacketStages.IN_GAME.get(), new BotPacketHandler(bot));
+        connection.makeAsync();
+
+        bot.onLoginAccepted(packet);
+    }
+}
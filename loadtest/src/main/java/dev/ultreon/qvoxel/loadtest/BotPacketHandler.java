@@ -0,0 +1,134 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.loadtest;
+
+import dev.ultreon.qvoxel.network.handler.InGameClientPacketHandler;
+import dev.ultreon.qvoxel.network.packets.c2s.C2SKeepAlivePacket;
+import dev.ultreon.qvoxel.network.packets.s2c.*;
+import dev.ultreon.qvoxel.particle.ParticleData;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handles the in-game packets of a bot. Packets that only matter for rendering or the interface are ignored.
+ */
+final class BotPacketHandler extends BotHandler implements InGameClientPacketHandler {
+    BotPacketHandler(Bot bot) {
+        super(bot);
+    }
+
+    @Override
+    public void onKeepAlive() {
+        BotConnection connection = bot.getConnection();
+        connection.getChannel().eventLoop().schedule(() -> connection.send(new C2SKeepAlivePacket()), 1, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void onTeleport(S2CTeleportPacket packet) {
+        bot.onTeleport(packet);
+    }
+
+    @Override
+    public void onChunkData(S2CChunkDataPacket packet) {
+        bot.onChunkData(packet.chunkVec());
+    }
+
+    @Override
+    public void onBlockSet(S2CBlockSetPacket packet) {
+
+    }
+
+    @Override
+    public void onChunkBlocks(S2CChunkBlocksPacket packet) {
+
+    }
+
+    @Override
+    public void onChunkUnload(S2CChunkUnloadPacket packet) {
+        bot.onChunkUnload(packet.chunkVec(), packet.version());
+    }
+
+    @Override
+    public void onChunkCached(S2CChunkCachedPacket packet) {
+        bot.onChunkCached(packet.chunkVec(), packet.version());
+    }
+
+    @Override
+    public void onLightUpdate(S2CLightUpdatePacket packet) {
+
+    }
+
+    @Override
+    public void onChatMessage(S2CChatMessagePacket packet) {
+
+    }
+
+    @Override
+    public void onOpenMenu(S2COpenMenuPacket packet) {
+
+    }
+
+    @Override
+    public void onInventoryItemChanged(S2CInventoryContentChangedPacket packet) {
+
+    }
+
+    @Override
+    public void onMenuItemChanged(S2CMenuContentChangedPacket packet) {
+
+    }
+
+    @Override
+    public void onHealth(S2CHealthPacket packet) {
+
+    }
+
+    @Override
+    public void onSoundEvent(S2CSoundEventPacket packet) {
+
+    }
+
+    @Override
+    public <T extends ParticleData> void onParticleEvent(S2CParticleEventPacket<T> packet) {
+
+    }
+
+    @Override
+    public void onDeath(S2CDeathPacket packet) {
+        bot.onDeath();
+    }
+
+    @Override
+    public void onPlayerSpawn(S2CPlayerSpawnPacket packet) {
+
+    }
+
+    @Override
+    public void onEntityDespawn(S2CEntityDespawnPacket packet) {
+
+    }
+
+    @Override
+    public void onEntityMoves(S2CEntityMovesPacket packet) {
+
+    }
+
+    @Override
+    public void onEntityTeleport(S2CEntityTeleportPacket packet) {
+
+    }
+}
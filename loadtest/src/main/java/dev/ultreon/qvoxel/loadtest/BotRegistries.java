@@ -0,0 +1,46 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.loadtest;
+
+import dev.ultreon.qvoxel.featureflags.FeatureSet;
+import dev.ultreon.qvoxel.registry.IdRegistry;
+import dev.ultreon.qvoxel.registry.Registries;
+import dev.ultreon.qvoxel.registry.Registry;
+import dev.ultreon.qvoxel.registry.RegistryKey;
+import dev.ultreon.qvoxel.registry.RegistryHandle;
+
+/**
+ * The registries of the bots. Bots don't sync registries from the server, they use the ones registered in this JVM,
+ * which get the same raw ids as the server's when registered in the same order.
+ */
+final class BotRegistries implements RegistryHandle {
+    static final BotRegistries INSTANCE = new BotRegistries();
+
+    private BotRegistries() {
+    }
+
+    @Override
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public <T> IdRegistry<T> get(RegistryKey<? extends Registry<T>> key) {
+        return Registries.REGISTRY.get((RegistryKey) key);
+    }
+
+    @Override
+    public FeatureSet getFeatures() {
+        return FeatureSet.NONE;
+    }
+}
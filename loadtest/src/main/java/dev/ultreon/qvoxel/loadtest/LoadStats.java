@@ -0,0 +1,114 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.loadtest;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Collects the measurements of a group of bots.</p>
+ *
+ * <p>Bots record into this from their event loops, the load test {@linkplain #drain() drains} it once per report
+ * interval.</p>
+ */
+public final class LoadStats {
+    private final LongAdder serverTicks = new LongAdder();
+    private final LongAdder serverMillis = new LongAdder();
+    private final LongAdder chunks = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder disconnects = new LongAdder();
+    private LongArrayList chunkLatencies = new LongArrayList();
+
+    /**
+     * The measurements of one interval.
+     *
+     * @param tps          the server ticks per second, or {@code NaN} if no bot received two pings.
+     * @param chunks       the amount of chunks received, including ones restored from the cache.
+     * @param cacheHits    the amount of chunks restored from the cache.
+     * @param cacheMisses  the amount of chunks the server thought were cached, but weren't.
+     * @param disconnects  the amount of bots that got disconnected.
+     * @param latencies    the chunk delivery latencies in nanoseconds, sorted.
+     */
+    public record Interval(double tps, long chunks, long cacheHits, long cacheMisses, long disconnects, long[] latencies) {
+        /**
+         * Gets a percentile of the chunk delivery latency.
+         *
+         * @param quantile the quantile, between 0 and 1.
+         * @return the latency in nanoseconds, or {@code 0} if no chunks were delivered.
+         */
+        public long latency(double quantile) {
+            if (latencies.length == 0) return 0;
+            int index = (int) Math.ceil(quantile * latencies.length) - 1;
+            return latencies[Math.clamp(index, 0, latencies.length - 1)];
+        }
+    }
+
+    /**
+     * Records the time between two pings of the server, which are sent every fixed amount of ticks.
+     */
+    void recordServerTicks(int ticks, long millis) {
+        serverTicks.add(ticks);
+        serverMillis.add(millis);
+    }
+
+    /**
+     * Records a delivered chunk.
+     *
+     * @param latency the time since the bot came in range of the chunk in nanoseconds, or {@code -1} if unknown.
+     */
+    void recordChunk(long latency) {
+        chunks.increment();
+        if (latency < 0) return;
+
+        synchronized (this) {
+            chunkLatencies.add(latency);
+        }
+    }
+
+    void recordCacheHit() {
+        cacheHits.increment();
+    }
+
+    void recordCacheMiss() {
+        cacheMisses.increment();
+    }
+
+    void recordDisconnect() {
+        disconnects.increment();
+    }
+
+    /**
+     * Takes the measurements since the last call, and starts a new interval.
+     */
+    public Interval drain() {
+        LongArrayList latencies;
+        synchronized (this) {
+            latencies = chunkLatencies;
+            chunkLatencies = new LongArrayList();
+        }
+        long[] sorted = latencies.toLongArray();
+        Arrays.sort(sorted);
+
+        long ticks = serverTicks.sumThenReset();
+        long millis = serverMillis.sumThenReset();
+        double tps = millis > 0 ? ticks * 1000.0 / millis : Double.NaN;
+        return new Interval(tps, chunks.sumThenReset(), cacheHits.sumThenReset(), cacheMisses.sumThenReset(), disconnects.sumThenReset(), sorted);
+    }
+}
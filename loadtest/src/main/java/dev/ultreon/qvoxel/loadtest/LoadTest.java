@@ -0,0 +1,218 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.loadtest;
+
+import dev.ultreon.qvoxel.CommonConstants;
+import dev.ultreon.qvoxel.CommonInit;
+import dev.ultreon.qvoxel.network.system.NetworkTransport;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>Connects a number of {@linkplain Bot bots} to a server and reports how it holds up.</p>
+ *
+ * <p>Bots join one by one, then play for the configured duration. Every report interval, the server tick rate, the
+ * chunk delivery latency and the traffic per player are logged, followed by a summary of the whole run. Bots act on
+ * seeded randoms, so runs with the same options are comparable.</p>
+ *
+ * <p>Usage: {@code LoadTest [--host localhost] [--port 38800] [--bots 10] [--join-interval 250] [--seconds 60]
+ * [--report-interval 5] [--render-distance 64] [--seed 0] [--name Bot] [--transport auto] [--threads 0]}. Intervals
+ * are in milliseconds, the render distance is in blocks.</p>
+ */
+public final class LoadTest {
+    private final LoadStats stats = new LoadStats();
+    private final List<Bot> bots = new ArrayList<>();
+    private final LongArrayList latencies = new LongArrayList();
+    private final long start = System.nanoTime();
+    private double tpsSum;
+    private double tpsMin = Double.NaN;
+    private int tpsSamples;
+    private long disconnects;
+    private long lastReport = start;
+    private long lastBytesReceived;
+    private long lastBytesSent;
+
+    public static void main(String[] args) {
+        String host = "localhost";
+        int port = 38800;
+        int count = 10;
+        long joinInterval = 250;
+        int seconds = 60;
+        long reportInterval = 5000;
+        int renderDistance = 64;
+        long seed = 0;
+        String name = "Bot";
+        String transport = "auto";
+        int threads = 0;
+
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                CommonConstants.LOGGER.error("Missing value for {}", args[i]);
+                System.exit(1);
+            }
+
+            String value = args[i + 1];
+            try {
+                switch (args[i]) {
+                    case "--host" -> host = value;
+                    case "--port" -> port = Integer.parseInt(value);
+                    case "--bots" -> count = Integer.parseInt(value);
+                    case "--join-interval" -> joinInterval = Long.parseLong(value);
+                    case "--seconds" -> seconds = Integer.parseInt(value);
+                    case "--report-interval" -> reportInterval = Long.parseLong(value);
+                    case "--render-distance" -> renderDistance = Integer.parseInt(value);
+                    case "--seed" -> seed = Long.parseLong(value);
+                    case "--name" -> name = value;
+                    case "--transport" -> transport = value;
+                    case "--threads" -> threads = Integer.parseInt(value);
+                    default -> {
+                        CommonConstants.LOGGER.error("Unknown option: {}", args[i]);
+                        System.exit(1);
+                    }
+                }
+            } catch (NumberFormatException e) {
+                CommonConstants.LOGGER.error("Invalid number for {}: {}", args[i], value);
+                System.exit(1);
+            }
+        }
+
+        // Packets are decoded with the registries of this JVM.
+        CommonInit.init();
+
+        NetworkTransport selected = NetworkTransport.select(transport);
+        EventLoopGroup group = selected.newEventLoopGroup(threads);
+        try {
+            Bootstrap bootstrap = new Bootstrap()
+                    .group(group)
+                    .channelFactory(selected.channelFactory())
+                    .option(ChannelOption.TCP_NODELAY, true);
+
+            new LoadTest().run(bootstrap, host, port, count, joinInterval, seconds, reportInterval, renderDistance, seed, name);
+        } finally {
+            group.shutdownGracefully().syncUninterruptibly();
+        }
+    }
+
+    private void run(Bootstrap bootstrap, String host, int port, int count, long joinInterval, int seconds, long reportInterval, int renderDistance, long seed, String name) {
+        CommonConstants.LOGGER.info("Connecting {} bots to {}:{}...", count, host, port);
+        long reportNanos = reportInterval * 1_000_000L;
+
+        for (int i = 0; i < count; i++) {
+            String botName = name + i;
+            try {
+                bots.add(Bot.connect(bootstrap, host, port, botName, renderDistance, seed + i, stats));
+            } catch (Exception e) {
+                CommonConstants.LOGGER.error("Bot '{}' failed to connect", botName, e);
+            }
+
+            sleep(joinInterval);
+            if (System.nanoTime() - lastReport >= reportNanos) report();
+        }
+
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        while (System.nanoTime() < end) {
+            sleep(Math.min(reportInterval, (end - System.nanoTime()) / 1_000_000L));
+            if (System.nanoTime() - lastReport >= reportNanos || System.nanoTime() >= end) report();
+        }
+
+        summarize();
+        for (Bot bot : bots) bot.disconnect();
+    }
+
+    private void report() {
+        long now = System.nanoTime();
+        double elapsed = (now - lastReport) / 1e9;
+        lastReport = now;
+
+        LoadStats.Interval interval = stats.drain();
+        latencies.addElements(latencies.size(), interval.latencies());
+        disconnects += interval.disconnects();
+        if (!Double.isNaN(interval.tps())) {
+            tpsSum += interval.tps();
+            tpsSamples++;
+            tpsMin = Double.isNaN(tpsMin) ? interval.tps() : Math.min(tpsMin, interval.tps());
+        }
+
+        int playing = 0;
+        long received = 0;
+        long sent = 0;
+        for (Bot bot : bots) {
+            if (bot.isPlaying()) playing++;
+            received += bot.getConnection().getBytesReceived();
+            sent += bot.getConnection().getBytesSent();
+        }
+
+        int players = Math.max(playing, 1);
+        CommonConstants.LOGGER.info("[{}s] {} bots playing | TPS {} | {} chunks/s, latency p50 {} ms, p95 {} ms, p99 {} ms | cache {} hits, {} misses | per player {} KiB/s in, {} KiB/s out",
+                (now - start) / 1_000_000_000L,
+                playing,
+                format(interval.tps()),
+                format(interval.chunks() / elapsed),
+                millis(interval.latency(0.5)),
+                millis(interval.latency(0.95)),
+                millis(interval.latency(0.99)),
+                interval.cacheHits(),
+                interval.cacheMisses(),
+                format((received - lastBytesReceived) / elapsed / players / 1024),
+                format((sent - lastBytesSent) / elapsed / players / 1024));
+
+        lastBytesReceived = received;
+        lastBytesSent = sent;
+    }
+
+    private void summarize() {
+        long[] sorted = latencies.toLongArray();
+        Arrays.sort(sorted);
+        LoadStats.Interval all = new LoadStats.Interval(Double.NaN, sorted.length, 0, 0, disconnects, sorted);
+
+        int players = Math.max(bots.size(), 1);
+        CommonConstants.LOGGER.info("Summary: {} bots, {} disconnects | TPS avg {}, min {} | chunk latency p50 {} ms, p95 {} ms, p99 {} ms, max {} ms | per player {} MiB in, {} MiB out",
+                bots.size(),
+                disconnects,
+                format(tpsSamples == 0 ? Double.NaN : tpsSum / tpsSamples),
+                format(tpsMin),
+                millis(all.latency(0.5)),
+                millis(all.latency(0.95)),
+                millis(all.latency(0.99)),
+                millis(all.latency(1)),
+                format(lastBytesReceived / (double) players / (1024 * 1024)),
+                format(lastBytesSent / (double) players / (1024 * 1024)));
+    }
+
+    private static String format(double value) {
+        return Double.isNaN(value) ? "-" : String.format("%.1f", value);
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.1f", nanos / 1e6);
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
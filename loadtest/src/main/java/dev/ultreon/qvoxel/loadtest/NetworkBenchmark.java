@@ -0,0 +1,248 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.loadtest;
+
+import dev.ultreon.qvoxel.CommonConstants;
+import dev.ultreon.qvoxel.network.system.NettyCompressionDecoder;
+import dev.ultreon.qvoxel.server.dedicated.DedicatedServerConfig;
+import dev.ultreon.qvoxel.server.dedicated.ServerNetworker;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.*;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.LengthFieldPrepender;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>Measures the throughput and latency of the network stack over loopback.</p>
+ *
+ * <p>Starts an echo server with the same transport, socket options and framing as the dedicated server, then opens
+ * a number of connections that each keep a window of timestamped frames in flight. Every echoed frame is counted
+ * and its round trip time recorded. Nothing is recorded during the warmup, so the JIT and the socket buffers have
+ * settled when the measurement starts.</p>
+ *
+ * <p>Usage: {@code NetworkBenchmark [--transport auto|nio|epoll|io_uring] [--connections 64] [--window 16]
+ * [--size 256] [--seconds 10] [--warmup 2] [--port 38801]}. The other options are read from the {@code network}
+ * section of the server config, so the results match the deployed settings.</p>
+ */
+public final class NetworkBenchmark {
+    private final DedicatedServerConfig.Network config;
+    private final int connections;
+    private final int window;
+    private final int size;
+    private volatile boolean running = true;
+    private volatile boolean recording;
+
+    private NetworkBenchmark(DedicatedServerConfig.Network config, int connections, int window, int size) {
+        this.config = config;
+        this.connections = connections;
+        this.window = window;
+        this.size = size;
+    }
+
+    public static void main(String[] args) {
+        DedicatedServerConfig.Network config = DedicatedServerConfig.load().network;
+        int connections = 64;
+        int window = 16;
+        int size = 256;
+        int seconds = 10;
+        int warmup = 2;
+        int port = 38801;
+
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                CommonConstants.LOGGER.error("Missing value for {}", args[i]);
+                System.exit(1);
+            }
+
+            String value = args[i + 1];
+            try {
+                switch (args[i]) {
+                    case "--transport" -> config.transport = value;
+                    case "--connections" -> connections = Integer.parseInt(value);
+                    case "--window" -> window = Integer.parseInt(value);
+                    case "--size" -> size = Integer.parseInt(value);
+                    case "--seconds" -> seconds = Integer.parseInt(value);
+                    case "--warmup" -> warmup = Integer.parseInt(value);
+                    case "--port" -> port = Integer.parseInt(value);
+                    default -> {
+                        CommonConstants.LOGGER.error("Unknown option: {}", args[i]);
+                        System.exit(1);
+                    }
+                }
+            } catch (NumberFormatException e) {
+                CommonConstants.LOGGER.error("Invalid number for {}: {}", args[i], value);
+                System.exit(1);
+            }
+        }
+
+        if (size < Long.BYTES || size > NettyCompressionDecoder.MAX_PACKET_SIZE) {
+            CommonConstants.LOGGER.error("Frame size must be between {} and {} bytes", Long.BYTES, NettyCompressionDecoder.MAX_PACKET_SIZE);
+            System.exit(1);
+        }
+
+        new NetworkBenchmark(config, connections, window, size).run(port, warmup, seconds);
+    }
+
+    private void run(int port, int warmup, int seconds) {
+        List<Probe> probes = new ArrayList<>();
+        try (ServerNetworker server = new ServerNetworker(config, new ChannelInitializer<>() {
+            @Override
+            protected void initChannel(Channel channel) {
+                initFraming(channel.pipeline());
+                channel.pipeline().addLast(new Echo());
+            }
+        })) {
+            server.bind("127.0.0.1", port);
+
+            EventLoopGroup group = server.getTransport().newEventLoopGroup(config.ioThreads);
+            try {
+                Bootstrap bootstrap = new Bootstrap()
+                        .group(group)
+                        .channelFactory(server.getTransport().channelFactory());
+                configure(bootstrap, config);
+
+                List<Channel> channels = new ArrayList<>();
+                for (int i = 0; i < connections; i++) {
+                    Probe probe = new Probe();
+                    probes.add(probe);
+                    channels.add(bootstrap.handler(new ChannelInitializer<>() {
+                        @Override
+                        protected void initChannel(Channel channel) {
+                            initFraming(channel.pipeline());
+                            channel.pipeline().addLast(probe);
+                        }
+                    }).connect("127.0.0.1", port).syncUninterruptibly().channel());
+                }
+
+                CommonConstants.LOGGER.info("Warming up {} connections for {} seconds...", connections, warmup);
+                sleep(warmup);
+                recording = true;
+                CommonConstants.LOGGER.info("Measuring for {} seconds...", seconds);
+                sleep(seconds);
+                recording = false;
+                running = false;
+
+                for (Channel channel : channels) channel.close().syncUninterruptibly();
+            } finally {
+                // Waiting for the event loops to terminate also makes the recorded latencies visible to this thread.
+                group.shutdownGracefully().syncUninterruptibly();
+            }
+
+            report(server, probes, seconds);
+        }
+    }
+
+    /**
+     * Applies the socket options of the config to the outgoing connections, like the server does for its side.
+     */
+    private static void configure(Bootstrap bootstrap, DedicatedServerConfig.Network config) {
+        bootstrap.option(ChannelOption.TCP_NODELAY, config.tcpNoDelay);
+        bootstrap.option(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(config.writeBufferLowWaterMark, config.writeBufferHighWaterMark));
+        if (config.sendBufferSize > 0) bootstrap.option(ChannelOption.SO_SNDBUF, config.sendBufferSize);
+        if (config.receiveBufferSize > 0) bootstrap.option(ChannelOption.SO_RCVBUF, config.receiveBufferSize);
+    }
+
+    private void report(ServerNetworker server, List<Probe> probes, int seconds) {
+        LongArrayList all = new LongArrayList();
+        for (Probe probe : probes) all.addAll(probe.latencies);
+        long[] latencies = all.toLongArray();
+        Arrays.sort(latencies);
+
+        long count = latencies.length;
+        CommonConstants.LOGGER.info("Transport: {}, connections: {}, window: {}, frame size: {} bytes", server.getTransport(), connections, window, size);
+        CommonConstants.LOGGER.info("Throughput: {} packets/s, {} MiB/s each way", count / seconds, String.format("%.1f", count * size / (double) seconds / (1024 * 1024)));
+        if (count == 0) return;
+
+        CommonConstants.LOGGER.info("Latency (us): p50 {}, p90 {}, p99 {}, p99.9 {}, max {}",
+                micros(percentile(latencies, 0.5)),
+                micros(percentile(latencies, 0.9)),
+                micros(percentile(latencies, 0.99)),
+                micros(percentile(latencies, 0.999)),
+                micros(latencies[latencies.length - 1]));
+    }
+
+    private static void initFraming(ChannelPipeline pipeline) {
+        pipeline.addLast(new LengthFieldBasedFrameDecoder(NettyCompressionDecoder.MAX_PACKET_SIZE, 0, 4, 0, 4));
+        pipeline.addLast(new LengthFieldPrepender(4));
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.clamp(index, 0, sorted.length - 1)];
+    }
+
+    private static String micros(long nanos) {
+        return String.format("%.1f", nanos / 1000.0);
+    }
+
+    private static void sleep(int seconds) {
+        try {
+            Thread.sleep(seconds * 1000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Echo extends ChannelInboundHandlerAdapter {
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            ctx.write(msg);
+        }
+
+        @Override
+        public void channelReadComplete(ChannelHandlerContext ctx) {
+            ctx.flush();
+        }
+    }
+
+    /**
+     * Keeps a window of frames in flight on one connection. Only accessed from the event loop of the connection.
+     */
+    private final class Probe extends ChannelInboundHandlerAdapter {
+        private final LongArrayList latencies = new LongArrayList();
+
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) {
+            for (int i = 0; i < window; i++) send(ctx);
+            ctx.flush();
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            ByteBuf frame = (ByteBuf) msg;
+            long sent = frame.readLong();
+            frame.release();
+
+            if (recording) latencies.add(System.nanoTime() - sent);
+            if (running) send(ctx);
+        }
+
+        @Override
+        public void channelReadComplete(ChannelHandlerContext ctx) {
+            ctx.flush();
+        }
+
+        private void send(ChannelHandlerContext ctx) {
+            ByteBuf frame = ctx.alloc().buffer(size);
+            frame.writeLong(System.nanoTime());
+            frame.writeZero(size - Long.BYTES);
+            ctx.write(frame);
+        }
+    }
+}
@@ -20,32 +20,111 @@ import dev.ultreon.libs.commons.v0.Identifier;
 import dev.ultreon.libs.commons.v0.Profiler;
 import dev.ultreon.qvoxel.resource.GameNode;
 import dev.ultreon.qvoxel.util.ExecutorClosedException;
-import org.apache.commons.collections4.queue.SynchronizedQueue;
+import dev.ultreon.qvoxel.util.MpscQueue;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.Queue;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 /**
  * PollingExecutorService is an implementation of the ExecutorService that uses polling for task execution.
- * Tasks are kept in a synchronized queue and processed by a dedicated thread.
+ * Tasks are kept in a lock-free {@linkplain MpscQueue multi-producer, single-consumer queue} and processed by a
+ * dedicated thread.
+ *
+ * <p>The queue can be bounded, the {@link OverflowPolicy} decides what happens with tasks that don't fit. How long
+ * tasks wait in the queue is recorded per {@linkplain #getQueueLatencies() task type}.</p>
  */
 @SuppressWarnings("NewApi")
 public class PollingExecutorService extends GameNode implements Executor {
-    protected final Queue<Runnable> tasks = SynchronizedQueue.synchronizedQueue(new ArrayDeque<>(2000));
-    private final List<CompletableFuture<?>> futures = new CopyOnWriteArrayList<>();
+    private static final long BLOCK_PARK_NANOS = 50_000;
+
+    private final MpscQueue<QueuedTask> tasks;
+    private final OverflowPolicy overflowPolicy;
+    private final ReentrantLock consumerLock = new ReentrantLock();
+    private final LongAdder discarded = new LongAdder();
+    private final ConcurrentHashMap<Object, TaskLatency> latencies = new ConcurrentHashMap<>();
     protected Thread thread;
-    private boolean isShutdown = false;
+    private volatile boolean isShutdown = false;
+    private int batchLimit = Integer.MAX_VALUE;
     @Nullable
     private Runnable active;
     public final Profiler profiler;
 
+    /**
+     * Decides what happens with a task that is submitted while the queue is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Throws a {@link RejectedExecutionException} to the submitting thread.
+         */
+        REJECT,
+        /**
+         * Drops the task. Futures of dropped tasks are cancelled.
+         */
+        DISCARD,
+        /**
+         * Parks the submitting thread until there is room in the queue.
+         * Only use this when the executor thread never waits on the threads that submit tasks, or both can deadlock.
+         */
+        BLOCK
+    }
+
+    /**
+     * A queued task, with the future of the submitted task if there is one, so it can be completed on shutdown.
+     */
+    private record QueuedTask(Runnable task, Object type, long enqueued, @Nullable CompletableFuture<?> future) {
+    }
+
+    /**
+     * How long tasks of one type waited in the queue before they ran.
+     * Only the executor thread records latencies, the values may be slightly out of date when read from other threads.
+     */
+    public static final class TaskLatency {
+        private final String name;
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        private TaskLatency(String name) {
+            this.name = name;
+        }
+
+        private void record(long nanos) {
+            count++;
+            totalNanos += nanos;
+            if (nanos > maxNanos) maxNanos = nanos;
+        }
+
+        /**
+         * Gets the task type, the id of a {@link Task} or the name of the class that submitted a lambda.
+         */
+        public String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getAverageMillis() {
+            long count = this.count;
+            return count == 0 ? 0 : totalNanos / 1e6 / count;
+        }
+
+        public double getMaxMillis() {
+            return maxNanos / 1e6;
+        }
+    }
+
     /**
      * Internal constructor for creating an instance of PollingExecutorService using the current thread
      * and a Profiler instance for monitoring the execution.
@@ -66,31 +145,42 @@ public class PollingExecutorService extends GameNode implements Executor {
      */
     @ApiStatus.Internal
     public PollingExecutorService(@NotNull Thread thread, Profiler profiler) {
+        this(thread, profiler, Integer.MAX_VALUE, OverflowPolicy.REJECT);
+    }
+
+    /**
+     * Internal constructor for creating an instance of PollingExecutorService with a bounded task queue.
+     *
+     * @param thread         The thread to be associated with the PollingExecutorService instance.
+     * @param profiler       The Profiler instance for monitoring the execution.
+     * @param capacity       The maximum amount of queued tasks.
+     * @param overflowPolicy What to do with tasks that are submitted while the queue is full.
+     */
+    @ApiStatus.Internal
+    public PollingExecutorService(@NotNull Thread thread, Profiler profiler, int capacity, OverflowPolicy overflowPolicy) {
         this.thread = thread;
         this.profiler = profiler;
+        this.tasks = new MpscQueue<>(capacity);
+        this.overflowPolicy = overflowPolicy;
     }
 
     public void shutdown(Runnable finalizer) {
         isShutdown = true;
-        for (CompletableFuture<?> future : futures) {
-            future.completeExceptionally(new ExecutorClosedException("Executor has been shut down"));
+        for (QueuedTask queued : drain()) {
+            if (queued.future() != null)
+                queued.future().completeExceptionally(new ExecutorClosedException("Executor has been shut down"));
         }
 
-        tasks.clear();
-        futures.clear();
-
         finalizer.run();
     }
 
     public @NotNull List<Runnable> shutdownNow() {
         isShutdown = true;
-        List<Runnable> remainingTasks = List.copyOf(tasks);
-        tasks.clear();
-
-        for (CompletableFuture<?> future : futures) {
-            future.cancel(true);
+        List<Runnable> remainingTasks = new ArrayList<>();
+        for (QueuedTask queued : drain()) {
+            remainingTasks.add(queued.task());
+            if (queued.future() != null) queued.future().cancel(true);
         }
-        futures.clear();
         return remainingTasks;
     }
 
@@ -102,6 +192,18 @@ public class PollingExecutorService extends GameNode implements Executor {
         return isShutdown && tasks.isEmpty();
     }
 
+    private List<QueuedTask> drain() {
+        List<QueuedTask> remaining = new ArrayList<>();
+        consumerLock.lock();
+        try {
+            QueuedTask queued;
+            while ((queued = tasks.poll()) != null) remaining.add(queued);
+        } finally {
+            consumerLock.unlock();
+        }
+        return remaining;
+    }
+
     @SuppressWarnings("BusyWait")
     public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
         var endTime = System.currentTimeMillis() + unit.toMillis(timeout);
@@ -126,7 +228,7 @@ public class PollingExecutorService extends GameNode implements Executor {
             }
             return future;
         }
-        execute(() -> profiler.section(task.getClass().getName(), () -> {
+        if (!enqueue(() -> profiler.section(task.getClass().getName(), () -> {
             try {
                 var result = task.call();
                 future.complete(result);
@@ -135,7 +237,7 @@ public class PollingExecutorService extends GameNode implements Executor {
                 throwable.addSuppressed(exception);
                 CommonConstants.LOGGER.warn("Submitted task failed:", throwable);
             }
-        }));
+        }), task, future)) future.cancel(false);
         return future;
     }
 
@@ -154,14 +256,14 @@ public class PollingExecutorService extends GameNode implements Executor {
             }
             return future;
         }
-        execute(() -> profiler.section(task.getClass().getName(), () -> {
+        if (!enqueue(() -> profiler.section(task.getClass().getName(), () -> {
             try {
                 task.run();
                 future.complete(result);
             } catch (Throwable throwable) {
                 future.completeExceptionally(throwable);
             }
-        }));
+        }), task, future)) future.cancel(false);
         return future;
     }
 
@@ -180,7 +282,7 @@ public class PollingExecutorService extends GameNode implements Executor {
             }
             return future;
         }
-        execute(() -> {
+        if (!enqueue(() -> {
             try {
                 task.run();
                 future.complete(null);
@@ -192,10 +294,7 @@ public class PollingExecutorService extends GameNode implements Executor {
                 CommonConstants.LOGGER.error("Failed to run task:", throwable);
                 future.completeExceptionally(throwable);
             }
-            futures.remove(future);
-        });
-
-        futures.add(future);
+        }, task, future)) future.cancel(false);
         return future;
     }
 
@@ -211,15 +310,70 @@ public class PollingExecutorService extends GameNode implements Executor {
 
     @Override
     public void execute(@NotNull Runnable command) {
-        if (isShutdown)
-            throw new ExecutorClosedException("Executor is already shut down");
-
         if (isSameThread()) {
+            if (isShutdown)
+                throw new ExecutorClosedException("Executor is already shut down");
             command.run();
             return;
         }
 
-        tasks.add(command);
+        enqueue(command, command, null);
+    }
+
+    /**
+     * Adds a task to the queue, applying the overflow policy if it's full.
+     *
+     * @param command the task to run.
+     * @param source  the task that was submitted, used to determine the task type for the latency statistics.
+     * @param future  the future of the submitted task, completed if the executor shuts down before it runs.
+     * @return {@code false} if the task was discarded.
+     */
+    private boolean enqueue(Runnable command, Object source, @Nullable CompletableFuture<?> future) {
+        if (isShutdown)
+            throw new ExecutorClosedException("Executor is already shut down");
+
+        QueuedTask queued = new QueuedTask(command, typeOf(source), System.nanoTime(), future);
+        while (!tasks.offer(queued)) {
+            switch (overflowPolicy) {
+                case REJECT -> throw new RejectedExecutionException("Task queue is full (" + tasks.capacity() + " tasks)");
+                case DISCARD -> {
+                    discarded.increment();
+                    return false;
+                }
+                case BLOCK -> {
+                    if (isShutdown)
+                        throw new ExecutorClosedException("Executor is already shut down");
+                    LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+                }
+            }
+        }
+        return true;
+    }
+
+    private static Object typeOf(Object task) {
+        // Lambdas are grouped by the class that created them.
+        return task instanceof Task<?> t ? t.id() : task.getClass();
+    }
+
+    private void run(QueuedTask queued) {
+        latencies.computeIfAbsent(queued.type(), PollingExecutorService::createLatency)
+                .record(System.nanoTime() - queued.enqueued());
+
+        active = queued.task();
+        try {
+            active.run();
+        } catch (Throwable t) {
+            CommonConstants.LOGGER.error("Failed to run task:", t);
+        }
+    }
+
+    private static TaskLatency createLatency(Object type) {
+        if (type instanceof Class<?> clazz) {
+            String name = clazz.getName();
+            int lambda = name.indexOf("$$Lambda");
+            return new TaskLatency(lambda == -1 ? name : name.substring(0, lambda));
+        }
+        return new TaskLatency(type.toString());
     }
 
     private boolean isSameThread() {
@@ -236,44 +390,74 @@ public class PollingExecutorService extends GameNode implements Executor {
      */
     @ApiStatus.Internal
     public void poll() {
-        profiler.section("pollTask", () -> {
-            if ((active = tasks.poll()) != null) {
-                try {
-                    active.run();
-                } catch (Throwable t) {
-                    CommonConstants.LOGGER.error("Failed to run task:", t);
-                }
-            }
-        });
+        if (!consumerLock.tryLock()) return;
+        try {
+            profiler.section("pollTask", () -> {
+                QueuedTask queued = tasks.poll();
+                if (queued != null) run(queued);
+            });
+        } finally {
+            consumerLock.unlock();
+        }
     }
 
     /**
-     * Polls and executes all tasks in the task queue.
+     * Polls and executes the tasks in the task queue.
      * <p>
-     * This method continues to poll tasks from the queue and execute them
-     * until there are no more tasks left in the queue. For each task polled
-     * from the queue, it creates a profiling section named "pollTask" to monitor its execution.
+     * This method runs the tasks that were queued when it was called, up to the
+     * {@linkplain #setBatchLimit(int) batch limit}. Tasks queued while draining, or beyond the limit, are left
+     * for the next call. For each task polled from the queue, it creates a profiling section named "pollTask"
+     * to monitor its execution.
      * <p>
      * If an exception occurs during the execution of a task, it is caught and logged
      * using the LOGGER instance.
      */
     public void pollAll() {
-        while ((active = tasks.poll()) != null) {
-            profiler.startSection("pollTask");
-            try {
-                var task = active;
-
+        if (!consumerLock.tryLock()) return;
+        try {
+            int limit = Math.min(batchLimit, tasks.size());
+            QueuedTask queued;
+            for (int i = 0; i < limit && (queued = tasks.poll()) != null; i++) {
+                profiler.startSection("pollTask");
                 try {
-                    task.run();
-                } catch (Throwable t) {
-                    CommonConstants.LOGGER.error("Failed to run task:", t);
+                    run(queued);
+                } finally {
+                    profiler.endSection("pollTask");
                 }
-            } finally {
-                profiler.endSection("pollTask");
             }
+        } finally {
+            consumerLock.unlock();
         }
     }
 
+    /**
+     * Sets the maximum amount of tasks {@link #pollAll()} runs per call.
+     *
+     * @param batchLimit the maximum amount of tasks, or {@link Integer#MAX_VALUE} for no limit.
+     */
+    public void setBatchLimit(int batchLimit) {
+        if (batchLimit <= 0) throw new IllegalArgumentException("Batch limit must be positive: " + batchLimit);
+        this.batchLimit = batchLimit;
+    }
+
+    public int getBatchLimit() {
+        return batchLimit;
+    }
+
+    /**
+     * Gets the amount of tasks that were dropped because the queue was full.
+     */
+    public long getDiscardedTasks() {
+        return discarded.sum();
+    }
+
+    /**
+     * Gets how long tasks waited in the queue, per task type.
+     */
+    public Collection<TaskLatency> getQueueLatencies() {
+        return Collections.unmodifiableCollection(latencies.values());
+    }
+
     /**
      * Returns the current size of the task queue.
      * <p>
@@ -338,7 +338,7 @@ public final class BlockState implements BlockLike {
 
     public static BlockState load(MapType data) {
         Block block = Registries.BLOCK.get(Identifier.parse(data.getString("block")));
-        return block.loadBlockState(data);
+        return block.loadBlockState(data.getMap("Entries", new MapType()));
     }
 
     public List<BoundingBox> getBoundingBoxes(World world, BlockVec pos) {
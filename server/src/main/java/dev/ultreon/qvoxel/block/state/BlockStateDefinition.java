@@ -74,6 +74,10 @@ public final class BlockStateDefinition {
         return strides[keyIndex];
     }
 
+    public int getStateCount() {
+        return allStates.length;
+    }
+
     public BlockState empty() {
         return allStates[0];
     }
@@ -83,10 +87,11 @@ public final class BlockStateDefinition {
     }
 
     public BlockState load(MapType entriesData) {
-        BlockState blockState = new BlockState(this, 0);
+        BlockState blockState = allStates[0];
         for (StatePropertyKey<?> key : keys) {
             DataType<?> value = entriesData.get(key.getName());
-            key.load(blockState, value);
+            if (value == null) continue;
+            blockState = key.load(blockState, value);
         }
         return blockState;
     }
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.block.state;
+
+import dev.ultreon.qvoxel.block.Block;
+import dev.ultreon.qvoxel.registry.Registry;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * <p>Dense numbering of every block state in a block registry.</p>
+ *
+ * <p>Blocks are numbered in raw ID order, and the states of a block get consecutive IDs in the order of
+ * {@link BlockStateDefinition#getStateByIndex(int)}. The numbering is only valid for the registry contents it was
+ * built from, so anything that's persisted should go through a table that can remap it.</p>
+ */
+public final class BlockStateIds {
+    private final Reference2IntOpenHashMap<Block> bases = new Reference2IntOpenHashMap<>();
+    private final BlockState[] states;
+
+    private BlockStateIds(BlockState[] states) {
+        this.states = states;
+    }
+
+    /**
+     * Numbers all block states in the given registry.
+     *
+     * @param registry the block registry, which should be frozen.
+     * @return the block state IDs.
+     */
+    public static BlockStateIds of(Registry<Block> registry) {
+        List<Block> blocks = new ArrayList<>(registry.values());
+        blocks.sort(Comparator.comparingInt(registry::getRawId));
+
+        int total = 0;
+        for (Block block : blocks) {
+            total += block.getDefinition().getStateCount();
+        }
+
+        BlockStateIds ids = new BlockStateIds(new BlockState[total]);
+        ids.bases.defaultReturnValue(-1);
+        int base = 0;
+        for (Block block : blocks) {
+            BlockStateDefinition definition = block.getDefinition();
+            ids.bases.put(block, base);
+            for (int i = 0; i < definition.getStateCount(); i++) {
+                ids.states[base + i] = definition.getStateByIndex(i);
+            }
+            base += definition.getStateCount();
+        }
+        return ids;
+    }
+
+    /**
+     * Gets the ID of a block state.
+     *
+     * @param state the block state.
+     * @return the ID, or {@code -1} if the block isn't part of the registry this was built from.
+     */
+    public int getId(BlockState state) {
+        int base = bases.getInt(state.getBlock());
+        return base < 0 ? -1 : base + state.getIndex();
+    }
+
+    public BlockState byId(int id) {
+        return states[id];
+    }
+
+    public int size() {
+        return states.length;
+    }
+}
@@ -34,8 +34,8 @@ public class BoolPropertyKey extends StatePropertyKey<Boolean> {
     }
 
     @Override
-    public void load(BlockState blockState, DataType<?> value) {
-        blockState.with(this, (Boolean) value.getValue());
+    public BlockState load(BlockState blockState, DataType<?> value) {
+        return blockState.with(this, (Boolean) value.getValue());
     }
 
     @Override
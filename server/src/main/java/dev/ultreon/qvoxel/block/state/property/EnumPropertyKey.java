@@ -41,8 +41,8 @@ public class EnumPropertyKey<T extends Enum<T> & StringSerializable> extends Sta
     }
 
     @Override
-    public void load(BlockState blockState, DataType<?> value) {
-        blockState.with(this, EnumUtils.byName((String) value.getValue(), getValues().get(0)));
+    public BlockState load(BlockState blockState, DataType<?> value) {
+        return blockState.with(this, EnumUtils.byName((String) value.getValue(), getValues().get(0)));
     }
 
     @Override
@@ -63,8 +63,8 @@ public class IntPropertyKey extends StatePropertyKey<Integer> {
     }
 
     @Override
-    public void load(BlockState blockState, DataType<?> value) {
-        blockState.with(this, (Integer) value.getValue());
+    public BlockState load(BlockState blockState, DataType<?> value) {
+        return blockState.with(this, (Integer) value.getValue());
     }
 
     @Override
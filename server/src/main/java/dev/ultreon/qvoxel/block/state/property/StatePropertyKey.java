@@ -71,7 +71,7 @@ public abstract class StatePropertyKey<T> {
 
     public abstract int indexOf(T value);
 
-    public abstract void load(BlockState blockState, DataType<?> value);
+    public abstract BlockState load(BlockState blockState, DataType<?> value);
 
     public abstract DataType<?> save(BlockState blockState);
 
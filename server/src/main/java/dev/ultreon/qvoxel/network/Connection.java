@@ -21,21 +21,28 @@ import dev.ultreon.qvoxel.network.system.*;
 import dev.ultreon.qvoxel.registry.RegistryHandle;
 import dev.ultreon.qvoxel.server.ServerPlayerEntity;
 import dev.ultreon.qvoxel.util.Result;
-import io.netty.channel.Channel;
-import io.netty.channel.ChannelFuture;
-import io.netty.channel.ChannelPipeline;
+import io.netty.channel.*;
+import io.netty.channel.local.LocalChannel;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 import io.netty.handler.codec.LengthFieldPrepender;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 public abstract class Connection<OurHandler extends PacketHandler, TheirHandler extends PacketHandler> extends IConnection<OurHandler, TheirHandler> {
+    private static final int LOW_WATER_MARK = 512 * 1024;
+    private static final int HIGH_WATER_MARK = 2 * 1024 * 1024;
     private final Env env;
     private OurHandler ourHandler;
     private TheirHandler theirHandler;
     protected PacketStage stage;
-    protected long ping;
+    protected volatile long ping;
     private final RegistryHandle handle;
     private boolean async;
+    private volatile boolean compressed;
+    // Only accessed from the event loop.
+    private boolean flushScheduled;
+    private final AtomicInteger queuedPackets = new AtomicInteger();
 
     public Connection(Env env, RegistryHandle handle) {
         this.env = env;
@@ -43,10 +50,49 @@ public abstract class Connection<OurHandler extends PacketHandler, TheirHandler
     }
 
     public void init(ChannelPipeline pipeline, RegistryHandle handle) {
-        pipeline.addLast("Packet Encoder", new NettyPacketEncoder(handle, this));
+        // Only replace netty's defaults, the dedicated server configures its own water marks.
+        ChannelConfig config = pipeline.channel().config();
+        if (config.getWriteBufferWaterMark() == WriteBufferWaterMark.DEFAULT)
+            config.setWriteBufferWaterMark(new WriteBufferWaterMark(LOW_WATER_MARK, HIGH_WATER_MARK));
+        pipeline.addLast("Frame Decoder", new LengthFieldBasedFrameDecoder(NettyCompressionDecoder.MAX_PACKET_SIZE, 0, 4, 0, 4));
         pipeline.addLast("Frame Encoder", new LengthFieldPrepender(4));
         pipeline.addLast("Packet Decoder", new NettyPacketDecoder(handle, this));
-        pipeline.addLast("Frame Decoder", new LengthFieldBasedFrameDecoder(1024 * 1024 * 64, 0, 4));
+        pipeline.addLast("Packet Encoder", new NettyPacketEncoder(handle, this));
+    }
+
+    /**
+     * Enables compression for packets of at least the given size, or updates the threshold if it's already enabled.
+     * Both sides need to switch at the same point in the packet stream, the server does this right after sending
+     * the {@linkplain dev.ultreon.qvoxel.network.packets.s2c.S2CSetCompressionPacket set compression packet}.
+     *
+     * @param threshold the minimum size of a packet in bytes before it gets compressed.
+     */
+    @Override
+    public void setCompression(int threshold) {
+        Channel channel = getChannel();
+        if (channel == null) return;
+        if (!channel.eventLoop().inEventLoop()) {
+            channel.eventLoop().execute(() -> setCompression(threshold));
+            return;
+        }
+
+        ChannelPipeline pipeline = channel.pipeline();
+        if (pipeline.get(NettyCompressionDecoder.class) instanceof NettyCompressionDecoder decoder) {
+            decoder.setThreshold(threshold);
+        } else {
+            pipeline.addAfter("Frame Decoder", "Decompressor", new NettyCompressionDecoder(threshold));
+        }
+        if (pipeline.get(NettyCompressionEncoder.class) instanceof NettyCompressionEncoder encoder) {
+            encoder.setThreshold(threshold);
+        } else {
+            pipeline.addAfter("Frame Encoder", "Compressor", new NettyCompressionEncoder(threshold));
+        }
+        compressed = true;
+    }
+
+    @Override
+    public boolean isInMemory() {
+        return getChannel() instanceof LocalChannel;
     }
 
     @Override
@@ -58,25 +104,84 @@ public abstract class Connection<OurHandler extends PacketHandler, TheirHandler
         this.ourHandler = ourHandler;
     }
 
+    /**
+     * Queues a packet to be sent.
+     *
+     * <p>Once the connection is {@linkplain #makeAsync() asynchronous}, this never waits for the socket. Packets are
+     * written to the outbound buffer of the channel, and all packets queued before the event loop gets to them are
+     * flushed together. Until then, for example during login, sending waits for the packet to be written, so it's
+     * encoded with the packet stage it was sent in.</p>
+     */
     @Override
     public ChannelFuture send(Packet<? extends TheirHandler> packet, @Nullable PacketListener resultListener) {
-        synchronized (this) {
-            Channel channel = getChannel();
-            if (channel == null || !channel.isOpen()) {
-                on3rdPartyDisconnect(200, "Connection closed");
-                return null;
-            }
-            ChannelFuture packetFuture = channel.writeAndFlush(packet, channel.newPromise().addListener(future -> {
-                if (!future.isSuccess()) {
-                    Throwable throwable = future.exceptionNow();
-                    CommonConstants.LOGGER.error("Failed to send packet", throwable);
-                    disconnect(CloseCodes.PROTOCOL_ERROR.getCode(), throwable.toString());
-                }
-            }));
-            if (!async)
-                return packetFuture.syncUninterruptibly();
-            return packetFuture;
+        Channel channel = getChannel();
+        if (channel == null || !channel.isOpen()) {
+            on3rdPartyDisconnect(200, "Connection closed");
+            return null;
         }
+
+        queuedPackets.incrementAndGet();
+        ChannelPromise promise = channel.newPromise().addListener(future -> {
+            queuedPackets.decrementAndGet();
+            if (!future.isSuccess()) {
+                Throwable throwable = future.exceptionNow();
+                CommonConstants.LOGGER.error("Failed to send packet", throwable);
+                disconnect(CloseCodes.PROTOCOL_ERROR.getCode(), throwable.toString());
+            }
+        });
+
+        if (!async)
+            return channel.writeAndFlush(packet, promise).syncUninterruptibly();
+
+        EventLoop eventLoop = channel.eventLoop();
+        eventLoop.execute(() -> {
+            channel.write(packet, promise);
+            scheduleFlush(channel, eventLoop);
+        });
+        return promise;
+    }
+
+    /**
+     * Queues a flush behind the writes already queued on the event loop, unless one is queued already.
+     * Only called from the event loop, so a write always runs either before a pending flush or schedules a new one.
+     */
+    private void scheduleFlush(Channel channel, EventLoop eventLoop) {
+        if (flushScheduled) return;
+
+        flushScheduled = true;
+        eventLoop.execute(() -> {
+            flushScheduled = false;
+            channel.flush();
+        });
+    }
+
+    /**
+     * Checks whether the outbound buffer is below its high water mark.
+     * Bulk data like chunks should wait while this returns {@code false}, so a slow client only slows itself down.
+     */
+    @Override
+    public boolean isWritable() {
+        Channel channel = getChannel();
+        return channel != null && channel.isWritable();
+    }
+
+    /**
+     * Gets the amount of encoded bytes waiting in the outbound buffer.
+     */
+    @Override
+    public long getQueuedBytes() {
+        Channel channel = getChannel();
+        if (channel == null) return 0;
+        ChannelOutboundBuffer buffer = channel.unsafe().outboundBuffer();
+        return buffer == null ? 0 : buffer.totalPendingWriteBytes();
+    }
+
+    /**
+     * Gets the amount of packets that were sent, but aren't written to the socket yet.
+     */
+    @Override
+    public int getQueuedPackets() {
+        return queuedPackets.get();
     }
 
     public abstract @Nullable Channel getChannel();
@@ -90,7 +195,7 @@ public abstract class Connection<OurHandler extends PacketHandler, TheirHandler
 
     @Override
     public boolean isCompressed() {
-        return false;
+        return compressed;
     }
 
     @Override
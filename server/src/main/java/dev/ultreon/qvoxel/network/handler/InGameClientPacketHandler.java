@@ -30,6 +30,14 @@ public interface InGameClientPacketHandler extends ClientPacketHandler {
 
     void onBlockSet(S2CBlockSetPacket packet);
 
+    void onChunkBlocks(S2CChunkBlocksPacket packet);
+
+    void onChunkUnload(S2CChunkUnloadPacket packet);
+
+    void onChunkCached(S2CChunkCachedPacket packet);
+
+    void onLightUpdate(S2CLightUpdatePacket packet);
+
     void onChatMessage(S2CChatMessagePacket packet);
 
     void onOpenMenu(S2COpenMenuPacket packet);
@@ -48,4 +56,12 @@ public interface InGameClientPacketHandler extends ClientPacketHandler {
     void onGameMode(S2CGameModePacket gameMode);
 
     void onDeath(S2CDeathPacket packet);
+
+    void onPlayerSpawn(S2CPlayerSpawnPacket packet);
+
+    void onEntityDespawn(S2CEntityDespawnPacket packet);
+
+    void onEntityMoves(S2CEntityMovesPacket packet);
+
+    void onEntityTeleport(S2CEntityTeleportPacket packet);
 }
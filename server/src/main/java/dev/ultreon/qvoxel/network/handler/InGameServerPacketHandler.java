@@ -19,11 +19,7 @@ package dev.ultreon.qvoxel.network.handler;
 import dev.ultreon.qvoxel.CommonConstants;
 import dev.ultreon.qvoxel.network.packets.c2s.*;
 import dev.ultreon.qvoxel.network.packets.s2c.S2CKeepAlivePacket;
-import dev.ultreon.qvoxel.network.packets.s2c.S2CPingPacket;
-import dev.ultreon.qvoxel.network.system.CloseCodes;
 import dev.ultreon.qvoxel.network.system.IConnection;
-import dev.ultreon.qvoxel.server.QuantumServer;
-import dev.ultreon.qvoxel.server.ServerOfflineException;
 import dev.ultreon.qvoxel.server.ServerPlayerEntity;
 
 import java.util.concurrent.CompletableFuture;
@@ -33,8 +29,11 @@ public class InGameServerPacketHandler extends ServerPacketHandler {
         super(connection);
     }
 
+    /**
+     * Handles the echo of a ping sent by the server, updating the round trip time of the connection.
+     */
     public void onPing(C2SPingPacket packet) {
-        connection.send(new S2CPingPacket(packet.time()));
+        connection.onPing(System.currentTimeMillis() - packet.time());
     }
 
     public void onKeepAlive() {
@@ -49,59 +48,39 @@ public class InGameServerPacketHandler extends ServerPacketHandler {
     }
 
     public void onMove(C2SMovePacket packet) {
-        try {
-            ServerPlayerEntity player = connection.getPlayer();
-            player.setRotation(packet.yaw(), packet.pitch());
-            QuantumServer.invokeAndWait(() -> player.onMove(packet.x(), packet.y(), packet.z()));
-        } catch (ServerOfflineException _) {
-
-        } catch (Exception e) {
-            CommonConstants.LOGGER.error("Failed to process move packet!", e);
-            connection.disconnect(CloseCodes.PROTOCOL_ERROR.getCode(), "Failed to process move packet!");
-            connection.on3rdPartyDisconnect(CloseCodes.PROTOCOL_ERROR.getCode(), "Failed to process move packet!");
-        }
+        ServerPlayerEntity player = connection.getPlayer();
+        player.setRotation(packet.yaw(), packet.pitch());
+        player.enqueueMove(packet.x(), packet.y(), packet.z());
+    }
+
+    public void onChunkCacheMiss(C2SChunkCacheMissPacket packet) {
+        ServerPlayerEntity player = connection.getPlayer();
+        player.enqueue(() -> player.onChunkCacheMiss(packet.chunkVec()));
     }
 
     public void onBlockBreak(C2SBlockBreakPacket packet) {
-        try {
-            QuantumServer.invokeAndWait(() -> connection.getPlayer().breakBlock(packet.x(), packet.y(), packet.z()));
-        } catch (Exception e) {
-            CommonConstants.LOGGER.error("Failed to process block break packet!", e);
-            connection.disconnect(CloseCodes.PROTOCOL_ERROR.getCode(), "Failed to process block break packet!");
-            connection.on3rdPartyDisconnect(CloseCodes.PROTOCOL_ERROR.getCode(), "Failed to process block break packet!");
-        }
+        ServerPlayerEntity player = connection.getPlayer();
+        player.enqueue(() -> player.breakBlock(packet.x(), packet.y(), packet.z()));
     }
 
     public void onUseItem() {
-        try {
-            QuantumServer.invokeAndWait(() -> connection.getPlayer().useItem());
-        } catch (Exception e) {
-            CommonConstants.LOGGER.error("Failed to process use item packet!", e);
-            connection.disconnect(CloseCodes.PROTOCOL_ERROR.getCode(), "Failed to process use item packet!");
-            connection.on3rdPartyDisconnect(CloseCodes.PROTOCOL_ERROR.getCode(), "Failed to process use item packet!");
-        }
+        ServerPlayerEntity player = connection.getPlayer();
+        player.enqueue(player::useItem);
     }
 
     public void onItemSelect(C2SItemSelectPacket packet) {
-        try {
-            QuantumServer.invokeAndWait(() -> connection.getPlayer().onSelectItem(packet.selected()));
-        } catch (Exception e) {
-            CommonConstants.LOGGER.error("Failed to process item select packet!", e);
-            connection.disconnect(CloseCodes.PROTOCOL_ERROR.getCode(), "Failed to process item select packet!");
-            connection.on3rdPartyDisconnect(CloseCodes.PROTOCOL_ERROR.getCode(), "Failed to process item select packet!");
-        }
+        ServerPlayerEntity player = connection.getPlayer();
+        player.enqueue(() -> player.onSelectItem(packet.selected()));
     }
 
     public void onChatMessage(C2SChatMessagePacket packet) {
-        try {
-            QuantumServer.invokeAndWait(() -> connection.getPlayer().processMessage(packet.message()));
-        } catch (ServerOfflineException _) {
-
-        }
+        ServerPlayerEntity player = connection.getPlayer();
+        player.enqueue(() -> player.processMessage(packet.message()));
     }
 
     public void onCrouching(C2SPlayerCrouchingPacket packet) {
-        connection.getPlayer().setCrouching(packet.crouching());
+        ServerPlayerEntity player = connection.getPlayer();
+        player.enqueue(() -> player.setCrouching(packet.crouching()));
     }
 
     public void onRotate(C2SRotatePacket packet) {
@@ -109,14 +88,12 @@ public class InGameServerPacketHandler extends ServerPacketHandler {
     }
 
     public void onOpenInventory(C2SOpenInventoryPacket packet) {
-        connection.getPlayer().openInventory();
+        ServerPlayerEntity player = connection.getPlayer();
+        player.enqueue(player::openInventory);
     }
 
     public void onRespawn(C2SRespawnPacket packet) {
-        try {
-            QuantumServer.invokeAndWait(() -> connection.getPlayer().respawn());
-        } catch (ServerOfflineException e) {
-            connection.disconnect(CloseCodes.PROTOCOL_ERROR.getCode(), "Failed to respawn player!");
-        }
+        ServerPlayerEntity player = connection.getPlayer();
+        player.enqueue(player::respawn);
     }
 }
@@ -19,6 +19,7 @@ package dev.ultreon.qvoxel.network.handler;
 import dev.ultreon.qvoxel.network.packets.s2c.S2CLoginAcceptedPacket;
 import dev.ultreon.qvoxel.network.packets.s2c.S2CRegistriesSyncPacket;
 import dev.ultreon.qvoxel.network.packets.s2c.S2CRegistrySyncPacket;
+import dev.ultreon.qvoxel.network.packets.s2c.S2CSetCompressionPacket;
 
 public interface LoginClientPacketHandler extends ClientPacketHandler {
     void onRegistriesSync(S2CRegistriesSyncPacket packet);
@@ -27,6 +28,8 @@ public interface LoginClientPacketHandler extends ClientPacketHandler {
 
     void onLoginAccepted(S2CLoginAcceptedPacket packet);
 
+    void onSetCompression(S2CSetCompressionPacket packet);
+
     @Override
     default boolean isAsync() {
         return false;
@@ -20,6 +20,7 @@ import dev.ultreon.qvoxel.CommonConstants;
 import dev.ultreon.qvoxel.ServerException;
 import dev.ultreon.qvoxel.network.packets.c2s.C2SLoginPacket;
 import dev.ultreon.qvoxel.network.packets.s2c.S2CLoginAcceptedPacket;
+import dev.ultreon.qvoxel.network.packets.s2c.S2CSetCompressionPacket;
 import dev.ultreon.qvoxel.network.system.IConnection;
 import dev.ultreon.qvoxel.network.system.PacketStages;
 import dev.ultreon.qvoxel.server.QuantumServer;
@@ -49,6 +50,12 @@ public class LoginServerPacketHandler extends ServerPacketHandler {
             return;
         }
 
+        int threshold = server.getCompressionThreshold();
+        if (threshold >= 0 && !connection.isInMemory()) {
+            connection.send(new S2CSetCompressionPacket(threshold));
+            connection.setCompression(threshold);
+        }
+
         ServerPlayerEntity player = server.placePlayer(packet, connection);
         server.submit(() -> {
             ServerWorld defaultWorld;
@@ -15,6 +15,7 @@ import org.jetbrains.annotations.ApiStatus;
 import org.joml.*;
 
 import java.lang.reflect.Array;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Map;
 import java.util.UUID;
@@ -72,6 +73,62 @@ public interface PacketCodec<T> extends PacketWriter<T>, PacketReader<T> {
         return of((io) -> io.readIntArray(max), PacketIO::writeIntArray);
     }
 
+    /**
+     * Creates a codec for int arrays of a fixed length that are run-length encoded when that's smaller.
+     * Arrays that hold only a few distinct runs, like the light of an empty chunk, are sent in a couple of bytes.
+     *
+     * @param length the length of the arrays.
+     */
+    static PacketCodec<int[]> runLength(int length) {
+        return of(io -> {
+            int[] array = new int[length];
+            if (!io.readBoolean()) {
+                for (int i = 0; i < length; i++) array[i] = io.readInt();
+                return array;
+            }
+
+            int runs = io.readVarInt();
+            int index = 0;
+            for (int i = 0; i < runs; i++) {
+                int run = io.readVarInt();
+                int value = io.readInt();
+                if (run <= 0 || run > length - index)
+                    throw new PacketException("Invalid run length " + run + " at " + index);
+                Arrays.fill(array, index, index + run, value);
+                index += run;
+            }
+            if (index != length)
+                throw new PacketException("Run-length data covers " + index + " of " + length + " entries");
+            return array;
+        }, (io, array) -> {
+            if (array.length != length)
+                throw new PacketException("Invalid array length " + array.length + ", expected " + length);
+
+            int runs = 0;
+            for (int i = 0; i < length; i++) {
+                if (i == 0 || array[i] != array[i - 1]) runs++;
+            }
+
+            // A run costs at least five bytes, raw values cost four.
+            if (runs * 5 >= length * 4) {
+                io.writeBoolean(false);
+                for (int value : array) io.writeInt(value);
+                return;
+            }
+
+            io.writeBoolean(true);
+            io.writeVarInt(runs);
+            int start = 0;
+            for (int i = 1; i <= length; i++) {
+                if (i == length || array[i] != array[start]) {
+                    io.writeVarInt(i - start);
+                    io.writeInt(array[start]);
+                    start = i;
+                }
+            }
+        });
+    }
+
     static PacketCodec<long[]> longs(int max) {
         return of((io) -> io.readLongArray(max), PacketIO::writeLongArray);
     }
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.network.packets.c2s;
+
+import dev.ultreon.qvoxel.network.Packet;
+import dev.ultreon.qvoxel.network.handler.InGameServerPacketHandler;
+import dev.ultreon.qvoxel.network.packets.PacketCodec;
+import dev.ultreon.qvoxel.network.packets.PacketId;
+import dev.ultreon.qvoxel.util.ChunkVec;
+
+/**
+ * Tells the server the client didn't have the cached chunk it was told to load, so the chunk data has to be sent.
+ *
+ * @param chunkVec the chunk that is missing.
+ */
+public record C2SChunkCacheMissPacket(ChunkVec chunkVec) implements Packet<InGameServerPacketHandler> {
+    public static final PacketId<C2SChunkCacheMissPacket> ID = new PacketId<>("serverbound/chunk_cache_miss", C2SChunkCacheMissPacket.class);
+    public static final PacketCodec<C2SChunkCacheMissPacket> CODEC = PacketCodec.packed(
+            PacketCodec.CHUNK_VEC, C2SChunkCacheMissPacket::chunkVec,
+            C2SChunkCacheMissPacket::new
+    );
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.network.packets.s2c;
+
+import dev.ultreon.qvoxel.network.Packet;
+import dev.ultreon.qvoxel.network.handler.InGameClientPacketHandler;
+import dev.ultreon.qvoxel.network.packets.PacketCodec;
+import dev.ultreon.qvoxel.network.packets.PacketId;
+import dev.ultreon.qvoxel.util.ChunkVec;
+
+import static dev.ultreon.qvoxel.network.packets.PacketCodec.*;
+import static dev.ultreon.qvoxel.world.World.CHUNK_VOLUME;
+
+/**
+ * All block changes of a tick within a single chunk.
+ *
+ * @param chunkVec the chunk that changed.
+ * @param indices  the {@linkplain dev.ultreon.qvoxel.world.Chunk#getIndex(int, int, int) chunk-local indices} of
+ *                 the changed blocks, read them with {@link #index(int)}.
+ * @param stateIds the {@linkplain dev.ultreon.qvoxel.block.state.BlockStateIds block state IDs} of the new states.
+ */
+public record S2CChunkBlocksPacket(ChunkVec chunkVec, short[] indices, int[] stateIds) implements Packet<InGameClientPacketHandler> {
+    public static final PacketId<S2CChunkBlocksPacket> ID = new PacketId<>("clientbound/chunk_blocks", S2CChunkBlocksPacket.class);
+    public static final PacketCodec<S2CChunkBlocksPacket> CODEC = packed(
+            CHUNK_VEC, S2CChunkBlocksPacket::chunkVec,
+            shorts(CHUNK_VOLUME), S2CChunkBlocksPacket::indices,
+            ints(CHUNK_VOLUME), S2CChunkBlocksPacket::stateIds,
+            S2CChunkBlocksPacket::new
+    );
+
+    /**
+     * Gets the chunk-local index of an entry.
+     */
+    public int index(int entry) {
+        return indices[entry] & 0xFFFF;
+    }
+}
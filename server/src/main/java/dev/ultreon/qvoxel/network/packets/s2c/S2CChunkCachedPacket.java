@@ -0,0 +1,40 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.network.packets.s2c;
+
+import dev.ultreon.qvoxel.network.Packet;
+import dev.ultreon.qvoxel.network.handler.InGameClientPacketHandler;
+import dev.ultreon.qvoxel.network.packets.PacketCodec;
+import dev.ultreon.qvoxel.network.packets.PacketId;
+import dev.ultreon.qvoxel.util.ChunkVec;
+
+/**
+ * Tells the client to load a chunk from its {@linkplain S2CChunkUnloadPacket unload cache}, instead of sending the
+ * chunk data again. If the client doesn't have that version of the chunk, it answers with a
+ * {@link dev.ultreon.qvoxel.network.packets.c2s.C2SChunkCacheMissPacket}.
+ *
+ * @param chunkVec the chunk to load.
+ * @param version  the version of the chunk data on the server.
+ */
+public record S2CChunkCachedPacket(ChunkVec chunkVec, long version) implements Packet<InGameClientPacketHandler> {
+    public static final PacketId<S2CChunkCachedPacket> ID = new PacketId<>("clientbound/chunk_cached", S2CChunkCachedPacket.class);
+    public static final PacketCodec<S2CChunkCachedPacket> CODEC = PacketCodec.packed(
+            PacketCodec.CHUNK_VEC, S2CChunkCachedPacket::chunkVec,
+            PacketCodec.LONG, S2CChunkCachedPacket::version,
+            S2CChunkCachedPacket::new
+    );
+}
@@ -17,6 +17,8 @@
 package dev.ultreon.qvoxel.network.packets.s2c;
 
 import dev.ultreon.libs.commons.v0.Identifier;
+import dev.ultreon.qvoxel.CommonConstants;
+import dev.ultreon.qvoxel.block.Blocks;
 import dev.ultreon.qvoxel.block.state.BlockState;
 import dev.ultreon.qvoxel.network.Packet;
 import dev.ultreon.qvoxel.network.handler.InGameClientPacketHandler;
@@ -26,6 +28,7 @@ import dev.ultreon.qvoxel.registry.RegistryKey;
 import dev.ultreon.qvoxel.server.WorldChunk;
 import dev.ultreon.qvoxel.util.BlockVec;
 import dev.ultreon.qvoxel.util.ChunkVec;
+import dev.ultreon.qvoxel.util.PaletteStorage;
 import dev.ultreon.qvoxel.world.light.LightMap;
 import dev.ultreon.qvoxel.world.gen.biome.Biome;
 
@@ -37,12 +40,17 @@ import static dev.ultreon.qvoxel.registry.RegistryKeys.BIOME;
 import static dev.ultreon.qvoxel.world.World.CHUNK_SURFACE;
 import static dev.ultreon.qvoxel.world.World.CHUNK_VOLUME;
 
+/**
+ * The full contents of a chunk.
+ *
+ * <p>Block and biome indices are sent bit-packed at the minimal width for their palette, and a uniform storage
+ * (all air, all stone) is sent as just its single value. The light map and heightmaps are run-length encoded, so
+ * empty and solid chunks only cost a few bytes.</p>
+ */
 public record S2CChunkDataPacket(
         ChunkVec chunkVec,
-        short[] statePalette,
-        BlockState[] states,
-        short[] biomePalette,
-        RegistryKey<Biome>[] biomes,
+        PaletteStorage<BlockState> blocks,
+        PaletteStorage<RegistryKey<Biome>> biomes,
         LightMap lightMap,
         int[] surfaceHeights,
         int[] lightHeights,
@@ -51,26 +59,26 @@ public record S2CChunkDataPacket(
     public static final PacketId<S2CChunkDataPacket> ID = new PacketId<>("clientbound/chunk_data", S2CChunkDataPacket.class);
     public static final PacketCodec<S2CChunkDataPacket> CODEC = packed(
             CHUNK_VEC, S2CChunkDataPacket::chunkVec,
-            shorts(CHUNK_VOLUME), S2CChunkDataPacket::statePalette,
-            BlockState.PACKET_CODEC.array(BlockState.class), S2CChunkDataPacket::states,
-            shorts(CHUNK_SURFACE), S2CChunkDataPacket::biomePalette,
-            objects(key(BIOME)), S2CChunkDataPacket::biomes,
-            LightMap.PACKET_CODEC, S2CChunkDataPacket::lightMap,
-            ints(CHUNK_SURFACE), S2CChunkDataPacket::surfaceHeights,
-            ints(CHUNK_SURFACE), S2CChunkDataPacket::lightHeights,
+            PaletteStorage.packetCodec(CHUNK_VOLUME, Blocks.AIR.getDefaultState(), BlockState.PACKET_CODEC), S2CChunkDataPacket::blocks,
+            PaletteStorage.packetCodec(CHUNK_SURFACE, RegistryKey.of(BIOME, CommonConstants.id("plains")), key(BIOME)), S2CChunkDataPacket::biomes,
+            runLength(CHUNK_VOLUME).map(LightMap::new, LightMap::getData), S2CChunkDataPacket::lightMap,
+            runLength(CHUNK_SURFACE), S2CChunkDataPacket::surfaceHeights,
+            runLength(CHUNK_SURFACE), S2CChunkDataPacket::lightHeights,
             map(CHUNK_VOLUME, BLOCK_VEC, PacketCodec.ID, ConcurrentHashMap::new), S2CChunkDataPacket::blockActors,
             S2CChunkDataPacket::new
     );
 
     public S2CChunkDataPacket(WorldChunk worldChunk) {
-        short[] statePalette = worldChunk.getStorage().getPalette();
-        BlockState[] states = worldChunk.getStorage().getData().toArray(BlockState[]::new);
-        short[] biomePalette = worldChunk.getBiomeStorage().getPalette();
-        RegistryKey<Biome>[] biomes = worldChunk.getBiomeStorage().getData().<RegistryKey<Biome>>toArray(RegistryKey[]::new);
-        LightMap lightMap = worldChunk.getLightMap();
-        int[] surfaceHeights = worldChunk.getSurfaceHeights();
-        int[] lightHeights = worldChunk.getLightHeights();
-        Map<BlockVec, Identifier> blockActors = worldChunk.getBlockActors();
-        this(worldChunk.vec, statePalette, states, biomePalette, biomes, lightMap, surfaceHeights, lightHeights, blockActors);
+        // Copy everything, the packet is encoded on the network thread while the server thread and the light worker
+        // keep changing the chunk.
+        PaletteStorage<BlockState> blocks = new PaletteStorage<>(CHUNK_VOLUME, Blocks.AIR.getDefaultState());
+        blocks.set(worldChunk.getStorage());
+        PaletteStorage<RegistryKey<Biome>> biomes = new PaletteStorage<>(CHUNK_SURFACE, worldChunk.getBiomeStorage().getDefaultValue());
+        biomes.set(worldChunk.getBiomeStorage());
+        LightMap lightMap = worldChunk.getLightMap().clone();
+        int[] surfaceHeights = worldChunk.getSurfaceHeights().clone();
+        int[] lightHeights = worldChunk.getLightHeights().clone();
+        Map<BlockVec, Identifier> blockActors = Map.copyOf(worldChunk.getBlockActors());
+        this(worldChunk.vec, blocks, biomes, lightMap, surfaceHeights, lightHeights, blockActors);
     }
 }
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.network.packets.s2c;
+
+import dev.ultreon.qvoxel.network.Packet;
+import dev.ultreon.qvoxel.network.handler.InGameClientPacketHandler;
+import dev.ultreon.qvoxel.network.packets.PacketCodec;
+import dev.ultreon.qvoxel.network.packets.PacketId;
+import dev.ultreon.qvoxel.util.ChunkVec;
+
+/**
+ * <p>Tells the client to drop a chunk that went out of range.</p>
+ *
+ * <p>The client keeps the last {@value #CACHE_SIZE} unloaded chunks, so the server can send a
+ * {@link S2CChunkCachedPacket} instead of the full chunk data when the player comes back and the chunk didn't change.
+ * The server mirrors this cache, so both sides have to evict the oldest chunk first.</p>
+ *
+ * @param chunkVec the chunk to unload.
+ * @param version  the version of the chunk data the client has, or {@code -1} to not cache the chunk.
+ */
+public record S2CChunkUnloadPacket(ChunkVec chunkVec, long version) implements Packet<InGameClientPacketHandler> {
+    public static final int CACHE_SIZE = 128;
+
+    public static final PacketId<S2CChunkUnloadPacket> ID = new PacketId<>("clientbound/chunk_unload", S2CChunkUnloadPacket.class);
+    public static final PacketCodec<S2CChunkUnloadPacket> CODEC = PacketCodec.packed(
+            PacketCodec.CHUNK_VEC, S2CChunkUnloadPacket::chunkVec,
+            PacketCodec.LONG, S2CChunkUnloadPacket::version,
+            S2CChunkUnloadPacket::new
+    );
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.network.packets.s2c;
+
+import dev.ultreon.qvoxel.network.Packet;
+import dev.ultreon.qvoxel.network.handler.InGameClientPacketHandler;
+import dev.ultreon.qvoxel.network.packets.PacketCodec;
+import dev.ultreon.qvoxel.network.packets.PacketId;
+
+/**
+ * Removes all entities that left the tracking range of the client during a tick.
+ */
+public record S2CEntityDespawnPacket(int[] entityIds) implements Packet<InGameClientPacketHandler> {
+    public static final PacketId<S2CEntityDespawnPacket> ID = new PacketId<>("clientbound/entity_despawn", S2CEntityDespawnPacket.class);
+    public static final PacketCodec<S2CEntityDespawnPacket> CODEC = PacketCodec.packed(
+            PacketCodec.ints(S2CEntityMovesPacket.MAX_ENTITIES), S2CEntityDespawnPacket::entityIds,
+            S2CEntityDespawnPacket::new
+    );
+}
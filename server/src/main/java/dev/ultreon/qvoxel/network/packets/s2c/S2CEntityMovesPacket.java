@@ -0,0 +1,63 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.network.packets.s2c;
+
+import dev.ultreon.qvoxel.network.Packet;
+import dev.ultreon.qvoxel.network.handler.InGameClientPacketHandler;
+import dev.ultreon.qvoxel.network.packets.PacketCodec;
+import dev.ultreon.qvoxel.network.packets.PacketId;
+
+/**
+ * <p>All entity movement of a tick that is visible to the client, in a single packet.</p>
+ *
+ * <p>Positions are quantized to {@code 1 / }{@value #POSITION_SCALE} of a block and sent as the difference with the
+ * previously sent position, three shorts per entity. Rotations are sent as three bytes per entity, the body yaw, head
+ * yaw and head pitch, with {@code 256} steps per full turn. Moves that don't fit in a short are sent with
+ * {@link S2CEntityTeleportPacket} instead.</p>
+ *
+ * @param entityIds the ids of the moved entities.
+ * @param deltas    the quantized position deltas, {@code x, y, z} for every entity.
+ * @param rotations the quantized rotations, {@code yawBody, yawHead, pitchHead} for every entity.
+ */
+public record S2CEntityMovesPacket(int[] entityIds, short[] deltas, byte[] rotations) implements Packet<InGameClientPacketHandler> {
+    public static final int MAX_ENTITIES = 65536;
+    public static final int POSITION_SCALE = 64;
+
+    public static final PacketId<S2CEntityMovesPacket> ID = new PacketId<>("clientbound/entity_moves", S2CEntityMovesPacket.class);
+    public static final PacketCodec<S2CEntityMovesPacket> CODEC = PacketCodec.packed(
+            PacketCodec.ints(MAX_ENTITIES), S2CEntityMovesPacket::entityIds,
+            PacketCodec.shorts(MAX_ENTITIES * 3), S2CEntityMovesPacket::deltas,
+            PacketCodec.bytes(MAX_ENTITIES * 3), S2CEntityMovesPacket::rotations,
+            S2CEntityMovesPacket::new
+    );
+
+    public static long quantize(double coordinate) {
+        return Math.round(coordinate * POSITION_SCALE);
+    }
+
+    public static double dequantize(long coordinate) {
+        return (double) coordinate / POSITION_SCALE;
+    }
+
+    public static byte packAngle(float degrees) {
+        return (byte) Math.round(degrees * 256f / 360f);
+    }
+
+    public static float unpackAngle(byte angle) {
+        return angle * 360f / 256f;
+    }
+}
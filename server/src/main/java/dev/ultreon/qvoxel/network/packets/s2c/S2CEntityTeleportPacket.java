@@ -0,0 +1,37 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.network.packets.s2c;
+
+import dev.ultreon.qvoxel.network.Packet;
+import dev.ultreon.qvoxel.network.handler.InGameClientPacketHandler;
+import dev.ultreon.qvoxel.network.packets.PacketCodec;
+import dev.ultreon.qvoxel.network.packets.PacketId;
+
+/**
+ * Sets the absolute position of an entity, for moves too large for {@link S2CEntityMovesPacket}.
+ * The position is quantized the same way, so later deltas continue from it.
+ */
+public record S2CEntityTeleportPacket(int entityId, long x, long y, long z) implements Packet<InGameClientPacketHandler> {
+    public static final PacketId<S2CEntityTeleportPacket> ID = new PacketId<>("clientbound/entity_teleport", S2CEntityTeleportPacket.class);
+    public static final PacketCodec<S2CEntityTeleportPacket> CODEC = PacketCodec.packed(
+            PacketCodec.VAR_INT, S2CEntityTeleportPacket::entityId,
+            PacketCodec.LONG, S2CEntityTeleportPacket::x,
+            PacketCodec.LONG, S2CEntityTeleportPacket::y,
+            PacketCodec.LONG, S2CEntityTeleportPacket::z,
+            S2CEntityTeleportPacket::new
+    );
+}
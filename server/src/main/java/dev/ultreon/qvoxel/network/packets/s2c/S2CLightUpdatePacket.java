@@ -0,0 +1,71 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.network.packets.s2c;
+
+import dev.ultreon.qvoxel.network.Packet;
+import dev.ultreon.qvoxel.network.handler.InGameClientPacketHandler;
+import dev.ultreon.qvoxel.network.packets.PacketCodec;
+import dev.ultreon.qvoxel.network.packets.PacketId;
+import dev.ultreon.qvoxel.server.ServerChunk;
+import dev.ultreon.qvoxel.util.ChunkVec;
+import dev.ultreon.qvoxel.world.light.LightMap;
+
+import java.util.BitSet;
+
+import static dev.ultreon.qvoxel.network.packets.PacketCodec.*;
+import static dev.ultreon.qvoxel.world.World.CHUNK_VOLUME;
+
+/**
+ * Sends the light values of a chunk that changed, instead of the whole chunk.
+ *
+ * @param chunkVec the chunk position.
+ * @param indices  the light map indices that changed.
+ * @param light    the new light map values, in the same order as the indices.
+ */
+public record S2CLightUpdatePacket(
+        ChunkVec chunkVec,
+        short[] indices,
+        int[] light
+) implements Packet<InGameClientPacketHandler> {
+    public static final PacketId<S2CLightUpdatePacket> ID = new PacketId<>("clientbound/light_update", S2CLightUpdatePacket.class);
+    public static final PacketCodec<S2CLightUpdatePacket> CODEC = packed(
+            CHUNK_VEC, S2CLightUpdatePacket::chunkVec,
+            shorts(CHUNK_VOLUME), S2CLightUpdatePacket::indices,
+            ints(CHUNK_VOLUME), S2CLightUpdatePacket::light,
+            S2CLightUpdatePacket::new
+    );
+
+    public S2CLightUpdatePacket(ServerChunk chunk, BitSet changed) {
+        LightMap lightMap = chunk.getLightMap();
+        short[] indices = new short[changed.cardinality()];
+        int[] light = new int[indices.length];
+        int i = 0;
+        for (int index = changed.nextSetBit(0); index >= 0; index = changed.nextSetBit(index + 1)) {
+            indices[i] = (short) index;
+            light[i] = lightMap.get(index);
+            i++;
+        }
+        this(chunk.vec, indices, light);
+    }
+
+    /**
+     * Gets the light map index of an entry.
+     */
+    public int index(int entry) {
+        return indices[entry] & 0xFFFF;
+    }
+}
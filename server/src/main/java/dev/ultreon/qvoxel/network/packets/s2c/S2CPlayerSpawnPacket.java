@@ -0,0 +1,55 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.network.packets.s2c;
+
+import dev.ultreon.qvoxel.network.Packet;
+import dev.ultreon.qvoxel.network.handler.InGameClientPacketHandler;
+import dev.ultreon.qvoxel.network.packets.PacketCodec;
+import dev.ultreon.qvoxel.network.packets.PacketId;
+import dev.ultreon.qvoxel.player.PlayerEntity;
+import org.joml.Vector3d;
+
+import java.util.UUID;
+
+/**
+ * Sent when another player comes within tracking range of the client.
+ */
+public record S2CPlayerSpawnPacket(
+        int entityId,
+        UUID uuid,
+        String username,
+        Vector3d position,
+        float yawBody,
+        float yawHead,
+        float pitchHead
+) implements Packet<InGameClientPacketHandler> {
+    public static final PacketId<S2CPlayerSpawnPacket> ID = new PacketId<>("clientbound/player_spawn", S2CPlayerSpawnPacket.class);
+    public static final PacketCodec<S2CPlayerSpawnPacket> CODEC = PacketCodec.packed(
+            PacketCodec.VAR_INT, S2CPlayerSpawnPacket::entityId,
+            PacketCodec.UUID, S2CPlayerSpawnPacket::uuid,
+            PacketCodec.string(16), S2CPlayerSpawnPacket::username,
+            PacketCodec.VECTOR3D, S2CPlayerSpawnPacket::position,
+            PacketCodec.FLOAT, S2CPlayerSpawnPacket::yawBody,
+            PacketCodec.FLOAT, S2CPlayerSpawnPacket::yawHead,
+            PacketCodec.FLOAT, S2CPlayerSpawnPacket::pitchHead,
+            S2CPlayerSpawnPacket::new
+    );
+
+    public S2CPlayerSpawnPacket(PlayerEntity player) {
+        this(player.getId(), player.getUuid(), player.getUsername(), new Vector3d(player.getPosition()), player.yawBody, player.yawHead, player.pitchHead);
+    }
+}
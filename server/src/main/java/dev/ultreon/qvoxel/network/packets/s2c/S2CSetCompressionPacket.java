@@ -0,0 +1,34 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.network.packets.s2c;
+
+import dev.ultreon.qvoxel.network.Packet;
+import dev.ultreon.qvoxel.network.handler.LoginClientPacketHandler;
+import dev.ultreon.qvoxel.network.packets.PacketCodec;
+import dev.ultreon.qvoxel.network.packets.PacketId;
+
+/**
+ * Tells the client to compress packets of at least {@code threshold} bytes from now on.
+ * This packet itself is always sent uncompressed.
+ */
+public record S2CSetCompressionPacket(int threshold) implements Packet<LoginClientPacketHandler> {
+    public static final PacketId<S2CSetCompressionPacket> ID = new PacketId<>("clientbound/set_compression", S2CSetCompressionPacket.class);
+    public static final PacketCodec<S2CSetCompressionPacket> CODEC = PacketCodec.packed(
+            PacketCodec.INT, S2CSetCompressionPacket::threshold,
+            S2CSetCompressionPacket::new
+    );
+}
@@ -42,10 +42,16 @@ public class InGamePacketStage extends PacketStage {
         addServerBound(C2SRotatePacket.ID, C2SRotatePacket.CODEC, InGameServerPacketHandler::onRotate);
         addServerBound(C2SOpenInventoryPacket.ID, C2SOpenInventoryPacket.CODEC, InGameServerPacketHandler::onOpenInventory);
         addServerBound(C2SRespawnPacket.ID, C2SRespawnPacket.CODEC, InGameServerPacketHandler::onRespawn);
+        addServerBound(C2SPingPacket.ID, C2SPingPacket.CODEC, InGameServerPacketHandler::onPing);
+        addServerBound(C2SChunkCacheMissPacket.ID, C2SChunkCacheMissPacket.CODEC, InGameServerPacketHandler::onChunkCacheMiss);
 
         addClientBound(S2CTeleportPacket.ID, S2CTeleportPacket.CODEC, InGameClientPacketHandler::onTeleport);
         addClientBound(S2CChunkDataPacket.ID, S2CChunkDataPacket.CODEC, InGameClientPacketHandler::onChunkData);
         addClientBound(S2CBlockSetPacket.ID, S2CBlockSetPacket.CODEC, InGameClientPacketHandler::onBlockSet);
+        addClientBound(S2CChunkBlocksPacket.ID, S2CChunkBlocksPacket.CODEC, InGameClientPacketHandler::onChunkBlocks);
+        addClientBound(S2CChunkUnloadPacket.ID, S2CChunkUnloadPacket.CODEC, InGameClientPacketHandler::onChunkUnload);
+        addClientBound(S2CChunkCachedPacket.ID, S2CChunkCachedPacket.CODEC, InGameClientPacketHandler::onChunkCached);
+        addClientBound(S2CLightUpdatePacket.ID, S2CLightUpdatePacket.CODEC, InGameClientPacketHandler::onLightUpdate);
         addClientBound(S2CChatMessagePacket.ID, S2CChatMessagePacket.CODEC, InGameClientPacketHandler::onChatMessage);
         addClientBound(S2CInventoryContentChangedPacket.ID, S2CInventoryContentChangedPacket.CODEC, InGameClientPacketHandler::onInventoryItemChanged);
         addClientBound(S2CMenuContentChangedPacket.ID, S2CMenuContentChangedPacket.CODEC, InGameClientPacketHandler::onMenuItemChanged);
@@ -57,5 +63,9 @@ public class InGamePacketStage extends PacketStage {
         addClientBound(S2CGameModePacket.ID, S2CGameModePacket.CODEC, ClientPacketHandler::onGameMode);
         addClientBound(S2COpenMenuPacket.ID, S2COpenMenuPacket.CODEC, InGameClientPacketHandler::onOpenMenu);
         addClientBound(S2CDeathPacket.ID, S2CDeathPacket.CODEC, InGameClientPacketHandler::onDeath);
+        addClientBound(S2CPlayerSpawnPacket.ID, S2CPlayerSpawnPacket.CODEC, InGameClientPacketHandler::onPlayerSpawn);
+        addClientBound(S2CEntityDespawnPacket.ID, S2CEntityDespawnPacket.CODEC, InGameClientPacketHandler::onEntityDespawn);
+        addClientBound(S2CEntityMovesPacket.ID, S2CEntityMovesPacket.CODEC, InGameClientPacketHandler::onEntityMoves);
+        addClientBound(S2CEntityTeleportPacket.ID, S2CEntityTeleportPacket.CODEC, InGameClientPacketHandler::onEntityTeleport);
     }
 }
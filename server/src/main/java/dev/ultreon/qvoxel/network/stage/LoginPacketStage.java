@@ -22,6 +22,7 @@ import dev.ultreon.qvoxel.network.packets.c2s.C2SLoginPacket;
 import dev.ultreon.qvoxel.network.packets.s2c.S2CLoginAcceptedPacket;
 import dev.ultreon.qvoxel.network.packets.s2c.S2CRegistriesSyncPacket;
 import dev.ultreon.qvoxel.network.packets.s2c.S2CRegistrySyncPacket;
+import dev.ultreon.qvoxel.network.packets.s2c.S2CSetCompressionPacket;
 import dev.ultreon.qvoxel.network.system.PacketStage;
 
 public class LoginPacketStage extends PacketStage {
@@ -35,6 +36,7 @@ public class LoginPacketStage extends PacketStage {
 
         addServerBound(C2SLoginPacket.ID, C2SLoginPacket.CODEC, LoginServerPacketHandler::onLogin);
 
+        addClientBound(S2CSetCompressionPacket.ID, S2CSetCompressionPacket.CODEC, LoginClientPacketHandler::onSetCompression);
         addClientBound(S2CLoginAcceptedPacket.ID, S2CLoginAcceptedPacket.CODEC, LoginClientPacketHandler::onLoginAccepted);
         addClientBound(S2CRegistriesSyncPacket.ID, S2CRegistriesSyncPacket.CODEC, LoginClientPacketHandler::onRegistriesSync);
         addClientBound(S2CRegistrySyncPacket.ID, S2CRegistrySyncPacket.CODEC, LoginClientPacketHandler::onRegistrySync);
@@ -42,6 +42,19 @@ public abstract class IConnection<OurHandler extends PacketHandler, TheirHandler
 
     public abstract boolean isCompressed();
 
+    public abstract boolean isWritable();
+
+    public abstract long getQueuedBytes();
+
+    public abstract int getQueuedPackets();
+
+    public abstract void setCompression(int threshold);
+
+    /**
+     * Checks whether the connection is an in-memory channel, where compression would only cost time.
+     */
+    public abstract boolean isInMemory();
+
     public abstract void disconnect(int code, String message);
 
     public abstract Result<Void> on3rdPartyDisconnect(int statusCode, String message);
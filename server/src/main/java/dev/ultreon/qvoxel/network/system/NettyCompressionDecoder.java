@@ -0,0 +1,87 @@
+package dev.ultreon.qvoxel.network.system;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.DecoderException;
+import io.netty.handler.codec.MessageToMessageDecoder;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Decompresses packet frames written by {@link NettyCompressionEncoder}.
+ *
+ * <p>Decompressed packets are inflated straight into a pooled direct buffer of the announced size.</p>
+ */
+public class NettyCompressionDecoder extends MessageToMessageDecoder<ByteBuf> {
+    public static final int MAX_PACKET_SIZE = 1024 * 1024 * 64;
+
+    private final Inflater inflater = new Inflater();
+    private int threshold;
+
+    public NettyCompressionDecoder(int threshold) {
+        super(ByteBuf.class);
+        this.threshold = threshold;
+    }
+
+    public void setThreshold(int threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf msg, List<Object> out) throws Exception {
+        int length = readVarInt(msg);
+        if (length == 0) {
+            out.add(msg.readRetainedSlice(msg.readableBytes()));
+            return;
+        }
+
+        if (length < threshold)
+            throw new DecoderException("Compressed packet of " + length + " bytes is below the threshold of " + threshold);
+        if (length > MAX_PACKET_SIZE)
+            throw new DecoderException("Compressed packet of " + length + " bytes exceeds the maximum of " + MAX_PACKET_SIZE);
+
+        ByteBuf result = ctx.alloc().directBuffer(length, length);
+        try {
+            inflater.setInput(msg.nioBuffer());
+            ByteBuffer target = result.nioBuffer(0, length);
+            while (target.hasRemaining() && !inflater.finished()) {
+                if (inflater.inflate(target) == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                    break;
+            }
+
+            if (target.hasRemaining() || !inflater.finished())
+                throw new DecoderException("Compressed packet ended after " + target.position() + " of " + length + " bytes");
+
+            result.writerIndex(length);
+            msg.skipBytes(msg.readableBytes());
+            out.add(result);
+            result = null;
+        } catch (DataFormatException e) {
+            throw new DecoderException("Invalid compressed packet", e);
+        } finally {
+            inflater.reset();
+            if (result != null) result.release();
+        }
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+        inflater.end();
+        super.handlerRemoved(ctx);
+    }
+
+    static int readVarInt(ByteBuf buf) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (!buf.isReadable()) throw new CorruptedFrameException("Truncated var-int");
+            byte b = buf.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new CorruptedFrameException("Var-int is too big");
+    }
+}
@@ -0,0 +1,72 @@
+package dev.ultreon.qvoxel.network.system;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToByteEncoder;
+
+import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
+
+/**
+ * Compresses packet frames that are at least as large as the compression threshold.
+ *
+ * <p>Every frame starts with a var-int holding the uncompressed size of the packet, or {@code 0} when the packet was
+ * sent uncompressed. Small packets aren't worth the deflate overhead, so they're written as-is.</p>
+ *
+ * @see NettyCompressionDecoder
+ */
+public class NettyCompressionEncoder extends MessageToByteEncoder<ByteBuf> {
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    private int threshold;
+
+    public NettyCompressionEncoder(int threshold) {
+        super(ByteBuf.class, true);
+        this.threshold = threshold;
+    }
+
+    public void setThreshold(int threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, ByteBuf msg, boolean preferDirect) {
+        int length = msg.readableBytes();
+        if (length < threshold) return ctx.alloc().directBuffer(length + 1);
+        return ctx.alloc().directBuffer(length / 2 + 16);
+    }
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, ByteBuf msg, ByteBuf out) {
+        int length = msg.readableBytes();
+        if (length < threshold) {
+            writeVarInt(out, 0);
+            out.writeBytes(msg);
+            return;
+        }
+
+        writeVarInt(out, length);
+        deflater.setInput(msg.nioBuffer());
+        deflater.finish();
+        while (!deflater.finished()) {
+            out.ensureWritable(8192);
+            ByteBuffer target = out.nioBuffer(out.writerIndex(), out.writableBytes());
+            out.writerIndex(out.writerIndex() + deflater.deflate(target));
+        }
+        deflater.reset();
+        msg.skipBytes(length);
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+        deflater.end();
+        super.handlerRemoved(ctx);
+    }
+
+    static void writeVarInt(ByteBuf buf, int value) {
+        while ((value & ~0x7F) != 0) {
+            buf.writeByte(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        buf.writeByte(value);
+    }
+}
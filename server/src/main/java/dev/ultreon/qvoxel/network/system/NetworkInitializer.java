@@ -10,11 +10,11 @@ import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 
 import java.nio.channels.ClosedChannelException;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class NetworkInitializer implements ChannelHandler {
-    private final Map<Channel, IConnection<ServerPacketHandler, ClientPacketHandler>> connectionMap = new HashMap<Channel, IConnection<ServerPacketHandler, ClientPacketHandler>>();
+    private final Map<Channel, IConnection<ServerPacketHandler, ClientPacketHandler>> connectionMap = new ConcurrentHashMap<>();
     private final QuantumServer server;
 
     public NetworkInitializer(QuantumServer server) {
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.network.system;
+
+import dev.ultreon.qvoxel.CommonConstants;
+import io.netty.channel.*;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollIoHandler;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioIoHandler;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.uring.IoUring;
+import io.netty.channel.uring.IoUringIoHandler;
+import io.netty.channel.uring.IoUringServerSocketChannel;
+import io.netty.channel.uring.IoUringSocketChannel;
+
+import java.util.Locale;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * <p>The socket transports that can be used for remote connections.</p>
+ *
+ * <p>The native transports avoid the selector overhead of NIO and create less garbage per read and write, but are
+ * only available on Linux with the matching netty natives. {@linkplain #best() Automatic selection} prefers epoll and
+ * falls back to NIO. io_uring has to be selected explicitly, since it's commonly disabled in containers.</p>
+ */
+public enum NetworkTransport {
+    NIO("nio", () -> true, NioIoHandler::newFactory, NioServerSocketChannel::new, NioSocketChannel::new),
+    EPOLL("epoll", Epoll::isAvailable, EpollIoHandler::newFactory, EpollServerSocketChannel::new, EpollSocketChannel::new),
+    IO_URING("io_uring", IoUring::isAvailable, IoUringIoHandler::newFactory, IoUringServerSocketChannel::new, IoUringSocketChannel::new);
+
+    private final String name;
+    private final BooleanSupplier available;
+    private final Supplier<IoHandlerFactory> handlerFactory;
+    private final ChannelFactory<? extends ServerChannel> serverChannelFactory;
+    private final ChannelFactory<? extends Channel> channelFactory;
+
+    NetworkTransport(String name, BooleanSupplier available, Supplier<IoHandlerFactory> handlerFactory, ChannelFactory<? extends ServerChannel> serverChannelFactory, ChannelFactory<? extends Channel> channelFactory) {
+        this.name = name;
+        this.available = available;
+        this.handlerFactory = handlerFactory;
+        this.serverChannelFactory = serverChannelFactory;
+        this.channelFactory = channelFactory;
+    }
+
+    /**
+     * Gets the best transport available on this platform.
+     *
+     * @return epoll if it's available, otherwise NIO.
+     */
+    public static NetworkTransport best() {
+        return EPOLL.isAvailable() ? EPOLL : NIO;
+    }
+
+    /**
+     * Selects a transport by name, falling back to the {@linkplain #best() best available} one if it's
+     * {@code "auto"}, unknown, or not available on this platform.
+     *
+     * @param name the name of the transport, as in the server config.
+     * @return the selected transport.
+     */
+    public static NetworkTransport select(String name) {
+        if (name == null || name.equalsIgnoreCase("auto")) return best();
+
+        for (NetworkTransport transport : values()) {
+            if (!transport.name.equalsIgnoreCase(name)) continue;
+            if (transport.isAvailable()) return transport;
+
+            NetworkTransport fallback = best();
+            CommonConstants.LOGGER.warn("Network transport {} is not available, using {} instead", transport.name, fallback.name);
+            return fallback;
+        }
+
+        NetworkTransport fallback = best();
+        CommonConstants.LOGGER.warn("Unknown network transport {}, using {} instead", name, fallback.name);
+        return fallback;
+    }
+
+    public boolean isAvailable() {
+        try {
+            return available.getAsBoolean();
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Creates an event loop group for this transport.
+     *
+     * @param threads the amount of threads, or {@code 0} to use one per processor.
+     * @return the new event loop group.
+     */
+    public EventLoopGroup newEventLoopGroup(int threads) {
+        return new MultiThreadIoEventLoopGroup(threads > 0 ? threads : Runtime.getRuntime().availableProcessors(), handlerFactory.get());
+    }
+
+    public ChannelFactory<? extends ServerChannel> serverChannelFactory() {
+        return serverChannelFactory;
+    }
+
+    public ChannelFactory<? extends Channel> channelFactory() {
+        return channelFactory;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
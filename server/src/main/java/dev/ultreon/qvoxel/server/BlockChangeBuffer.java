@@ -0,0 +1,69 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.server;
+
+import dev.ultreon.qvoxel.block.state.BlockState;
+import dev.ultreon.qvoxel.block.state.BlockStateIds;
+import dev.ultreon.qvoxel.network.packets.s2c.S2CChunkBlocksPacket;
+import dev.ultreon.qvoxel.util.BlockVec;
+import dev.ultreon.qvoxel.util.ChunkVec;
+import dev.ultreon.qvoxel.world.Chunk;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.shorts.Short2ObjectLinkedOpenHashMap;
+
+/**
+ * <p>Collects the block changes of a tick, so clients get one packet per changed chunk instead of one per block.</p>
+ *
+ * <p>A block that changes more than once in a tick is only sent with its last state. Changes are only sent to players
+ * that have the chunk loaded, everyone else gets them with the chunk data. Only use this from the server thread.</p>
+ */
+final class BlockChangeBuffer {
+    private final Long2ObjectLinkedOpenHashMap<Short2ObjectLinkedOpenHashMap<BlockState>> changes = new Long2ObjectLinkedOpenHashMap<>();
+
+    void add(int x, int y, int z, BlockState state) {
+        long key = ChunkVec.toLong(BlockVec.chunkOf(x), BlockVec.chunkOf(y), BlockVec.chunkOf(z));
+        short index = (short) Chunk.getIndex(BlockVec.localize(x), BlockVec.localize(y), BlockVec.localize(z));
+        changes.computeIfAbsent(key, _ -> new Short2ObjectLinkedOpenHashMap<>()).put(index, state);
+    }
+
+    void flush(ServerWorld world) {
+        if (changes.isEmpty()) return;
+
+        BlockStateIds ids = world.getServer().getBlockStateTable().getRuntimeIds();
+        for (Long2ObjectMap.Entry<Short2ObjectLinkedOpenHashMap<BlockState>> entry : changes.long2ObjectEntrySet()) {
+            ChunkVec chunkVec = ChunkVec.fromLong(entry.getLongKey());
+            Short2ObjectLinkedOpenHashMap<BlockState> blocks = entry.getValue();
+            if (world.getChunkOrNull(chunkVec) instanceof ServerChunk chunk) chunk.updateVersion();
+
+            short[] indices = blocks.keySet().toShortArray();
+            int[] stateIds = new int[indices.length];
+            for (int i = 0; i < indices.length; i++) {
+                stateIds[i] = ids.getId(blocks.get(indices[i]));
+            }
+
+            S2CChunkBlocksPacket packet = null;
+            for (ServerPlayerEntity player : world.getPlayers()) {
+                if (!player.isChunkSent(chunkVec)) continue;
+                if (packet == null) packet = new S2CChunkBlocksPacket(chunkVec, indices, stateIds);
+                player.connection.send(packet);
+            }
+        }
+
+        changes.clear();
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.server;
+
+import dev.ultreon.libs.commons.v0.Identifier;
+import dev.ultreon.qvoxel.CommonConstants;
+import dev.ultreon.qvoxel.block.Block;
+import dev.ultreon.qvoxel.block.Blocks;
+import dev.ultreon.qvoxel.block.state.BlockState;
+import dev.ultreon.qvoxel.block.state.BlockStateIds;
+import dev.ultreon.qvoxel.registry.Registries;
+import dev.ultreon.ubo.types.ListType;
+import dev.ultreon.ubo.types.MapType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>The block state IDs used in the chunk data of a world.</p>
+ *
+ * <p>The table is stored once per world in {@code blockstates.ubo}, listing the saved form of the block state for
+ * every stored ID. Stored IDs never change meaning: when the block registry changes, the saved states are resolved
+ * against the current registry, and states that weren't known yet are appended. Chunks therefore only need to store
+ * plain integer IDs, which are remapped to the current {@link BlockStateIds} on load.</p>
+ */
+public final class BlockStateTable {
+    private static final String FILE = "blockstates.ubo";
+
+    private final BlockState[] byStored;
+    private final int[] storedByRuntime;
+    private final BlockStateIds runtime;
+
+    private BlockStateTable(BlockState[] byStored, int[] storedByRuntime, BlockStateIds runtime) {
+        this.byStored = byStored;
+        this.storedByRuntime = storedByRuntime;
+        this.runtime = runtime;
+    }
+
+    /**
+     * Loads the table of a world, and appends the block states that aren't in it yet.
+     *
+     * @param storage the world storage.
+     * @return the table.
+     * @throws IOException if the table couldn't be read or written.
+     */
+    public static BlockStateTable load(WorldStorage storage) throws IOException {
+        BlockStateIds runtime = BlockStateIds.of(Registries.BLOCK);
+
+        List<BlockState> byStored = new ArrayList<>();
+        ListType<MapType> saved = new ListType<>(MapType.class);
+        if (storage.exists(FILE)) {
+            MapType data = storage.read(FILE);
+            saved = data.getList("States", saved);
+            for (MapType state : saved) {
+                byStored.add(resolve(state));
+            }
+        }
+
+        int[] storedByRuntime = new int[runtime.size()];
+        Arrays.fill(storedByRuntime, -1);
+        for (int i = byStored.size() - 1; i >= 0; i--) {
+            int id = runtime.getId(byStored.get(i));
+            if (id >= 0) storedByRuntime[id] = i;
+        }
+
+        int known = byStored.size();
+        for (int id = 0; id < storedByRuntime.length; id++) {
+            if (storedByRuntime[id] >= 0) continue;
+
+            BlockState state = runtime.byId(id);
+            storedByRuntime[id] = byStored.size();
+            byStored.add(state);
+            saved.add(state.save());
+        }
+
+        if (byStored.size() != known) {
+            MapType data = new MapType();
+            data.put("States", saved);
+            storage.write(data, FILE);
+            CommonConstants.LOGGER.info("Added {} block states to the block state table ({} total)", byStored.size() - known, byStored.size());
+        }
+
+        return new BlockStateTable(byStored.toArray(BlockState[]::new), storedByRuntime, runtime);
+    }
+
+    private static BlockState resolve(MapType state) {
+        Identifier id = Identifier.tryParse(state.getString("block", ""));
+        Block block = id == null ? null : Registries.BLOCK.get(id);
+        if (block == null) {
+            CommonConstants.LOGGER.warn("Unknown block in block state table: {}", state.getString("block", ""));
+            return Blocks.AIR.getDefaultState();
+        }
+        return block.loadBlockState(state.getMap("Entries", new MapType()));
+    }
+
+    /**
+     * Gets the stored ID of a block state.
+     *
+     * @param state the block state.
+     * @return the stored ID.
+     * @throws IllegalArgumentException if the block isn't registered.
+     */
+    public int toStored(BlockState state) {
+        int id = runtime.getId(state);
+        if (id < 0) throw new IllegalArgumentException("Block " + state.getBlock() + " isn't registered");
+        return storedByRuntime[id];
+    }
+
+    /**
+     * Gets the block state for a stored ID.
+     *
+     * @param stored the stored ID.
+     * @return the block state, or air if the ID is unknown.
+     */
+    public BlockState fromStored(int stored) {
+        if (stored < 0 || stored >= byStored.length) return Blocks.AIR.getDefaultState();
+        return byStored[stored];
+    }
+
+    public BlockStateIds getRuntimeIds() {
+        return runtime;
+    }
+}
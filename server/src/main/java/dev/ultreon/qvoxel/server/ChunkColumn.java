@@ -37,14 +37,30 @@ public class ChunkColumn {
         chunks[index] = chunk;
     }
 
+    /**
+     * Ticks the chunks that have a ticking level, and unloads the chunks that no ticket keeps loaded anymore.
+     */
     public void tick() {
+        ChunkTicketManager tickets = world.getChunkManager().getTickets();
         for (ServerChunk chunk : chunks) {
-            if (chunk != null) {
+            if (chunk == null) continue;
+
+            int level = tickets.getLevel(chunk.vec);
+            if (ChunkTicketManager.isTicking(level)) {
                 chunk.tick();
+            } else if (!ChunkTicketManager.isLoaded(level) && chunk instanceof WorldChunk) {
+                world.unloadChunk(chunk.vec);
             }
         }
     }
 
+    public boolean isEmpty() {
+        for (ServerChunk chunk : chunks) {
+            if (chunk != null) return false;
+        }
+        return true;
+    }
+
     public void close() {
         for (ServerChunk chunk : chunks) {
             if (chunk != null) {
@@ -16,16 +16,42 @@
 
 package dev.ultreon.qvoxel.server;
 
+/**
+ * The types of tickets that keep chunks loaded, see {@link ChunkTicketManager}.
+ */
 public enum ChunkLoadTicket {
-    PLAYER(200L),
-    SPAWN(-1L);
+    /**
+     * Held by every player on the chunk it's in. The level depends on the render distance, and the ticket moves
+     * along with the player.
+     */
+    PLAYER(ChunkTicketManager.TICKING_LEVEL, -1L),
+    /**
+     * Keeps a chunk that was requested loaded for a while, without ticking it.
+     */
+    LOAD(ChunkTicketManager.LOADED_LEVEL, 200L),
+    /**
+     * Keeps a chunk ticking indefinitely.
+     */
+    SPAWN(ChunkTicketManager.TICKING_LEVEL, -1L);
 
+    private final int level;
     private final long timeout;
 
-    ChunkLoadTicket(long timeout) {
+    ChunkLoadTicket(int level, long timeout) {
+        this.level = level;
         this.timeout = timeout;
     }
 
+    /**
+     * Gets the level of the ticket on its own chunk, lower levels are stronger.
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Gets the amount of ticks after which the ticket is removed, or {@code -1} if it stays until removed.
+     */
     public long getTimeout() {
         return timeout;
     }
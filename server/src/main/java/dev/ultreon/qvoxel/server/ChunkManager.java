@@ -9,28 +9,29 @@ import dev.ultreon.qvoxel.world.gen.chunk.ChunkGenerator;
 import dev.ultreon.qvoxel.world.light.LightingSystem;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import org.joml.Vector3i;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ConcurrentLinkedDeque;
 
 public class ChunkManager {
     private final @NotNull RegionMap regionMap;
     private final @NotNull ServerWorld world;
     private final @NotNull ChunkGenerator generator;
-    private final @NotNull Deque<ChunkVec> unloadQueue = new ArrayDeque<>();
-    private final @NotNull Deque<ChunkVec> loadQueue = new ArrayDeque<>();
+    private final @NotNull Deque<ChunkVec> unloadQueue = new ConcurrentLinkedDeque<>();
+    private final @NotNull Deque<ChunkVec> loadQueue = new ConcurrentLinkedDeque<>();
     private final @NotNull LightingSystem lightingSystem;
-    private final @NotNull Map<ChunkVec, CompletableFuture<ServerChunk>> chunkLoadFutures = new HashMap<>();
+    private final @NotNull GenerationScheduler generation;
+    private final @NotNull ChunkTicketManager tickets;
     private boolean loadingChunk;
-    private final Set<ChunkVec> generating = new ConcurrentSkipListSet<>();
 
     public ChunkManager(@NotNull ServerWorld world, @NotNull ChunkGenerator generator) {
         this.world = world;
         lightingSystem = world.lightingSystem;
         this.generator = generator;
         regionMap = new RegionMap(world.getServer(), this, world);
+        tickets = new ChunkTicketManager(world.getServer());
+        generation = new GenerationScheduler(world, this, generator, lightingSystem, world.getServer().getGeneratorService());
     }
 
     public @Nullable ServerChunk getChunk(ChunkVec vec) {
@@ -52,10 +53,12 @@ public class ChunkManager {
     }
 
     public void tick() {
-        while (!unloadQueue.isEmpty()) {
-            ChunkVec vec = unloadQueue.pop();
-            @Nullable ServerChunk chunk = getChunk(vec);
-            if (chunk != null) {
+        tickets.tick();
+
+        for (ChunkVec vec; (vec = unloadQueue.poll()) != null; ) {
+            // The chunk may have gotten a ticket again since the unload was queued.
+            @Nullable ServerChunk chunk = getLoadedChunk(vec);
+            if (chunk != null && !ChunkTicketManager.isLoaded(tickets.getLevel(vec))) {
                 regionMap.getRegionAt(vec).unloadChunk(vec);
             }
         }
@@ -64,7 +67,7 @@ public class ChunkManager {
             ChunkVec vec = loadQueue.pop();
             @Nullable ServerChunk chunk = getLoadedChunk(vec);
             if (chunk == null) {
-                loadChunkAsync(vec.x, vec.y, vec.z, ChunkLoadTicket.PLAYER, GenerationBarrier.ALL).thenAccept(loadedChunk -> {
+                loadChunkAsync(vec.x, vec.y, vec.z, ChunkLoadTicket.LOAD, GenerationBarrier.ALL).thenAccept(loadedChunk -> {
                     loadedChunk.tick();
                     loadingChunk = false;
                 }).exceptionally(throwable -> {
@@ -76,15 +79,20 @@ public class ChunkManager {
                 chunk.tick();
             }
         }
+    }
 
-        regionMap.tick();
+    /**
+     * Ticks the chunks of the loaded regions, in parallel if the server has a {@link RegionTicker}.
+     */
+    public void tickRegions() {
+        regionMap.tick(world.getServer().getRegionTicker());
     }
 
     public ServerChunk getChunk(int x, int y, int z, GenerationBarrier barrier) {
-        Region region = regionMap.getRegion(new Vector3i(ChunkVec.regionOf(x), ChunkVec.regionOf(y), ChunkVec.regionOf(z)));
+        Region region = regionMap.getRegion(ChunkVec.regionOf(x), ChunkVec.regionOf(y), ChunkVec.regionOf(z));
         ServerChunk chunk = region.getChunk(ChunkVec.localize(x), ChunkVec.localize(y), ChunkVec.localize(z));
         if (chunk == null) {
-            return generate(region, x, y, z, ChunkLoadTicket.PLAYER, barrier).join();
+            return generate(x, y, z, barrier).join();
         }
         if (chunk.vec.x != x || chunk.vec.y != y || chunk.vec.z != z)
             CommonConstants.LOGGER.warn("Chunk relativePos mismatch: {} != {}", chunk.vec, new ChunkVec(x, y, z));
@@ -92,111 +100,33 @@ public class ChunkManager {
     }
 
     public @NotNull CompletableFuture<@Nullable ServerChunk> getChunkAsync(int x, int y, int z, GenerationBarrier barrier) {
-        Region region = regionMap.getRegion(new Vector3i(ChunkVec.regionOf(x), ChunkVec.regionOf(y), ChunkVec.regionOf(z)));
+        Region region = regionMap.getRegion(ChunkVec.regionOf(x), ChunkVec.regionOf(y), ChunkVec.regionOf(z));
         ServerChunk chunk = region.getChunk(ChunkVec.localize(x), ChunkVec.localize(y), ChunkVec.localize(z));
         if (chunk == null) {
-            return generate(region, x, y, z, ChunkLoadTicket.PLAYER, barrier);
+            return generate(x, y, z, barrier);
         }
         return CompletableFuture.completedFuture(chunk);
     }
 
     public @NotNull CompletableFuture<@NotNull ServerChunk> loadChunkAsync(int x, int y, int z, ChunkLoadTicket ticket, GenerationBarrier barrier) {
-        Region region = regionMap.getRegion(new Vector3i(ChunkVec.regionOf(x), ChunkVec.regionOf(y), ChunkVec.regionOf(z)));
+        Region region = regionMap.getRegion(ChunkVec.regionOf(x), ChunkVec.regionOf(y), ChunkVec.regionOf(z));
+        tickets.addTicket(x, y, z, ticket);
         ServerChunk chunk = region.getChunk(ChunkVec.localize(x), ChunkVec.localize(y), ChunkVec.localize(z));
         if (chunk == null) {
-            return generate(region, x, y, z, ticket, barrier);
+            return generate(x, y, z, barrier);
         } else {
-            chunk.consumeTicket(ticket);
             return CompletableFuture.completedFuture(chunk);
         }
     }
 
-    CompletableFuture<ServerChunk> generate(Region region, int x, int y, int z, ChunkLoadTicket ticket, GenerationBarrier barrier) {
-        ChunkVec pos = new ChunkVec(x, y, z);
-        CompletableFuture<ServerChunk> future = chunkLoadFutures.get(pos);
-        ServerChunk chunk = regionMap.getRegion(ChunkVec.regionOf(x), ChunkVec.regionOf(y), ChunkVec.regionOf(z))
-                .getChunk(ChunkVec.localize(x), ChunkVec.localize(y), ChunkVec.localize(z));
-        if (Thread.currentThread().getThreadGroup().equals(QuantumServer.GENERATOR_SERVICE)) {
-            if (chunk != null)
-                return CompletableFuture.completedFuture(chunk);
-        }
-        if (future != null) return future;
-
-        boolean waitForGenerator = false;
-        synchronized (generating) {
-            if (generating.contains(pos)) {
-                waitForGenerator = true;
-            }
-            generating.add(pos);
-        }
-
-        if (waitForGenerator) {
-            long start = System.currentTimeMillis();
-            while ((future = chunkLoadFutures.get(pos)) == null) {
-                if (!generating.contains(pos))
-                    return getChunkAsync(x, y, z, barrier);
-
-                if (System.currentTimeMillis() - start > 10000) {
-                    CommonConstants.LOGGER.error("Chunk generation timed out: {}", pos);
-                    return CompletableFuture.failedFuture(new RuntimeException("Chunk generation timed out: " + pos));
-                }
-            }
-            return future;
-        }
-
-        if (chunk instanceof WorldChunk) return CompletableFuture.completedFuture(chunk);
-        if (chunk instanceof BuilderChunk builder) {
-            if (builder.currentBarrier.compareTo(barrier) >= 0)
-                return CompletableFuture.completedFuture(chunk);
-            return startGenerating(x, y, z, ticket, barrier, builder, pos);
-        }
-
-        BuilderChunk builder = new BuilderChunk(world, pos, region);
-        region.setChunk(ChunkVec.localize(x), ChunkVec.localize(y), ChunkVec.localize(z), builder);
-        return startGenerating(x, y, z, ticket, barrier, builder, pos);
-    }
-
-    private @NotNull CompletableFuture<ServerChunk> startGenerating(int x, int y, int z, ChunkLoadTicket ticket, GenerationBarrier barrier, BuilderChunk builder, ChunkVec pos) {
-        CompletableFuture<ServerChunk> serverChunkCompletableFuture = CompletableFuture.supplyAsync(
-                () -> {
-                    try {
-                        return builder.process(() -> generateSync(x, y, z, ticket, barrier, builder));
-                    } catch (Exception e) {
-                        CommonConstants.LOGGER.error("Failed to generate chunk at {}", pos, e);
-                        throw new RuntimeException(e);
-                    } finally {
-                        chunkLoadFutures.remove(pos);
-                        generating.remove(pos);
-                    }
-                }, world.getServer().getGeneratorService()
-        );
-        chunkLoadFutures.put(pos, serverChunkCompletableFuture);
-        return serverChunkCompletableFuture;
-    }
-
-    private @NotNull ServerChunk generateSync(int x, int y, int z, ChunkLoadTicket ticket, GenerationBarrier barrier, BuilderChunk builder) {
-        try {
-            // Generate terrain and structures into the builder chunk
-            generator.generate(world, builder, barrier, lightingSystem);
-
-            // Build the final server chunk and register it in the region map
-            WorldChunk chunk = builder.build();
-            regionMap.getRegion(ChunkVec.regionOf(x), ChunkVec.regionOf(y), ChunkVec.regionOf(z))
-                    .setChunk(ChunkVec.localize(x), ChunkVec.localize(y), ChunkVec.localize(z), chunk);
-
-            // Consume the ticket so that the chuk won't be unloaded while it is still in use.
-            chunk.consumeTicket(ticket);
-
+    CompletableFuture<ServerChunk> generate(int x, int y, int z, GenerationBarrier barrier) {
+        // The ticket keeps the chunk from being unloaded right after it's generated.
+        tickets.addTicket(x, y, z, ChunkLoadTicket.LOAD);
+        return generation.request(new ChunkVec(x, y, z), barrier).thenApply(chunk -> {
             if (chunk.vec.x != x || chunk.vec.y != y || chunk.vec.z != z)
                 CommonConstants.LOGGER.warn("Chunk position mismatch on generation: {} != {}", chunk.vec, new ChunkVec(x, y, z));
             return chunk;
-        } catch (Exception e) {
-            CommonConstants.LOGGER.error("Failed to generate chunk {}, {}, {}", x, y, z);
-            world.getServer().onChunkError(x, y, z, e);
-            throw e;
-        } finally {
-            builder.currentBarrier = barrier;
-        }
+        });
     }
 
     public @Nullable Chunk getChunkOrNull(int x, int y, int z) {
@@ -205,20 +135,19 @@ public class ChunkManager {
         return region.getChunkOrNull(ChunkVec.localize(x), ChunkVec.localize(y), ChunkVec.localize(z));
     }
 
+    @NotNull ChunkTicketManager getTickets() {
+        return tickets;
+    }
+
     public @NotNull RegionMap getRegionMap() {
         return regionMap;
     }
 
     public void close() {
+        generation.close();
         regionMap.close();
         unloadQueue.clear();
         loadQueue.clear();
-
-        for (CompletableFuture<ServerChunk> value : chunkLoadFutures.values()) {
-            value.cancel(true);
-        }
-
-        chunkLoadFutures.clear();
     }
 
     public ServerChunk getChunkAt(int x, int y, int z, GenerationBarrier generationBarrier) {
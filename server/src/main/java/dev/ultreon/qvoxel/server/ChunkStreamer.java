@@ -0,0 +1,378 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.server;
+
+import dev.ultreon.qvoxel.CommonConstants;
+import dev.ultreon.qvoxel.network.packets.s2c.S2CChunkCachedPacket;
+import dev.ultreon.qvoxel.network.packets.s2c.S2CChunkUnloadPacket;
+import dev.ultreon.qvoxel.util.BlockVec;
+import dev.ultreon.qvoxel.util.ChunkVec;
+import dev.ultreon.qvoxel.util.Direction;
+import dev.ultreon.qvoxel.world.Chunk;
+import dev.ultreon.qvoxel.world.World;
+import dev.ultreon.qvoxel.world.gen.GenerationBarrier;
+import it.unimi.dsi.fastutil.longs.Long2LongLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongHeapPriorityQueue;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import org.joml.Vector3d;
+
+/**
+ * <p>Streams the chunks around a player to its client.</p>
+ *
+ * <p>Chunks that still have to be sent are kept in a priority queue, ordered by distance and weighted towards the
+ * direction the player is looking in. The queue is only rebuilt when the player crosses a chunk boundary or turns
+ * around, not every tick.</p>
+ *
+ * <p>Chunks that went out of range are unloaded on the client, which keeps the last few of them in a cache. This
+ * class mirrors that cache, so when the player comes back to a chunk that didn't change, the client is told to use
+ * its cached copy instead of getting the full chunk data again.</p>
+ *
+ * <p>The amount of chunks sent per tick adapts to the connection: it grows while the client keeps up, and is halved
+ * when the outbound buffer fills up or the round trip time rises well above the lowest one measured.</p>
+ *
+ * <p>Only use this from the server thread.</p>
+ */
+final class ChunkStreamer {
+    /**
+     * The radius in chunks that has to be sent before the player is considered logged in.
+     */
+    static final int INITIAL_RADIUS = 2;
+    static final int MIN_CHUNKS_PER_TICK = 1;
+    static final int MAX_CHUNKS_PER_TICK = 32;
+    private static final int REPRIORITIZE_INTERVAL = 10;
+    private static final double REPRIORITIZE_DOT = 0.87;
+    /**
+     * Below this horizontal length of the look vector, the player is looking straight up or down and only the
+     * distance counts.
+     */
+    private static final double MIN_LOOK_LENGTH = 0.05;
+    /**
+     * How many chunks beyond the render distance sent chunks are kept, so walking along a chunk border doesn't unload
+     * and load the same chunks over and over.
+     */
+    private static final int UNLOAD_MARGIN = 1;
+
+    private final ServerPlayerEntity player;
+    private final LongOpenHashSet sent = new LongOpenHashSet();
+    private final LongOpenHashSet pending = new LongOpenHashSet();
+    private final LongOpenHashSet loading = new LongOpenHashSet();
+    private final LongOpenHashSet waiting = new LongOpenHashSet();
+    private final LongHeapPriorityQueue queue = new LongHeapPriorityQueue(this::compare);
+    private final Long2LongLinkedOpenHashMap cached = new Long2LongLinkedOpenHashMap();
+
+    private boolean centered;
+    private int centerX, centerY, centerZ;
+    private double lookX, lookZ = 1;
+    private int ticks;
+
+    private double chunksPerTick = 4;
+    private long lowestPing = Long.MAX_VALUE;
+
+    private int initialTotal = -1;
+    private int initialSent;
+    private boolean initialDone;
+
+    ChunkStreamer(ServerPlayerEntity player) {
+        this.player = player;
+    }
+
+    /**
+     * Checks whether the chunk was sent to the client.
+     */
+    boolean isSent(ChunkVec vec) {
+        return sent.contains(BlockVec.pack(vec.x, vec.y, vec.z));
+    }
+
+    /**
+     * Checks whether all chunks of the {@linkplain #INITIAL_RADIUS initial radius} were sent.
+     */
+    boolean isInitialLoadDone() {
+        return initialDone;
+    }
+
+    /**
+     * Unloads everything that was sent, for example after a teleport. The chunks around the new position are queued
+     * on the next tick.
+     */
+    void reset() {
+        LongIterator iterator = sent.iterator();
+        while (iterator.hasNext()) {
+            unload(iterator.nextLong());
+        }
+        sent.clear();
+        pending.clear();
+        waiting.clear();
+        queue.clear();
+        centered = false;
+    }
+
+    /**
+     * Called when a chunk that couldn't be sent yet, because its neighbors weren't loaded, might be ready now.
+     */
+    void retry(ChunkVec vec) {
+        long key = BlockVec.pack(vec.x, vec.y, vec.z);
+        if (waiting.remove(key)) queue.enqueue(key);
+    }
+
+    /**
+     * Called when the client didn't have a chunk it was told to load from its cache, the chunk is sent again.
+     */
+    void onCacheMiss(ChunkVec vec) {
+        long key = BlockVec.pack(vec.x, vec.y, vec.z);
+        cached.remove(key);
+        if (sent.remove(key) && pending.add(key)) queue.enqueue(key);
+    }
+
+    void tick() {
+        ServerWorld world = player.getServerWorld();
+        if (world == null) return;
+
+        int x = BlockVec.chunkOf((int) Math.floor(player.position.x));
+        int y = BlockVec.chunkOf((int) Math.floor(player.position.y));
+        int z = BlockVec.chunkOf((int) Math.floor(player.position.z));
+        Vector3d forward = player.getForward();
+
+        if (!centered || x != centerX || y != centerY || z != centerZ) {
+            recenter(x, y, z, forward);
+        } else if (++ticks >= REPRIORITIZE_INTERVAL) {
+            ticks = 0;
+            if (updateLook(forward)) {
+                rebuildQueue();
+            }
+        }
+
+        send(world);
+    }
+
+    private void recenter(int x, int y, int z, Vector3d forward) {
+        centerX = x;
+        centerY = y;
+        centerZ = z;
+        updateLook(forward);
+        ticks = 0;
+
+        boolean initial = !isInitialLoadDone();
+        int radius = Math.max(player.getClientRenderDistance() / World.CHUNK_SIZE, 1);
+        LongIterator sentIterator = sent.iterator();
+        while (sentIterator.hasNext()) {
+            long key = sentIterator.nextLong();
+            if (!inRange(key, radius + UNLOAD_MARGIN)) {
+                sentIterator.remove();
+                unload(key);
+            }
+        }
+        if (initial) radius = Math.min(radius, INITIAL_RADIUS);
+
+        // Drop chunks that went out of range before they were sent.
+        LongIterator iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            long key = iterator.nextLong();
+            if (!inRange(key, radius)) {
+                iterator.remove();
+                waiting.remove(key);
+            }
+        }
+
+        for (int cx = x - radius; cx <= x + radius; cx++) {
+            for (int cy = y - radius; cy <= y + radius; cy++) {
+                for (int cz = z - radius; cz <= z + radius; cz++) {
+                    long key = BlockVec.pack(cx, cy, cz);
+                    if (!sent.contains(key)) pending.add(key);
+                }
+            }
+        }
+
+        // Chunks that were waiting on their neighbors get another try, the neighbors may have loaded meanwhile.
+        waiting.clear();
+        rebuildQueue();
+
+        centered = true;
+        if (initial && initialTotal < 0) {
+            initialTotal = pending.size();
+            if (initialTotal == 0) finishInitialLoad(null);
+            else player.getServer().onChunkLoad(0, initialTotal, null);
+        }
+    }
+
+    private void rebuildQueue() {
+        queue.clear();
+        LongIterator iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            long key = iterator.nextLong();
+            if (!loading.contains(key) && !waiting.contains(key)) queue.enqueue(key);
+        }
+    }
+
+    private void send(ServerWorld world) {
+        adaptRate();
+
+        int budget = (int) chunksPerTick;
+        while (budget > 0 && !queue.isEmpty() && player.connection.isWritable()) {
+            long key = queue.dequeueLong();
+            if (!pending.contains(key) || loading.contains(key)) continue;
+            budget--;
+
+            int x = BlockVec.unpackX(key);
+            int y = BlockVec.unpackY(key);
+            int z = BlockVec.unpackZ(key);
+            Chunk chunk = world.getChunkOrNull(x, y, z);
+            if (chunk instanceof WorldChunk worldChunk) {
+                trySend(key, worldChunk);
+                continue;
+            }
+
+            loading.add(key);
+            world.loadChunkAsync(x, y, z, ChunkLoadTicket.LOAD, GenerationBarrier.ALL).whenCompleteAsync((loaded, throwable) -> {
+                loading.remove(key);
+                if (!pending.contains(key)) return;
+                if (throwable != null) {
+                    CommonConstants.LOGGER.error("Failed to load chunk for player", throwable);
+                } else if (loaded instanceof WorldChunk worldChunk) {
+                    trySend(key, worldChunk);
+                    return;
+                }
+
+                // Still wanted, try again on a later tick.
+                queue.enqueue(key);
+            }, player.getServer());
+        }
+    }
+
+    private void trySend(long key, WorldChunk chunk) {
+        if (cached.containsKey(key) && cached.get(key) == chunk.getVersion()) {
+            cached.remove(key);
+            player.connection.send(new S2CChunkCachedPacket(chunk.vec, chunk.getVersion()));
+        } else if (chunk.sendChunkData(player)) {
+            // The client drops its cached copy when it gets the chunk data.
+            cached.remove(key);
+        } else {
+            // The client meshes chunks using their neighbors, so those have to be loaded first.
+            if (waiting.add(key)) loadNeighbors(chunk);
+            return;
+        }
+
+        pending.remove(key);
+        sent.add(key);
+
+        if (!initialDone && initialTotal >= 0) {
+            if (pending.isEmpty()) {
+                finishInitialLoad(chunk.vec);
+            } else {
+                initialSent = Math.min(initialSent + 1, initialTotal - 1);
+                player.getServer().onChunkLoad(initialSent, initialTotal, chunk.vec);
+            }
+        }
+    }
+
+    private void unload(long key) {
+        int x = BlockVec.unpackX(key);
+        int y = BlockVec.unpackY(key);
+        int z = BlockVec.unpackZ(key);
+        long version = -1;
+        if (player.getServerWorld().getChunkOrNull(x, y, z) instanceof ServerChunk chunk) {
+            // Same eviction order as the client, the oldest chunk goes first.
+            version = chunk.getVersion();
+            cached.putAndMoveToLast(key, version);
+            if (cached.size() > S2CChunkUnloadPacket.CACHE_SIZE) cached.removeFirstLong();
+        } else {
+            cached.remove(key);
+        }
+        player.connection.send(new S2CChunkUnloadPacket(new ChunkVec(x, y, z), version));
+    }
+
+    private void loadNeighbors(WorldChunk chunk) {
+        ServerWorld world = chunk.getWorld();
+        for (Direction direction : Direction.values()) {
+            int x = chunk.vec.x + direction.getNormalX();
+            int y = chunk.vec.y + direction.getNormalY();
+            int z = chunk.vec.z + direction.getNormalZ();
+            if (world.getChunkOrNull(x, y, z) == null) {
+                world.loadChunkAsync(x, y, z, ChunkLoadTicket.LOAD, GenerationBarrier.ALL);
+            }
+        }
+    }
+
+    /**
+     * Finishes the initial load, the next tick queues the chunks of the full render distance.
+     */
+    private void finishInitialLoad(ChunkVec vec) {
+        initialDone = true;
+        player.getServer().onChunkLoad(initialTotal, initialTotal, vec);
+        player.onInitialChunksLoaded();
+        centered = false;
+    }
+
+    /**
+     * Grows the send rate while the client keeps up, and halves it when the connection backs up.
+     */
+    private void adaptRate() {
+        long ping = player.connection.getPing();
+        if (ping > 0) lowestPing = Math.min(lowestPing, ping);
+
+        boolean congested = !player.connection.isWritable() || ping > 0 && ping > lowestPing * 2 + 50;
+        if (congested) {
+            chunksPerTick = Math.max(MIN_CHUNKS_PER_TICK, chunksPerTick / 2);
+        } else if (!queue.isEmpty()) {
+            chunksPerTick = Math.min(MAX_CHUNKS_PER_TICK, chunksPerTick + 0.5);
+        }
+    }
+
+    private boolean inRange(long key, int radius) {
+        return Math.abs(BlockVec.unpackX(key) - centerX) <= radius
+                && Math.abs(BlockVec.unpackY(key) - centerY) <= radius
+                && Math.abs(BlockVec.unpackZ(key) - centerZ) <= radius;
+    }
+
+    /**
+     * Updates the horizontal look direction, if it turned far enough to matter.
+     *
+     * @return whether the look direction changed.
+     */
+    private boolean updateLook(Vector3d forward) {
+        double length = Math.sqrt(forward.x * forward.x + forward.z * forward.z);
+        boolean level = length >= MIN_LOOK_LENGTH;
+        double x = level ? forward.x / length : 0;
+        double z = level ? forward.z / length : 0;
+
+        boolean wasLevel = lookX != 0 || lookZ != 0;
+        if (level == wasLevel && (!level || x * lookX + z * lookZ >= REPRIORITIZE_DOT)) return false;
+
+        lookX = x;
+        lookZ = z;
+        return true;
+    }
+
+    /**
+     * Orders chunks by squared distance, chunks behind the player count up to twice as far away.
+     * While the player looks straight up or down, chunks are ordered by distance only.
+     */
+    private int compare(long a, long b) {
+        return Double.compare(priority(a), priority(b));
+    }
+
+    private double priority(long key) {
+        int dx = BlockVec.unpackX(key) - centerX;
+        int dy = BlockVec.unpackY(key) - centerY;
+        int dz = BlockVec.unpackZ(key) - centerZ;
+        double distance = dx * dx + dy * dy + dz * dz;
+        if (distance <= 2) return distance;
+
+        double dot = (dx * lookX + dz * lookZ) / Math.sqrt(distance);
+        return distance * (1.5 - 0.5 * dot);
+    }
+}
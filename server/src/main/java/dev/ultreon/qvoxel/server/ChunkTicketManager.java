@@ -0,0 +1,305 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.server;
+
+import dev.ultreon.qvoxel.util.BlockVec;
+import dev.ultreon.qvoxel.util.ChunkVec;
+import dev.ultreon.qvoxel.world.World;
+import it.unimi.dsi.fastutil.ints.IntArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.Long2ByteOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectHeapPriorityQueue;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+
+import java.util.Comparator;
+
+/**
+ * <p>Decides which chunks of a world are loaded and ticked, based on tickets.</p>
+ *
+ * <p>A ticket keeps the chunk it's placed on at its level, lower levels are stronger. Levels spread to the 26
+ * neighbours of a chunk, one level weaker per step, so a ticket covers a cube around its chunk. The level of a chunk
+ * is the strongest level any ticket gives it:</p>
+ * <ul>
+ *     <li>{@value #TICKING_LEVEL} or lower: the chunk is loaded and ticked.</li>
+ *     <li>{@value #LOADED_LEVEL}: the chunk is kept loaded, but not ticked.</li>
+ *     <li>Anything weaker: the chunk is unloaded.</li>
+ * </ul>
+ *
+ * <p>Levels are only stored for chunks within reach of a ticket, and are updated incrementally when a ticket is
+ * added or removed. Players hold a ticket on the chunk they are in, which is only moved when they cross a chunk
+ * boundary.</p>
+ *
+ * <p>Tickets can be added from any thread, the other methods must be called from the server thread.</p>
+ */
+final class ChunkTicketManager {
+    /**
+     * Chunks at this level or lower are ticked.
+     */
+    static final int TICKING_LEVEL = 32;
+    /**
+     * Chunks at this level or lower are kept loaded.
+     */
+    static final int LOADED_LEVEL = 33;
+    /**
+     * The level of chunks that no ticket reaches.
+     */
+    static final int UNLOADED_LEVEL = LOADED_LEVEL + 1;
+
+    private final QuantumServer server;
+    private final Long2ObjectOpenHashMap<ObjectArrayList<Ticket>> tickets = new Long2ObjectOpenHashMap<>();
+    private final Long2ByteOpenHashMap levels = new Long2ByteOpenHashMap();
+    private final ObjectHeapPriorityQueue<Expiry> expiries = new ObjectHeapPriorityQueue<>(Comparator.comparingLong(Expiry::at));
+    private final Reference2ObjectOpenHashMap<ServerPlayerEntity, Ticket> players = new Reference2ObjectOpenHashMap<>();
+    private final LongArrayFIFOQueue decreases = new LongArrayFIFOQueue();
+    private final LongArrayFIFOQueue increases = new LongArrayFIFOQueue();
+    private final IntArrayFIFOQueue increaseLevels = new IntArrayFIFOQueue();
+    private long ticks;
+
+    static final class Ticket {
+        final ChunkLoadTicket type;
+        final long pos;
+        final int level;
+        long expiresAt;
+
+        Ticket(ChunkLoadTicket type, long pos, int level, long expiresAt) {
+            this.type = type;
+            this.pos = pos;
+            this.level = level;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private record Expiry(Ticket ticket, long at) {
+    }
+
+    ChunkTicketManager(QuantumServer server) {
+        this.server = server;
+        levels.defaultReturnValue((byte) UNLOADED_LEVEL);
+    }
+
+    /**
+     * Adds a ticket of the given type on a chunk, using the level and timeout of the type. If the chunk already has
+     * a ticket of that type, its timeout is reset instead. Can be called from any thread.
+     */
+    void addTicket(int x, int y, int z, ChunkLoadTicket type) {
+        if (type == ChunkLoadTicket.PLAYER)
+            throw new IllegalArgumentException("Player tickets follow the player, see updatePlayer");
+        if (!server.isServerThread()) {
+            server.execute(() -> addTicket(x, y, z, type));
+            return;
+        }
+
+        long pos = BlockVec.pack(x, y, z);
+        long expiresAt = type.isIndefinite() ? Long.MAX_VALUE : ticks + type.getTimeout();
+        ObjectArrayList<Ticket> list = tickets.get(pos);
+        if (list != null) {
+            for (Ticket ticket : list) {
+                if (ticket.type == type && ticket.level == type.getLevel()) {
+                    if (expiresAt > ticket.expiresAt) refresh(ticket, expiresAt);
+                    return;
+                }
+            }
+        }
+
+        Ticket ticket = add(pos, type, type.getLevel(), Long.MAX_VALUE);
+        if (expiresAt != Long.MAX_VALUE) refresh(ticket, expiresAt);
+    }
+
+    private void refresh(Ticket ticket, long expiresAt) {
+        ticket.expiresAt = expiresAt;
+        expiries.enqueue(new Expiry(ticket, expiresAt));
+    }
+
+    private Ticket add(long pos, ChunkLoadTicket type, int level, long expiresAt) {
+        int oldSource = sourceLevel(pos);
+        Ticket ticket = new Ticket(type, pos, level, expiresAt);
+        tickets.computeIfAbsent(pos, _ -> new ObjectArrayList<>(2)).add(ticket);
+        onSourceChanged(pos, oldSource);
+        return ticket;
+    }
+
+    private void remove(Ticket ticket) {
+        ObjectArrayList<Ticket> list = tickets.get(ticket.pos);
+        if (list == null) return;
+
+        int oldSource = sourceLevel(ticket.pos);
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == ticket) {
+                list.remove(i);
+                break;
+            }
+        }
+        if (list.isEmpty()) tickets.remove(ticket.pos);
+        onSourceChanged(ticket.pos, oldSource);
+    }
+
+    /**
+     * Moves the ticket of a player to the chunk it's in, if it crossed a chunk boundary.
+     */
+    void updatePlayer(ServerPlayerEntity player) {
+        long pos = BlockVec.pack(
+                BlockVec.chunkOf((int) Math.floor(player.position.x)),
+                BlockVec.chunkOf((int) Math.floor(player.position.y)),
+                BlockVec.chunkOf((int) Math.floor(player.position.z))
+        );
+        int radius = Math.max(player.getClientRenderDistance() / World.CHUNK_SIZE, 1);
+        int level = Math.max(TICKING_LEVEL - radius, 0);
+
+        Ticket old = players.get(player);
+        if (old != null && old.pos == pos && old.level == level) return;
+
+        // Add the new ticket first, so the chunks both tickets cover keep their level.
+        players.put(player, add(pos, ChunkLoadTicket.PLAYER, level, Long.MAX_VALUE));
+        if (old != null) remove(old);
+    }
+
+    /**
+     * Removes the ticket of a player. Can be called from any thread.
+     */
+    void removePlayer(ServerPlayerEntity player) {
+        if (!server.isServerThread()) {
+            server.execute(() -> removePlayer(player));
+            return;
+        }
+
+        Ticket ticket = players.remove(player);
+        if (ticket != null) remove(ticket);
+    }
+
+    /**
+     * Removes the tickets that timed out.
+     */
+    void tick() {
+        ticks++;
+        while (!expiries.isEmpty() && expiries.first().at() <= ticks) {
+            Expiry expiry = expiries.dequeue();
+            // Tickets that were refreshed have a newer entry.
+            if (expiry.ticket().expiresAt == expiry.at()) remove(expiry.ticket());
+        }
+    }
+
+    int getLevel(int x, int y, int z) {
+        return levels.get(BlockVec.pack(x, y, z));
+    }
+
+    int getLevel(ChunkVec vec) {
+        return getLevel(vec.x, vec.y, vec.z);
+    }
+
+    static boolean isTicking(int level) {
+        return level <= TICKING_LEVEL;
+    }
+
+    static boolean isLoaded(int level) {
+        return level <= LOADED_LEVEL;
+    }
+
+    private int sourceLevel(long pos) {
+        ObjectArrayList<Ticket> list = tickets.get(pos);
+        if (list == null) return UNLOADED_LEVEL;
+
+        int level = UNLOADED_LEVEL;
+        for (Ticket ticket : list) level = Math.min(level, ticket.level);
+        return level;
+    }
+
+    private void onSourceChanged(long pos, int oldSource) {
+        int source = sourceLevel(pos);
+        if (source == oldSource) return;
+
+        int current = levels.get(pos);
+        if (source < current) {
+            levels.put(pos, (byte) source);
+            decreases.enqueue(pos);
+            propagateDecreases();
+        } else if (source > oldSource && current == oldSource) {
+            // The level of the chunk may have come from the ticket that was removed.
+            increases.enqueue(pos);
+            increaseLevels.enqueue(current);
+            levels.remove(pos);
+            propagateIncreases();
+        }
+    }
+
+    /**
+     * Spreads lowered levels to the neighbours that get a lower level through them.
+     */
+    private void propagateDecreases() {
+        while (!decreases.isEmpty()) {
+            long pos = decreases.dequeueLong();
+            int next = levels.get(pos) + 1;
+            if (next > LOADED_LEVEL) continue;
+
+            int x = BlockVec.unpackX(pos);
+            int y = BlockVec.unpackY(pos);
+            int z = BlockVec.unpackZ(pos);
+            for (int nx = x - 1; nx <= x + 1; nx++) {
+                for (int ny = y - 1; ny <= y + 1; ny++) {
+                    for (int nz = z - 1; nz <= z + 1; nz++) {
+                        long neighbor = BlockVec.pack(nx, ny, nz);
+                        if (neighbor != pos && levels.get(neighbor) > next) {
+                            levels.put(neighbor, (byte) next);
+                            decreases.enqueue(neighbor);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Clears the levels that were derived from a raised level, then fills them in again from the tickets and the
+     * levels around the cleared area.
+     */
+    private void propagateIncreases() {
+        while (!increases.isEmpty()) {
+            long pos = increases.dequeueLong();
+            int level = increaseLevels.dequeueInt();
+
+            int source = sourceLevel(pos);
+            if (source <= LOADED_LEVEL) {
+                levels.put(pos, (byte) source);
+                decreases.enqueue(pos);
+            }
+
+            int x = BlockVec.unpackX(pos);
+            int y = BlockVec.unpackY(pos);
+            int z = BlockVec.unpackZ(pos);
+            for (int nx = x - 1; nx <= x + 1; nx++) {
+                for (int ny = y - 1; ny <= y + 1; ny++) {
+                    for (int nz = z - 1; nz <= z + 1; nz++) {
+                        long neighbor = BlockVec.pack(nx, ny, nz);
+                        if (neighbor == pos) continue;
+
+                        int neighborLevel = levels.get(neighbor);
+                        if (neighborLevel == UNLOADED_LEVEL) continue;
+                        if (neighborLevel == level + 1) {
+                            levels.remove(neighbor);
+                            increases.enqueue(neighbor);
+                            increaseLevels.enqueue(neighborLevel);
+                        } else if (neighborLevel <= level) {
+                            decreases.enqueue(neighbor);
+                        }
+                    }
+                }
+            }
+        }
+        propagateDecreases();
+    }
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.server;
+
+import dev.ultreon.qvoxel.entity.Entity;
+import dev.ultreon.qvoxel.network.Packet;
+import dev.ultreon.qvoxel.network.handler.ClientPacketHandler;
+import dev.ultreon.qvoxel.network.packets.s2c.S2CEntityDespawnPacket;
+import dev.ultreon.qvoxel.network.packets.s2c.S2CEntityMovesPacket;
+import dev.ultreon.qvoxel.network.packets.s2c.S2CEntityTeleportPacket;
+import dev.ultreon.qvoxel.network.packets.s2c.S2CPlayerSpawnPacket;
+import dev.ultreon.qvoxel.player.PlayerEntity;
+import dev.ultreon.qvoxel.util.BlockVec;
+import dev.ultreon.qvoxel.world.World;
+import it.unimi.dsi.fastutil.bytes.ByteArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceArrayList;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import it.unimi.dsi.fastutil.shorts.ShortArrayList;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * <p>Decides which entities every player can see, and keeps their clients up to date.</p>
+ *
+ * <p>Entities are kept in a grid of chunk-sized cells. Every tick, each player collects the entities in the cells
+ * within its tracking range. Entities that came into range are spawned on the client, entities that left are
+ * despawned. Movement is quantized and only sent when it changed, as deltas batched into one packet per player per
+ * tick.</p>
+ *
+ * <p>Entities can be added and removed from any thread, the changes are applied on the next tick.</p>
+ */
+final class EntityTracker {
+    /**
+     * The maximum tracking range in chunks. Players with a smaller render distance use that instead.
+     */
+    static final int TRACKING_RANGE = 4;
+
+    private final Reference2ObjectLinkedOpenHashMap<Entity, Tracked> tracked = new Reference2ObjectLinkedOpenHashMap<>();
+    private final Reference2ObjectLinkedOpenHashMap<ServerPlayerEntity, Viewer> viewers = new Reference2ObjectLinkedOpenHashMap<>();
+    private final Long2ObjectOpenHashMap<ReferenceArrayList<Tracked>> cells = new Long2ObjectOpenHashMap<>();
+    private final Queue<Change> changes = new ConcurrentLinkedQueue<>();
+
+    private record Change(Entity entity, boolean added) {
+    }
+
+    private static final class Tracked {
+        final Entity entity;
+        /**
+         * The id the entity was spawned with. Players get a new id when they rejoin a world, so despawns and moves
+         * must not use the current one.
+         */
+        final int id;
+        long cell;
+        long x, y, z;
+        byte yawBody, yawHead, pitchHead;
+        final ReferenceOpenHashSet<Viewer> viewers = new ReferenceOpenHashSet<>();
+
+        Tracked(Entity entity) {
+            this.entity = entity;
+            this.id = entity.getId();
+        }
+    }
+
+    private static final class Viewer {
+        final ServerPlayerEntity player;
+        ReferenceOpenHashSet<Tracked> visible = new ReferenceOpenHashSet<>();
+        ReferenceOpenHashSet<Tracked> next = new ReferenceOpenHashSet<>();
+        final IntArrayList despawns = new IntArrayList();
+        final IntArrayList moves = new IntArrayList();
+        final ShortArrayList deltas = new ShortArrayList();
+        final ByteArrayList rotations = new ByteArrayList();
+
+        Viewer(ServerPlayerEntity player) {
+            this.player = player;
+        }
+    }
+
+    /**
+     * Starts tracking an entity. Players are also registered as viewers.
+     */
+    void add(Entity entity) {
+        changes.add(new Change(entity, true));
+    }
+
+    /**
+     * Stops tracking an entity, despawning it for every player that could see it.
+     */
+    void remove(Entity entity) {
+        changes.add(new Change(entity, false));
+    }
+
+    void tick() {
+        applyChanges();
+
+        for (Tracked entry : tracked.values()) {
+            updateCell(entry);
+            updateMovement(entry);
+        }
+
+        for (Viewer viewer : viewers.values()) {
+            updateInterest(viewer);
+        }
+
+        for (Viewer viewer : viewers.values()) {
+            flush(viewer);
+        }
+    }
+
+    private void applyChanges() {
+        Change change;
+        while ((change = changes.poll()) != null) {
+            if (change.added()) startTracking(change.entity());
+            else stopTracking(change.entity());
+        }
+    }
+
+    private void startTracking(Entity entity) {
+        if (entity instanceof ServerPlayerEntity player && !viewers.containsKey(player)) {
+            viewers.put(player, new Viewer(player));
+        }
+
+        if (tracked.containsKey(entity) || createSpawnPacket(entity) == null) return;
+
+        Tracked entry = new Tracked(entity);
+        entry.cell = cellOf(entity);
+        cells.computeIfAbsent(entry.cell, _ -> new ReferenceArrayList<>()).add(entry);
+        snapshot(entry);
+        tracked.put(entity, entry);
+    }
+
+    private void stopTracking(Entity entity) {
+        Tracked entry = tracked.remove(entity);
+        if (entry != null) {
+            removeFromCell(entry);
+            for (Viewer viewer : entry.viewers) {
+                viewer.visible.remove(entry);
+                viewer.despawns.add(entry.id);
+            }
+        }
+
+        if (entity instanceof ServerPlayerEntity player) {
+            Viewer viewer = viewers.remove(player);
+            if (viewer != null) {
+                for (Tracked other : viewer.visible) other.viewers.remove(viewer);
+            }
+        }
+    }
+
+    private void updateCell(Tracked entry) {
+        long cell = cellOf(entry.entity);
+        if (cell == entry.cell) return;
+
+        removeFromCell(entry);
+        entry.cell = cell;
+        cells.computeIfAbsent(cell, _ -> new ReferenceArrayList<>()).add(entry);
+    }
+
+    private void removeFromCell(Tracked entry) {
+        ReferenceArrayList<Tracked> list = cells.get(entry.cell);
+        if (list == null) return;
+        list.remove(entry);
+        if (list.isEmpty()) cells.remove(entry.cell);
+    }
+
+    private void updateMovement(Tracked entry) {
+        Entity entity = entry.entity;
+        long x = S2CEntityMovesPacket.quantize(entity.position.x);
+        long y = S2CEntityMovesPacket.quantize(entity.position.y);
+        long z = S2CEntityMovesPacket.quantize(entity.position.z);
+        byte yawBody = S2CEntityMovesPacket.packAngle(entity.yawBody);
+        byte yawHead = S2CEntityMovesPacket.packAngle(entity.yawHead);
+        byte pitchHead = S2CEntityMovesPacket.packAngle(entity.pitchHead);
+
+        long dx = x - entry.x;
+        long dy = y - entry.y;
+        long dz = z - entry.z;
+        if (dx == 0 && dy == 0 && dz == 0 && yawBody == entry.yawBody && yawHead == entry.yawHead && pitchHead == entry.pitchHead)
+            return;
+
+        boolean teleport = dx != (short) dx || dy != (short) dy || dz != (short) dz;
+        for (Viewer viewer : entry.viewers) {
+            if (teleport) {
+                viewer.player.connection.send(new S2CEntityTeleportPacket(entry.id, x, y, z));
+                dx = dy = dz = 0;
+            }
+
+            viewer.moves.add(entry.id);
+            viewer.deltas.add((short) dx);
+            viewer.deltas.add((short) dy);
+            viewer.deltas.add((short) dz);
+            viewer.rotations.add(yawBody);
+            viewer.rotations.add(yawHead);
+            viewer.rotations.add(pitchHead);
+        }
+
+        entry.x = x;
+        entry.y = y;
+        entry.z = z;
+        entry.yawBody = yawBody;
+        entry.yawHead = yawHead;
+        entry.pitchHead = pitchHead;
+    }
+
+    private void updateInterest(Viewer viewer) {
+        ServerPlayerEntity player = viewer.player;
+        ReferenceOpenHashSet<Tracked> next = viewer.next;
+        next.clear();
+
+        // Players that are still logging in can't receive in-game packets yet.
+        if (!player.connection.isLoggingIn()) {
+            int range = Math.clamp(player.getClientRenderDistance() / World.CHUNK_SIZE, 1, TRACKING_RANGE);
+            long center = cellOf(player);
+            int cx = BlockVec.unpackX(center);
+            int cy = BlockVec.unpackY(center);
+            int cz = BlockVec.unpackZ(center);
+
+            for (int x = cx - range; x <= cx + range; x++) {
+                for (int y = cy - range; y <= cy + range; y++) {
+                    for (int z = cz - range; z <= cz + range; z++) {
+                        ReferenceArrayList<Tracked> list = cells.get(BlockVec.pack(x, y, z));
+                        if (list == null) continue;
+
+                        for (Tracked entry : list) {
+                            if (entry.entity == player) continue;
+                            next.add(entry);
+                            if (!viewer.visible.contains(entry)) {
+                                entry.viewers.add(viewer);
+                                // Despawns must arrive before any spawn, an id may have been despawned and reused.
+                                flushDespawns(viewer);
+                                player.connection.send(createSpawnPacket(entry.entity));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        for (Tracked entry : viewer.visible) {
+            if (!next.contains(entry)) {
+                entry.viewers.remove(viewer);
+                viewer.despawns.add(entry.id);
+            }
+        }
+
+        viewer.next = viewer.visible;
+        viewer.visible = next;
+    }
+
+    private void flush(Viewer viewer) {
+        if (!viewer.moves.isEmpty()) {
+            viewer.player.connection.send(new S2CEntityMovesPacket(viewer.moves.toIntArray(), viewer.deltas.toShortArray(), viewer.rotations.toByteArray()));
+            viewer.moves.clear();
+            viewer.deltas.clear();
+            viewer.rotations.clear();
+        }
+
+        flushDespawns(viewer);
+    }
+
+    private static void flushDespawns(Viewer viewer) {
+        if (viewer.despawns.isEmpty()) return;
+        viewer.player.connection.send(new S2CEntityDespawnPacket(viewer.despawns.toIntArray()));
+        viewer.despawns.clear();
+    }
+
+    private static void snapshot(Tracked entry) {
+        Entity entity = entry.entity;
+        entry.x = S2CEntityMovesPacket.quantize(entity.position.x);
+        entry.y = S2CEntityMovesPacket.quantize(entity.position.y);
+        entry.z = S2CEntityMovesPacket.quantize(entity.position.z);
+        entry.yawBody = S2CEntityMovesPacket.packAngle(entity.yawBody);
+        entry.yawHead = S2CEntityMovesPacket.packAngle(entity.yawHead);
+        entry.pitchHead = S2CEntityMovesPacket.packAngle(entity.pitchHead);
+    }
+
+    private static long cellOf(Entity entity) {
+        return BlockVec.pack(
+                BlockVec.chunkOf((int) Math.floor(entity.position.x)),
+                BlockVec.chunkOf((int) Math.floor(entity.position.y)),
+                BlockVec.chunkOf((int) Math.floor(entity.position.z))
+        );
+    }
+
+    private static @Nullable Packet<? extends ClientPacketHandler> createSpawnPacket(Entity entity) {
+        if (entity instanceof PlayerEntity player) return new S2CPlayerSpawnPacket(player);
+        return null;
+    }
+}
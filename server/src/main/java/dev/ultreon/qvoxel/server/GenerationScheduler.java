@@ -0,0 +1,204 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.server;
+
+import dev.ultreon.qvoxel.CommonConstants;
+import dev.ultreon.qvoxel.util.ChunkVec;
+import dev.ultreon.qvoxel.world.BuilderChunk;
+import dev.ultreon.qvoxel.world.gen.GenerationBarrier;
+import dev.ultreon.qvoxel.world.gen.chunk.ChunkGenerator;
+import dev.ultreon.qvoxel.world.light.LightingSystem;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * <p>Generates chunks stage by stage, following the {@link GenerationBarrier} order.</p>
+ *
+ * <p>Every stage of a chunk is a separate task on the generator pool. A stage is only scheduled once the chunk and
+ * its neighbors within the {@linkplain GenerationBarrier#getNeighborRadius() neighbor radius} of the stage have
+ * reached the previous stage, which is expressed as a graph of futures. Stages that are requested more than once
+ * share the same future, so nothing ever waits by spinning and no stage runs twice.</p>
+ *
+ * <p>Chunks that only need to reach an intermediate stage stay {@link BuilderChunk}s in their region, so later
+ * requests pick them up where they left off. Reaching {@link GenerationBarrier#ALL} builds the final chunk.</p>
+ */
+final class GenerationScheduler {
+    private final @NotNull ServerWorld world;
+    private final @NotNull ChunkManager chunkManager;
+    private final @NotNull ChunkGenerator generator;
+    private final @NotNull LightingSystem lightingSystem;
+    private final @NotNull Executor executor;
+    private final ConcurrentHashMap<ChunkVec, Entry> entries = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    /**
+     * Generation state of a single chunk, only kept while it has stages in progress.
+     */
+    private static final class Entry {
+        final ChunkVec pos;
+        final Region region;
+        @SuppressWarnings("unchecked")
+        final CompletableFuture<ServerChunk>[] stages = new CompletableFuture[GenerationBarrier.values().length];
+        volatile ServerChunk chunk;
+        volatile GenerationBarrier reached;
+        int pending;
+        boolean removed;
+
+        Entry(ChunkVec pos, Region region, ServerChunk chunk, GenerationBarrier reached) {
+            this.pos = pos;
+            this.region = region;
+            this.chunk = chunk;
+            this.reached = reached;
+        }
+    }
+
+    GenerationScheduler(@NotNull ServerWorld world, @NotNull ChunkManager chunkManager, @NotNull ChunkGenerator generator, @NotNull LightingSystem lightingSystem, @NotNull Executor executor) {
+        this.world = world;
+        this.chunkManager = chunkManager;
+        this.generator = generator;
+        this.lightingSystem = lightingSystem;
+        this.executor = executor;
+    }
+
+    /**
+     * Requests a chunk to be generated up to the given stage.
+     *
+     * @param pos    the chunk position.
+     * @param target the stage the chunk needs to reach.
+     * @return a future that completes with the chunk once it reached the stage. This is a {@link BuilderChunk} for
+     * any stage before {@link GenerationBarrier#ALL}.
+     */
+    CompletableFuture<ServerChunk> request(ChunkVec pos, GenerationBarrier target) {
+        if (closed) return CompletableFuture.failedFuture(new CancellationException("Generation is closed"));
+        return ensure(new ChunkVec(pos.x, pos.y, pos.z), target);
+    }
+
+    /**
+     * Gets the amount of chunks that currently have stages in progress.
+     */
+    int getActiveCount() {
+        return entries.size();
+    }
+
+    private CompletableFuture<ServerChunk> ensure(ChunkVec pos, GenerationBarrier stage) {
+        while (true) {
+            Entry entry = entries.computeIfAbsent(pos, this::createEntry);
+            CompletableFuture<ServerChunk> future;
+            synchronized (entry) {
+                if (entry.removed) continue;
+                if (!entry.reached.isBefore(stage)) return CompletableFuture.completedFuture(entry.chunk);
+
+                future = entry.stages[stage.ordinal()];
+                if (future != null) return future;
+
+                future = new CompletableFuture<>();
+                entry.stages[stage.ordinal()] = future;
+                entry.pending++;
+            }
+
+            schedule(entry, stage, future);
+            return future;
+        }
+    }
+
+    private Entry createEntry(ChunkVec pos) {
+        Region region = chunkManager.getRegionMap().getRegion(ChunkVec.regionOf(pos.x), ChunkVec.regionOf(pos.y), ChunkVec.regionOf(pos.z));
+        int x = ChunkVec.localize(pos.x);
+        int y = ChunkVec.localize(pos.y);
+        int z = ChunkVec.localize(pos.z);
+
+        ServerChunk chunk = region.getChunk(x, y, z);
+        if (chunk instanceof BuilderChunk builder) return new Entry(pos, region, builder, builder.currentBarrier);
+        if (chunk != null) return new Entry(pos, region, chunk, GenerationBarrier.ALL);
+
+        BuilderChunk builder = new BuilderChunk(world, pos, region);
+        region.setChunk(x, y, z, builder);
+        return new Entry(pos, region, builder, GenerationBarrier.NONE);
+    }
+
+    private void schedule(Entry entry, GenerationBarrier stage, CompletableFuture<ServerChunk> future) {
+        GenerationBarrier previous = stage.previous();
+        int radius = stage.getNeighborRadius();
+
+        List<CompletableFuture<ServerChunk>> dependencies = new ArrayList<>();
+        dependencies.add(ensure(entry.pos, previous));
+        for (int dx = -radius; dx <= radius; dx++) {
+            for (int dy = -radius; dy <= radius; dy++) {
+                for (int dz = -radius; dz <= radius; dz++) {
+                    if (dx == 0 && dy == 0 && dz == 0) continue;
+                    dependencies.add(ensure(new ChunkVec(entry.pos.x + dx, entry.pos.y + dy, entry.pos.z + dz), previous));
+                }
+            }
+        }
+
+        CompletableFuture.allOf(dependencies.toArray(CompletableFuture[]::new))
+                .thenRunAsync(() -> runStage(entry, stage), executor)
+                .whenComplete((_, error) -> finish(entry, stage, future, error));
+    }
+
+    private void runStage(Entry entry, GenerationBarrier stage) {
+        if (closed) throw new CancellationException("Generation is closed");
+        if (!entry.reached.isBefore(stage)) return;
+
+        BuilderChunk builder = (BuilderChunk) entry.chunk;
+        try {
+            builder.process(() -> {
+                generator.generate(world, builder, stage, lightingSystem);
+                builder.currentBarrier = stage;
+                return null;
+            });
+
+            if (stage == GenerationBarrier.ALL) {
+                WorldChunk chunk = builder.build();
+                entry.region.setChunk(ChunkVec.localize(entry.pos.x), ChunkVec.localize(entry.pos.y), ChunkVec.localize(entry.pos.z), chunk);
+                entry.chunk = chunk;
+            }
+        } catch (Exception e) {
+            CommonConstants.LOGGER.error("Failed to generate chunk {} at stage {}", entry.pos, stage, e);
+            world.getServer().onChunkError(entry.pos.x, entry.pos.y, entry.pos.z, e);
+            throw e;
+        }
+
+        entry.reached = stage;
+    }
+
+    private void finish(Entry entry, GenerationBarrier stage, CompletableFuture<ServerChunk> future, Throwable error) {
+        synchronized (entry) {
+            entry.stages[stage.ordinal()] = null;
+            if (--entry.pending == 0) {
+                entry.removed = true;
+                entries.remove(entry.pos, entry);
+            }
+        }
+
+        if (error != null) future.completeExceptionally(error);
+        else future.complete(entry.chunk);
+    }
+
+    /**
+     * Stops scheduling new stages. Stages that are already running finish, the rest fail with a cancellation.
+     */
+    void close() {
+        closed = true;
+    }
+}
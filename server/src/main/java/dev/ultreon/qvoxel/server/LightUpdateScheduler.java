@@ -0,0 +1,122 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.server;
+
+import dev.ultreon.qvoxel.CommonConstants;
+import dev.ultreon.qvoxel.network.packets.s2c.S2CLightUpdatePacket;
+import dev.ultreon.qvoxel.world.light.LightChanges;
+import dev.ultreon.qvoxel.world.light.LightingSystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * <p>Resolves the block light changes of a world on a worker thread, and sends the changed light values to the
+ * players.</p>
+ *
+ * <p>Block changes only queue their light sources in the {@link LightingSystem}. Once per tick, everything queued
+ * since the previous batch is processed as one batch on the worker. The light map entries that changed are then sent
+ * as one {@link S2CLightUpdatePacket} per chunk to the players that have the chunk loaded, from the server thread. A
+ * new batch only starts after the previous one finished, so the changes of ticks that pass in the meantime are
+ * merged.</p>
+ */
+final class LightUpdateScheduler implements AutoCloseable {
+    private final ServerWorld world;
+    private final LightingSystem lightingSystem;
+    private final ExecutorService worker;
+    private final AtomicBoolean processing = new AtomicBoolean();
+    private final LightChanges changes = new LightChanges();
+
+    LightUpdateScheduler(ServerWorld world, LightingSystem lightingSystem) {
+        this.world = world;
+        this.lightingSystem = lightingSystem;
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Light Worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts a batch if there are queued light changes and no batch is in progress.
+     */
+    void tick() {
+        if (!lightingSystem.hasPendingUpdates()) return;
+        if (!processing.compareAndSet(false, true)) return;
+
+        try {
+            worker.execute(this::process);
+        } catch (RuntimeException e) {
+            processing.set(false);
+            throw e;
+        }
+    }
+
+    private void process() {
+        try {
+            lightingSystem.processUpdates(changes);
+            if (changes.isEmpty()) return;
+
+            List<S2CLightUpdatePacket> packets = new ArrayList<>();
+            changes.forEach((chunk, indices) -> {
+                // Chunks that are still generating aren't known to clients yet.
+                if (chunk instanceof WorldChunk) packets.add(new S2CLightUpdatePacket(chunk, indices));
+            });
+            if (!packets.isEmpty()) world.getServer().execute(() -> send(packets));
+        } catch (Exception e) {
+            CommonConstants.LOGGER.error("Failed to process light updates", e);
+        } finally {
+            changes.clear();
+            processing.set(false);
+        }
+    }
+
+    private void send(List<S2CLightUpdatePacket> packets) {
+        for (S2CLightUpdatePacket packet : packets) {
+            if (world.getChunkOrNull(packet.chunkVec()) instanceof ServerChunk chunk) chunk.updateVersion();
+        }
+
+        for (ServerPlayerEntity player : world.getPlayers()) {
+            for (S2CLightUpdatePacket packet : packets) {
+                if (player.isChunkSent(packet.chunkVec())) {
+                    player.connection.send(packet);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finishes the batch in progress, stops the worker and applies the light changes that are still queued on the
+     * calling thread. Players aren't updated anymore.
+     */
+    @Override
+    public void close() {
+        worker.shutdown();
+        try {
+            if (!worker.awaitTermination(10, TimeUnit.SECONDS)) {
+                CommonConstants.LOGGER.warn("Light worker didn't finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lightingSystem.processUpdates();
+    }
+}
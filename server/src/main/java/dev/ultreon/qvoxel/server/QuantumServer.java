@@ -21,12 +21,10 @@ import dev.ultreon.libs.crash.v0.CrashLog;
 import dev.ultreon.qvoxel.CommonConstants;
 import dev.ultreon.qvoxel.PollingExecutorService;
 import dev.ultreon.qvoxel.ServerException;
-import dev.ultreon.qvoxel.block.state.BlockState;
 import dev.ultreon.qvoxel.featureflags.FeatureSet;
 import dev.ultreon.qvoxel.network.handler.ClientPacketHandler;
 import dev.ultreon.qvoxel.network.handler.ServerPacketHandler;
 import dev.ultreon.qvoxel.network.packets.c2s.C2SLoginPacket;
-import dev.ultreon.qvoxel.network.packets.s2c.S2CBlockSetPacket;
 import dev.ultreon.qvoxel.network.system.IConnection;
 import dev.ultreon.qvoxel.registry.RegistryKeys;
 import dev.ultreon.qvoxel.resource.ReloadContext;
@@ -39,10 +37,13 @@ import dev.ultreon.qvoxel.world.DimensionInfo;
 import dev.ultreon.qvoxel.world.gen.biome.Biomes;
 import dev.ultreon.qvoxel.world.gen.chunk.*;
 import dev.ultreon.qvoxel.world.gen.noise.NoiseConfigs;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.locks.LockSupport;
 
 import static dev.ultreon.qvoxel.CommonConstants.id;
 
@@ -59,6 +60,28 @@ public abstract class QuantumServer extends PollingExecutorService {
      */
     public static final int TPS = 20;
 
+    /**
+     * The duration of one tick in nanoseconds.
+     */
+    public static final long TICK_NANOS = 1_000_000_000L / TPS;
+
+    /**
+     * How many ticks the server may fall behind before it skips ticks instead of catching up.
+     */
+    private static final int MAX_CATCH_UP_TICKS = 5;
+
+    /**
+     * The maximum amount of queued tasks. Submitting more tasks fails with a {@link RejectedExecutionException}.
+     * Submitters aren't made to wait: generator and network threads submit tasks while the server thread may be
+     * waiting on them, for example for a chunk to generate, so waiting could deadlock the server.
+     */
+    private static final int TASK_QUEUE_CAPACITY = 65536;
+
+    /**
+     * The maximum amount of queued tasks run per tick, the rest is left for the next ticks.
+     */
+    private static final int MAX_TASKS_PER_TICK = 4096;
+
     /**
      * Thread group for the {@linkplain #generatorService world generator service}.
      */
@@ -73,34 +96,37 @@ public abstract class QuantumServer extends PollingExecutorService {
     private boolean loading;
     private int spawnX;
     private int spawnZ;
-    private long lastTick = System.currentTimeMillis();
     private final DimensionManager dimManager = new DimensionManager(this);
     private final WorldStorage storage;
     private final PlayerManager playerManager = new PlayerManager();
-    private final ExecutorService generatorService = Executors.newFixedThreadPool(8, r -> {
-        Thread thread = new Thread(GENERATOR_SERVICE, r);
+    private final ExecutorService generatorService = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), pool -> {
+        ForkJoinWorkerThread thread = new ForkJoinWorkerThread(GENERATOR_SERVICE, pool, true) {
+        };
         thread.setName("Generator Service");
         thread.setDaemon(false);
         return thread;
-    });
+    }, (_, e) -> CommonConstants.LOGGER.error("Uncaught exception in generator service", e), true);
     private final ScheduledExecutorService saveService = Executors.newSingleThreadScheduledExecutor(r -> {
         Thread thread = new Thread(r);
         thread.setName("Save Service");
         thread.setDaemon(false);
         return thread;
     });
-    private final ScheduledExecutorService refreshService = Executors.newSingleThreadScheduledExecutor(r -> {
-        Thread thread = new Thread(r);
-        thread.setName("Refresh Service");
-        thread.setDaemon(false);
-        return thread;
-    });
+    private final RegionIOScheduler regionIO = new RegionIOScheduler(4096);
+    private final BlockStateTable blockStateTable;
     private boolean shuttingDown;
     private static int currentTps;
-    private Thread refreshTask;
+    private final TickTimings tickTimings = new TickTimings();
+    private final @Nullable RegionTicker regionTicker;
 
     protected QuantumServer(WorldStorage storage, FeatureSet features) {
-        super(new Profiler());
+        super(Thread.currentThread(), new Profiler(), TASK_QUEUE_CAPACITY, OverflowPolicy.REJECT);
+        setBatchLimit(MAX_TASKS_PER_TICK);
+
+        int regionTickThreads = getRegionTickThreads();
+        regionTicker = regionTickThreads > 0 ? new RegionTicker(regionTickThreads) : null;
+        if (regionTicker != null)
+            CommonConstants.LOGGER.info("Ticking regions in parallel on {} threads", regionTickThreads);
 
         add("Player Manager", playerManager);
 
@@ -126,6 +152,12 @@ public abstract class QuantumServer extends PollingExecutorService {
         reload();
         loadRegistries();
 
+        try {
+            blockStateTable = BlockStateTable.load(storage);
+        } catch (IOException e) {
+            throw new StorageException("Failed to load the block state table", e);
+        }
+
         add("Dimension Manager", dimManager);
         dimManager.loadWorlds(seed);
         CommonConstants.LOGGER.info("Loaded {} dimensions", dimManager.getWorlds().size());
@@ -224,44 +256,57 @@ public abstract class QuantumServer extends PollingExecutorService {
         return resourceManager;
     }
 
+    /**
+     * Runs the server loop until the server shuts down.
+     *
+     * <p>Ticks are scheduled at a fixed rate of {@value #TPS} per second, the thread is parked in between. A tick that
+     * runs late is caught up on right away, but when the server falls more than {@value #MAX_CATCH_UP_TICKS} ticks
+     * behind, the missed ticks are skipped instead of running them all back to back.</p>
+     */
     protected void run() {
         saveService.scheduleAtFixedRate(this::save, 0, 5, TimeUnit.MINUTES);
-        refreshService.scheduleAtFixedRate(this::refreshChunks, 0, 5, TimeUnit.SECONDS);
 
         int ticks = 0;
-        long lastSecond = System.currentTimeMillis();
+        long nextTick = System.nanoTime();
+        long lastSecond = nextTick;
         while (!isShutdown()) {
-            long now = System.currentTimeMillis();
-            if (now - lastTick >= 1000f / TPS) {
-                try {
-                    runTick();
-                } catch (OutOfMemoryError | Exception t) {
-                    CommonConstants.LOGGER.error("Failed to run tick", t);
-                    CrashLog log = new CrashLog("Failed to run tick", t);
-                    crash(log);
-                }
-                ticks++;
-                if (now - lastSecond >= 1000) {
-                    lastSecond = now;
-                    currentTps = ticks;
-                    ticks = 0;
-                }
-                lastTick = now;
+            long wait = nextTick - System.nanoTime();
+            if (wait > 0) {
+                // Parking can wake up early, the loop checks again.
+                LockSupport.parkNanos(this, wait);
+                continue;
             }
-        }
-
-        CommonConstants.LOGGER.info("Shutting down...");
-        close();
-    }
 
-    private void refreshChunks() {
-        for (ServerPlayerEntity player : playerManager) {
-            player.refreshChunks();
+            tickTimings.startTick();
+            try {
+                runTick();
+            } catch (OutOfMemoryError | Exception t) {
+                CommonConstants.LOGGER.error("Failed to run tick", t);
+                CrashLog log = new CrashLog("Failed to run tick", t);
+                crash(log);
+            }
+            onTickDone(tickTimings.endTick());
+            nextTick += TICK_NANOS;
+            ticks++;
+
+            long now = System.nanoTime();
+            long behind = now - nextTick;
+            if (behind > MAX_CATCH_UP_TICKS * TICK_NANOS) {
+                long skipped = behind / TICK_NANOS;
+                nextTick += skipped * TICK_NANOS;
+                tickTimings.addSkipped(skipped);
+                CommonConstants.LOGGER.warn("Can't keep up! Running {} ms behind, skipping {} ticks", behind / 1_000_000, skipped);
+            }
 
-            if (Thread.interrupted()) {
-                break;
+            if (now - lastSecond >= 1_000_000_000L) {
+                currentTps = (int) Math.round(ticks * 1e9 / (now - lastSecond));
+                lastSecond = now;
+                ticks = 0;
             }
         }
+
+        CommonConstants.LOGGER.info("Shutting down...");
+        close();
     }
 
     protected void save() {
@@ -281,8 +326,6 @@ public abstract class QuantumServer extends PollingExecutorService {
             });
         }
 
-        refreshTask.interrupt();
-
         for (AutoCloseable closeable : closeables) {
             try {
                 closeable.close();
@@ -292,27 +335,43 @@ public abstract class QuantumServer extends PollingExecutorService {
         }
     }
 
+    /**
+     * Called after every tick, with how long it took.
+     *
+     * @param nanos the duration of the tick in nanoseconds.
+     */
+    protected void onTickDone(long nanos) {
+
+    }
+
     protected void runTick() {
-        if (tasks.size() > 100)
-            CommonConstants.LOGGER.warn("Server is running {} tasks, this is probably not normal", tasks.size());
+        int queued = getQueueSize();
+        if (queued > 100)
+            CommonConstants.LOGGER.warn("Server is running {} tasks, this is probably not normal", queued);
 
         pollAll();
+        for (var player : playerManager) {
+            player.processInbound();
+        }
         hostLoad();
+        tickTimings.endPhase(TickPhase.TASKS);
 
-        if (loading) {
-            for (var player : playerManager) {
-                player.tick();
+        if (!loading) {
+            for (ServerWorld world : dimManager.getWorlds().values()) {
+                world.tickChunks();
             }
-            return;
-        }
+            tickTimings.endPhase(TickPhase.CHUNK_IO);
 
-        for (ServerWorld world : dimManager.getWorlds().values()) {
-            world.tick();
+            for (ServerWorld world : dimManager.getWorlds().values()) {
+                world.tick();
+            }
+            tickTimings.endPhase(TickPhase.WORLDS);
         }
 
         for (var player : playerManager) {
             player.tick();
         }
+        tickTimings.endPhase(TickPhase.PLAYERS);
     }
 
     protected void hostLoad() {
@@ -387,9 +446,14 @@ public abstract class QuantumServer extends PollingExecutorService {
         generatorService.shutdown();
         terminationFuture.join();
 
+        if (regionTicker != null) regionTicker.close();
+
         CommonConstants.LOGGER.info("Closing server...");
         onDisconnectMessage("Closing server...");
         dimManager.close();
+        CommonConstants.LOGGER.info("Waiting for region writes to finish...");
+        onDisconnectMessage("Saving regions...");
+        regionIO.close();
         playerManager.close();
         registries.close();
         current = null;
@@ -435,10 +499,37 @@ public abstract class QuantumServer extends PollingExecutorService {
 
     public abstract boolean isDedicated();
 
+    /**
+     * Gets the minimum size of a packet in bytes before it gets compressed for remote connections.
+     *
+     * @return the compression threshold, or {@code -1} to disable compression.
+     */
+    public int getCompressionThreshold() {
+        return 256;
+    }
+
     public ExecutorService getGeneratorService() {
         return generatorService;
     }
 
+    /**
+     * Gets the table that maps the block state IDs stored in chunk data to block states.
+     *
+     * @return the block state table
+     */
+    public BlockStateTable getBlockStateTable() {
+        return blockStateTable;
+    }
+
+    /**
+     * Gets the scheduler that writes chunks to region files on the region I/O thread.
+     *
+     * @return the region I/O scheduler
+     */
+    public RegionIOScheduler getRegionIO() {
+        return regionIO;
+    }
+
     public ServerPlayerEntity placePlayer(C2SLoginPacket packet, IConnection<ServerPacketHandler, ClientPacketHandler> connection) {
         ServerPlayerEntity player = new ServerPlayerEntity(connection, packet.name(), packet.clientRenderDistance(), this);
         connection.setPlayer(player);
@@ -462,16 +553,28 @@ public abstract class QuantumServer extends PollingExecutorService {
         return currentTps;
     }
 
-    public boolean isShuttingDown() {
-        return shuttingDown;
+    /**
+     * Gets the amount of threads to tick the regions of the worlds with.
+     *
+     * @return the amount of threads, or {@code 0} to tick the regions on the server thread.
+     */
+    protected int getRegionTickThreads() {
+        return 0;
     }
 
-    public void broadcastBlockChange(ServerWorld serverWorld, int x, int y, int z, BlockState state) {
-        for (var player : playerManager) {
-            if (player.getWorld() == serverWorld) {
-                player.connection.send(new S2CBlockSetPacket(x, y, z, state));
-            }
-        }
+    @Nullable RegionTicker getRegionTicker() {
+        return regionTicker;
+    }
+
+    /**
+     * Gets the durations of the last ticks, per phase.
+     */
+    public TickTimings getTickTimings() {
+        return tickTimings;
+    }
+
+    public boolean isShuttingDown() {
+        return shuttingDown;
     }
 
     public boolean isServerThread() {
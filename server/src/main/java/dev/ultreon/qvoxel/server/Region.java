@@ -47,13 +47,25 @@ public class Region {
         this.y = y;
         this.z = z;
         this.world = world;
-        channel = new RegionChannel(world.getStorage().regionFile(x, y, z));
+        channel = new RegionChannel(world.getStorage().regionFile(x, y, z), server.getRegionIO());
     }
 
     public Region(QuantumServer server, RegionColumn regionColumn, ChunkManager chunkManager, Vector3i vector3i, ServerWorld world) throws IOException {
         this(server, regionColumn, chunkManager, vector3i.x, vector3i.y, vector3i.z, world);
     }
 
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getZ() {
+        return z;
+    }
+
     public void tick() {
         for (ChunkColumn chunk : columns) {
             if (chunk != null) {
@@ -85,6 +97,7 @@ public class Region {
                 CommonConstants.LOGGER.debug("Loading chunk from disk at {}, {}, {}", x, y, z);
                 WorldChunk load = WorldChunk.load(world, sector, this.x * World.REGION_SIZE + x, this.y * World.REGION_SIZE + y, this.z * World.REGION_SIZE + z, this);
                 column.setChunk(y, load);
+                chunkManager.getTickets().addTicket(load.vec.x, load.vec.y, load.vec.z, ChunkLoadTicket.LOAD);
                 return load;
             } catch (IOException e) {
                 CommonConstants.LOGGER.error("Failed to load chunk at {}, {}, {}", x, y, z, e);
@@ -101,6 +114,7 @@ public class Region {
                 CommonConstants.LOGGER.debug("Loading chunk from disk at {}, {}, {}", x, y, z);
                 WorldChunk load = WorldChunk.load(world, sector, this.x * World.REGION_SIZE + x, this.y * World.REGION_SIZE + y, this.z * World.REGION_SIZE + z, this);
                 column.setChunk(y, load);
+                chunkManager.getTickets().addTicket(load.vec.x, load.vec.y, load.vec.z, ChunkLoadTicket.LOAD);
                 return load;
             } catch (IOException e) {
                 CommonConstants.LOGGER.error("Failed to load chunk at {}, {}, {}", x, y, z, e);
@@ -146,6 +160,12 @@ public class Region {
                 chunk.close();
             }
         }
+
+        try {
+            channel.close();
+        } catch (IOException e) {
+            CommonConstants.LOGGER.error("Failed to close region {}", this, e);
+        }
     }
 
     public void unloadChunk(ChunkVec vec) {
@@ -158,13 +178,10 @@ public class Region {
         if (chunk == null) return;
         chunk.close();
         MapType save = chunk.save();
-        columns[getIndex(cx, cz)] = null;
+        column.setChunk(cy, null);
+        if (column.isEmpty()) columns[getIndex(cx, cz)] = null;
         if (!chunk.modified) return;
-        try {
-            channel.saveChunk(cx, cy, cz, save);
-        } catch (IOException e) {
-            CommonConstants.LOGGER.error("Failed to save chunk at {}, {}, {}", cx, cy, cz, e);
-        }
+        channel.saveChunk(cx, cy, cz, save);
     }
 
     public ChunkManager getChunkManager() {
@@ -179,16 +196,15 @@ public class Region {
     }
 
     public void save() {
-        try {
-            for (ChunkColumn column : columns) {
-                if (column == null) continue;
-                column.save();
-            }
-            CommonConstants.LOGGER.debug("Saved region {} with {} columns", pos(), columns.length);
-            channel.flush();
-        } catch (IOException e) {
-            CommonConstants.LOGGER.error("Failed to save region {}", this, e);
+        RegionIOScheduler regionIO = server.getRegionIO();
+        boolean mayBlock = !server.isServerThread();
+        for (ChunkColumn column : columns) {
+            if (column == null) continue;
+            if (mayBlock) regionIO.awaitCapacity();
+            column.save();
         }
+        CommonConstants.LOGGER.debug("Queued save of region {} with {} columns", pos(), columns.length);
+        channel.flush();
     }
 
     public void saveChunk(ServerChunk serverChunk) {
@@ -196,16 +212,12 @@ public class Region {
             return;
         }
 
-        try {
-            channel.saveChunk(
-                    ChunkVec.localize(serverChunk.vec.x),
-                    ChunkVec.localize(serverChunk.vec.y),
-                    ChunkVec.localize(serverChunk.vec.z),
-                    serverChunk.save()
-            );
-        } catch (IOException e) {
-            CommonConstants.LOGGER.error("Failed to save chunk at {}, {}, {}", serverChunk.vec.x, serverChunk.vec.y, serverChunk.vec.z, e);
-        }
+        channel.saveChunk(
+                ChunkVec.localize(serverChunk.vec.x),
+                ChunkVec.localize(serverChunk.vec.y),
+                ChunkVec.localize(serverChunk.vec.z),
+                serverChunk.save()
+        );
     }
 
     public void removeChunk(ServerChunk serverChunk) {
@@ -220,12 +232,10 @@ public class Region {
             if (columns[i] != null) return;
         }
 
-        try {
-            channel.flush();
-            channel.close();
-        } catch (IOException e) {
+        channel.closeAsync().exceptionally(e -> {
             CommonConstants.LOGGER.error("Failed to close region {}", this, e);
-        }
+            return null;
+        });
 
         regionColumn.remove(y);
     }
@@ -22,22 +22,35 @@ import dev.ultreon.ubo.types.MapType;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.*;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+/**
+ * <p>A region file, as seen by the world.</p>
+ *
+ * <p>Chunk saves are handed to the {@link RegionIOScheduler} and written on the region I/O thread, loads check the
+ * scheduler first so chunks that haven't been written yet are read from their pending snapshot.</p>
+ */
 public class RegionChannel {
     @NotNull
     private final Path path;
+    private final RegionIOScheduler scheduler;
     private @Nullable RegionDataChannel channel;
-    private final Map<Integer, Integer> chunkLengths = new HashMap<>();
+    private volatile boolean closed;
 
-    public RegionChannel(Path path) throws IOException {
+    public RegionChannel(Path path, RegionIOScheduler scheduler) throws IOException {
         this.path = path;
+        this.scheduler = scheduler;
         if (Files.notExists(path.getParent()))
             Files.createDirectories(path.getParent());
+        scheduler.awaitClosed(path);
         channel();
     }
 
@@ -45,23 +58,58 @@ public class RegionChannel {
         return (cy * ServerWorld.REGION_SIZE + cz) * ServerWorld.REGION_SIZE + cx;
     }
 
-    public void saveChunk(int cx, int cy, int cz, @NotNull MapType chunk) throws IOException {
+    /**
+     * Queues a chunk for saving. The chunk data is serialized and written later on the region I/O thread,
+     * so it must be a snapshot that isn't modified afterward.
+     */
+    public void saveChunk(int cx, int cy, int cz, @NotNull MapType chunk) {
         if (cx < 0 || cx >= ServerWorld.REGION_SIZE || cy < 0 || cy >= ServerWorld.REGION_SIZE || cz < 0 || cz >= World.REGION_SIZE)
             throw new IndexOutOfBoundsException("Chunk coordinates out of bounds: " + cx + ", " + cy + ", " + cz);
 
+        scheduler.submit(this, 32 + getChunkIndex(cx, cy, cz), chunk);
+    }
+
+    /**
+     * Serializes and writes a batch of chunk snapshots as one sequential run.
+     *
+     * @param chunks the snapshots by chunk id.
+     * @return the amount of uncompressed bytes written.
+     */
+    long writeBatch(Map<Integer, MapType> chunks) throws IOException {
         RegionDataChannel channel = channel();
 
-        synchronized (this) {
-            byte[] raw;
-            try (ByteArrayOutputStream out = new ByteArrayOutputStream();
-                 DataOutputStream output = new DataOutputStream(out)) {
-                chunk.write(output);
-                raw = out.toByteArray();
+        Map<Integer, byte[]> serialized = new LinkedHashMap<>();
+        long bytes = 0;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (Map.Entry<Integer, MapType> chunk : chunks.entrySet()) {
+            out.reset();
+            try (DataOutputStream output = new DataOutputStream(out)) {
+                chunk.getValue().write(output);
             }
+            byte[] raw = out.toByteArray();
+            serialized.put(chunk.getKey(), raw);
+            bytes += raw.length;
+        }
+
+        channel.writeChunks(serialized);
+        return bytes;
+    }
 
-            int chunkId = 32 + getChunkIndex(cx, cy, cz);
-            channel.writeChunk(chunkId, raw);
-            chunkLengths.put(chunkId, raw.length);
+    /**
+     * Commits the chunks written so far to the region header.
+     */
+    void commit() throws IOException {
+        synchronized (this) {
+            RegionDataChannel channel = this.channel;
+            if (channel == null) return;
+            channel.writeSectorReferenceMap();
+            CommonConstants.LOGGER.debug("Flushed region channel: {}", channel.getTarget());
+
+            // Closing is done by the last commit, which also covers late saves that reopened the file.
+            if (closed) {
+                channel.close();
+                this.channel = null;
+            }
         }
     }
 
@@ -69,20 +117,17 @@ public class RegionChannel {
         if (cx < 0 || cx >= World.REGION_SIZE || cy < 0 || cy >= World.REGION_SIZE || cz < 0 || cz >= World.REGION_SIZE)
             throw new IndexOutOfBoundsException("Chunk coordinates out of bounds: " + cx + ", " + cy + ", " + cz);
 
-        RegionDataChannel channel = this.channel;
-        if (channel == null) return null;
+        int chunkId = 32 + getChunkIndex(cx, cy, cz);
+        MapType pending = scheduler.getPending(this, chunkId);
+        if (pending != null) return pending;
 
+        // Reading under the monitor keeps the last commit from closing the file halfway through the read.
         synchronized (this) {
-            int chunkId = 32 + getChunkIndex(cx, cy, cz);
-            Integer length = chunkLengths.get(chunkId);
-            if (length == null) return null;
-
-            byte[] input = channel.readChunk(chunkId, length);
-            if (input == null) return null;
+            RegionDataChannel channel = this.channel;
+            if (channel == null) return null;
 
-            try (ByteArrayInputStream bais = new ByteArrayInputStream(input);
-                 DataInputStream dis = new DataInputStream(bais)) {
-                return MapType.read(dis);
+            try {
+                return channel.readChunk(chunkId, MapType::read);
             } catch (Exception e) {
                 CommonConstants.LOGGER.error("Failed to load chunk {} {} {}", cx, cy, cz, e);
                 return null;
@@ -91,42 +136,41 @@ public class RegionChannel {
     }
 
     private RegionDataChannel channel() throws IOException {
-        if (channel != null) return channel;
-
-        boolean existed = Files.exists(path);
-
-        channel = new RegionDataChannel(path);
-
-        if (existed) {
-            channel.readSectorReferenceMap();
+        synchronized (this) {
+            if (channel != null) return channel;
 
-            // populate chunkLengths map from sector reference map
-            for (Map.Entry<Integer, RegionDataChannel.ChunkEntry> e : channel.chunkSectorMap.entrySet()) {
-                int chunkId = e.getKey();
-                int size = e.getValue().sectorCount() * RegionDataChannel.SECTOR_SIZE;
-                chunkLengths.put(chunkId, size);
-            }
+            channel = RegionDataChannel.open(path);
+            return channel;
         }
-
-        flush();
-        return channel;
     }
 
     public Path getTarget() {
         return path;
     }
 
+    /**
+     * Waits for all pending writes of this region to be committed, then closes the file.
+     */
     public void close() throws IOException {
-        if (channel == null) return;
-        flush();
-        channel.close();
+        try {
+            closeAsync().join();
+        } catch (CompletionException e) {
+            throw new IOException("Failed to flush region " + path, e.getCause());
+        }
     }
 
-    public void flush() throws IOException {
-        if (channel == null) return;
-        synchronized (this) {
-            channel.writeSectorReferenceMap();
-            CommonConstants.LOGGER.debug("Flushed region channel: {}", channel.getTarget());
-        }
+    /**
+     * Closes the file after all pending writes of this region are committed, without waiting for it.
+     */
+    public CompletableFuture<Void> closeAsync() {
+        closed = true;
+        return scheduler.close(this);
+    }
+
+    /**
+     * Requests a header commit after all chunks queued so far are written, without waiting for it.
+     */
+    public CompletableFuture<Void> flush() {
+        return scheduler.flush(this);
     }
 }
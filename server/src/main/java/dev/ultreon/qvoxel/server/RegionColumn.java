@@ -11,6 +11,7 @@ import org.jetbrains.annotations.Nullable;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.EnumMap;
 import java.util.Map;
 
@@ -93,6 +94,13 @@ public class RegionColumn {
         }
     }
 
+    /**
+     * Adds the loaded regions of this column to a collection.
+     */
+    void collectRegions(Collection<? super Region> out) {
+        out.addAll(regionSections.values());
+    }
+
     public void close() {
         for (Region region : regionSections.values()) {
             region.close();
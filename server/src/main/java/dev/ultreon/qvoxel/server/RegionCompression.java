@@ -0,0 +1,222 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.server;
+
+import dev.ultreon.qvoxel.util.ByteBufferPool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compression algorithms that can be used for chunk data in region files.
+ * The algorithm is stored per chunk, so changing the default doesn't invalidate existing regions.
+ */
+public enum RegionCompression {
+    NONE(0) {
+        @Override
+        public ByteBuffer compress(byte[] raw, ByteBufferPool pool) {
+            return pool.acquire(raw.length).put(raw).flip();
+        }
+
+        @Override
+        public InputStream openStream(ByteBuffer data) {
+            return new ByteBufferInputStream(data);
+        }
+
+        @Override
+        public byte[] decompress(ByteBuffer data, int rawLength) throws IOException {
+            if (data.remaining() < rawLength)
+                throw new IOException("Chunk data truncated, expected " + rawLength + " bytes but got " + data.remaining());
+
+            byte[] raw = new byte[rawLength];
+            data.get(raw);
+            return raw;
+        }
+    },
+    DEFLATE(1) {
+        @Override
+        public ByteBuffer compress(byte[] raw, ByteBufferPool pool) {
+            Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+            try {
+                deflater.setInput(raw);
+                deflater.finish();
+
+                // Worst case deflate output size, so the loop below practically never has to grow the buffer.
+                ByteBuffer buffer = pool.acquire(raw.length + (raw.length >> 12) + (raw.length >> 14) + 64);
+                while (!deflater.finished()) {
+                    if (!buffer.hasRemaining()) {
+                        ByteBuffer grown = pool.acquire(buffer.capacity() * 2);
+                        grown.put(buffer.flip());
+                        pool.release(buffer);
+                        buffer = grown;
+                    }
+                    deflater.deflate(buffer);
+                }
+                return buffer.flip();
+            } finally {
+                deflater.end();
+            }
+        }
+
+        @Override
+        public InputStream openStream(ByteBuffer data) {
+            return new InflatingInputStream(data);
+        }
+
+        @Override
+        public byte[] decompress(ByteBuffer data, int rawLength) throws IOException {
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(data);
+                byte[] raw = new byte[rawLength];
+                int length = 0;
+                while (length < rawLength && !inflater.finished()) {
+                    int read = inflater.inflate(raw, length, rawLength - length);
+                    if (read == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                        throw new IOException("Chunk data truncated after " + length + " of " + rawLength + " bytes");
+                    length += read;
+                }
+                return raw;
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupt chunk data", e);
+            } finally {
+                inflater.end();
+            }
+        }
+    };
+
+    /**
+     * The compression used for newly written chunks.
+     */
+    public static final RegionCompression DEFAULT = DEFLATE;
+
+    private final int id;
+
+    RegionCompression(int id) {
+        this.id = id;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Compresses the given data into a buffer acquired from the pool.
+     *
+     * @param raw  the uncompressed data.
+     * @param pool the pool to acquire the output buffer from.
+     * @return the compressed data, flipped for reading. The caller releases it back into the pool.
+     */
+    public abstract ByteBuffer compress(byte[] raw, ByteBufferPool pool);
+
+    /**
+     * Opens a stream that decompresses the remaining bytes of the given buffer while reading.
+     * The buffer is read in place, so a mapped buffer is decoded without copying it to the heap first.
+     *
+     * @param data the compressed data, positioned at the start of the chunk.
+     * @return the decompressing stream.
+     */
+    public abstract InputStream openStream(ByteBuffer data);
+
+    /**
+     * Decompresses the remaining bytes of the given buffer.
+     *
+     * @param data      the compressed data, positioned at the start of the chunk.
+     * @param rawLength the length of the uncompressed data.
+     * @return the uncompressed data.
+     * @throws IOException if the data is corrupt or truncated.
+     */
+    public abstract byte[] decompress(ByteBuffer data, int rawLength) throws IOException;
+
+    public static RegionCompression byId(int id) throws IOException {
+        for (RegionCompression compression : values()) {
+            if (compression.id == id) return compression;
+        }
+        throw new IOException("Unknown region compression: " + id);
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer data;
+
+        ByteBufferInputStream(ByteBuffer data) {
+            this.data = data;
+        }
+
+        @Override
+        public int read() {
+            return data.hasRemaining() ? data.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) return 0;
+            if (!data.hasRemaining()) return -1;
+            len = Math.min(len, data.remaining());
+            data.get(b, off, len);
+            return len;
+        }
+
+        @Override
+        public int available() {
+            return data.remaining();
+        }
+    }
+
+    private static final class InflatingInputStream extends InputStream {
+        private final Inflater inflater = new Inflater();
+        private final byte[] single = new byte[1];
+        private boolean closed;
+
+        InflatingInputStream(ByteBuffer data) {
+            inflater.setInput(data);
+        }
+
+        @Override
+        public int read() throws IOException {
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (closed) throw new IOException("Stream closed");
+            if (len == 0) return 0;
+
+            try {
+                while (true) {
+                    int read = inflater.inflate(b, off, len);
+                    if (read > 0) return read;
+                    if (inflater.finished()) return -1;
+                    if (inflater.needsInput() || inflater.needsDictionary())
+                        throw new IOException("Chunk data truncated");
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupt chunk data", e);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            inflater.end();
+        }
+    }
+}
@@ -16,148 +16,486 @@
 
 package dev.ultreon.qvoxel.server;
 
-import java.io.ByteArrayOutputStream;
+import dev.ultreon.qvoxel.CommonConstants;
+import dev.ultreon.qvoxel.util.ByteBufferPool;
+import dev.ultreon.qvoxel.world.World;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Arrays;
-import java.util.BitSet;
-import java.util.HashMap;
-import java.util.Map;
-
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * <p>Sector based storage for the chunks of a single region file.</p>
+ *
+ * <p>The file starts with a superblock sector, followed by two header slots and the chunk data sectors.
+ * Headers are double-buffered: a flush always writes the slot that isn't active, after forcing the chunk data to
+ * disk, and the slot with the highest valid generation wins on load. A torn header write therefore falls back to
+ * the previous header, which still points at intact data because freed sectors are only reused after a flush.</p>
+ *
+ * <p>Chunk data is compressed per chunk with the {@link RegionCompression} chosen in the superblock, and free space
+ * is tracked as a list of free extents that get coalesced when sectors are released.</p>
+ *
+ * <p>Reads go through a single read-only mapping of the file, which is only replaced when the file has grown past
+ * it, and are decoded straight from the mapped memory. Readers hold the reuse lock while decoding, so sectors that
+ * were released by a flush can't be overwritten while a reader still uses them.</p>
+ */
 public class RegionDataChannel {
     static final int SECTOR_SIZE = 4096;
-    private static final int SECTOR_MAP_START = 97;
-    private static final int SECTOR_MAP_COUNT = 64;
-    private static final int HEADER_SECTORS = 1;
-    private static final int ENTRY_SIZE = 12; // 4 bytes chunkId + 4 bytes startSector + 4 bytes sectorCount
-
-    private final BitSet usedSectors = new BitSet();
-    final Map<Integer, ChunkEntry> chunkSectorMap = new HashMap<>();
+    static final int VERSION = 2;
+
+    private static final int MAGIC = 0x51565247; // QVRG
+    private static final int HEADER_MAGIC = 0x51565248; // QVRH
+    private static final int MAX_ENTRIES = World.REGION_SIZE * World.REGION_SIZE * World.REGION_SIZE;
+    private static final int ENTRY_SIZE = 21; // chunkId, startSector, sectorCount, length, rawLength, compression
+    private static final int HEADER_FIXED_SIZE = 4 + 8 + 4; // magic + generation + entryCount
+    private static final int HEADER_SLOT_SECTORS = (HEADER_FIXED_SIZE + MAX_ENTRIES * ENTRY_SIZE + 4 + SECTOR_SIZE - 1) / SECTOR_SIZE;
+    private static final int HEADER_SLOT_START = 1;
+    private static final int FIRST_DATA_SECTOR = HEADER_SLOT_START + 2 * HEADER_SLOT_SECTORS;
+
+    // Layout of version 1 region files, only used for migration.
+    private static final int LEGACY_SECTOR_MAP_START = 97;
+    private static final int LEGACY_ENTRY_SIZE = 12;
+
+    private static final ByteBufferPool WRITE_BUFFERS = new ByteBufferPool(1 << 20, 16);
+    private static final ByteBuffer ZEROS = ByteBuffer.allocateDirect(SECTOR_SIZE).asReadOnlyBuffer();
+
+    private final Map<Integer, ChunkEntry> chunkSectorMap = new ConcurrentHashMap<>();
+    private final TreeMap<Integer, Integer> freeExtents = new TreeMap<>();
+    private final List<ChunkEntry> pendingFree = new ArrayList<>();
     private final RandomAccessFile file;
+    private final FileChannel fileChannel;
     private final Path target;
+    private RegionCompression compression = RegionCompression.DEFAULT;
+    private int endSector = FIRST_DATA_SECTOR;
+    private int activeSlot = 1;
+    private long generation;
+    private boolean dirty;
+    private volatile @Nullable MappedByteBuffer mapped;
+    private final Object mapLock = new Object();
+    private final ReadWriteLock reuseLock = new ReentrantReadWriteLock();
+
+    /**
+     * Decodes chunk data from a stream over the stored (decompressed) bytes.
+     */
+    @FunctionalInterface
+    public interface ChunkReader<T> {
+        T read(DataInputStream input) throws IOException;
+    }
 
-    record ChunkEntry(int startSector, int sectorCount) {
+    record ChunkEntry(int startSector, int sectorCount, int length, int rawLength, RegionCompression compression) {
 
     }
 
     public RegionDataChannel(Path target) throws IOException {
         this.target = target;
         file = new RandomAccessFile(target.toFile(), "rw");
-        usedSectors.set(0, HEADER_SECTORS); // reserve header
+        fileChannel = file.getChannel();
+    }
+
+    /**
+     * Opens a region file, migrating it from the version 1 layout first if needed.
+     *
+     * @param target the region file.
+     * @return the opened channel.
+     * @throws IOException if the file couldn't be read or migrated.
+     */
+    public static RegionDataChannel open(Path target) throws IOException {
+        if (isLegacy(target)) {
+            migrateLegacy(target);
+        }
+
+        RegionDataChannel channel = new RegionDataChannel(target);
+        try {
+            if (channel.fileChannel.size() == 0) channel.writeSuperblock();
+            else channel.readSectorReferenceMap();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return channel;
     }
 
     public void writeChunk(int chunkId, byte[] data) throws IOException {
-        synchronized (this) {
-            int sectorsNeeded = (data.length + SECTOR_SIZE - 1) / SECTOR_SIZE;
-            int startSector = findFreeSectors(sectorsNeeded);
+        RegionCompression compression = this.compression;
+        ByteBuffer compressed = compression.compress(data, WRITE_BUFFERS);
+
+        try {
+            synchronized (this) {
+                int length = compressed.remaining();
+                int sectorsNeeded = Math.max(1, (length + SECTOR_SIZE - 1) / SECTOR_SIZE);
+                int startSector = allocate(sectorsNeeded);
+
+                long position = (long) startSector * SECTOR_SIZE;
+                while (compressed.hasRemaining()) {
+                    fileChannel.write(compressed, position + compressed.position());
+                }
 
-            // mark all sectors as used
-            usedSectors.set(startSector, startSector + sectorsNeeded);
+                ChunkEntry old = chunkSectorMap.put(chunkId, new ChunkEntry(startSector, sectorsNeeded, length, data.length, compression));
+                if (old != null) pendingFree.add(old);
+                dirty = true;
+            }
+        } finally {
+            WRITE_BUFFERS.release(compressed);
+        }
+    }
 
-            file.seek((long) startSector * SECTOR_SIZE);
-            file.write(data);
+    /**
+     * Writes several chunks as one sequential run of sectors, using a single gathering write.
+     * Each chunk is padded to a sector boundary, so it can still be freed and reused on its own later.
+     *
+     * @param chunks the uncompressed chunk data by chunk id, written in iteration order.
+     * @throws IOException if the chunks couldn't be written.
+     */
+    public void writeChunks(Map<Integer, byte[]> chunks) throws IOException {
+        if (chunks.isEmpty()) return;
+
+        RegionCompression compression = this.compression;
+        int count = chunks.size();
+        int[] chunkIds = new int[count];
+        int[] rawLengths = new int[count];
+        ByteBuffer[] compressed = new ByteBuffer[count];
+        int filled = 0;
+
+        try {
+            for (Map.Entry<Integer, byte[]> chunk : chunks.entrySet()) {
+                chunkIds[filled] = chunk.getKey();
+                rawLengths[filled] = chunk.getValue().length;
+                compressed[filled] = compression.compress(chunk.getValue(), WRITE_BUFFERS);
+                filled++;
+            }
 
-            // pad to sector boundary
-            int padding = sectorsNeeded * SECTOR_SIZE - data.length;
-            if (padding > 0) file.write(new byte[padding]);
+            int[] sectorCounts = new int[count];
+            int totalSectors = 0;
+            ByteBuffer[] gather = new ByteBuffer[count * 2];
+            for (int i = 0; i < count; i++) {
+                int length = compressed[i].remaining();
+                sectorCounts[i] = Math.max(1, (length + SECTOR_SIZE - 1) / SECTOR_SIZE);
+                totalSectors += sectorCounts[i];
+                gather[i * 2] = compressed[i];
+                gather[i * 2 + 1] = ZEROS.slice(0, sectorCounts[i] * SECTOR_SIZE - length);
+            }
 
-            chunkSectorMap.put(chunkId, new ChunkEntry(startSector, sectorsNeeded));
+            synchronized (this) {
+                int startSector = allocate(totalSectors);
+
+                fileChannel.position((long) startSector * SECTOR_SIZE);
+                long remaining = (long) totalSectors * SECTOR_SIZE;
+                while (remaining > 0) {
+                    remaining -= fileChannel.write(gather);
+                }
+
+                int sector = startSector;
+                for (int i = 0; i < count; i++) {
+                    ChunkEntry entry = new ChunkEntry(sector, sectorCounts[i], compressed[i].limit(), rawLengths[i], compression);
+                    ChunkEntry old = chunkSectorMap.put(chunkIds[i], entry);
+                    if (old != null) pendingFree.add(old);
+                    sector += sectorCounts[i];
+                }
+                dirty = true;
+            }
+        } finally {
+            for (int i = 0; i < filled; i++) {
+                WRITE_BUFFERS.release(compressed[i]);
+            }
         }
     }
 
-    public byte[] readChunk(int chunkId, int expectedSize) throws IOException {
-        synchronized (this) {
+    public byte @Nullable [] readChunk(int chunkId) throws IOException {
+        reuseLock.readLock().lock();
+        try {
             ChunkEntry entry = chunkSectorMap.get(chunkId);
             if (entry == null) return null;
 
-            file.seek((long) entry.startSector * SECTOR_SIZE);
-            byte[] buffer = new byte[entry.sectorCount * SECTOR_SIZE];
-            file.readFully(buffer);
+            return entry.compression.decompress(view(entry), entry.rawLength);
+        } finally {
+            reuseLock.readLock().unlock();
+        }
+    }
 
-            return Arrays.copyOf(buffer, expectedSize);
+    /**
+     * Decodes a chunk straight from the mapped region file, without copying the stored data.
+     *
+     * @param chunkId the chunk to read.
+     * @param reader  the decoder, which must not keep a reference to the stream.
+     * @return the decoded chunk, or {@code null} if the chunk isn't stored in this region.
+     * @throws IOException if the chunk couldn't be read.
+     */
+    public <T> @Nullable T readChunk(int chunkId, ChunkReader<T> reader) throws IOException {
+        reuseLock.readLock().lock();
+        try {
+            ChunkEntry entry = chunkSectorMap.get(chunkId);
+            if (entry == null) return null;
+
+            try (DataInputStream input = new DataInputStream(entry.compression.openStream(view(entry)))) {
+                return reader.read(input);
+            }
+        } finally {
+            reuseLock.readLock().unlock();
+        }
+    }
+
+    public boolean hasChunk(int chunkId) {
+        return chunkSectorMap.containsKey(chunkId);
+    }
+
+    public boolean removeChunk(int chunkId) {
+        synchronized (this) {
+            ChunkEntry old = chunkSectorMap.remove(chunkId);
+            if (old == null) return false;
+            pendingFree.add(old);
+            dirty = true;
+            return true;
         }
     }
 
+    /**
+     * Commits the sector reference map to the inactive header slot.
+     * Chunk data is forced to disk before the header is written, so a header never references unwritten data.
+     */
     public void writeSectorReferenceMap() throws IOException {
         synchronized (this) {
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            out.write(intToBytes(chunkSectorMap.size()));
+            if (!dirty) return;
 
+            ByteBuffer header = ByteBuffer.allocate(HEADER_FIXED_SIZE + chunkSectorMap.size() * ENTRY_SIZE + 4);
+            header.putInt(HEADER_MAGIC);
+            header.putLong(generation + 1);
+            header.putInt(chunkSectorMap.size());
             for (Map.Entry<Integer, ChunkEntry> e : chunkSectorMap.entrySet()) {
-                out.write(intToBytes(e.getKey()));
-                out.write(intToBytes(e.getValue().startSector));
-                out.write(intToBytes(e.getValue().sectorCount));
+                ChunkEntry entry = e.getValue();
+                header.putInt(e.getKey());
+                header.putInt(entry.startSector);
+                header.putInt(entry.sectorCount);
+                header.putInt(entry.length);
+                header.putInt(entry.rawLength);
+                header.put((byte) entry.compression.getId());
             }
 
-            byte[] mapData = out.toByteArray();
-            int totalBytes = SECTOR_MAP_COUNT * SECTOR_SIZE;
-            if (mapData.length > totalBytes)
-                throw new IOException("Chunk map too large! Exceeds reserved size.");
+            CRC32 crc = new CRC32();
+            crc.update(header.array(), 0, header.position());
+            header.putInt((int) crc.getValue());
+            header.flip();
 
-            file.seek((long) SECTOR_MAP_START * SECTOR_SIZE);
-            file.write(mapData);
+            fileChannel.force(false);
 
-            if (mapData.length < totalBytes) {
-                file.write(new byte[totalBytes - mapData.length]);
+            int slot = activeSlot ^ 1;
+            long position = (long) (HEADER_SLOT_START + slot * HEADER_SLOT_SECTORS) * SECTOR_SIZE;
+            while (header.hasRemaining()) {
+                fileChannel.write(header, position + header.position());
+            }
+            fileChannel.force(false);
+
+            activeSlot = slot;
+            generation++;
+            dirty = false;
+
+            // The old sectors are no longer referenced by any header on disk, so they can be reused now.
+            // Wait for readers that may still be decoding from them first.
+            reuseLock.writeLock().lock();
+            try {
+                for (ChunkEntry entry : pendingFree) {
+                    free(entry.startSector, entry.sectorCount);
+                }
+                pendingFree.clear();
+            } finally {
+                reuseLock.writeLock().unlock();
             }
-
-            usedSectors.set(SECTOR_MAP_START, SECTOR_MAP_START + SECTOR_MAP_COUNT);
         }
     }
 
     public void readSectorReferenceMap() throws IOException {
         synchronized (this) {
-            file.seek((long) SECTOR_MAP_START * SECTOR_SIZE);
-            byte[] header = new byte[4];
-            file.readFully(header);
-            int entryCount = bytesToInt(header, 0);
-
-            byte[] mapData = new byte[entryCount * ENTRY_SIZE + 4];
-            file.seek((long) SECTOR_MAP_START * SECTOR_SIZE);
-            file.readFully(mapData);
+            ByteBuffer superblock = ByteBuffer.allocate(9);
+            readFully(superblock, 0);
+            superblock.flip();
+            if (superblock.getInt() != MAGIC)
+                throw new IOException("Not a region file: " + target);
+            int version = superblock.getInt();
+            if (version != VERSION)
+                throw new IOException("Unsupported region file version " + version + ": " + target);
+            compression = RegionCompression.byId(superblock.get());
+
+            ByteBuffer slotA = readHeaderSlot(0);
+            ByteBuffer slotB = readHeaderSlot(1);
+            long generationA = slotA == null ? -1 : slotA.getLong(4);
+            long generationB = slotB == null ? -1 : slotB.getLong(4);
 
             chunkSectorMap.clear();
-            usedSectors.set(SECTOR_MAP_START, SECTOR_MAP_START + SECTOR_MAP_COUNT);
+            freeExtents.clear();
+            pendingFree.clear();
+            endSector = FIRST_DATA_SECTOR;
+            dirty = false;
+
+            ByteBuffer header;
+            if (slotA == null && slotB == null) {
+                activeSlot = 1;
+                generation = 0;
+                return;
+            } else if (generationA >= generationB) {
+                header = slotA;
+                activeSlot = 0;
+                generation = generationA;
+            } else {
+                header = slotB;
+                activeSlot = 1;
+                generation = generationB;
+            }
 
+            header.position(HEADER_FIXED_SIZE);
+            int entryCount = header.getInt(12);
+            TreeMap<Integer, Integer> used = new TreeMap<>();
             for (int i = 0; i < entryCount; i++) {
-                int base = 4 + i * ENTRY_SIZE;
-                int chunkId = bytesToInt(mapData, base);
-                int startSector = bytesToInt(mapData, base + 4);
-                int sectorCount = bytesToInt(mapData, base + 8);
+                int chunkId = header.getInt();
+                int startSector = header.getInt();
+                int sectorCount = header.getInt();
+                int length = header.getInt();
+                int rawLength = header.getInt();
+                RegionCompression compression = RegionCompression.byId(header.get());
+
+                chunkSectorMap.put(chunkId, new ChunkEntry(startSector, sectorCount, length, rawLength, compression));
+                used.put(startSector, sectorCount);
+            }
 
-                chunkSectorMap.put(chunkId, new ChunkEntry(startSector, sectorCount));
-                usedSectors.set(startSector, startSector + sectorCount);
+            // Everything between the used extents is free space.
+            int cursor = FIRST_DATA_SECTOR;
+            for (Map.Entry<Integer, Integer> e : used.entrySet()) {
+                if (e.getKey() > cursor) freeExtents.put(cursor, e.getKey() - cursor);
+                cursor = Math.max(cursor, e.getKey() + e.getValue());
             }
+            endSector = cursor;
         }
     }
 
-    private int findFreeSectors(int count) {
-        for (int i = HEADER_SECTORS; i < 0xFFFFF; i++) {
-            if (i >= SECTOR_MAP_START && i < SECTOR_MAP_START + SECTOR_MAP_COUNT) continue;
+    private @Nullable ByteBuffer readHeaderSlot(int slot) throws IOException {
+        long position = (long) (HEADER_SLOT_START + slot * HEADER_SLOT_SECTORS) * SECTOR_SIZE;
+        if (fileChannel.size() < position + HEADER_FIXED_SIZE + 4) return null;
+
+        ByteBuffer fixed = ByteBuffer.allocate(HEADER_FIXED_SIZE);
+        readFully(fixed, position);
+        if (fixed.getInt(0) != HEADER_MAGIC) return null;
+        int entryCount = fixed.getInt(12);
+        if (entryCount < 0 || entryCount > MAX_ENTRIES) return null;
+
+        int length = HEADER_FIXED_SIZE + entryCount * ENTRY_SIZE;
+        if (fileChannel.size() < position + length + 4) return null;
+        ByteBuffer header = ByteBuffer.allocate(length + 4);
+        readFully(header, position);
+
+        CRC32 crc = new CRC32();
+        crc.update(header.array(), 0, length);
+        if (header.getInt(length) != (int) crc.getValue()) {
+            CommonConstants.LOGGER.warn("Discarding torn header slot {} of region file {}", slot, target);
+            return null;
+        }
+        return header;
+    }
 
-            boolean free = true;
-            for (int j = 0; j < count; j++) {
-                if (usedSectors.get(i + j)) {
-                    free = false;
-                    break;
-                }
-            }
+    private void writeSuperblock() throws IOException {
+        ByteBuffer superblock = ByteBuffer.allocate(9);
+        superblock.putInt(MAGIC);
+        superblock.putInt(VERSION);
+        superblock.put((byte) compression.getId());
+        superblock.flip();
+        while (superblock.hasRemaining()) {
+            fileChannel.write(superblock, superblock.position());
+        }
+        fileChannel.force(false);
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (fileChannel.read(buffer, position + buffer.position()) < 0)
+                throw new IOException("Unexpected end of region file " + target);
+        }
+    }
+
+    /**
+     * Allocates a run of sectors using the first free extent that fits, or appends to the end of the file.
+     */
+    private int allocate(int count) {
+        for (Map.Entry<Integer, Integer> extent : freeExtents.entrySet()) {
+            int start = extent.getKey();
+            int length = extent.getValue();
+            if (length < count) continue;
+
+            freeExtents.remove(start);
+            if (length > count) freeExtents.put(start + count, length - count);
+            return start;
+        }
+
+        int start = endSector;
+        endSector += count;
+        return start;
+    }
 
-            if (free) return i;
+    private void free(int start, int count) {
+        Map.Entry<Integer, Integer> before = freeExtents.floorEntry(start - 1);
+        if (before != null && before.getKey() + before.getValue() == start) {
+            freeExtents.remove(before.getKey());
+            start = before.getKey();
+            count += before.getValue();
+        }
+
+        Integer after = freeExtents.remove(start + count);
+        if (after != null) count += after;
+
+        if (start + count == endSector) {
+            endSector = start;
+        } else {
+            freeExtents.put(start, count);
         }
-        throw new RuntimeException("No free sectors available for allocation.");
     }
 
-    public ByteBuffer getChunkData(int chunkId) throws IOException {
+    /**
+     * Returns the stored (possibly compressed) data of a chunk, as a view of the mapped region file.
+     * The view is only guaranteed to be valid until the next flush of this channel.
+     *
+     * @param chunkId the chunk to get the data for.
+     * @return the stored data, or {@code null} if the chunk isn't stored in this region.
+     */
+    public @Nullable ByteBuffer getChunkData(int chunkId) throws IOException {
         ChunkEntry entry = chunkSectorMap.get(chunkId);
         if (entry == null) return null;
 
-        return file.getChannel().map(FileChannel.MapMode.READ_WRITE,
-                (long) entry.startSector * SECTOR_SIZE,
-                (long) entry.sectorCount * SECTOR_SIZE);
+        return view(entry);
+    }
+
+    private ByteBuffer view(ChunkEntry entry) throws IOException {
+        long start = (long) entry.startSector * SECTOR_SIZE;
+        long end = start + entry.length;
+        if (end > Integer.MAX_VALUE) {
+            // Beyond what a single mapping can address, map just this chunk.
+            return fileChannel.map(FileChannel.MapMode.READ_ONLY, start, entry.length);
+        }
+
+        MappedByteBuffer mapped = this.mapped;
+        if (mapped == null || mapped.capacity() < end) {
+            synchronized (mapLock) {
+                mapped = this.mapped;
+                if (mapped == null || mapped.capacity() < end) {
+                    long size = Math.min(Integer.MAX_VALUE, Math.max(fileChannel.size(), end));
+                    mapped = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                    this.mapped = mapped;
+                }
+            }
+        }
+
+        return mapped.slice((int) start, entry.length);
+    }
+
+    public RegionCompression getCompression() {
+        return compression;
     }
 
     public Path getTarget() {
@@ -165,22 +503,60 @@ public class RegionDataChannel {
     }
 
     public void close() throws IOException {
+        mapped = null;
         file.close();
     }
 
-    private static byte[] intToBytes(int v) {
-        return new byte[]{
-                (byte) (v >>> 24),
-                (byte) (v >>> 16),
-                (byte) (v >>> 8),
-                (byte) v
-        };
+    /**
+     * Checks whether the file uses the version 1 layout, which has an empty first sector.
+     */
+    static boolean isLegacy(Path target) throws IOException {
+        if (Files.notExists(target) || Files.size(target) < 4) return false;
+
+        try (RandomAccessFile file = new RandomAccessFile(target.toFile(), "r")) {
+            return file.readInt() != MAGIC;
+        }
     }
 
-    private static int bytesToInt(byte[] d, int i) {
-        return (d[i] & 0xFF) << 24
-                | (d[i + 1] & 0xFF) << 16
-                | (d[i + 2] & 0xFF) << 8
-                | d[i + 3] & 0xFF;
+    /**
+     * Rewrites a version 1 region file into the current layout.
+     * The new file is written next to the old one and atomically moved into place.
+     */
+    static void migrateLegacy(Path target) throws IOException {
+        Path migrated = target.resolveSibling(target.getFileName() + ".migrating");
+        Files.deleteIfExists(migrated);
+
+        int count = 0;
+        try (RandomAccessFile legacy = new RandomAccessFile(target.toFile(), "r")) {
+            RegionDataChannel channel = open(migrated);
+            try {
+                if (legacy.length() >= (long) LEGACY_SECTOR_MAP_START * SECTOR_SIZE + 4) {
+                    legacy.seek((long) LEGACY_SECTOR_MAP_START * SECTOR_SIZE);
+                    int entryCount = legacy.readInt();
+                    byte[] mapData = new byte[entryCount * LEGACY_ENTRY_SIZE];
+                    legacy.readFully(mapData);
+                    ByteBuffer map = ByteBuffer.wrap(mapData);
+
+                    for (int i = 0; i < entryCount; i++) {
+                        int chunkId = map.getInt();
+                        int startSector = map.getInt();
+                        int sectorCount = map.getInt();
+
+                        // Version 1 didn't store exact lengths, the chunk parser ignores the trailing padding.
+                        byte[] data = new byte[sectorCount * SECTOR_SIZE];
+                        legacy.seek((long) startSector * SECTOR_SIZE);
+                        legacy.readFully(data);
+                        channel.writeChunk(chunkId, data);
+                        count++;
+                    }
+                }
+                channel.writeSectorReferenceMap();
+            } finally {
+                channel.close();
+            }
+        }
+
+        Files.move(migrated, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        CommonConstants.LOGGER.info("Migrated {} chunks in region file {} to version {}", count, target, VERSION);
     }
 }
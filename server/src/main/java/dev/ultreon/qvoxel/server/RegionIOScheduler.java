@@ -0,0 +1,335 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.server;
+
+import dev.ultreon.qvoxel.CommonConstants;
+import dev.ultreon.ubo.types.MapType;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Writes chunk snapshots to region files on a dedicated thread.</p>
+ *
+ * <p>Snapshots are queued per region file and coalesced per chunk, so a chunk that is saved several times before
+ * the I/O thread gets to it is only written once. Each region is then written as a single batch, which the region
+ * channel lays out as one sequential run of sectors, followed by a header commit.</p>
+ *
+ * <p>Chunks that are still queued or being written can be read back through {@link #getPending(RegionChannel, int)},
+ * so a chunk that gets reloaded right after it was unloaded never sees stale data on disk.</p>
+ *
+ * <p>Region files that are being closed are tracked by path, a new channel for the same file waits for the close
+ * through {@link #awaitClosed(Path)} so there is never more than one open channel per file.</p>
+ */
+public final class RegionIOScheduler implements AutoCloseable {
+    private final Object lock = new Object();
+    private final Map<RegionChannel, Batch> pending = new LinkedHashMap<>();
+    private final Map<RegionChannel, Batch> inFlight = new HashMap<>();
+    private final Map<Path, CompletableFuture<Void>> closing = new HashMap<>();
+    private final int softLimit;
+    private final Thread thread;
+    private int queuedChunks;
+    private volatile boolean closed;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile long lastBatchNanos;
+
+    /**
+     * Snapshot of the scheduler metrics.
+     *
+     * @param queuedChunks   the amount of chunks waiting to be written.
+     * @param queuedRegions  the amount of region files with chunks waiting to be written.
+     * @param submitted      the total amount of chunk snapshots submitted.
+     * @param coalesced      the amount of snapshots that replaced an older queued snapshot of the same chunk.
+     * @param written        the total amount of chunks written.
+     * @param batches        the total amount of region batches written.
+     * @param bytesWritten   the total amount of uncompressed chunk bytes written.
+     * @param failures       the amount of batches that failed to write.
+     * @param lastBatchNanos the time the last batch took to serialize, write and commit.
+     */
+    public record Metrics(int queuedChunks, int queuedRegions, long submitted, long coalesced, long written,
+                          long batches, long bytesWritten, long failures, long lastBatchNanos) {
+
+    }
+
+    private static final class Batch {
+        final SortedMap<Integer, MapType> chunks = new TreeMap<>();
+        final List<CompletableFuture<Void>> waiters = new ArrayList<>();
+        boolean commit;
+    }
+
+    /**
+     * Creates and starts a new scheduler.
+     *
+     * @param softLimit the amount of queued chunks at which {@link #awaitCapacity()} starts blocking.
+     */
+    public RegionIOScheduler(int softLimit) {
+        this.softLimit = softLimit;
+        thread = new Thread(this::run, "Region I/O");
+        thread.setDaemon(false);
+        thread.start();
+    }
+
+    /**
+     * Queues a chunk snapshot for writing, replacing any older snapshot of the same chunk that wasn't written yet.
+     * This never blocks, producers that can afford to wait should call {@link #awaitCapacity()} first.
+     *
+     * @param channel  the region file to write to.
+     * @param chunkId  the chunk id within the region file.
+     * @param snapshot the chunk data, which must not be modified afterward.
+     */
+    public void submit(RegionChannel channel, int chunkId, MapType snapshot) {
+        submitted.increment();
+        if (closed) {
+            writeNow(channel, chunkId, snapshot);
+            return;
+        }
+
+        synchronized (lock) {
+            Batch batch = pending.computeIfAbsent(channel, _ -> new Batch());
+            if (batch.chunks.put(chunkId, snapshot) != null) {
+                coalesced.increment();
+            } else {
+                queuedChunks++;
+            }
+            batch.commit = true;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Requests a header commit for the given region file after all chunks queued so far are written.
+     *
+     * @param channel the region file to commit.
+     * @return a future that completes once the commit is done.
+     */
+    public CompletableFuture<Void> flush(RegionChannel channel) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        if (closed) {
+            try {
+                channel.commit();
+                future.complete(null);
+            } catch (IOException e) {
+                future.completeExceptionally(e);
+            }
+            return future;
+        }
+
+        synchronized (lock) {
+            Batch batch = pending.computeIfAbsent(channel, _ -> new Batch());
+            batch.commit = true;
+            batch.waiters.add(future);
+            lock.notifyAll();
+        }
+        return future;
+    }
+
+    /**
+     * Requests the final header commit of a region file that is being closed.
+     * Until it's done, {@link #awaitClosed(Path)} blocks for the file of the channel.
+     *
+     * @param channel the region file to close.
+     * @return a future that completes once the commit is done.
+     */
+    CompletableFuture<Void> close(RegionChannel channel) {
+        Path path = channel.getTarget();
+        CompletableFuture<Void> future = flush(channel);
+        synchronized (lock) {
+            closing.put(path, future);
+        }
+        future.whenComplete((_, _) -> {
+            synchronized (lock) {
+                closing.remove(path, future);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Blocks until a pending close of the given region file is done, so it can safely be opened again.
+     *
+     * @param path the region file.
+     */
+    void awaitClosed(Path path) {
+        CompletableFuture<Void> future;
+        synchronized (lock) {
+            future = closing.get(path);
+        }
+        if (future == null) return;
+
+        // A failed close is already reported by the region that closed the file.
+        future.exceptionally(_ -> null).join();
+    }
+
+    /**
+     * Returns the latest snapshot of a chunk that is queued or currently being written.
+     *
+     * @param channel the region file.
+     * @param chunkId the chunk id within the region file.
+     * @return the snapshot, or {@code null} if the chunk has no pending writes.
+     */
+    public @Nullable MapType getPending(RegionChannel channel, int chunkId) {
+        synchronized (lock) {
+            Batch batch = pending.get(channel);
+            if (batch != null) {
+                MapType snapshot = batch.chunks.get(chunkId);
+                if (snapshot != null) return snapshot;
+            }
+
+            batch = inFlight.get(channel);
+            return batch == null ? null : batch.chunks.get(chunkId);
+        }
+    }
+
+    /**
+     * Blocks until the amount of queued chunks is below the soft limit.
+     * This is the backpressure for bulk producers like the periodic world save.
+     */
+    public void awaitCapacity() {
+        if (Thread.currentThread() == thread) return;
+
+        synchronized (lock) {
+            while (queuedChunks >= softLimit && !closed) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    public boolean isSaturated() {
+        synchronized (lock) {
+            return queuedChunks >= softLimit;
+        }
+    }
+
+    public int getQueueDepth() {
+        synchronized (lock) {
+            return queuedChunks;
+        }
+    }
+
+    public Metrics getMetrics() {
+        synchronized (lock) {
+            return new Metrics(queuedChunks, pending.size(), submitted.sum(), coalesced.sum(), written.sum(),
+                    batches.sum(), bytesWritten.sum(), failures.sum(), lastBatchNanos);
+        }
+    }
+
+    private void run() {
+        while (true) {
+            RegionChannel channel;
+            Batch batch;
+            synchronized (lock) {
+                while (pending.isEmpty()) {
+                    if (closed) return;
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        if (closed) return;
+                    }
+                }
+
+                Iterator<Map.Entry<RegionChannel, Batch>> iterator = pending.entrySet().iterator();
+                Map.Entry<RegionChannel, Batch> next = iterator.next();
+                iterator.remove();
+                channel = next.getKey();
+                batch = next.getValue();
+                inFlight.put(channel, batch);
+                queuedChunks -= batch.chunks.size();
+                lock.notifyAll();
+            }
+
+            process(channel, batch);
+
+            synchronized (lock) {
+                inFlight.remove(channel);
+            }
+        }
+    }
+
+    private void process(RegionChannel channel, Batch batch) {
+        long start = System.nanoTime();
+        try {
+            if (!batch.chunks.isEmpty()) {
+                bytesWritten.add(channel.writeBatch(batch.chunks));
+                written.add(batch.chunks.size());
+                batches.increment();
+            }
+
+            if (batch.commit) channel.commit();
+
+            for (CompletableFuture<Void> waiter : batch.waiters) {
+                waiter.complete(null);
+            }
+        } catch (Exception e) {
+            failures.increment();
+            CommonConstants.LOGGER.error("Failed to write {} chunks to region {}", batch.chunks.size(), channel.getTarget(), e);
+            for (CompletableFuture<Void> waiter : batch.waiters) {
+                waiter.completeExceptionally(e);
+            }
+        } finally {
+            lastBatchNanos = System.nanoTime() - start;
+        }
+    }
+
+    private void writeNow(RegionChannel channel, int chunkId, MapType snapshot) {
+        Batch batch = new Batch();
+        batch.chunks.put(chunkId, snapshot);
+        batch.commit = true;
+        process(channel, batch);
+    }
+
+    /**
+     * Writes everything that is still queued and stops the I/O thread.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) return;
+            closed = true;
+            lock.notifyAll();
+        }
+
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Anything queued after the thread saw the close flag.
+        synchronized (lock) {
+            for (Map.Entry<RegionChannel, Batch> entry : pending.entrySet()) {
+                process(entry.getKey(), entry.getValue());
+            }
+            pending.clear();
+            queuedChunks = 0;
+        }
+    }
+}
@@ -17,16 +17,25 @@
 package dev.ultreon.qvoxel.server;
 
 import dev.ultreon.qvoxel.util.ChunkVec;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.joml.Vector2i;
 import org.joml.Vector3i;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * <p>Holds the region columns of a world, keyed by {@link ChunkVec#columnKey(int, int)}.</p>
+ *
+ * <p>Columns are looked up for every block access from generator and tick threads, but only added or removed when a
+ * column loads or unloads. The map is copy-on-write: lookups read the current map without locking or allocating, and
+ * changes publish a new copy.</p>
+ */
 public class RegionMap {
-    private final Map<@NotNull Vector2i, @NotNull RegionColumn> columns = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private volatile Long2ObjectOpenHashMap<RegionColumn> columns = new Long2ObjectOpenHashMap<>();
     private final @NotNull QuantumServer server;
     private final @NotNull ChunkManager chunkManager;
     private final @NotNull ServerWorld world;
@@ -42,22 +51,39 @@ public class RegionMap {
     }
 
     public @NotNull RegionColumn getRegionColumn(@NotNull Vector2i pos) {
-        synchronized (columns) {
-            return columns.computeIfAbsent(pos, v2i -> new RegionColumn(server, this, world, chunkManager, v2i.x, v2i.y));
-        }
+        return getRegionColumn(pos.x, pos.y);
     }
 
-    public void tick() {
+    /**
+     * Ticks the loaded regions.
+     *
+     * @param ticker the ticker to tick the regions in parallel with, or {@code null} to tick them on the current thread.
+     */
+    void tick(@Nullable RegionTicker ticker) {
+        if (ticker == null) {
+            for (RegionColumn column : columns.values()) {
+                column.tick();
+            }
+            return;
+        }
+
+        List<Region> regions = new ArrayList<>();
         for (RegionColumn column : columns.values()) {
-            column.tick();
+            column.collectRegions(regions);
         }
+        ticker.tick(regions);
     }
 
     public void close() {
-        for (RegionColumn column : columns.values()) {
+        Long2ObjectOpenHashMap<RegionColumn> closed;
+        synchronized (lock) {
+            closed = columns;
+            columns = new Long2ObjectOpenHashMap<>();
+        }
+
+        for (RegionColumn column : closed.values()) {
             column.close();
         }
-        columns.clear();
     }
 
     public @NotNull ChunkManager getChunkManager() {
@@ -74,11 +100,24 @@ public class RegionMap {
 
     @NotNull
     public RegionColumn getRegionColumn(int x, int z) {
-        return getRegionColumn(new Vector2i(x, z));
+        long key = ChunkVec.columnKey(x, z);
+        RegionColumn column = columns.get(key);
+        if (column != null) return column;
+
+        synchronized (lock) {
+            column = columns.get(key);
+            if (column == null) {
+                column = new RegionColumn(server, this, world, chunkManager, x, z);
+                Long2ObjectOpenHashMap<RegionColumn> copy = new Long2ObjectOpenHashMap<>(columns);
+                copy.put(key, column);
+                columns = copy;
+            }
+            return column;
+        }
     }
 
     public @Nullable Region getRegionOrNull(int x, int y, int z) {
-        RegionColumn regionColumn = columns.get(new Vector2i(x, z));
+        RegionColumn regionColumn = columns.get(ChunkVec.columnKey(x, z));
         if (regionColumn == null) return null;
         return regionColumn.getRegionOrNull(y);
     }
@@ -92,12 +131,19 @@ public class RegionMap {
     }
 
     public void removeColumn(int x, int z) {
-        RegionColumn remove = columns.remove(new Vector2i(x, z));
+        long key = ChunkVec.columnKey(x, z);
+        RegionColumn remove;
+        synchronized (lock) {
+            if (!columns.containsKey(key)) return;
+            Long2ObjectOpenHashMap<RegionColumn> copy = new Long2ObjectOpenHashMap<>(columns);
+            remove = copy.remove(key);
+            columns = copy;
+        }
         remove.save();
     }
 
-    public RegionColumn getRegionColumnOrNull(int x, int z) {
-        return columns.get(new Vector2i(x, z));
+    public @Nullable RegionColumn getRegionColumnOrNull(int x, int z) {
+        return columns.get(ChunkVec.columnKey(x, z));
     }
 
     public void save() {
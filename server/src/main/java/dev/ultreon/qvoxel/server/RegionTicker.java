@@ -0,0 +1,156 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.server;
+
+import dev.ultreon.qvoxel.CommonConstants;
+import dev.ultreon.qvoxel.util.BlockVec;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayFIFOQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Ticks the loaded regions of the worlds in parallel.</p>
+ *
+ * <p>The regions are partitioned into groups of regions that touch each other, diagonals included. Regions of
+ * different groups are never adjacent, so the groups are ticked in parallel on a fork-join pool, and the regions
+ * within a group one after another.</p>
+ *
+ * <p>Block writes can't be applied by the workers, they update lighting and client notifications shared by the whole
+ * world. Writes made while ticking a group are {@linkplain #defer(Runnable) deferred} instead, and applied on the
+ * server thread after all groups finished, in the order of the groups.</p>
+ */
+final class RegionTicker implements AutoCloseable {
+    /**
+     * Thread group for the region tick workers.
+     */
+    static final ThreadGroup REGION_TICKERS = new ThreadGroup("Region Tickers");
+    private static final ThreadLocal<List<Runnable>> DEFERRED = new ThreadLocal<>();
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a new region ticker.
+     *
+     * @param threads the amount of worker threads.
+     */
+    RegionTicker(int threads) {
+        pool = new ForkJoinPool(threads, p -> {
+            ForkJoinWorkerThread thread = new ForkJoinWorkerThread(REGION_TICKERS, p, true) {
+            };
+            thread.setName("Region Ticker");
+            thread.setDaemon(true);
+            return thread;
+        }, (_, e) -> CommonConstants.LOGGER.error("Uncaught exception in region ticker", e), false);
+    }
+
+    /**
+     * Defers a world write until the merge phase, if the current thread is ticking regions.
+     *
+     * @param write the write to apply later.
+     * @return {@code true} if it was deferred, {@code false} if the caller should apply it right away.
+     */
+    static boolean defer(Runnable write) {
+        List<Runnable> writes = DEFERRED.get();
+        if (writes == null) return false;
+
+        writes.add(write);
+        return true;
+    }
+
+    /**
+     * Ticks the regions, in parallel if they form more than one group. Must be called on the server thread.
+     *
+     * @param regions the loaded regions of a world.
+     */
+    void tick(List<Region> regions) {
+        List<List<Region>> groups = partition(regions);
+        if (groups.size() < 2) {
+            for (Region region : regions) region.tick();
+            return;
+        }
+
+        List<List<Runnable>> writes = new ArrayList<>(groups.size());
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(groups.size());
+        for (List<Region> group : groups) {
+            List<Runnable> groupWrites = new ArrayList<>();
+            writes.add(groupWrites);
+            tasks.add(pool.submit(() -> tickGroup(group, groupWrites)));
+        }
+
+        for (ForkJoinTask<?> task : tasks) task.join();
+
+        for (List<Runnable> groupWrites : writes) {
+            for (Runnable write : groupWrites) write.run();
+        }
+    }
+
+    private static void tickGroup(List<Region> group, List<Runnable> writes) {
+        DEFERRED.set(writes);
+        try {
+            for (Region region : group) region.tick();
+        } finally {
+            DEFERRED.remove();
+        }
+    }
+
+    private static List<List<Region>> partition(List<Region> regions) {
+        Long2ObjectOpenHashMap<Region> remaining = new Long2ObjectOpenHashMap<>(regions.size());
+        for (Region region : regions) remaining.put(BlockVec.pack(region.getX(), region.getY(), region.getZ()), region);
+
+        List<List<Region>> groups = new ArrayList<>();
+        ObjectArrayFIFOQueue<Region> queue = new ObjectArrayFIFOQueue<>();
+        for (Region start : regions) {
+            if (remaining.remove(BlockVec.pack(start.getX(), start.getY(), start.getZ())) == null) continue;
+
+            List<Region> group = new ArrayList<>();
+            queue.enqueue(start);
+            while (!queue.isEmpty()) {
+                Region region = queue.dequeue();
+                group.add(region);
+
+                for (int x = region.getX() - 1; x <= region.getX() + 1; x++) {
+                    for (int y = region.getY() - 1; y <= region.getY() + 1; y++) {
+                        for (int z = region.getZ() - 1; z <= region.getZ() + 1; z++) {
+                            Region neighbor = remaining.remove(BlockVec.pack(x, y, z));
+                            if (neighbor != null) queue.enqueue(neighbor);
+                        }
+                    }
+                }
+            }
+            groups.add(group);
+        }
+        return groups;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(15, TimeUnit.SECONDS)) {
+                CommonConstants.LOGGER.error("Region ticker did not terminate in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -21,12 +21,14 @@ public abstract class ServerChunk extends Chunk {
     private final @NotNull RNG rng;
     public boolean modified = false;
     private Region region;
+    private long version;
 
     public ServerChunk(ServerWorld world, ChunkVec pos, Region region) {
         super(world, pos);
         server = world.getServer();
         rng = new JavaRNG(getWorld().getSeed() + (pos.x ^ (long) pos.z << 4) & 0x3FFFFFFF);
         this.region = region;
+        version = world.nextChunkVersion();
     }
 
     public ServerChunk(ServerWorld world, ChunkVec pos, PaletteStorage<BlockState> blockStorage, PaletteStorage<FluidState> fluidStorage, Map<BlockVec, BlockActor> blockActors, PaletteStorage<RegistryKey<Biome>> biomeStorage, Region region) {
@@ -34,6 +36,7 @@ public abstract class ServerChunk extends Chunk {
         server = world.getServer();
         rng = new JavaRNG(getWorld().getSeed() + (pos.x ^ (long) pos.z << 4) & 0x3FFFFFFF);
         this.region = region;
+        version = world.nextChunkVersion();
     }
 
     @Override
@@ -41,6 +44,23 @@ public abstract class ServerChunk extends Chunk {
         return (ServerWorld) super.getWorld();
     }
 
+    /**
+     * Gets the version of the chunk data as clients know it. It changes whenever changes to the chunk are sent out,
+     * and a chunk that is loaded again gets a new one, so clients can tell whether a cached copy is still up to date.
+     *
+     * @return the chunk version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gives the chunk a new version, call this on the server thread when changes to the chunk are sent out.
+     */
+    void updateVersion() {
+        version = getWorld().nextChunkVersion();
+    }
+
     public RNG getRNG() {
         return rng;
     }
@@ -66,10 +86,6 @@ public abstract class ServerChunk extends Chunk {
         }
     }
 
-    public void consumeTicket(ChunkLoadTicket ticket) {
-
-    }
-
     public int getHeight(int cx, int cz, HeightmapType type) {
         int wx = blockStart.x + cx;
         int wz = blockStart.z + cz;
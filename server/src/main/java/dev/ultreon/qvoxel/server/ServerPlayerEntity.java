@@ -46,34 +46,35 @@ import org.apache.commons.lang3.ArrayUtils;
 import org.jetbrains.annotations.Nullable;
 import org.joml.Vector3d;
 import org.joml.Vector3f;
-import org.joml.Vector3i;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 import java.util.Locale;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 /**
  * Server-side implementation of {@link PlayerEntity}.
  */
 public class ServerPlayerEntity extends PlayerEntity implements Audience {
+    private static final int MAX_COMMANDS_PER_TICK = 256;
     public final IConnection<? extends ServerPacketHandler, ClientPacketHandler> connection;
     private final QuantumServer server;
     private final int clientRenderDistance;
-    private final List<ChunkVec> toLoadChunks = new ArrayList<>();
-    private int initialLoadCount = -1;
-    private int loaded = 0;
+    private static final int PING_INTERVAL = 20;
+    private final ChunkStreamer chunkStreamer = new ChunkStreamer(this);
+    private int pingTicks;
     private boolean loggedIn;
     private ItemStack cursor;
     private float oldHealth;
     private final Vector3d tmp = new Vector3d();
     private double walkStep;
-    final List<ChunkVec> loadedChunks = new CopyOnWriteArrayList<>();
     private boolean dataLoaded;
     private boolean loadedInitChunks;
+    private final Queue<Runnable> inbound = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<Vector3d> pendingMove = new AtomicReference<>();
+    private final Runnable applyPendingMove = this::applyPendingMove;
 
     public ServerPlayerEntity(IConnection<? extends ServerPacketHandler, ClientPacketHandler> connection, String name, int clientRenderDistance, QuantumServer server) {
         super(null);
@@ -86,7 +87,13 @@ public class ServerPlayerEntity extends PlayerEntity implements Audience {
 
     @Override
     public void tick() {
-        pollChunkLoad();
+        chunkStreamer.tick();
+
+        // The round trip time drives the chunk send rate.
+        if (++pingTicks >= PING_INTERVAL) {
+            pingTicks = 0;
+            connection.send(new S2CPingPacket(System.currentTimeMillis()));
+        }
 
         // FIXME: This stuff is broken asf
 //        if (!onGround && !isFlying() && loggedIn) {
@@ -105,16 +112,7 @@ public class ServerPlayerEntity extends PlayerEntity implements Audience {
 
         getFoodStatus().tick(this);
 
-        for (int cx = -clientRenderDistance / World.CHUNK_SIZE; cx <= clientRenderDistance / World.CHUNK_SIZE; cx++) {
-            for (int cy = -clientRenderDistance / World.CHUNK_SIZE; cy <= clientRenderDistance / World.CHUNK_SIZE; cy++) {
-                for (int cz = -clientRenderDistance / World.CHUNK_SIZE; cz <= clientRenderDistance / World.CHUNK_SIZE; cz++) {
-                    Chunk chunk = getServerWorld().getChunkOrNull(cx + BlockVec.chunkOf((int) position.x), cy + BlockVec.chunkOf((int) position.y), cz + BlockVec.chunkOf((int) position.z));
-                    if (chunk != null) {
-                        chunk.consumeTicket(ChunkLoadTicket.PLAYER);
-                    }
-                }
-            }
-        }
+        getServerWorld().getChunkManager().getTickets().updatePlayer(this);
 
         oldDelta.set(velocity);
 
@@ -155,88 +153,28 @@ public class ServerPlayerEntity extends PlayerEntity implements Audience {
         damage(new DamageSource(DamageType.FALL, this, null, position), fallDistance);
     }
 
-    @SuppressWarnings("D")
-    public void refreshChunks() {
-        loaded = 0;
-        int clientRenderDistance1 = clientRenderDistance;
-        if (initialLoadCount == -1)
-            clientRenderDistance1 = Math.min(clientRenderDistance1, 64);
-        List<ChunkVec> newChunks = new CopyOnWriteArrayList<>();
-        for (int cx = -clientRenderDistance1 / World.CHUNK_SIZE; cx <= clientRenderDistance1 / World.CHUNK_SIZE; cx++) {
-            for (int cy = -clientRenderDistance1 / World.CHUNK_SIZE; cy <= clientRenderDistance1 / World.CHUNK_SIZE; cy++) {
-                for (int cz = -clientRenderDistance1 / World.CHUNK_SIZE; cz <= clientRenderDistance1 / World.CHUNK_SIZE; cz++) {
-                    Chunk chunkOrNull = getServerWorld().getChunkOrNull(cx + BlockVec.chunkOf((int) position.x), cy + BlockVec.chunkOf((int) position.y), cz + BlockVec.chunkOf((int) position.z));
-                    if (chunkOrNull instanceof @Nullable WorldChunk chunk) {
-                        chunk.consumeTicket(ChunkLoadTicket.PLAYER);
-                        if (!loadedChunks.contains(chunk.vec)) {
-                            chunk.sendChunkData(this);
-                        }
-                        loaded++;
-                    } else {
-                        newChunks.add(getChunkVec(cx, cy, cz));
-                    }
-                }
-            }
-        }
-        synchronized (toLoadChunks) {
-            toLoadChunks.removeIf(chunkVec -> !newChunks.contains(chunkVec));
-            toLoadChunks.addAll(newChunks);
-            if (initialLoadCount == -1)
-                initialLoadCount = toLoadChunks.size();
-            toLoadChunks.sort((o1, o2) -> {
-                if (o1 == null || o2 == null) return 0;
-                Vector3i v1 = new Vector3i(o1.x, o1.y, o1.z);
-                Vector3i v2 = new Vector3i(o2.x, o2.y, o2.z);
-                long d1 = v1.distanceSquared(new Vector3i(BlockVec.chunkOf((int) position.x), BlockVec.chunkOf((int) position.y), BlockVec.chunkOf((int) position.z)));
-                long d2 = v2.distanceSquared(new Vector3i(BlockVec.chunkOf((int) position.x), BlockVec.chunkOf((int) position.y), BlockVec.chunkOf((int) position.z)));
-                return Long.compare(d1, d2);
-            });
-        }
-        server.onChunkLoad(0, initialLoadCount, null);
+    /**
+     * Checks whether the chunk was sent to the client, changes to chunks that weren't sent yet are sent with the
+     * chunk data later.
+     */
+    public boolean isChunkSent(ChunkVec vec) {
+        return chunkStreamer.isSent(vec);
     }
 
-    private void pollChunkLoad() {
-        ChunkVec chunkVec;
-        synchronized (toLoadChunks) {
-            if (toLoadChunks.isEmpty()) {
-                return;
-            }
-            chunkVec = toLoadChunks.removeFirst();
-        }
-        Chunk chunkOrNull1 = getServerWorld().getChunk(chunkVec.x, chunkVec.y, chunkVec.z, GenerationBarrier.ALL);
-        if (chunkOrNull1 instanceof WorldChunk) {
-            CommonConstants.LOGGER.trace("Generating Chunk {}, {}. {}", chunkVec.x, chunkVec.y, chunkVec.z);
-
-            CompletableFuture<? extends ServerChunk> chunkFuture = getServerWorld().loadChunkAsync(chunkVec.x, chunkVec.y, chunkVec.z, ChunkLoadTicket.PLAYER, GenerationBarrier.ALL);
-            chunkFuture.exceptionally(throwable -> {
-                CommonConstants.LOGGER.error("Failed to load chunk for player", throwable);
-                return null;
-            }).thenAccept(chunk -> {
-                if (chunk == null) {
-                    return;
-                }
-                ((WorldChunk) chunk).sendChunkData(this);
-                loaded++;
-                if (loaded == initialLoadCount) {
-                    initialLoadCount = 0;
-                    loaded = 0;
-                    toLoadChunks.clear();
-                    loadedInitChunks = true;
-                }
-                server.onChunkLoad(initialLoadCount - toLoadChunks.size(), initialLoadCount, chunk.vec);
-            }).exceptionally(throwable -> {
-                CommonConstants.LOGGER.error("Failed to send chunk data to player", throwable);
-                return null;
-            });
-        }
+    /**
+     * Called when the client didn't have a chunk it was told to load from its cache.
+     */
+    public void onChunkCacheMiss(ChunkVec vec) {
+        chunkStreamer.onCacheMiss(vec);
+    }
 
-        if (toLoadChunks.isEmpty()) {
-            loggedIn = true;
-        }
+    void onChunkReady(ChunkVec vec) {
+        chunkStreamer.retry(vec);
     }
 
-    private ChunkVec getChunkVec(int cx, int cy, int cz) {
-        return new ChunkVec(BlockVec.chunkOf((int) position.x) + cx, BlockVec.chunkOf((int) position.y) + cy, BlockVec.chunkOf((int) position.z) + cz);
+    void onInitialChunksLoaded() {
+        loadedInitChunks = true;
+        loggedIn = true;
     }
 
     @Override
@@ -251,12 +189,10 @@ public class ServerPlayerEntity extends PlayerEntity implements Audience {
 
     @Override
     public void onTeleport(double x, double y, double z) {
-        toLoadChunks.clear();
-        loadedChunks.clear();
+        chunkStreamer.reset();
         super.onTeleport(x, y, z);
 
         if (loggedIn) {
-            refreshChunks();
             connection.send(new S2CTeleportPacket(yawHead, pitchHead, position.x(), position.y(), position.z()));
             CommonConstants.LOGGER.info("Player '{}' moved to {} {} {}", getUsername(), x, y, z);
             if (dataLoaded) {
@@ -295,6 +231,13 @@ public class ServerPlayerEntity extends PlayerEntity implements Audience {
         getServerWorld().removePlayer(this);
     }
 
+    /**
+     * Gets the render distance the client asked for, in blocks.
+     */
+    public int getClientRenderDistance() {
+        return clientRenderDistance;
+    }
+
     public void setRotation(float yaw, float pitch) {
         this.yawHead = yaw;
         this.pitchHead = pitch;
@@ -367,6 +310,52 @@ public class ServerPlayerEntity extends PlayerEntity implements Audience {
         }
     }
 
+    /**
+     * Queues a command from an incoming packet, to be run on the server thread at the start of the next tick.
+     * Safe to call from any thread, the network thread doesn't wait for the command to run.
+     *
+     * @param command the command to run.
+     */
+    public void enqueue(Runnable command) {
+        inbound.add(command);
+    }
+
+    /**
+     * Queues a move from an incoming packet. Only the latest move is kept, earlier ones that weren't applied yet are
+     * replaced. The first move queues a command that applies the latest one, so moves still run in arrival order
+     * relative to the other commands.
+     *
+     * @see #onMove(double, double, double)
+     */
+    public void enqueueMove(double x, double y, double z) {
+        if (pendingMove.getAndSet(new Vector3d(x, y, z)) == null) {
+            inbound.add(applyPendingMove);
+        }
+    }
+
+    private void applyPendingMove() {
+        Vector3d move = pendingMove.getAndSet(null);
+        if (move != null) onMove(move.x, move.y, move.z);
+    }
+
+    /**
+     * Runs the commands that were queued by incoming packets.
+     * At most {@value #MAX_COMMANDS_PER_TICK} commands are run per tick, the rest are left for the next tick.
+     */
+    public void processInbound() {
+        try {
+            Runnable command;
+            for (int i = 0; i < MAX_COMMANDS_PER_TICK && (command = inbound.poll()) != null; i++) {
+                command.run();
+            }
+        } catch (Exception e) {
+            CommonConstants.LOGGER.error("Failed to process packet from {}", username, e);
+            inbound.clear();
+            pendingMove.set(null);
+            connection.disconnect(CloseCodes.PROTOCOL_ERROR.getCode(), "Failed to process packet!");
+        }
+    }
+
     @Override
     public void sendPacket(Packet<? extends ClientPacketHandler> packet) {
         connection.send(packet);
@@ -583,9 +572,9 @@ public class ServerPlayerEntity extends PlayerEntity implements Audience {
         int spawnZ = getServer().getSpawnZ();
 
         ServerWorld serverWorld = getServerWorld();
-        serverWorld.loadChunkAsync(BlockVec.chunkOf(spawnX), 0, BlockVec.chunkOf(spawnZ), ChunkLoadTicket.PLAYER, GenerationBarrier.ALL).thenAccept(chunk -> {
+        serverWorld.loadChunkAsync(BlockVec.chunkOf(spawnX), 0, BlockVec.chunkOf(spawnZ), ChunkLoadTicket.LOAD, GenerationBarrier.ALL).thenAccept(chunk -> {
             int height = serverWorld.getHeight(spawnX, spawnZ, HeightmapType.MOTION_BLOCKING);
-            serverWorld.loadChunkAsync(BlockVec.chunkOf(spawnX), height, BlockVec.chunkOf(spawnZ), ChunkLoadTicket.PLAYER, GenerationBarrier.ALL).thenAccept(chunk1 -> {
+            serverWorld.loadChunkAsync(BlockVec.chunkOf(spawnX), height, BlockVec.chunkOf(spawnZ), ChunkLoadTicket.LOAD, GenerationBarrier.ALL).thenAccept(chunk1 -> {
                 health = 20;
                 setDead(false);
                 teleport(spawnX, height, spawnZ);
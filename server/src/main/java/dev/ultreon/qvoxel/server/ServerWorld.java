@@ -43,14 +43,17 @@ import dev.ultreon.qvoxel.world.gen.biome.BiomeGenerator;
 import dev.ultreon.qvoxel.world.gen.chunk.ChunkGenerator;
 import dev.ultreon.qvoxel.world.light.LightingSystem;
 import dev.ultreon.ubo.types.MapType;
-import it.unimi.dsi.fastutil.ints.Int2ObjectArrayMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class ServerWorld extends World implements AutoCloseable, Audience {
     private final long seed;
@@ -58,14 +61,19 @@ public class ServerWorld extends World implements AutoCloseable, Audience {
     private final WorldStorage storage;
     private final ChunkGenerator chunkGenerator;
     private final FeatureData featureData = new FeatureData();
-    private final Map<ChunkVec, Collection<StructureInstance>> structuresMap = new HashMap<>();
+    private final Long2ObjectOpenHashMap<Collection<StructureInstance>> structuresMap = new Long2ObjectOpenHashMap<>();
     private final RegistryKey<DimensionInfo> dimension;
     private final List<@NotNull RecordedChange> recordedChanges = new CopyOnWriteArrayList<>();
     private final List<ServerPlayerEntity> players = new CopyOnWriteArrayList<>();
     final LightingSystem lightingSystem = new LightingSystem(this);
+    private final LightUpdateScheduler lightUpdates = new LightUpdateScheduler(this, lightingSystem);
     private final ChunkManager chunkManager;
     private final Map<Biome, BiomeGenerator> biomeGenMap = new HashMap<>();
-    private final Int2ObjectMap<Entity> entities = new Int2ObjectArrayMap<>();
+    private final Int2ObjectMap<Entity> entities = new Int2ObjectOpenHashMap<>();
+    private final EntityTracker entityTracker = new EntityTracker();
+    private final BlockChangeBuffer blockChanges = new BlockChangeBuffer();
+    private final AtomicInteger nextEntityId = new AtomicInteger(1);
+    private final AtomicLong nextChunkVersion = new AtomicLong();
 
     public ServerWorld(QuantumServer server, RegistryKey<DimensionInfo> key, WorldStorage storage, ChunkGenerator generator, long seed, MapType data) {
         super();
@@ -101,6 +109,7 @@ public class ServerWorld extends World implements AutoCloseable, Audience {
 
     @Override
     public boolean set(int x, int y, int z, BlockState state, int flags) {
+        if (RegionTicker.defer(() -> set(x, y, z, state, flags))) return true;
         if (!server.isServerThread())
             throw new IllegalStateException("Cannot set block state outside of server thread!");
 
@@ -122,22 +131,9 @@ public class ServerWorld extends World implements AutoCloseable, Audience {
         if (!chunkAt.get(lx, ly, lz).equals(state)) {
             CommonConstants.LOGGER.warn("Block state mismatch at {}, {}, {}: {} != {}", x, y, z, chunkAt.get(lx, ly, lz), state);
         }
+        // Light changes are resolved by the light scheduler, which sends them to the clients on its own.
         if ((flags & BlockFlags.NOTIFY_CLIENTS) != 0) {
-            if (newRgb != rgb) {
-                if (chunkAt instanceof WorldChunk worldChunk)
-                    worldChunk.sendChunkData();
-                for (int xi = x - 1; xi <= x + 1; xi++) {
-                    for (int yi = y - 1; yi <= y + 1; yi++) {
-                        for (int zi = z - 1; zi <= z + 1; zi++) {
-                            if (xi == x && yi == y && zi == z) continue;
-                            ServerChunk chunk = (ServerChunk) getChunkOrNull(xi, yi, zi);
-                            if (chunk instanceof WorldChunk worldChunk) {
-                                worldChunk.sendChunkData();
-                            }
-                        }
-                    }
-                }
-            } else server.broadcastBlockChange(this, x, y, z, state);
+            blockChanges.add(x, y, z, state);
         }
         return true;
     }
@@ -239,6 +235,7 @@ public class ServerWorld extends World implements AutoCloseable, Audience {
 
     @Override
     public void destroyBlock(int x, int y, int z) {
+        if (RegionTicker.defer(() -> destroyBlock(x, y, z))) return;
         BlockState state = get(x, y, z);
 
         super.destroyBlock(x, y, z);
@@ -270,6 +267,7 @@ public class ServerWorld extends World implements AutoCloseable, Audience {
 
     @Override
     public void close() {
+        lightUpdates.close();
         chunkManager.close();
     }
 
@@ -286,13 +284,23 @@ public class ServerWorld extends World implements AutoCloseable, Audience {
     }
 
     public Collection<StructureInstance> getStructuresAt(ChunkVec vec) {
-        return structuresMap.getOrDefault(vec, List.of());
+        return structuresMap.getOrDefault(vec.toLong(), List.of());
     }
 
-    public void tick() {
+    /**
+     * Ticks chunk loading, unloading and saving. Runs before {@link #tick()}.
+     */
+    public void tickChunks() {
         chunkManager.tick();
     }
 
+    public void tick() {
+        chunkManager.tickRegions();
+        lightUpdates.tick();
+        entityTracker.tick();
+        blockChanges.flush(this);
+    }
+
     public RegistryKey<DimensionInfo> getDimension() {
         return dimension;
     }
@@ -344,11 +352,47 @@ public class ServerWorld extends World implements AutoCloseable, Audience {
     }
 
     public void addPlayer(ServerPlayerEntity player) {
+        player.setId(nextEntityId.getAndIncrement());
         players.add(player);
+        entityTracker.add(player);
     }
 
     public void removePlayer(ServerPlayerEntity player) {
         players.remove(player);
+        entityTracker.remove(player);
+        chunkManager.getTickets().removePlayer(player);
+    }
+
+    /**
+     * Adds an entity to the world and starts tracking it for nearby players.
+     *
+     * @param entity the entity to spawn.
+     */
+    public void spawn(Entity entity) {
+        if (!server.isServerThread())
+            throw new IllegalStateException("Cannot spawn entities outside of server thread!");
+
+        entity.setId(nextEntityId.getAndIncrement());
+        entity.setWorld(this);
+        entities.put(entity.getId(), entity);
+        entity.onSpawn();
+        entityTracker.add(entity);
+    }
+
+    /**
+     * Removes an entity from the world, despawning it for every player that could see it.
+     *
+     * @param entity the entity to despawn.
+     */
+    public void despawn(Entity entity) {
+        if (!server.isServerThread())
+            throw new IllegalStateException("Cannot despawn entities outside of server thread!");
+
+        if (entities.remove(entity.getId()) != null) entityTracker.remove(entity);
+    }
+
+    public @Nullable Entity getEntity(int id) {
+        return entities.get(id);
     }
 
     public <T extends ParticleData> void spawnParticles(ParticleType<T> type, int quantity, T data) {
@@ -382,6 +426,15 @@ public class ServerWorld extends World implements AutoCloseable, Audience {
         return chunkManager.getHeightmap(BlockVec.chunkOf(x), BlockVec.chunkOf(z), heightmapType);
     }
 
+    /**
+     * Gets a new chunk version, unique within this world.
+     *
+     * @see ServerChunk#getVersion()
+     */
+    long nextChunkVersion() {
+        return nextChunkVersion.incrementAndGet();
+    }
+
     public LightingSystem getLightingSystem() {
         return lightingSystem;
     }
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.server;
+
+/**
+ * The phases of a server tick, in the order they run.
+ *
+ * @see TickTimings
+ */
+public enum TickPhase {
+    /**
+     * Running the tasks submitted to the server, and the commands queued by incoming packets.
+     */
+    TASKS("Tasks"),
+    /**
+     * Handling chunk loads and unloads.
+     */
+    CHUNK_IO("Chunk I/O"),
+    /**
+     * Ticking the worlds: light updates, entity tracking and block changes.
+     */
+    WORLDS("Worlds"),
+    /**
+     * Ticking the players, which includes streaming chunks to them.
+     */
+    PLAYERS("Players");
+
+    private final String displayName;
+
+    TickPhase(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
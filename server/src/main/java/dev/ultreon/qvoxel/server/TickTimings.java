@@ -0,0 +1,132 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.server;
+
+/**
+ * <p>Records how long the last ticks of the server took, per {@linkplain TickPhase phase}.</p>
+ *
+ * <p>The durations are kept in a ring buffer of the last {@value #CAPACITY} ticks. Only the server thread records
+ * ticks, other threads like the debug screen can read them at any time. A reader can see a tick that is being
+ * recorded, which is fine for showing statistics.</p>
+ */
+public final class TickTimings {
+    /**
+     * The amount of ticks that are kept.
+     */
+    public static final int CAPACITY = 100;
+    private static final TickPhase[] PHASES = TickPhase.values();
+
+    private final long[] phases = new long[CAPACITY * PHASES.length];
+    private final long[] totals = new long[CAPACITY];
+    private volatile int count;
+    private volatile long skipped;
+    private long tickStart;
+    private long phaseStart;
+
+    /**
+     * Starts recording a tick.
+     */
+    void startTick() {
+        int slot = count % CAPACITY;
+        for (int i = 0; i < PHASES.length; i++) phases[slot * PHASES.length + i] = 0;
+        tickStart = phaseStart = System.nanoTime();
+    }
+
+    /**
+     * Ends a phase of the current tick, the next phase starts now.
+     * Time between phases, or spent outside any phase, only counts towards the tick total.
+     */
+    void endPhase(TickPhase phase) {
+        long now = System.nanoTime();
+        phases[count % CAPACITY * PHASES.length + phase.ordinal()] += now - phaseStart;
+        phaseStart = now;
+    }
+
+    /**
+     * Ends the current tick.
+     *
+     * @return the duration of the tick in nanoseconds.
+     */
+    long endTick() {
+        long duration = System.nanoTime() - tickStart;
+        totals[count % CAPACITY] = duration;
+        count++;
+        return duration;
+    }
+
+    void addSkipped(long ticks) {
+        skipped += ticks;
+    }
+
+    /**
+     * Gets the amount of ticks that were skipped because the server couldn't keep up.
+     */
+    public long getSkippedTicks() {
+        return skipped;
+    }
+
+    /**
+     * Gets the duration of the last tick.
+     *
+     * @return the duration in milliseconds, or {@code 0} if no tick ran yet.
+     */
+    public double getLastTickMillis() {
+        int count = this.count;
+        return count == 0 ? 0 : totals[(count - 1) % CAPACITY] / 1e6;
+    }
+
+    /**
+     * Gets the average duration of the recorded ticks.
+     *
+     * @return the average in milliseconds.
+     */
+    public double getAverageTickMillis() {
+        int size = Math.min(count, CAPACITY);
+        if (size == 0) return 0;
+
+        long sum = 0;
+        for (int i = 0; i < size; i++) sum += totals[i];
+        return sum / 1e6 / size;
+    }
+
+    /**
+     * Gets the longest duration of the recorded ticks.
+     *
+     * @return the duration in milliseconds.
+     */
+    public double getMaxTickMillis() {
+        int size = Math.min(count, CAPACITY);
+
+        long max = 0;
+        for (int i = 0; i < size; i++) max = Math.max(max, totals[i]);
+        return max / 1e6;
+    }
+
+    /**
+     * Gets the average duration of a phase in the recorded ticks.
+     *
+     * @return the average in milliseconds.
+     */
+    public double getAverageMillis(TickPhase phase) {
+        int size = Math.min(count, CAPACITY);
+        if (size == 0) return 0;
+
+        long sum = 0;
+        for (int i = 0; i < size; i++) sum += phases[i * PHASES.length + phase.ordinal()];
+        return sum / 1e6 / size;
+    }
+}
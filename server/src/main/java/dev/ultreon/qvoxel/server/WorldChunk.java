@@ -41,9 +41,13 @@ import org.jetbrains.annotations.Nullable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 public class WorldChunk extends ServerChunk {
-    private long unloadTicks = 100L;
+    /**
+     * Chunk data format. Format 2 stores blocks as {@link BlockStateTable} IDs, and all storages bit-packed.
+     */
+    static final int FORMAT = 2;
 
     public WorldChunk(ServerWorld world, ChunkVec vec, @NotNull Region region) {
         super(world, vec, region);
@@ -75,11 +79,18 @@ public class WorldChunk extends ServerChunk {
             throw new IllegalArgumentException("Sector cannot be null");
         }
         PaletteStorage<BlockState> blockStorage = new PaletteStorage<>(World.CHUNK_VOLUME, Blocks.AIR.getDefaultState());
-        blockStorage.load(sector.getMap("Blocks"), MapType.class, BlockState::load);
         PaletteStorage<FluidState> fluidStorage = new PaletteStorage<>(World.CHUNK_VOLUME, Fluids.EMPTY.getState(0));
-        fluidStorage.load(sector.getMap("Fluids", new MapType()), MapType.class, FluidState::load);
         PaletteStorage<RegistryKey<Biome>> biomeStorage = new PaletteStorage<>(World.CHUNK_SURFACE, RegistryKey.of(RegistryKeys.BIOME, CommonConstants.id("plains")));
-        biomeStorage.load(sector.getMap("Biomes"), StringType.class, id -> RegistryKey.of(RegistryKeys.BIOME, Identifier.tryParse(id.getValue())));
+        Function<StringType, RegistryKey<Biome>> biomeDecoder = id -> RegistryKey.of(RegistryKeys.BIOME, Identifier.tryParse(id.getValue()));
+        if (sector.getInt("Format", 1) >= FORMAT) {
+            blockStorage.loadIds(sector.getMap("Blocks"), world.getServer().getBlockStateTable()::fromStored);
+            fluidStorage.loadPacked(sector.getMap("Fluids", new MapType()), MapType.class, FluidState::load);
+            biomeStorage.loadPacked(sector.getMap("Biomes"), StringType.class, biomeDecoder);
+        } else {
+            blockStorage.load(sector.getMap("Blocks"), MapType.class, BlockState::load);
+            fluidStorage.load(sector.getMap("Fluids", new MapType()), MapType.class, FluidState::load);
+            biomeStorage.load(sector.getMap("Biomes"), StringType.class, biomeDecoder);
+        }
         Map<BlockVec, BlockActor> actors = new ConcurrentHashMap<>();
         ListType<MapType> blockActorsData = sector.getList("BlockActors");
         for (MapType blockActorData : blockActorsData) {
@@ -102,17 +113,18 @@ public class WorldChunk extends ServerChunk {
         MapType blocks = new MapType();
         MapType biomes = new MapType();
         ListType<MapType> blockActorsData = new ListType<>();
-        blockStorage.save(blocks, MapType.class, BlockState::save);
-        biomeStorage.save(biomes, StringType.class, biome -> new StringType(biome.id().toString()));
+        blockStorage.saveIds(blocks, getWorld().getServer().getBlockStateTable()::toStored);
+        biomeStorage.savePacked(biomes, StringType.class, biome -> new StringType(biome.id().toString()));
 
         for (BlockActor actor : blockActors.values()) {
             blockActorsData.add(actor.save(new MapType()));
         }
 
         sector.put("Blocks", blocks);
-        sector.put("Fluids", fluidStorage.save(new MapType(), MapType.class, FluidState::save));
+        sector.put("Fluids", fluidStorage.savePacked(new MapType(), MapType.class, FluidState::save));
         sector.put("Biomes", biomes);
         sector.put("BlockActors", blockActorsData);
+        sector.putInt("Format", FORMAT);
         sector.putBoolean("generated", true);
         sector.putBoolean("carved", true);
         sector.putString("currentBarrier", GenerationBarrier.ALL.name());
@@ -130,7 +142,7 @@ public class WorldChunk extends ServerChunk {
             if (chunk != null) {
                 chunk.neighbors[direction.opposite().ordinal()] = this;
                 if (chunk instanceof WorldChunk worldChunk) {
-                    worldChunk.sendChunkData();
+                    worldChunk.notifyReady();
                 }
             }
         }
@@ -156,28 +168,16 @@ public class WorldChunk extends ServerChunk {
 
     }
 
-    @Override
-    public void tick() {
-        super.tick();
-
-        if (unloadTicks-- == 0) {
-            unloadTicks = 0L;
-            CommonConstants.LOGGER.debug("Unloading chunk {} {} {}", vec.x, vec.y, vec.z);
-            getWorld().unloadChunk(vec);
-        }
-    }
-
-    public void consumeTicket(ChunkLoadTicket ticket) {
-        if (ticket.isIndefinite()) {
-            unloadTicks = -1L;
-        }
-        unloadTicks = Math.max(unloadTicks, ticket.getTimeout());
-    }
-
-    public void sendChunkData(ServerPlayerEntity serverPlayer) {
-        for (Chunk neighbor : neighbors) if (neighbor == null) return;
+    /**
+     * Sends the chunk data to a player, if all neighbors of the chunk are loaded.
+     *
+     * @param serverPlayer the player to send the chunk to.
+     * @return {@code true} if the chunk was sent.
+     */
+    public boolean sendChunkData(ServerPlayerEntity serverPlayer) {
+        for (Chunk neighbor : neighbors) if (neighbor == null) return false;
         serverPlayer.connection.send(new S2CChunkDataPacket(this));
-        serverPlayer.loadedChunks.add(vec);
+        return true;
     }
 
     public PaletteStorage<BlockState> getStorage() {
@@ -196,10 +196,16 @@ public class WorldChunk extends ServerChunk {
         return getWorld().getHeightmap(vec, HeightmapType.LIGHT_BLOCKING).getMap();
     }
 
-    public void sendChunkData() {
-        for (ServerPlayerEntity player : getWorld().getPlayers()) {
-            sendChunkData(player);
-        }
+    /**
+     * Lets the players that are waiting for the neighbors of this chunk know it might be ready to send now.
+     */
+    public void notifyReady() {
+        ServerWorld world = getWorld();
+        world.getServer().execute(() -> {
+            for (ServerPlayerEntity player : world.getPlayers()) {
+                player.onChunkReady(vec);
+            }
+        });
     }
 
     public Map<BlockVec, Identifier> getBlockActors() {
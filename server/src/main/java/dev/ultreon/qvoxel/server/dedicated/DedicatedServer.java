@@ -22,11 +22,6 @@ import dev.ultreon.qvoxel.network.system.NetworkInitializer;
 import dev.ultreon.qvoxel.server.QuantumServer;
 import dev.ultreon.qvoxel.server.WorldStorage;
 import dev.ultreon.qvoxel.spark.QuantumServerSparkPlugin;
-import io.netty.bootstrap.ServerBootstrap;
-import io.netty.channel.EventLoopGroup;
-import io.netty.channel.MultiThreadIoEventLoopGroup;
-import io.netty.channel.local.LocalServerChannel;
-import io.netty.channel.nio.NioIoHandler;
 
 import java.io.File;
 import java.net.URI;
@@ -36,8 +31,8 @@ import java.util.Arrays;
 import java.util.List;
 
 public class DedicatedServer extends QuantumServer implements AutoCloseable {
-    private static final EventLoopGroup EVENT_LOOP = new MultiThreadIoEventLoopGroup(Runtime.getRuntime().availableProcessors(), NioIoHandler.newFactory());
     private final DedicatedServerConfig config;
+    private final ServerNetworker networker;
     private final String host;
     private final QuantumServerSparkPlugin sparkPlugin = new QuantumServerSparkPlugin();
 
@@ -71,17 +66,8 @@ public class DedicatedServer extends QuantumServer implements AutoCloseable {
 
         super(new WorldStorage(Path.of(config.levelName)), FeatureSet.NONE);
 
-        ServerBootstrap serverBootstrap = new ServerBootstrap();
-        serverBootstrap.channelFactory(LocalServerChannel::new);
-        serverBootstrap.group(EVENT_LOOP);
-        serverBootstrap.handler(new NetworkInitializer(this));
-        serverBootstrap.bind(config.hostname, config.port);
-
-        try {
-            CommonConstants.LOGGER.info("WebSocket server running at ws://{}:{}/{}", host, port, path);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        networker = new ServerNetworker(config.network, new NetworkInitializer(this));
+        networker.bind(host, port);
     }
 
     public URI getServerUri() {
@@ -103,6 +89,11 @@ public class DedicatedServer extends QuantumServer implements AutoCloseable {
         Runtime.getRuntime().halt(1);
     }
 
+    @Override
+    public int getCompressionThreshold() {
+        return config.compressionThreshold;
+    }
+
     @Override
     public boolean isDedicated() {
         return false;
@@ -115,9 +106,20 @@ public class DedicatedServer extends QuantumServer implements AutoCloseable {
     }
 
     public void mainloop() {
+        sparkPlugin.enable();
         run();
     }
 
+    @Override
+    protected int getRegionTickThreads() {
+        return config.regionTickThreads;
+    }
+
+    @Override
+    protected void onTickDone(long nanos) {
+        sparkPlugin.onTick(nanos / 1_000_000.0);
+    }
+
     @Override
     protected void save() {
         super.save();
@@ -130,6 +132,8 @@ public class DedicatedServer extends QuantumServer implements AutoCloseable {
     public void close() {
         CommonConstants.LOGGER.info("Closing server...");
         shutdown(() -> {
+            networker.close();
+            sparkPlugin.disable();
             CommonConstants.LOGGER.info("Closed server...");
         });
     }
@@ -17,6 +17,7 @@ import com.google.gson.JsonObject;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonWriter;
 import dev.ultreon.qvoxel.CommonConstants;
+import dev.ultreon.qvoxel.network.system.NetworkTransport;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -31,29 +32,104 @@ public class DedicatedServerConfig {
     public String hostname;
     public int port;
     public String path;
+    public int compressionThreshold;
     public long seed;
     public String levelName;
     public boolean allowCommands;
     public boolean allowCheats;
+    /**
+     * The amount of threads to tick the regions of the worlds with in parallel, {@code 0} ticks them on the server
+     * thread.
+     */
+    public int regionTickThreads;
+    public final Network network;
+
+    /**
+     * The transport and socket options for the connections of players.
+     */
+    public static class Network {
+        /**
+         * The name of the {@linkplain NetworkTransport transport}, or {@code auto} to use the best one available.
+         */
+        public String transport = "auto";
+        /**
+         * The amount of threads accepting new connections.
+         */
+        public int acceptorThreads = 1;
+        /**
+         * The amount of threads handling the connections, {@code 0} uses one per processor.
+         * Lower this when running several servers on the same host.
+         */
+        public int ioThreads = 0;
+        public boolean tcpNoDelay = true;
+        /**
+         * The socket send buffer size in bytes, {@code 0} keeps the OS default.
+         */
+        public int sendBufferSize = 0;
+        /**
+         * The socket receive buffer size in bytes, {@code 0} keeps the OS default.
+         */
+        public int receiveBufferSize = 0;
+        /**
+         * The amount of queued outgoing bytes after which a connection stops being writable, and chunk streaming
+         * slows down until the queue drains below the low water mark.
+         */
+        public int writeBufferHighWaterMark = 2 * 1024 * 1024;
+        public int writeBufferLowWaterMark = 512 * 1024;
+
+        private JsonObject save() {
+            JsonObject json = new JsonObject();
+            json.addProperty("transport", transport);
+            json.addProperty("acceptorThreads", acceptorThreads);
+            json.addProperty("ioThreads", ioThreads);
+            json.addProperty("tcpNoDelay", tcpNoDelay);
+            json.addProperty("sendBufferSize", sendBufferSize);
+            json.addProperty("receiveBufferSize", receiveBufferSize);
+            json.addProperty("writeBufferHighWaterMark", writeBufferHighWaterMark);
+            json.addProperty("writeBufferLowWaterMark", writeBufferLowWaterMark);
+            return json;
+        }
+
+        private static Network load(JsonObject json) {
+            Network network = new Network();
+            if (json == null) return network;
+
+            if (json.has("transport")) network.transport = json.get("transport").getAsString();
+            if (json.has("acceptorThreads")) network.acceptorThreads = json.get("acceptorThreads").getAsInt();
+            if (json.has("ioThreads")) network.ioThreads = json.get("ioThreads").getAsInt();
+            if (json.has("tcpNoDelay")) network.tcpNoDelay = json.get("tcpNoDelay").getAsBoolean();
+            if (json.has("sendBufferSize")) network.sendBufferSize = json.get("sendBufferSize").getAsInt();
+            if (json.has("receiveBufferSize")) network.receiveBufferSize = json.get("receiveBufferSize").getAsInt();
+            if (json.has("writeBufferHighWaterMark"))
+                network.writeBufferHighWaterMark = json.get("writeBufferHighWaterMark").getAsInt();
+            if (json.has("writeBufferLowWaterMark"))
+                network.writeBufferLowWaterMark = json.get("writeBufferLowWaterMark").getAsInt();
+            return network;
+        }
+    }
 
     private DedicatedServerConfig() {
         hostname = "localhost";
         port = 38800;
         path = null;
+        compressionThreshold = 256;
         seed = new Random().nextLong();
         levelName = "world";
         allowCommands = true;
         allowCheats = true;
+        network = new Network();
     }
 
-    private DedicatedServerConfig(String hostname, int port, String path, long seed, String levelName, boolean allowCommands, boolean allowCheats) {
+    private DedicatedServerConfig(String hostname, int port, String path, int compressionThreshold, long seed, String levelName, boolean allowCommands, boolean allowCheats, Network network) {
         this.hostname = hostname;
         this.port = port;
         this.path = path;
+        this.compressionThreshold = compressionThreshold;
         this.seed = seed;
         this.levelName = levelName;
         this.allowCommands = allowCommands;
         this.allowCheats = allowCheats;
+        this.network = network;
     }
 
     public void save() throws IOException {
@@ -64,12 +140,15 @@ public class DedicatedServerConfig {
         hosting.addProperty("hostname", hostname);
         hosting.addProperty("port", port);
         hosting.addProperty("path", path);
+        hosting.addProperty("compressionThreshold", compressionThreshold);
 
         json.add("hosting", hosting);
+        json.add("network", network.save());
         json.addProperty("seed", seed);
         json.addProperty("levelName", levelName);
         json.addProperty("allowCommands", allowCommands);
         json.addProperty("allowCheats", allowCheats);
+        json.addProperty("regionTickThreads", regionTickThreads);
 
         try (JsonWriter writer = new JsonWriter(Files.newBufferedWriter(PATH))) {
             CommonConstants.GSON.toJson(json, writer);
@@ -93,21 +172,29 @@ public class DedicatedServerConfig {
             String hostname = "localhost";
             int port = 38800;
             String path = "qvoxel";
+            int compressionThreshold = 256;
             if (hosting != null) {
                 hostname = hosting.get("hostname").getAsString();
                 port = hosting.get("port").getAsInt();
                 path = hosting.get("path").getAsString();
+                if (hosting.has("compressionThreshold"))
+                    compressionThreshold = hosting.get("compressionThreshold").getAsInt();
             }
 
-            return new DedicatedServerConfig(
+            DedicatedServerConfig config = new DedicatedServerConfig(
                     hostname,
                     port,
                     path,
+                    compressionThreshold,
                     json.get("seed").getAsLong(),
                     json.get("levelName").getAsString(),
                     json.get("allowCommands").getAsBoolean(),
-                    json.get("allowCheats").getAsBoolean()
+                    json.get("allowCheats").getAsBoolean(),
+                    Network.load(json.getAsJsonObject("network"))
             );
+            if (json.has("regionTickThreads"))
+                config.regionTickThreads = json.get("regionTickThreads").getAsInt();
+            return config;
         } catch (FileNotFoundException e) {
             DedicatedServerConfig config = new DedicatedServerConfig();
             try {
@@ -45,11 +45,6 @@ public class ServerConnection extends Connection<ServerPacketHandler, ClientPack
         handle = server.getRegistries();
     }
 
-    @Override
-    public boolean isCompressed() {
-        return false;
-    }
-
     @Override
     public void disconnect(int code, String message) {
         if (disconnecting) return;
@@ -13,6 +13,77 @@
 
 package dev.ultreon.qvoxel.server.dedicated;
 
-public class ServerNetworker {
+import dev.ultreon.qvoxel.CommonConstants;
+import dev.ultreon.qvoxel.network.system.NetworkTransport;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.*;
 
+/**
+ * <p>Accepts the TCP connections of a dedicated server, using the transport and socket options from the
+ * {@linkplain DedicatedServerConfig.Network network config}.</p>
+ *
+ * <p>Connections are accepted on a small acceptor group and then handled on the I/O group, where each connection
+ * stays on the same event loop for its whole lifetime.</p>
+ */
+public class ServerNetworker implements AutoCloseable {
+    private final DedicatedServerConfig.Network config;
+    private final NetworkTransport transport;
+    private final EventLoopGroup acceptorGroup;
+    private final EventLoopGroup ioGroup;
+    private final ServerBootstrap bootstrap;
+    private Channel channel;
+
+    public ServerNetworker(DedicatedServerConfig.Network config, ChannelHandler childHandler) {
+        this.config = config;
+        this.transport = NetworkTransport.select(config.transport);
+        this.acceptorGroup = transport.newEventLoopGroup(config.acceptorThreads);
+        this.ioGroup = transport.newEventLoopGroup(config.ioThreads);
+
+        bootstrap = new ServerBootstrap()
+                .group(acceptorGroup, ioGroup)
+                .channelFactory(transport.serverChannelFactory())
+                .option(ChannelOption.SO_REUSEADDR, true)
+                .childHandler(childHandler);
+        configure(bootstrap, config);
+
+        // The receive buffer decides the TCP window scale, which is negotiated in the handshake. It has to be set on
+        // the listening socket for accepted connections to use it.
+        if (config.receiveBufferSize > 0) bootstrap.option(ChannelOption.SO_RCVBUF, config.receiveBufferSize);
+    }
+
+    /**
+     * Applies the socket options of the config to the connections of a server.
+     */
+    static void configure(ServerBootstrap bootstrap, DedicatedServerConfig.Network config) {
+        bootstrap.childOption(ChannelOption.TCP_NODELAY, config.tcpNoDelay);
+        bootstrap.childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(config.writeBufferLowWaterMark, config.writeBufferHighWaterMark));
+        if (config.sendBufferSize > 0) bootstrap.childOption(ChannelOption.SO_SNDBUF, config.sendBufferSize);
+        if (config.receiveBufferSize > 0) bootstrap.childOption(ChannelOption.SO_RCVBUF, config.receiveBufferSize);
+    }
+
+    /**
+     * Starts listening for connections, blocking until the socket is bound.
+     *
+     * @param hostname the address to listen on.
+     * @param port     the port to listen on.
+     */
+    public void bind(String hostname, int port) {
+        channel = bootstrap.bind(hostname, port).syncUninterruptibly().channel();
+        CommonConstants.LOGGER.info("Listening on {}:{} using the {} transport", hostname, port, transport);
+    }
+
+    public NetworkTransport getTransport() {
+        return transport;
+    }
+
+    public DedicatedServerConfig.Network getConfig() {
+        return config;
+    }
+
+    @Override
+    public void close() {
+        if (channel != null) channel.close().syncUninterruptibly();
+        acceptorGroup.shutdownGracefully();
+        ioGroup.shutdownGracefully().syncUninterruptibly();
+    }
 }
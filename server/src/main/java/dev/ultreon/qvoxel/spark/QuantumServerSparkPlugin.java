@@ -2,9 +2,16 @@ package dev.ultreon.qvoxel.spark;
 
 import dev.ultreon.qvoxel.CommonConstants;
 import me.lucko.spark.common.platform.PlatformInfo;
+import me.lucko.spark.common.tick.AbstractTickHook;
+import me.lucko.spark.common.tick.AbstractTickReporter;
+import me.lucko.spark.common.tick.TickHook;
+import me.lucko.spark.common.tick.TickReporter;
 import org.jetbrains.annotations.NotNull;
 
 public class QuantumServerSparkPlugin extends QuantumSparkPlugin {
+    private final ServerTickHook tickHook = new ServerTickHook();
+    private final ServerTickReporter tickReporter = new ServerTickReporter();
+
     @Override
     protected PlatformInfo.Type getType() {
         return PlatformInfo.Type.SERVER;
@@ -15,8 +22,60 @@ public class QuantumServerSparkPlugin extends QuantumSparkPlugin {
         return "sparkc";
     }
 
+    @Override
+    public TickHook createTickHook() {
+        return tickHook;
+    }
+
+    @Override
+    public TickReporter createTickReporter() {
+        return tickReporter;
+    }
+
+    /**
+     * Reports a finished server tick to spark, so it can compute the TPS and MSPT statistics.
+     *
+     * @param millis the duration of the tick in milliseconds.
+     */
+    public void onTick(double millis) {
+        tickHook.tick();
+        tickReporter.tick(millis);
+    }
+
     @Override
     protected void sendMessage(@NotNull String serialize) {
         CommonConstants.LOGGER.info(serialize);
     }
+
+    private static class ServerTickHook extends AbstractTickHook {
+        @Override
+        public void start() {
+
+        }
+
+        @Override
+        public void close() {
+
+        }
+
+        void tick() {
+            onTick();
+        }
+    }
+
+    private static class ServerTickReporter extends AbstractTickReporter {
+        @Override
+        public void start() {
+
+        }
+
+        @Override
+        public void close() {
+
+        }
+
+        void tick(double millis) {
+            onTick(millis);
+        }
+    }
 }
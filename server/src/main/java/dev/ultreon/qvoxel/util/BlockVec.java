@@ -71,6 +71,30 @@ public class BlockVec extends Vector3i {
         return Math.floorDiv(coord, World.CHUNK_SIZE);
     }
 
+    /**
+     * Packs block coordinates into a long, using 21 signed bits per axis.
+     * Coordinates must be in the range of {@code -1048576} to {@code 1048575}.
+     *
+     * @see #unpackX(long)
+     * @see #unpackY(long)
+     * @see #unpackZ(long)
+     */
+    public static long pack(int x, int y, int z) {
+        return ((long) x & 0x1FFFFFL) << 42 | ((long) y & 0x1FFFFFL) << 21 | (long) z & 0x1FFFFFL;
+    }
+
+    public static int unpackX(long packed) {
+        return (int) (packed << 1 >> 43);
+    }
+
+    public static int unpackY(long packed) {
+        return (int) (packed << 22 >> 43);
+    }
+
+    public static int unpackZ(long packed) {
+        return (int) (packed << 43 >> 43);
+    }
+
     public static BlockVec of(Vector3d position) {
         return new BlockVec((int) Math.floor(position.x()), (int) Math.floor(position.y()), (int) Math.floor(position.z()));
     }
@@ -105,17 +129,11 @@ public class BlockVec extends Vector3i {
     }
 
     public long toLong() {
-        int x = this.x & 0x3FFFFFFF;
-        int y = this.y & 0x3FFFFFFF;
-        int z = this.z & 0x3FFFFFFF;
-        return (long) x << 40 | (long) y << 20 | z;
+        return pack(x, y, z);
     }
 
     public static BlockVec fromLong(long pos) {
-        int x = (int) (pos >> 40);
-        int y = (int) (pos >> 20) & 0x3FFFFFFF;
-        int z = (int) pos & 0x3FFFFFFF;
-        return new BlockVec(x, y, z);
+        return new BlockVec(unpackX(pos), unpackY(pos), unpackZ(pos));
     }
 
     public BlockVec add(BlockVec other, BlockVec result) {
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.util;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of direct byte buffers, bucketed by power-of-two capacities.
+ * Buffers that are too large for the pool, or that don't fit in a full bucket, are simply left to the garbage collector.
+ */
+public final class ByteBufferPool {
+    private static final int MIN_SHIFT = 12;
+
+    private final int maxShift;
+    private final int maxPerBucket;
+    private final ConcurrentLinkedQueue<ByteBuffer>[] buckets;
+    private final AtomicInteger[] counts;
+
+    /**
+     * Creates a new pool.
+     *
+     * @param maxCapacity  the largest buffer capacity that is pooled.
+     * @param maxPerBucket the maximum amount of idle buffers kept per capacity.
+     */
+    @SuppressWarnings("unchecked")
+    public ByteBufferPool(int maxCapacity, int maxPerBucket) {
+        this.maxShift = Math.max(MIN_SHIFT, 32 - Integer.numberOfLeadingZeros(maxCapacity - 1));
+        this.maxPerBucket = maxPerBucket;
+        this.buckets = new ConcurrentLinkedQueue[maxShift - MIN_SHIFT + 1];
+        this.counts = new AtomicInteger[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+            counts[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * Acquires a cleared buffer with at least the given capacity.
+     * The limit of the returned buffer is set to {@code minCapacity}.
+     *
+     * @param minCapacity the minimum capacity needed.
+     * @return the buffer, which should be given back using {@link #release(ByteBuffer)}.
+     */
+    public ByteBuffer acquire(int minCapacity) {
+        int shift = shiftFor(minCapacity);
+        if (shift > maxShift) return ByteBuffer.allocateDirect(minCapacity);
+
+        int bucket = shift - MIN_SHIFT;
+        ByteBuffer buffer = buckets[bucket].poll();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(1 << shift);
+        } else {
+            counts[bucket].decrementAndGet();
+        }
+
+        return buffer.clear().limit(minCapacity);
+    }
+
+    public void release(ByteBuffer buffer) {
+        if (!buffer.isDirect()) return;
+
+        int capacity = buffer.capacity();
+        if (Integer.bitCount(capacity) != 1) return;
+        int shift = Integer.numberOfTrailingZeros(capacity);
+        if (shift < MIN_SHIFT || shift > maxShift) return;
+
+        int bucket = shift - MIN_SHIFT;
+        if (counts[bucket].incrementAndGet() > maxPerBucket) {
+            counts[bucket].decrementAndGet();
+            return;
+        }
+        buckets[bucket].offer(buffer);
+    }
+
+    private static int shiftFor(int capacity) {
+        if (capacity <= 1) return MIN_SHIFT;
+        return Math.max(MIN_SHIFT, 32 - Integer.numberOfLeadingZeros(capacity - 1));
+    }
+}
@@ -33,11 +33,27 @@ public class ChunkVec extends Vector3i implements Comparable<ChunkVec> {
         this(0, 0, 0);
     }
 
-    public static Long toLong(int x, int y, int z) {
-        long result = x;
-        result = 31 * result + y;
-        result = 31 * result + z;
-        return result;
+    /**
+     * Packs chunk coordinates into a long, for use as a primitive map key.
+     * Uses the same layout as {@link BlockVec#pack(int, int, int)}.
+     *
+     * @see BlockVec#unpackX(long)
+     * @see BlockVec#unpackY(long)
+     * @see BlockVec#unpackZ(long)
+     */
+    public static long toLong(int x, int y, int z) {
+        return BlockVec.pack(x, y, z);
+    }
+
+    public static ChunkVec fromLong(long packed) {
+        return new ChunkVec(BlockVec.unpackX(packed), BlockVec.unpackY(packed), BlockVec.unpackZ(packed));
+    }
+
+    /**
+     * Packs the x and z coordinates of a column into a long, for use as a primitive map key.
+     */
+    public static long columnKey(int x, int z) {
+        return (long) x << 32 | z & 0xFFFFFFFFL;
     }
 
     public static int regionOf(int coord) {
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>A lock-free, optionally bounded queue for many producer threads and a single consumer thread.</p>
+ *
+ * <p>This is a linked queue where producers append by swapping the tail node, so offering never blocks and never
+ * takes a lock. Only one thread may {@linkplain #poll() poll} at a time, callers have to make sure of that
+ * themselves.</p>
+ *
+ * <p>A producer links its node right after swapping the tail. If the consumer polls in between, the queue looks
+ * empty up to that node for a moment, and the element is returned by a later poll.</p>
+ *
+ * @param <E> the type of the elements.
+ */
+public final class MpscQueue<E> {
+    private static final VarHandle TAIL;
+    private static final VarHandle NEXT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            TAIL = lookup.findVarHandle(MpscQueue.class, "tail", Node.class);
+            NEXT = lookup.findVarHandle(Node.class, "next", Node.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final int capacity;
+    private final AtomicInteger size = new AtomicInteger();
+    @SuppressWarnings("unused") // Accessed through TAIL
+    private volatile Node<E> tail;
+    private Node<E> head;
+
+    private static final class Node<E> {
+        @Nullable E value;
+        @SuppressWarnings("unused") // Accessed through NEXT
+        volatile Node<E> next;
+
+        Node(@Nullable E value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * Creates an unbounded queue.
+     */
+    public MpscQueue() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a queue that holds at most {@code capacity} elements.
+     *
+     * @param capacity the maximum amount of elements.
+     */
+    public MpscQueue(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        this.capacity = capacity;
+        head = tail = new Node<>(null);
+    }
+
+    /**
+     * Adds an element to the end of the queue. Can be called from any thread.
+     *
+     * @param value the element to add.
+     * @return {@code true} if it was added, {@code false} if the queue is full.
+     */
+    public boolean offer(E value) {
+        if (value == null) throw new NullPointerException();
+
+        int current;
+        do {
+            current = size.get();
+            if (current >= capacity) return false;
+        } while (!size.compareAndSet(current, current + 1));
+
+        Node<E> node = new Node<>(value);
+        @SuppressWarnings("unchecked")
+        Node<E> previous = (Node<E>) TAIL.getAndSet(this, node);
+        NEXT.setRelease(previous, node);
+        return true;
+    }
+
+    /**
+     * Removes the element at the front of the queue. Must only be called by the consumer.
+     *
+     * @return the element, or {@code null} if the queue is empty.
+     */
+    public @Nullable E poll() {
+        @SuppressWarnings("unchecked")
+        Node<E> next = (Node<E>) NEXT.getAcquire(head);
+        if (next == null) return null;
+
+        E value = next.value;
+        next.value = null;
+        head = next;
+        size.decrementAndGet();
+        return value;
+    }
+
+    /**
+     * Gets the amount of elements in the queue. Elements that are being offered concurrently may or may not be
+     * counted.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    public boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -16,31 +16,41 @@
 
 package dev.ultreon.qvoxel.util;
 
-import dev.ultreon.qvoxel.CommonConstants;
 import dev.ultreon.qvoxel.network.PacketIO;
+import dev.ultreon.qvoxel.network.packets.PacketCodec;
 import dev.ultreon.qvoxel.resource.GameNode;
 import dev.ultreon.ubo.types.DataType;
 import dev.ultreon.ubo.types.ListType;
 import dev.ultreon.ubo.types.MapType;
-import org.apache.commons.lang3.ArrayUtils;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
 
 /**
  * <p>Palette storage is used for storing data in palettes.
  * It's used for optimizing memory and storage usage.
  * Generally used for advanced voxel games.</p>
  *
- * <p>It makes use of short arrays to store {@link #getPalette() index pointers} to the {@linkplain #getData() data}.
- * While the data itself is stored without any duplicates.</p>
+ * <p>Every slot stores an index into the {@linkplain #getData() palette entries}, bit-packed into {@code long} words
+ * using the minimal amount of bits needed for the current palette size. A storage that only holds a single value
+ * doesn't allocate any words at all.</p>
+ *
+ * <p>Reads never lock: the packed words are written with release semantics and the palette entries are published
+ * before any index referencing them, so {@link #get(int)} always completes in a bounded number of steps.
+ * Writes are serialized on the storage itself. When the palette runs out of indices for the current bit width,
+ * unused entries are compacted away first, and only if that doesn't free up room the bit width is increased.</p>
  *
  * @param <D> the data type.
  * @author <a href="https://github.com/XyperCode">Qubilux</a>
@@ -48,9 +58,18 @@ import java.util.function.IntFunction;
 @SuppressWarnings("unchecked")
 @ApiStatus.Experimental
 public class PaletteStorage<D> extends GameNode implements Storage<D> {
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int MIN_BITS = 4;
+
     private final D defaultValue;
-    private short[] palette;
-    private List<D> data;
+    private final int size;
+    private volatile Section section;
+    private Object2IntOpenHashMap<D> lookup;
+    /**
+     * Whether a slot was overwritten since the last compaction, which may have left palette entries unused.
+     * Guarded by the storage lock.
+     */
+    private boolean dirty;
 
     @Deprecated
     public PaletteStorage(D defaultValue, int size) {
@@ -59,35 +78,28 @@ public class PaletteStorage<D> extends GameNode implements Storage<D> {
 
     public PaletteStorage(D defaultValue, short[] palette, D[] data) {
         this.defaultValue = defaultValue;
-        this.palette = palette;
-        this.data = new ArrayList<>(data.length);
-        for (D d : data) {
-            if (d == null) {
-                this.data.add(this.defaultValue);
-                continue;
-            }
-            this.data.add(d);
-        }
+        this.size = palette.length;
+        rebuild(palette, Arrays.asList(data));
     }
 
     public PaletteStorage(int size, D defaultValue) {
         this.defaultValue = defaultValue;
-
-        palette = new short[size];
-        data = new ArrayList<>();
-        Arrays.fill(palette, (short) -1);
+        this.size = size;
+        setUniform(defaultValue);
     }
 
     @Override
     public <T extends DataType<?>> MapType save(MapType outputData, Class<T> dataType, Function<D, T> encoder) {
         synchronized (this) {
+            compact();
+
             ListType<T> data = new ListType<>(dataType);
-            for (@NotNull D entry : this.data) {
-                data.add(encoder.apply(entry));
+            for (Object entry : section.entries) {
+                data.add(encoder.apply((D) entry));
             }
             outputData.put("Data", data);
 
-            outputData.putShortArray("Palette", palette.clone());
+            outputData.putShortArray("Palette", getPalette());
 
             return outputData;
         }
@@ -96,192 +108,447 @@ public class PaletteStorage<D> extends GameNode implements Storage<D> {
     @Override
     public <T extends DataType<?>> void load(MapType inputData, Class<T> dataType, Function<T, D> decoder) {
         synchronized (this) {
-            data.clear();
-            ListType<T> data = inputData.getList("Data", new ListType<>(dataType));
-            for (T entryData : data.getValue()) {
-                D entry = decoder.apply(entryData);
-                if (entry == null) {
-                    this.data.add(defaultValue);
-                    continue;
-                }
-                this.data.add(entry);
+            List<D> data = new ArrayList<>();
+            ListType<T> list = inputData.getList("Data", new ListType<>(dataType));
+            for (T entryData : list.getValue()) {
+                data.add(decoder.apply(entryData));
             }
 
-            palette = inputData.getShortArray("Palette", new short[palette.length]);
+            rebuild(inputData.getShortArray("Palette", new short[size]), data);
         }
     }
 
-    @Override
-    public void write(PacketIO buffer, BiConsumer<PacketIO, D> encoder) {
+    /**
+     * Saves the storage in the packed format, with the palette entries encoded as integer IDs.
+     * The indices are stored as the packed words they're kept in at runtime, see {@link #loadIds(MapType, IntFunction)}.
+     *
+     * @param outputData the map to save to.
+     * @param encoder    the encoder for the palette entries.
+     * @return the given map.
+     */
+    public MapType saveIds(MapType outputData, ToIntFunction<D> encoder) {
         synchronized (this) {
-            buffer.writeVarInt(data.size());
-            for (D entry : data) if (entry != null) encoder.accept(buffer, entry);
-            buffer.writeVarInt(palette.length);
-            for (short v : palette) {
-                if (v != -1 && v >= data.size()) throw new IllegalArgumentException("Invalid palette index " + v);
-                buffer.writeShort(v);
+            compact();
+
+            Section section = this.section;
+            Object[] entries = section.entries;
+            int[] ids = new int[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                ids[i] = encoder.applyAsInt((D) entries[i]);
             }
+            outputData.putIntArray("Ids", ids);
+            writePacked(section, outputData);
+
+            return outputData;
         }
     }
 
-    @Override
-    public void read(PacketIO buffer, Function<PacketIO, D> decoder) {
+    /**
+     * Loads a storage saved by {@link #saveIds(MapType, ToIntFunction)}.
+     * When the decoded entries are all distinct, the packed words are used as they are without unpacking them.
+     *
+     * @param inputData the map to load from.
+     * @param decoder   the decoder for the palette entries.
+     */
+    public void loadIds(MapType inputData, IntFunction<D> decoder) {
+        int[] ids = inputData.getIntArray("Ids", new int[0]);
+        List<D> data = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            data.add(decoder.apply(id));
+        }
+
         synchronized (this) {
-            var data = new ArrayList<D>();
-            var dataSize = buffer.readVarInt();
-            for (int i = 0; i < dataSize; i++)
-                data.add(decoder.apply(buffer));
-            this.data = data;
-
-            short[] palette = new short[buffer.readVarInt()];
-            for (int i = 0; i < palette.length; i++) {
-                palette[i] = buffer.readShort();
-                if (palette[i] != -1 && palette[i] >= this.data.size())
-                    throw new IllegalArgumentException("Invalid palette index " + palette[i]);
+            readPacked(inputData, data);
+        }
+    }
+
+    /**
+     * Saves the storage in the packed format, with the palette entries encoded as data types.
+     *
+     * @param outputData the map to save to.
+     * @param dataType   the type of the encoded entries.
+     * @param encoder    the encoder for the palette entries.
+     * @return the given map.
+     */
+    public <T extends DataType<?>> MapType savePacked(MapType outputData, Class<T> dataType, Function<D, T> encoder) {
+        synchronized (this) {
+            compact();
+
+            Section section = this.section;
+            ListType<T> data = new ListType<>(dataType);
+            for (Object entry : section.entries) {
+                data.add(encoder.apply((D) entry));
             }
+            outputData.put("Data", data);
+            writePacked(section, outputData);
 
-            this.palette = palette;
+            return outputData;
         }
     }
 
-    @Override
-    public boolean set(int idx, D value) {
+    /**
+     * Loads a storage saved by {@link #savePacked(MapType, Class, Function)}.
+     *
+     * @param inputData the map to load from.
+     * @param dataType  the type of the encoded entries.
+     * @param decoder   the decoder for the palette entries.
+     */
+    public <T extends DataType<?>> void loadPacked(MapType inputData, Class<T> dataType, Function<T, D> decoder) {
+        List<D> data = new ArrayList<>();
+        ListType<T> list = inputData.getList("Data", new ListType<>(dataType));
+        for (T entryData : list.getValue()) {
+            data.add(decoder.apply(entryData));
+        }
+
         synchronized (this) {
-            if (idx < 0 || idx >= palette.length) throw new IndexOutOfBoundsException();
+            readPacked(inputData, data);
+        }
+    }
 
-            if (value == null) {
-                remove(idx);
-                return false;
+    private void writePacked(Section section, MapType outputData) {
+        outputData.putInt("Bits", section.bits);
+        if (section.bits != 0) {
+            outputData.putLongArray("Words", section.words.clone());
+        }
+    }
+
+    private void readPacked(MapType inputData, List<D> data) {
+        readPacked(inputData.getInt("Bits", 0), inputData.getLongArray("Words", new long[0]).clone(), data);
+    }
+
+    private void readPacked(int bits, long[] words, List<D> data) {
+        if (data.isEmpty()) {
+            setUniform(defaultValue);
+            return;
+        }
+        if (bits == 0) {
+            setUniform(data.get(0));
+            return;
+        }
+        if (bits < 0 || bits > 31 || data.size() > 1 << bits)
+            throw new IllegalArgumentException("Invalid bits per entry " + bits + " for " + data.size() + " entries");
+
+        Section packed = new Section(bits, data.toArray(), words);
+        if (packed.words.length != (size + packed.perWord - 1) / packed.perWord)
+            throw new IllegalArgumentException("Invalid packed data length " + packed.words.length);
+
+        int max = 0;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, packed.index(i));
+        }
+
+        // Entries must be distinct and every index must refer to one, otherwise go through a full rebuild.
+        Object2IntOpenHashMap<D> lookup = new Object2IntOpenHashMap<>(data.size());
+        lookup.defaultReturnValue(-1);
+        boolean distinct = max < data.size();
+        for (int i = 0; distinct && i < data.size(); i++) {
+            D entry = data.get(i);
+            distinct = entry != null && lookup.putIfAbsent(entry, i) == -1;
+        }
+
+        if (!distinct) {
+            short[] palette = new short[size];
+            for (int i = 0; i < size; i++) {
+                palette[i] = (short) packed.index(i);
             }
+            rebuild(palette, data);
+            return;
+        }
 
-            short old = palette[idx];
+        this.lookup = lookup;
+        this.section = packed;
+    }
 
-            short setIdx = (short) data.indexOf(value);
-            if (setIdx == -1) {
-                setIdx = add(idx, value);
+    /**
+     * Writes the storage in the packed format: the palette entries, followed by the packed words.
+     * A storage holding a single value is written as just that value, without any words.
+     *
+     * @param buffer  the buffer to write to.
+     * @param encoder the encoder for the palette entries.
+     * @see #readPacked(PacketIO, Function)
+     */
+    public void writePacked(PacketIO buffer, BiConsumer<PacketIO, D> encoder) {
+        synchronized (this) {
+            compact();
+
+            Section section = this.section;
+            Object[] entries = section.entries;
+            buffer.writeVarInt(entries.length);
+            for (Object entry : entries) encoder.accept(buffer, (D) entry);
+            buffer.writeByte(section.bits);
+            for (long word : section.words) {
+                buffer.writeLong(word);
             }
-            palette[idx] = setIdx;
+        }
+    }
+
+    /**
+     * Reads a storage written by {@link #writePacked(PacketIO, BiConsumer)}.
+     *
+     * @param buffer  the buffer to read from.
+     * @param decoder the decoder for the palette entries.
+     */
+    public void readPacked(PacketIO buffer, Function<PacketIO, D> decoder) {
+        int dataSize = buffer.readVarInt();
+        if (dataSize < 0 || dataSize > size)
+            throw new IllegalArgumentException("Invalid palette size " + dataSize);
+
+        List<D> data = new ArrayList<>(dataSize);
+        for (int i = 0; i < dataSize; i++)
+            data.add(decoder.apply(buffer));
+
+        int bits = buffer.readByte();
+        long[] words = new long[0];
+        if (bits > 0 && bits <= 31) {
+            int perWord = 64 / bits;
+            words = new long[(size + perWord - 1) / perWord];
+            for (int i = 0; i < words.length; i++) {
+                words[i] = buffer.readLong();
+            }
+        }
+
+        synchronized (this) {
+            readPacked(bits, words, data);
+        }
+    }
+
+    /**
+     * Creates a codec that sends storages in the {@linkplain #writePacked(PacketIO, BiConsumer) packed format}.
+     *
+     * @param size         the size of the storages.
+     * @param defaultValue the default value of decoded storages.
+     * @param entryCodec   the codec for the palette entries.
+     */
+    public static <D> PacketCodec<PaletteStorage<D>> packetCodec(int size, D defaultValue, PacketCodec<D> entryCodec) {
+        return PacketCodec.of((handler, io) -> {
+            PaletteStorage<D> storage = new PaletteStorage<>(size, defaultValue);
+            storage.readPacked(io, buffer -> entryCodec.fromBytes(handler, buffer));
+            return storage;
+        }, (storage, handler, io) -> storage.writePacked(io, (buffer, entry) -> entryCodec.toBytes(entry, handler, buffer)));
+    }
+
+    /**
+     * Replaces the contents of this storage with the contents of another storage of the same size.
+     *
+     * @param other the storage to copy from.
+     */
+    public void set(PaletteStorage<D> other) {
+        if (other.size != size)
+            throw new IllegalArgumentException("Storage size must be equal.");
+
+        Section source;
+        Object2IntOpenHashMap<D> lookup;
+        synchronized (other) {
+            source = other.section;
+            lookup = new Object2IntOpenHashMap<>(other.lookup);
+        }
+        lookup.defaultReturnValue(-1);
+
+        synchronized (this) {
+            this.lookup = lookup;
+            this.section = new Section(source.bits, source.entries.clone(), source.words.clone());
+            this.dirty = true;
+        }
+    }
 
-            if (old < 0 || ArrayUtils.contains(palette, old))
+    @Override
+    public void write(PacketIO buffer, BiConsumer<PacketIO, D> encoder) {
+        Section section = this.section;
+        short[] palette = palette(section);
+        Object[] entries = section.entries;
+        buffer.writeVarInt(entries.length);
+        for (Object entry : entries) encoder.accept(buffer, (D) entry);
+        buffer.writeVarInt(palette.length);
+        for (short v : palette) {
+            buffer.writeShort(v);
+        }
+    }
+
+    @Override
+    public void read(PacketIO buffer, Function<PacketIO, D> decoder) {
+        var data = new ArrayList<D>();
+        var dataSize = buffer.readVarInt();
+        for (int i = 0; i < dataSize; i++)
+            data.add(decoder.apply(buffer));
+
+        short[] palette = new short[buffer.readVarInt()];
+        if (palette.length != size)
+            throw new IllegalArgumentException("Invalid palette length " + palette.length + ", expected " + size);
+        for (int i = 0; i < palette.length; i++) {
+            palette[i] = buffer.readShort();
+            if (palette[i] != -1 && palette[i] >= data.size())
+                throw new IllegalArgumentException("Invalid palette index " + palette[i]);
+        }
+
+        synchronized (this) {
+            rebuild(palette, data);
+        }
+    }
+
+    @Override
+    public boolean set(int idx, D value) {
+        Objects.checkIndex(idx, size);
+        if (value == null) value = defaultValue;
+
+        synchronized (this) {
+            Section section = this.section;
+            if (section.bits == 0 && section.entries[0].equals(value))
                 return false;
 
-            int i1 = data.indexOf(value);
-            if (i1 >= 0) {
-                data.set(old, value);
+            int id = idFor(value);
+            section = this.section;
+            if (section.index(idx) == id)
                 return false;
+
+            section.write(idx, id);
+            dirty = true;
+            return true;
+        }
+    }
+
+    /**
+     * Fills the slots in the range {@code [from, to)} with the given value.
+     *
+     * @param from  the first slot to fill (inclusive).
+     * @param to    the last slot to fill (exclusive).
+     * @param value the value to fill with, {@code null} resets to the default value.
+     */
+    public void fill(int from, int to, D value) {
+        Objects.checkFromToIndex(from, to, size);
+        fill(from, to - from, 1, value);
+    }
+
+    /**
+     * Fills {@code count} slots starting at {@code start}, stepping {@code stride} slots each time.
+     * This allows filling a column of a chunk in one call, without taking the lock for each block.
+     *
+     * @param start  the first slot to fill.
+     * @param count  the amount of slots to fill.
+     * @param stride the distance between two filled slots.
+     * @param value  the value to fill with, {@code null} resets to the default value.
+     */
+    public void fill(int start, int count, int stride, D value) {
+        if (count <= 0) return;
+        if (stride <= 0) throw new IllegalArgumentException("Stride must be positive: " + stride);
+        Objects.checkIndex(start, size);
+        Objects.checkIndex(start + (count - 1) * stride, size);
+        if (value == null) value = defaultValue;
+
+        synchronized (this) {
+            if (start == 0 && count == size && stride == 1) {
+                setUniform(value);
+                return;
             }
 
-            data.remove(old);
+            Section section = this.section;
+            if (section.bits == 0 && section.entries[0].equals(value))
+                return;
 
-            // Update paletteMap entries for indices after the removed one
-            for (int i = 0; i < palette.length; i++) {
-                int oldValue = palette[i];
-                palette[i] = (short) (oldValue - 1);
+            int id = idFor(value);
+            section = this.section;
+            for (int i = 0, idx = start; i < count; i++, idx += stride) {
+                section.write(idx, id);
             }
-            return false;
+            dirty = true;
         }
     }
 
     public short toDataIdx(int idx) {
-        return idx >= 0 && idx < palette.length ? palette[idx] : -1;
+        return idx >= 0 && idx < size ? (short) section.index(idx) : -1;
     }
 
     public D direct(int dataIdx) {
-        synchronized (this) {
-            if (dataIdx >= 0 && dataIdx < data.size()) {
-                D d = data.get(dataIdx);
-                return d != null ? d : defaultValue;
-            }
+        Object[] entries = section.entries;
+        if (dataIdx >= 0 && dataIdx < entries.length) {
+            return (D) entries[dataIdx];
         }
 
         return defaultValue;
     }
 
-    public short add(int idx, D value) {
-        short dataIdx = (short) data.size();
-        data.add(value);
-        palette[idx] = dataIdx;
-        return dataIdx;
-    }
-
     public void remove(int idx) {
-        if (idx >= 0 && idx < data.size()) {
-            int dataIdx = toDataIdx(idx);
-            if (dataIdx < 0) return;
-            data.remove(dataIdx);
-            palette[idx] = -1;
-
-            // Update paletteMap entries for indices after the removed one
-            for (int i = idx; i < palette.length; i++) {
-                int oldValue = palette[i];
-                palette[i] = (short) (oldValue - 1);
-            }
-        }
+        set(idx, defaultValue);
     }
 
     @NotNull
     @Override
     public D get(int idx) {
-        synchronized (this) {
-            short paletteIdx = toDataIdx(idx);
-            return paletteIdx < 0 ? defaultValue : direct(paletteIdx);
+        Section section = this.section;
+        if (section.bits == 0) {
+            Objects.checkIndex(idx, size);
+            return (D) section.entries[0];
         }
+
+        // The index must be read before the entries, so a freshly appended entry is always visible.
+        int dataIdx = section.index(idx);
+        return (D) section.entries[dataIdx];
     }
 
     @Override
     public <R> PaletteStorage<R> map(@NotNull R defaultValue, IntFunction<R[]> generator, @NotNull Function<@NotNull D, @Nullable R> mapper) {
-        var ref = new Object() {
-            final transient Function<D, R> mapperRef = mapper;
-        };
-
-        List<R> data = new ArrayList<>(this.data.size());
-        for (D d : this.data) {
-            if (ref.mapperRef == null) {
-                CommonConstants.LOGGER.warn("Mapper in PaletteStorage.mapper(...) just nullified out of thin air! What the f*** is going on?");
-                data.add(defaultValue);
-                continue;
+        synchronized (this) {
+            Object[] entries = section.entries;
+            R[] data = generator.apply(entries.length);
+            for (int i = 0; i < entries.length; i++) {
+                R applied = mapper.apply((D) entries[i]);
+                data[i] = applied == null ? defaultValue : applied;
             }
+            return new PaletteStorage<>(defaultValue, getPalette(), data);
+        }
+    }
 
-            R applied;
-            try {
-                applied = ref.mapperRef.apply(d);
-            } catch (NullPointerException e) {
-                CommonConstants.LOGGER.warn("Something sus going on, why is there a nullptr? Double check passed, third check failed :huh:", e);
-                data.add(defaultValue);
-                continue;
-            }
-            data.add(applied == null ? defaultValue : applied);
+    /**
+     * Removes palette entries that aren't referenced by any slot anymore.
+     * If only a single value is left, the packed words are dropped entirely.
+     * Does nothing if no slot was overwritten since the last compaction.
+     */
+    public void compact() {
+        synchronized (this) {
+            Section section = this.section;
+            if (section.bits == 0 || !dirty) return;
+            compact(section, 0);
         }
-        return new PaletteStorage<>(defaultValue, palette, data.toArray(generator));
     }
 
     public short[] getPalette() {
-        synchronized (this) {
-            return palette.clone();
+        return palette(section);
+    }
+
+    private short[] palette(Section section) {
+        short[] palette = new short[size];
+        if (section.bits == 0) return palette;
+        for (int i = 0; i < size; i++) {
+            palette[i] = (short) section.index(i);
         }
+        return palette;
     }
 
     public List<D> getData() {
-        synchronized (this) {
-            return List.copyOf(data);
-        }
+        return (List<D>) List.of(section.entries);
+    }
+
+    public int getBitsPerEntry() {
+        return section.bits;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public D getDefaultValue() {
+        return defaultValue;
     }
 
     public void set(short[] palette, D[] data) {
-        if (this.palette.length != palette.length)
+        if (size != palette.length)
             throw new IllegalArgumentException("Palette length must be equal.");
 
-        if (ArrayUtils.contains(data, null))
-            throw new IllegalArgumentException("Data cannot contain null values.");
-
-        this.palette = palette;
-        this.data = new ArrayList<>(data.length);
         for (D d : data) {
-            if (d == null) {
-                this.data.add(defaultValue);
-                continue;
-            }
-            this.data.add(d);
+            if (d == null) throw new IllegalArgumentException("Data cannot contain null values.");
+        }
+
+        synchronized (this) {
+            rebuild(palette, Arrays.asList(data));
         }
     }
 
@@ -290,24 +557,31 @@ public class PaletteStorage<D> extends GameNode implements Storage<D> {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         PaletteStorage<?> that = (PaletteStorage<?>) o;
-        return Arrays.equals(palette, that.palette) && data.equals(that.data);
+        if (size != that.size) return false;
+        for (int i = 0; i < size; i++) {
+            if (!get(i).equals(that.get(i))) return false;
+        }
+        return true;
     }
 
     @Override
     public int hashCode() {
-        int result = data.hashCode();
-        result = 31 * result + Arrays.hashCode(palette);
+        int result = size;
+        for (int i = 0; i < size; i++) {
+            result = 31 * result + get(i).hashCode();
+        }
         return result;
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public PaletteStorage<D> clone() {
         try {
             synchronized (this) {
                 PaletteStorage<D> clone = (PaletteStorage<D>) super.clone();
-                clone.data = List.copyOf(data);
-                clone.palette = palette.clone();
+                Section section = this.section;
+                clone.section = clone.new Section(section.bits, section.entries.clone(), section.words.clone());
+                clone.lookup = new Object2IntOpenHashMap<>(lookup);
+                clone.lookup.defaultReturnValue(-1);
                 return clone;
             }
         } catch (CloneNotSupportedException e) {
@@ -316,17 +590,192 @@ public class PaletteStorage<D> extends GameNode implements Storage<D> {
     }
 
     public boolean isUniform() {
-        return data.size() <= 1;
+        return section.bits == 0;
     }
 
     @Override
     public void setUniform(D value) {
-        data.clear();
-        data.add(value);
-        Arrays.fill(palette, (short) 0);
+        if (value == null) value = defaultValue;
+
+        synchronized (this) {
+            lookup = new Object2IntOpenHashMap<>();
+            lookup.defaultReturnValue(-1);
+            lookup.put(value, 0);
+            section = new Section(0, new Object[]{value}, new long[0]);
+            dirty = false;
+        }
     }
 
     public boolean isEmpty() {
-        return data.isEmpty() || data.getFirst().equals(defaultValue);
+        Section section = this.section;
+        return section.bits == 0 && section.entries[0].equals(defaultValue);
+    }
+
+    /**
+     * Returns the palette index for the given value, adding it to the palette if needed.
+     * This may replace the current section when the palette has to be compacted or resized.
+     */
+    private int idFor(D value) {
+        int id = lookup.getInt(value);
+        if (id >= 0) return id;
+
+        Section section = this.section;
+        Object[] entries = section.entries;
+        if (entries.length >= 1 << section.bits) {
+            section = compact(section, 1);
+            entries = section.entries;
+        }
+
+        id = entries.length;
+        Object[] grown = Arrays.copyOf(entries, id + 1);
+        grown[id] = value;
+        section.entries = grown;
+        lookup.put(value, id);
+        return id;
+    }
+
+    /**
+     * Rebuilds the section keeping only used entries, with room for {@code extra} more entries.
+     */
+    private Section compact(Section section, int extra) {
+        Object[] entries = section.entries;
+        boolean[] used = new boolean[entries.length];
+        int usedCount = 0;
+        for (int i = 0; i < size; i++) {
+            int id = section.index(i);
+            if (!used[id]) {
+                used[id] = true;
+                usedCount++;
+            }
+        }
+
+        int[] remap = new int[entries.length];
+        Object[] compacted = new Object[usedCount];
+        Object2IntOpenHashMap<D> lookup = new Object2IntOpenHashMap<>(usedCount + extra);
+        lookup.defaultReturnValue(-1);
+        int next = 0;
+        for (int i = 0; i < entries.length; i++) {
+            if (!used[i]) continue;
+            remap[i] = next;
+            compacted[next] = entries[i];
+            lookup.put((D) entries[i], next);
+            next++;
+        }
+
+        Section result;
+        if (usedCount == 1 && extra == 0) {
+            result = new Section(0, compacted, new long[0]);
+        } else {
+            result = new Section(bitsFor(usedCount + extra), compacted, null);
+            for (int i = 0; i < size; i++) {
+                result.write(i, remap[section.index(i)]);
+            }
+        }
+
+        this.lookup = lookup;
+        this.section = result;
+        this.dirty = false;
+        return result;
+    }
+
+    private void rebuild(short[] palette, List<D> data) {
+        if (palette.length != size)
+            throw new IllegalArgumentException("Palette length must be equal.");
+
+        // Deduplicate entries, and map missing or unset slots to the default value.
+        Object2IntOpenHashMap<D> lookup = new Object2IntOpenHashMap<>();
+        lookup.defaultReturnValue(-1);
+        List<Object> entries = new ArrayList<>();
+        int[] remap = new int[data.size()];
+        for (int i = 0; i < remap.length; i++) {
+            remap[i] = indexOf(lookup, entries, data.get(i));
+        }
+
+        int[] ids = new int[size];
+        for (int i = 0; i < size; i++) {
+            short dataIdx = palette[i];
+            ids[i] = dataIdx >= 0 && dataIdx < remap.length ? remap[dataIdx] : indexOf(lookup, entries, defaultValue);
+        }
+
+        if (entries.isEmpty()) {
+            setUniform(defaultValue);
+            return;
+        }
+
+        int bits = bitsFor(entries.size());
+        Section section = new Section(bits, entries.toArray(), bits == 0 ? new long[0] : null);
+        if (bits != 0) {
+            for (int i = 0; i < size; i++) {
+                section.write(i, ids[i]);
+            }
+        }
+
+        this.lookup = lookup;
+        this.section = section;
+
+        // Entries that are only present in the data list but not referenced are dropped.
+        if (bits != 0) compact(section, 0);
+    }
+
+    private int indexOf(Object2IntOpenHashMap<D> lookup, List<Object> entries, D value) {
+        if (value == null) value = defaultValue;
+        int id = lookup.getInt(value);
+        if (id < 0) {
+            id = entries.size();
+            entries.add(value);
+            lookup.put(value, id);
+        }
+        return id;
+    }
+
+    private static int bitsFor(int entries) {
+        if (entries <= 1) return 0;
+        return Math.max(MIN_BITS, 32 - Integer.numberOfLeadingZeros(entries - 1));
+    }
+
+    /**
+     * Packed palette indices together with the palette entries they refer to.
+     * The words are only replaced as a whole, while entries are appended copy-on-write.
+     */
+    private final class Section {
+        final int bits;
+        final int perWord;
+        final long mask;
+        final long[] words;
+        volatile Object[] entries;
+
+        Section(int bits, Object[] entries, long[] words) {
+            this.bits = bits;
+            this.entries = entries;
+            if (bits == 0) {
+                this.perWord = 0;
+                this.mask = 0;
+                this.words = words == null ? new long[0] : words;
+                return;
+            }
+
+            this.perWord = 64 / bits;
+            this.mask = (1L << bits) - 1;
+            this.words = words == null ? new long[(size + perWord - 1) / perWord] : words;
+        }
+
+        int index(int idx) {
+            if (bits == 0) {
+                Objects.checkIndex(idx, size);
+                return 0;
+            }
+
+            int word = idx / perWord;
+            int shift = (idx - word * perWord) * bits;
+            return (int) (((long) WORDS.getAcquire(words, word) >>> shift) & mask);
+        }
+
+        void write(int idx, int id) {
+            int word = idx / perWord;
+            int shift = (idx - word * perWord) * bits;
+            long value = words[word];
+            value = (value & ~(mask << shift)) | ((long) id << shift);
+            WORDS.setRelease(words, word, value);
+        }
     }
 }
@@ -39,6 +39,7 @@ import org.joml.Vector3i;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -88,6 +89,26 @@ public final class BuilderChunk extends ServerChunk {
         }
     }
 
+    /**
+     * Fills a vertical run of blocks in a column of this chunk in one go.
+     * Both {@code fromY} and {@code toY} are chunk-local and inclusive, and are clamped to the chunk bounds.
+     *
+     * @param x     the local x coordinate of the column.
+     * @param z     the local z coordinate of the column.
+     * @param fromY the lowest local y coordinate to fill.
+     * @param toY   the highest local y coordinate to fill.
+     * @param block the block state to fill with.
+     */
+    public void fillColumn(int x, int z, int fromY, int toY, BlockState block) {
+        fromY = Math.max(fromY, 0);
+        toY = Math.min(toY, World.CHUNK_SIZE - 1);
+        if (fromY > toY) return;
+
+        synchronized (biomeStorage) {
+            blockStorage.fill(getIndex(x, fromY, z), toY - fromY + 1, World.CHUNK_SIZE, block);
+        }
+    }
+
     @Override
     protected void retrieveNeighbors() {
         for (Direction direction : Direction.values()) {
@@ -107,9 +128,10 @@ public final class BuilderChunk extends ServerChunk {
     @Override
     public MapType save() {
         MapType save = new MapType();
-        save.put("BlockData", blockStorage.save(new MapType(), MapType.class, BlockState::save));
-        save.put("FluidData", fluidStorage.save(new MapType(), MapType.class, FluidState::save));
-        save.put("BiomeData", biomeData.save(new MapType(), StringType.class, gen -> new StringType(gen.getBiome().save(server).toString())));
+        save.put("BlockData", blockStorage.saveIds(new MapType(), getWorld().getServer().getBlockStateTable()::toStored));
+        save.put("FluidData", fluidStorage.savePacked(new MapType(), MapType.class, FluidState::save));
+        save.put("BiomeData", biomeData.savePacked(new MapType(), StringType.class, gen -> new StringType(gen.getBiome().save(server).toString())));
+        save.putInt("Format", WorldChunk.FORMAT);
         save.putBoolean("generated", false);
         save.putBoolean("carved", carved);
         if (currentBarrier != null) {
@@ -127,9 +149,16 @@ public final class BuilderChunk extends ServerChunk {
 
     public static BuilderChunk load(ServerWorld world, ChunkVec pos, MapType save, @NotNull Region region) {
         BuilderChunk chunk = new BuilderChunk(world, pos, region);
-        chunk.blockStorage.load(save.getMap("BlockData"), MapType.class, BlockState::load);
-        chunk.fluidStorage.load(save.getMap("FluidData"), MapType.class, FluidState::load);
-        chunk.biomeData.load(save.getMap("BiomeData"), StringType.class, str -> world.getServer().getBiomes().load(world, new StringType(str.toString())));
+        Function<StringType, BiomeGenerator> biomeDecoder = str -> world.getServer().getBiomes().load(world, new StringType(str.toString()));
+        if (save.getInt("Format", 1) >= WorldChunk.FORMAT) {
+            chunk.blockStorage.loadIds(save.getMap("BlockData"), world.getServer().getBlockStateTable()::fromStored);
+            chunk.fluidStorage.loadPacked(save.getMap("FluidData"), MapType.class, FluidState::load);
+            chunk.biomeData.loadPacked(save.getMap("BiomeData"), StringType.class, biomeDecoder);
+        } else {
+            chunk.blockStorage.load(save.getMap("BlockData"), MapType.class, BlockState::load);
+            chunk.fluidStorage.load(save.getMap("FluidData"), MapType.class, FluidState::load);
+            chunk.biomeData.load(save.getMap("BiomeData"), StringType.class, biomeDecoder);
+        }
         chunk.carved = save.getBoolean("carved");
         if (save.contains("currentBarrier")) {
             chunk.currentBarrier = GenerationBarrier.valueOf(save.getString("currentBarrier"));
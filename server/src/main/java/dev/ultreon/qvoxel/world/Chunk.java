@@ -27,13 +27,13 @@ import dev.ultreon.qvoxel.fluid.Fluids;
 import dev.ultreon.qvoxel.registry.RegistryKey;
 import dev.ultreon.qvoxel.registry.RegistryKeys;
 import dev.ultreon.qvoxel.resource.GameObject;
-import dev.ultreon.qvoxel.server.ChunkLoadTicket;
 import dev.ultreon.qvoxel.server.WorldChunk;
 import dev.ultreon.qvoxel.util.*;
 import dev.ultreon.qvoxel.world.gen.biome.Biome;
 import dev.ultreon.qvoxel.world.light.LightMap;
 import org.joml.Vector3f;
 
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -135,7 +135,7 @@ public abstract class Chunk extends GameObject {
             if (chunk != null) {
                 chunk.neighbors[direction.opposite().ordinal()] = this;
                 if (chunk instanceof WorldChunk worldChunk) {
-                    worldChunk.sendChunkData();
+                    worldChunk.notifyReady();
                 }
             }
         }
@@ -146,7 +146,23 @@ public abstract class Chunk extends GameObject {
     }
 
     public void tick() {
-        for (Map.Entry<BlockVec, BlockActor> entry : Map.copyOf(blockActors).entrySet()) {
+        // Most chunks have no block actors, skip the snapshot for those.
+        if (!blockActors.isEmpty()) tickBlockActors();
+
+        RNG rng = world.getRNG();
+        int x = rng.nextInt(0, World.CHUNK_SIZE);
+        int y = rng.nextInt(0, World.CHUNK_SIZE);
+        int z = rng.nextInt(0, World.CHUNK_SIZE);
+
+        BlockState blockToTick = get(x, y, z);
+        if (blockToTick.doesRandomTick()) {
+            blockToTick.randomTick(this, new BlockVec(x, y, z));
+        }
+    }
+
+    private void tickBlockActors() {
+        // Block actors can be added or removed while ticking, so tick a snapshot of the entries.
+        for (Map.Entry<BlockVec, BlockActor> entry : List.copyOf(blockActors.entrySet())) {
             BlockActor curActor = entry.getValue();
             BlockVec key = entry.getKey();
             BlockVec wPos = curActor.getPos();
@@ -158,16 +174,6 @@ public abstract class Chunk extends GameObject {
             }
             curActor.tick();
         }
-
-        RNG rng = world.getRNG();
-        int x = rng.nextInt(0, World.CHUNK_SIZE);
-        int y = rng.nextInt(0, World.CHUNK_SIZE);
-        int z = rng.nextInt(0, World.CHUNK_SIZE);
-
-        BlockState blockToTick = get(x, y, z);
-        if (blockToTick.doesRandomTick()) {
-            blockToTick.randomTick(this, new BlockVec(x, y, z));
-        }
     }
 
     protected int getIndex(int x, int z) {
@@ -192,8 +198,4 @@ public abstract class Chunk extends GameObject {
     public LightMap getLightMap() {
         return lightMap;
     }
-
-    public void consumeTicket(ChunkLoadTicket chunkLoadTicket) {
-
-    }
 }
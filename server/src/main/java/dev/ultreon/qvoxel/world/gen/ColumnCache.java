@@ -0,0 +1,99 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.world.gen;
+
+import dev.ultreon.qvoxel.util.ChunkVec;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <p>A least recently used cache of data computed per chunk column.</p>
+ *
+ * <p>Chunks are cubic, so every chunk stacked in a column needs the same 2D data. The first chunk that asks for a
+ * column computes it, chunks asking while that's still in progress wait for the same result instead of computing it
+ * again.</p>
+ *
+ * @param <T> the type of the column data.
+ */
+public final class ColumnCache<T> {
+    private final Long2ObjectLinkedOpenHashMap<CompletableFuture<T>> columns = new Long2ObjectLinkedOpenHashMap<>();
+    private final int capacity;
+    private final Loader<T> loader;
+
+    /**
+     * Computes the data of a column.
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load(int chunkX, int chunkZ);
+    }
+
+    /**
+     * Creates a new cache.
+     *
+     * @param capacity the amount of columns to keep.
+     * @param loader   computes the data of a column.
+     */
+    public ColumnCache(int capacity, Loader<T> loader) {
+        this.capacity = capacity;
+        this.loader = loader;
+    }
+
+    /**
+     * Gets the data of a column, computing it if it isn't cached.
+     *
+     * @param chunkX the chunk x coordinate of the column.
+     * @param chunkZ the chunk z coordinate of the column.
+     * @return the column data.
+     */
+    public T get(int chunkX, int chunkZ) {
+        long key = ChunkVec.columnKey(chunkX, chunkZ);
+
+        CompletableFuture<T> future;
+        boolean owner = false;
+        synchronized (columns) {
+            future = columns.getAndMoveToLast(key);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                owner = true;
+                columns.putAndMoveToLast(key, future);
+                if (columns.size() > capacity) columns.removeFirst();
+            }
+        }
+
+        if (owner) {
+            try {
+                future.complete(loader.load(chunkX, chunkZ));
+            } catch (RuntimeException e) {
+                synchronized (columns) {
+                    columns.remove(key, future);
+                }
+                future.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        return future.join();
+    }
+
+    public void clear() {
+        synchronized (columns) {
+            columns.clear();
+        }
+    }
+}
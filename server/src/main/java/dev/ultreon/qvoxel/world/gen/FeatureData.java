@@ -18,24 +18,24 @@ package dev.ultreon.qvoxel.world.gen;
 
 import dev.ultreon.qvoxel.util.ChunkVec;
 import dev.ultreon.qvoxel.world.BuilderChunk;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 public class FeatureData {
-    private final Map<ChunkVec, List<FeatureInfo>> featureData = new HashMap<>();
+    private final Long2ObjectOpenHashMap<List<FeatureInfo>> featureData = new Long2ObjectOpenHashMap<>();
 
     public void prepareChunk(BuilderChunk chunk) {
         synchronized (this) {
-            List<FeatureInfo> featureInfos = featureData.remove(chunk.vec);
+            List<FeatureInfo> featureInfos = featureData.remove(chunk.vec.toLong());
             if (featureInfos == null) {
                 return;
             }
 
             // Apply in-chunk points and re-queue out-of-chunk features to their proper chunk buckets if missing.
-            Map<ChunkVec, List<FeatureInfo>> toAddPerChunk = new HashMap<>();
+            Long2ObjectOpenHashMap<List<FeatureInfo>> toAddPerChunk = new Long2ObjectOpenHashMap<>();
             for (FeatureInfo featureInfo : featureInfos) {
                 // Apply only points belonging to this chunk (world coords -> local coords)
                 featureInfo.points().forEach(point -> {
@@ -48,16 +48,17 @@ public class FeatureData {
                 for (ChunkVec otherChunk : featureInfo.coveringChunks()) {
                     if (otherChunk.equals(chunk.vec)) continue;
 
-                    List<FeatureInfo> existingList = featureData.get(otherChunk);
+                    long key = otherChunk.toLong();
+                    List<FeatureInfo> existingList = featureData.get(key);
                     if (existingList == null || !existingList.contains(featureInfo)) {
-                        toAddPerChunk.computeIfAbsent(otherChunk, __ -> new ArrayList<>()).add(featureInfo);
+                        toAddPerChunk.computeIfAbsent(key, __ -> new ArrayList<>()).add(featureInfo);
                     }
                 }
             }
 
             // Re-queue missing feature infos to the appropriate chunks
-            for (Map.Entry<ChunkVec, List<FeatureInfo>> entry : toAddPerChunk.entrySet()) {
-                featureData.computeIfAbsent(entry.getKey(), __ -> new ArrayList<>()).addAll(entry.getValue());
+            for (Long2ObjectMap.Entry<List<FeatureInfo>> entry : toAddPerChunk.long2ObjectEntrySet()) {
+                featureData.computeIfAbsent(entry.getLongKey(), __ -> new ArrayList<>()).addAll(entry.getValue());
             }
         }
     }
@@ -66,7 +67,7 @@ public class FeatureData {
         synchronized (this) {
             // Stage feature for all covered chunks
             for (ChunkVec chunkVec : featureInfo.coveringChunks()) {
-                featureData.computeIfAbsent(chunkVec, _ -> new ArrayList<>()).add(featureInfo);
+                featureData.computeIfAbsent(chunkVec.toLong(), _ -> new ArrayList<>()).add(featureInfo);
             }
 
             // Apply immediately for the origin chunk only for points within it
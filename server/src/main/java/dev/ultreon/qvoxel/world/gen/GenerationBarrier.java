@@ -1,19 +1,52 @@
 package dev.ultreon.qvoxel.world.gen;
 
+/**
+ * The stages of chunk generation, in the order they're applied.
+ * A stage only runs once the chunk itself, and all chunks within the {@linkplain #getNeighborRadius() neighbor radius}
+ * of the stage, have reached the {@linkplain #previous() previous stage}.
+ */
 public enum GenerationBarrier {
-    NONE,
-    FEATURE_INFO,
-    CARVED,
-    TERRAIN,
-    FEATURES,
-    STRUCTURES,
-    LIGHTING,
-    ORES,
-    ALL;
+    NONE(0),
+    FEATURE_INFO(0),
+    CARVED(0),
+    TERRAIN(0),
+    // Features spill into neighboring chunks, which must have their terrain by then.
+    FEATURES(1),
+    STRUCTURES(0),
+    // Light propagates into neighboring chunks, which must be done placing blocks.
+    LIGHTING(1),
+    ORES(0),
+    ALL(0);
 
     public static final GenerationBarrier SPAWN = ALL;
     public static final GenerationBarrier PRE_LIGHTING = STRUCTURES;
 
+    private static final GenerationBarrier[] VALUES = values();
+
+    private final int neighborRadius;
+
+    GenerationBarrier(int neighborRadius) {
+        this.neighborRadius = neighborRadius;
+    }
+
+    /**
+     * Gets the radius in chunks around a chunk that must have reached the previous stage before this stage can run.
+     *
+     * @return the neighbor radius, or {@code 0} if the stage only touches the chunk itself.
+     */
+    public int getNeighborRadius() {
+        return neighborRadius;
+    }
+
+    /**
+     * Gets the stage before this one.
+     *
+     * @return the previous stage, or {@link #NONE} for {@link #NONE} itself.
+     */
+    public GenerationBarrier previous() {
+        return this == NONE ? NONE : VALUES[ordinal() - 1];
+    }
+
     public boolean includes(GenerationBarrier barrier) {
         return isAfter(barrier) || equals(barrier);
     }
@@ -16,14 +16,14 @@
 
 package dev.ultreon.qvoxel.world.gen;
 
-import de.articdive.jnoise.core.api.pipeline.NoiseSource;
 import de.articdive.jnoise.generators.noise_parameters.simplex_variants.Simplex2DVariant;
 import de.articdive.jnoise.generators.noise_parameters.simplex_variants.Simplex3DVariant;
 import de.articdive.jnoise.generators.noise_parameters.simplex_variants.Simplex4DVariant;
 import de.articdive.jnoise.modules.octavation.fractal_functions.FractalFunction;
 import de.articdive.jnoise.pipeline.JNoise;
+import dev.ultreon.qvoxel.world.gen.noise.GridNoiseSource;
 
-public class OceanicNoise implements NoiseSource {
+public class OceanicNoise implements GridNoiseSource {
     private final JNoise noise;
     private final double strength;
 
@@ -20,6 +20,7 @@ import dev.ultreon.qvoxel.block.BoundingBox;
 import dev.ultreon.qvoxel.util.BlockVec;
 import dev.ultreon.qvoxel.util.ChunkVec;
 import dev.ultreon.qvoxel.world.structure.Structure;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
@@ -30,7 +31,7 @@ public class StructureData {
     private final List<BoundingBox> bounds = new ArrayList<>();
     private final List<Structure> structures = new ArrayList<>();
 
-    private final Map<ChunkVec, List<StructureInstance>> structureInstances = new HashMap<>();
+    private final Long2ObjectOpenHashMap<List<StructureInstance>> structureInstances = new Long2ObjectOpenHashMap<>();
 
     public void addStructurePoint(int x, int y, int z, Structure structure) {
         synchronized (this) {
@@ -49,8 +50,7 @@ public class StructureData {
             for (int cx = startChunk.x; cx <= endChunk.x; cx++) {
                 for (int cy = startChunk.y; cy <= endChunk.y; cy++) {
                     for (int cz = startChunk.z; cz <= endChunk.z; cz++) {
-                        ChunkVec chunkVec = new ChunkVec(cx, cy, cz);
-                        structureInstances.computeIfAbsent(chunkVec, k -> new ArrayList<>()).add(new StructureInstance(
+                        structureInstances.computeIfAbsent(ChunkVec.toLong(cx, cy, cz), k -> new ArrayList<>()).add(new StructureInstance(
                                 start,
                                 structure
                         ));
@@ -78,7 +78,7 @@ public class StructureData {
     }
 
     public Collection<StructureInstance> getStructuresAt(ChunkVec vec) {
-        List<StructureInstance> list = structureInstances.get(vec);
+        List<StructureInstance> list = structureInstances.get(vec.toLong());
         if (list == null) {
             return Collections.emptySet();
         }
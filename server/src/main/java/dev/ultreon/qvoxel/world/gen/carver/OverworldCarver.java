@@ -29,6 +29,7 @@ import dev.ultreon.qvoxel.world.gen.HillinessNoise;
 import dev.ultreon.qvoxel.world.gen.OceanicNoise;
 import dev.ultreon.qvoxel.world.gen.noise.DerivativeTunnelClosingCaveCarver;
 import dev.ultreon.qvoxel.world.gen.noise.DomainWarping;
+import dev.ultreon.qvoxel.world.gen.noise.NoiseLattice;
 import it.unimi.dsi.fastutil.longs.LongArrayList;
 import it.unimi.dsi.fastutil.longs.LongList;
 import it.unimi.dsi.fastutil.longs.LongLists;
@@ -40,6 +41,8 @@ import org.joml.Vector2d;
  * It uses various noise sources and domain warping to determine terrain features like caves and surface height.
  */
 public class OverworldCarver implements Carver, NoiseSource {
+    private static final int MODIFIER_CELL = 4;
+
     private final @NotNull BlockState stoneState = Blocks.STONE.getDefaultState();
     private final NoiseSource worldNoise;
 
@@ -62,19 +65,73 @@ public class OverworldCarver implements Carver, NoiseSource {
 
     @Override
     public double carve(BuilderChunk chunk, int x, int z) {
+        BlockVec offset = chunk.blockStart;
+        return carve(chunk, x, z, computeHeight(offset.x + x, offset.z + z));
+    }
+
+    /**
+     * Computes the terrain height of a column, including the domain warp.
+     *
+     * @param x the world x coordinate.
+     * @param z the world z coordinate.
+     * @return the terrain height.
+     */
+    public double computeHeight(int x, int z) {
+        Vector2d warped = worldDomainWarp.generateDomainOffset(x, z);
+        return evaluateNoise(x + warped.x, z + warped.y);
+    }
+
+    /**
+     * Computes the terrain height for a square area of columns.
+     *
+     * <p>The domain warp and terrain noise are evaluated for every column, the slowly changing hilliness and
+     * oceanic noise are sampled every {@value #MODIFIER_CELL} blocks and interpolated in between.</p>
+     *
+     * @param x0   the x-coordinate of the first column.
+     * @param z0   the z-coordinate of the first column.
+     * @param size the amount of columns along each axis.
+     * @param out  the array to write the heights to, indexed by {@code z * size + x}.
+     */
+    public void computeHeights(int x0, int z0, int size, double[] out) {
+        double[] warpX = new double[size * size];
+        double[] warpZ = new double[size * size];
+        worldDomainWarp.generateDomainOffsets(x0, z0, size, size, warpX, warpZ);
+
+        double margin = Math.ceil(Math.max(worldDomainWarp.amplitudeX(), worldDomainWarp.amplitudeY())) + MODIFIER_CELL;
+        double minX = x0 - margin;
+        double minZ = z0 - margin;
+        double maxX = x0 + size + margin;
+        double maxZ = z0 + size + margin;
+        NoiseLattice hilliness = hillinessNoise.sampleLattice(minX, minZ, maxX, maxZ, MODIFIER_CELL);
+        NoiseLattice oceanicness = oceanicNoise.sampleLattice(minX, minZ, maxX, maxZ, MODIFIER_CELL);
+
+        for (int z = 0; z < size; z++) {
+            for (int x = 0; x < size; x++) {
+                int index = z * size + x;
+                double sampleX = x0 + x + warpX[index];
+                double sampleZ = z0 + z + warpZ[index];
+                out[index] = evaluateNoise(sampleX, sampleZ, hilliness.sample(sampleX, sampleZ), oceanicness.sample(sampleX, sampleZ));
+            }
+        }
+    }
+
+    /**
+     * Carves a column of the chunk using a terrain height that was already computed,
+     * so chunks stacked in the same column don't have to evaluate the terrain noise again.
+     *
+     * @param chunk     the chunk to carve.
+     * @param x         the local x coordinate.
+     * @param z         the local z coordinate.
+     * @param groundPos the terrain height from {@link #computeHeight(int, int)}.
+     * @return the terrain height.
+     */
+    public double carve(BuilderChunk chunk, int x, int z, double groundPos) {
         long start = System.currentTimeMillis();
         BlockVec offset = chunk.blockStart;
 
-        // Use world coordinates consistently for noise sampling
+        // Use world coordinates consistently for heightmap lookups
         x = offset.x + x;
         z = offset.z + z;
-        double worldX = x;
-        double worldZ = z;
-
-        Vector2d warped = worldDomainWarp.generateDomainOffset(worldX, worldZ);
-        worldX += warped.x;
-        worldZ += warped.y;
-        double groundPos = evaluateNoise(worldX, worldZ);
 
         // Write to the heightmaps (local indices are correct here)
         int localX = BlockVec.localize(x);
@@ -94,23 +151,14 @@ public class OverworldCarver implements Carver, NoiseSource {
         motionNoLeaves.set(localX, localZ, Math.max(pos, World.SEA_LEVEL));
         lightHeight.set(localX, localZ, Math.max(pos, World.SEA_LEVEL));
 
-        // Carve the world into shape.
-        for (int y = offset.y + World.CHUNK_SIZE - 1; y >= offset.y; y--) {
-            int localY = BlockVec.localize(y);
-            if (y <= groundPos) {
-                if (y <= World.SEA_LEVEL) {
-                    if (y < groundPos - 7) {
-                        chunk.set(localX, localY, localZ, stoneState);
-                    } else {
-                        chunk.set(localX, localY, localZ, stoneState);
-                    }
-                } else {
-                    chunk.set(localX, localY, localZ, stoneState);
-                }
-            } else if (y <= World.SEA_LEVEL) {
-                if (oceanFloor.get(localX, localZ) == y) oceanFloor.set(localX, localZ, (short) (y - 1));
-                chunk.set(localX, localY, localZ, Blocks.WATER.getDefaultState());
-            }
+        // Carve the world into shape, filling the stone and water runs of the column at once.
+        int stoneTop = (int) Math.floor(groundPos);
+        chunk.fillColumn(localX, localZ, 0, stoneTop - offset.y, stoneState);
+        chunk.fillColumn(localX, localZ, stoneTop + 1 - offset.y, World.SEA_LEVEL - offset.y, Blocks.WATER.getDefaultState());
+
+        // The height is truncated towards zero, so below zero it can point at the water block above the floor.
+        if (pos > stoneTop && pos <= World.SEA_LEVEL && pos >= offset.y && pos < offset.y + World.CHUNK_SIZE) {
+            oceanFloor.set(localX, localZ, pos - 1);
         }
 
         long end = System.currentTimeMillis();
@@ -144,8 +192,11 @@ public class OverworldCarver implements Carver, NoiseSource {
     @Override
     public double evaluateNoise(double x, double y) {
         // This method appears to be called with world coordinates; keep it consistent.
-        double hilliness = hillinessNoise.evaluateNoise(x, y) - 2.0f;
-        double oceanicness = oceanicNoise.evaluateNoise(x, y);
+        return evaluateNoise(x, y, hillinessNoise.evaluateNoise(x, y), oceanicNoise.evaluateNoise(x, y));
+    }
+
+    private double evaluateNoise(double x, double y, double hilliness, double oceanicness) {
+        hilliness -= 2.0f;
         double height = worldNoise.evaluateNoise(x, y); // now expects world coords from callers;
         return (Math.max((float) height, 1f) - 64) * (hilliness / 4.0f + 0.5f) + 64 - oceanicness;
     }
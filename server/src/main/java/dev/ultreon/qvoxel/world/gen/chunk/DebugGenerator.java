@@ -56,6 +56,9 @@ public class DebugGenerator implements ChunkGenerator {
 
     @Override
     public void generate(@NotNull ServerWorld world, BuilderChunk chunk, GenerationBarrier barrier, LightingSystem lightingSystem) {
+        // Everything is placed in one go, later stages have nothing to add.
+        if (!chunk.currentBarrier.isBefore(GenerationBarrier.CARVED)) return;
+
         fillBiome(chunk);
 
         if (chunk.vec.equals(0, 0, 0)) {
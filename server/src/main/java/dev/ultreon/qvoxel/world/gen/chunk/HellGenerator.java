@@ -51,6 +51,8 @@ public class HellGenerator extends SimpleChunkGenerator {
 
     @Override
     protected void generateTerrain(@NotNull BuilderChunk chunk, @NotNull Carver carver, GenerationBarrier barrier) {
+        if (!chunk.currentBarrier.isBefore(GenerationBarrier.CARVED)) return;
+
         BlockVec offset = chunk.blockStart;
 
         for (int x = offset.x; x < offset.x + World.CHUNK_SIZE; x++) {
@@ -21,10 +21,9 @@ import dev.ultreon.qvoxel.network.system.DevFlag;
 import dev.ultreon.qvoxel.network.system.DeveloperMode;
 import dev.ultreon.qvoxel.registry.Registry;
 import dev.ultreon.qvoxel.server.ServerWorld;
-import dev.ultreon.qvoxel.util.BlockVec;
 import dev.ultreon.qvoxel.world.BuilderChunk;
-import dev.ultreon.qvoxel.world.HeightmapType;
 import dev.ultreon.qvoxel.world.World;
+import dev.ultreon.qvoxel.world.gen.ColumnCache;
 import dev.ultreon.qvoxel.world.gen.GenerationBarrier;
 import dev.ultreon.qvoxel.world.gen.biome.Biome;
 import dev.ultreon.qvoxel.world.gen.biome.BiomeData;
@@ -48,6 +47,8 @@ import java.util.List;
  * It extends the SimpleChunkGenerator, inheriting its basic functionalities and providing further customization.
  */
 public class OverworldGenerator extends SimpleChunkGenerator {
+    private static final int COLUMN_CACHE_SIZE = 512;
+
     private final List<BiomeData> biomeGenData = new ArrayList<>();
 
     private NoiseConfig noiseConfig;
@@ -56,7 +57,8 @@ public class OverworldGenerator extends SimpleChunkGenerator {
     private @UnknownNullability BiomeNoise humidNoise;
     private @UnknownNullability BiomeNoise tempNoise;
     private @UnknownNullability BiomeNoise variationNoise;
-    private @UnknownNullability Carver carver;
+    private @UnknownNullability OverworldCarver carver;
+    private @UnknownNullability ColumnCache<TerrainColumn> columns;
     private DerivativeTunnelClosingCaveCarver caveCarver = new DerivativeTunnelClosingCaveCarver();
 
     public OverworldGenerator(Registry<Biome> biomeRegistry) {
@@ -80,6 +82,7 @@ public class OverworldGenerator extends SimpleChunkGenerator {
         tempNoise = new BiomeNoise(world.getSeed() + 410);
         variationNoise = new BiomeNoise(world.getSeed() + 420);
         carver = new OverworldCarver(noise, world.getSeed() + 500, tempNoise);
+        columns = new ColumnCache<>(COLUMN_CACHE_SIZE, this::loadColumn);
 
         for (Biome biome : biomes) {
             biomeGenData.add(new BiomeData(
@@ -94,12 +97,12 @@ public class OverworldGenerator extends SimpleChunkGenerator {
 
     @Override
     protected void generateTerrain(@NotNull BuilderChunk chunk, @NotNull Carver carver, GenerationBarrier barrier) {
-        BlockVec offset = chunk.blockStart;
         if (barrier.compareTo(GenerationBarrier.CARVED) < 0) return;
         if (chunk.currentBarrier.compareTo(GenerationBarrier.CARVED) < 0) {
+            TerrainColumn column = columns.get(chunk.vec.x, chunk.vec.z);
             for (var x = 0; x < World.CHUNK_SIZE; x++) {
                 for (var z = 0; z < World.CHUNK_SIZE; z++) {
-                    carver.carve(chunk, x, z);
+                    this.carver.carve(chunk, x, z, column.heights()[z * World.CHUNK_SIZE + x]);
                 }
             }
 
@@ -108,16 +111,61 @@ public class OverworldGenerator extends SimpleChunkGenerator {
 
         if (barrier.compareTo(GenerationBarrier.TERRAIN) < 0) return;
         if (chunk.currentBarrier.compareTo(GenerationBarrier.TERRAIN) < 0) {
+            TerrainColumn column = columns.get(chunk.vec.x, chunk.vec.z);
             for (var x = 0; x < World.CHUNK_SIZE; x++) {
                 for (var z = 0; z < World.CHUNK_SIZE; z++) {
-                    double groundPos = chunk.getHeight(x, z, HeightmapType.TERRAIN);
+                    int index = z * World.CHUNK_SIZE + x;
+                    BiomeGenerator biomeGenerator = column.generators()[index];
+                    chunk.setBiomeGenerator(x, z, biomeGenerator);
+                    biomeGenerator.processColumn(chunk, x, (int) column.heights()[index], z);
+                }
+            }
+        }
+    }
 
-                    var index = findGenerator(new Vector3i(offset.x + x, 0, offset.z + z), groundPos);
-                    chunk.setBiomeGenerator(x, z, index.biomeGenerator);
-                    index.biomeGenerator.processColumn(chunk, x, (int) Math.floor(groundPos), z);
+    /**
+     * The 2D data of a chunk column, shared by all chunks stacked in it.
+     * Both arrays are indexed by {@code z * CHUNK_SIZE + x}.
+     *
+     * @param heights    the terrain height of every column, as computed by the carver.
+     * @param generators the biome generator selected for every column.
+     */
+    private record TerrainColumn(double[] heights, BiomeGenerator[] generators) {
+
+    }
+
+    private TerrainColumn loadColumn(int chunkX, int chunkZ) {
+        int startX = chunkX * World.CHUNK_SIZE;
+        int startZ = chunkZ * World.CHUNK_SIZE;
+        double[] heights = new double[World.CHUNK_SURFACE];
+        BiomeGenerator[] generators = new BiomeGenerator[World.CHUNK_SURFACE];
+        carver.computeHeights(startX, startZ, World.CHUNK_SIZE, heights);
+
+        if (DeveloperMode.isDevFlagEnabled(DevFlag.DomainWarping)) {
+            Vector3i offset = new Vector3i();
+            for (var z = 0; z < World.CHUNK_SIZE; z++) {
+                for (var x = 0; x < World.CHUNK_SIZE; x++) {
+                    int index = z * World.CHUNK_SIZE + x;
+                    generators[index] = findGenerator(offset.set(startX + x, 0, startZ + z), (int) heights[index], true).biomeGenerator;
                 }
             }
+            return new TerrainColumn(heights, generators);
+        }
+
+        // Without domain warping the biome noise is sampled on a regular grid, so it can be evaluated in one go.
+        double zoom = noiseConfig.noiseZoom();
+        double[] humid = new double[World.CHUNK_SURFACE];
+        double[] temp = new double[World.CHUNK_SURFACE];
+        double[] variation = new double[World.CHUNK_SURFACE];
+        humidNoise.evaluateGrid(startX * zoom, startZ * zoom, World.CHUNK_SIZE, World.CHUNK_SIZE, zoom, humid);
+        tempNoise.evaluateGrid(startX * zoom, startZ * zoom, World.CHUNK_SIZE, World.CHUNK_SIZE, zoom, temp);
+        variationNoise.evaluateGrid(startX * zoom, startZ * zoom, World.CHUNK_SIZE, World.CHUNK_SIZE, zoom, variation);
+
+        for (int i = 0; i < World.CHUNK_SURFACE; i++) {
+            // The heightmap stores whole blocks, biomes are selected from the same truncated height.
+            generators[i] = selectGenerator((int) heights[i], humid[i] * 2.0f, temp[i] * 2.0f, variation[i] * 2.0f);
         }
+        return new TerrainColumn(heights, generators);
     }
 
     /**
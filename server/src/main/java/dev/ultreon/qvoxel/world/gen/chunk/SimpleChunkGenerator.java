@@ -62,7 +62,10 @@ public abstract class SimpleChunkGenerator implements ChunkGenerator {
             world.getFeatureData().prepareChunk(chunk);
         }
 
-        generateTerrain(chunk, carver, barrier);
+        if (barrier.compareTo(GenerationBarrier.CARVED) < 0) return;
+        if (chunk.currentBarrier.compareTo(GenerationBarrier.TERRAIN) < 0) {
+            generateTerrain(chunk, carver, barrier);
+        }
 
 
         if (barrier.compareTo(GenerationBarrier.FEATURES) < 0) return;
@@ -84,10 +87,12 @@ public abstract class SimpleChunkGenerator implements ChunkGenerator {
 
     /**
      * Generates terrain for a given chunk using a specified carver and records the changes.
+     * Called for both the {@link GenerationBarrier#CARVED} and {@link GenerationBarrier#TERRAIN} stages, so
+     * implementations must check {@link BuilderChunk#currentBarrier} to run each step only once.
      *
      * @param chunk   The chunk in which the terrain generation is to be performed. Must not be null.
      * @param carver  The carver used to shape the terrain within the chunk. Must not be null.
-     * @param barrier
+     * @param barrier The stage that is being generated.
      */
     protected abstract void generateTerrain(@NotNull BuilderChunk chunk, @NotNull Carver carver, GenerationBarrier barrier);
 
@@ -49,6 +49,8 @@ public class SpaceGenerator extends SimpleChunkGenerator {
 
     @Override
     protected void generateTerrain(@NotNull BuilderChunk chunk, @NotNull Carver carver, GenerationBarrier barrier) {
+        if (!chunk.currentBarrier.isBefore(GenerationBarrier.CARVED)) return;
+
         for (int x = 0; x < World.CHUNK_SIZE; x++) {
             for (int z = 0; z < World.CHUNK_SIZE; z++) {
                 carver.carve(chunk, x, z);
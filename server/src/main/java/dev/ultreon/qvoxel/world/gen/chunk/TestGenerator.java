@@ -36,6 +36,8 @@ public class TestGenerator extends SimpleChunkGenerator {
 
     @Override
     protected void generateTerrain(@NotNull BuilderChunk chunk, @NotNull Carver carver, GenerationBarrier barrier) {
+        if (!chunk.currentBarrier.isBefore(GenerationBarrier.CARVED)) return;
+
         for (int x = chunk.blockStart.x; x < chunk.blockStart.x + World.CHUNK_SIZE; x++) {
             for (int z = chunk.blockStart.z; z < chunk.blockStart.z + World.CHUNK_SIZE; z++) {
                 this.carver.carve(chunk, x, z);
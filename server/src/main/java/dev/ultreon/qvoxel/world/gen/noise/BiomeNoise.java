@@ -23,7 +23,7 @@ import de.articdive.jnoise.generators.noise_parameters.simplex_variants.Simplex4
 import de.articdive.jnoise.modules.octavation.fractal_functions.FractalFunction;
 import de.articdive.jnoise.pipeline.JNoise;
 
-public class BiomeNoise implements NoiseSource {
+public class BiomeNoise implements GridNoiseSource {
     private final NoiseSource noise;
 
     public BiomeNoise(long seed) {
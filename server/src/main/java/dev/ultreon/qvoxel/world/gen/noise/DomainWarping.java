@@ -54,6 +54,28 @@ public record DomainWarping(NoiseSource domainX, NoiseSource domainY, double amp
         return new Vector2d(noiseX, noiseY);
     }
 
+    /**
+     * Generates the domain offsets for a grid of positions, without allocating a vector per position.
+     *
+     * @param x0   the x-coordinate of the first cell.
+     * @param z0   the z-coordinate of the first cell.
+     * @param w    the amount of cells along the x-axis.
+     * @param h    the amount of cells along the z-axis.
+     * @param outX the array to write the x offsets to, indexed by {@code z * w + x}.
+     * @param outZ the array to write the z offsets to, indexed by {@code z * w + x}.
+     */
+    public void generateDomainOffsets(double x0, double z0, int w, int h, double[] outX, double[] outZ) {
+        for (int z = 0; z < h; z++) {
+            double sampleZ = z0 + z;
+            int row = z * w;
+            for (int x = 0; x < w; x++) {
+                double sampleX = x0 + x;
+                outX[row + x] = domainX.evaluateNoise(sampleX, 0, sampleZ) * amplitudeX;
+                outZ[row + x] = domainY.evaluateNoise(sampleX, 0, sampleZ) * amplitudeY;
+            }
+        }
+    }
+
     public Vector2i generateDomainOffsetInt(int x, int z) {
         Vector2d round = generateDomainOffset(x, z).round();
         return new Vector2i((int) round.x, (int) round.y);
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.world.gen.noise;
+
+import de.articdive.jnoise.core.api.pipeline.NoiseSource;
+
+/**
+ * <p>A 2D noise source that can be evaluated for a whole grid of positions at once.</p>
+ *
+ * <p>The default implementation samples {@link #evaluateNoise(double, double)} for every cell, implementations can
+ * override it when they can share work between neighbouring samples.</p>
+ */
+public interface GridNoiseSource extends NoiseSource {
+    /**
+     * Evaluates the noise for a grid of positions.
+     *
+     * @param x0   the x-coordinate of the first cell.
+     * @param z0   the z-coordinate of the first cell.
+     * @param w    the amount of cells along the x-axis.
+     * @param h    the amount of cells along the z-axis.
+     * @param step the distance between two cells.
+     * @param out  the array to write to, indexed by {@code z * w + x}.
+     */
+    default void evaluateGrid(double x0, double z0, int w, int h, double step, double[] out) {
+        if (out.length < w * h) throw new IllegalArgumentException("Output array too small: " + out.length + " < " + w * h);
+
+        for (int z = 0; z < h; z++) {
+            double sampleZ = z0 + z * step;
+            int row = z * w;
+            for (int x = 0; x < w; x++) {
+                out[row + x] = evaluateNoise(x0 + x * step, sampleZ);
+            }
+        }
+    }
+
+    /**
+     * Samples the noise on a coarse lattice covering an area, which can then be interpolated at any position in it.
+     * Only suitable for noise that changes slowly compared to the cell size.
+     *
+     * @param x0   the minimum x-coordinate of the area.
+     * @param z0   the minimum z-coordinate of the area.
+     * @param x1   the maximum x-coordinate of the area.
+     * @param z1   the maximum z-coordinate of the area.
+     * @param cell the distance between two lattice points.
+     * @return the sampled lattice.
+     */
+    default NoiseLattice sampleLattice(double x0, double z0, double x1, double z1, double cell) {
+        int w = (int) Math.ceil((x1 - x0) / cell) + 1;
+        int h = (int) Math.ceil((z1 - z0) / cell) + 1;
+        double[] values = new double[w * h];
+        evaluateGrid(x0, z0, w, h, cell, values);
+        return new NoiseLattice(x0, z0, cell, w, h, values);
+    }
+}
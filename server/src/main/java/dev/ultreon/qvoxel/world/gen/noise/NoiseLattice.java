@@ -0,0 +1,70 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.world.gen.noise;
+
+/**
+ * <p>Noise values sampled on a regular lattice, interpolated bilinearly in between.</p>
+ *
+ * <p>Positions outside the sampled area are clamped to its edge.</p>
+ *
+ * @see GridNoiseSource#sampleLattice(double, double, double, double, double)
+ */
+public final class NoiseLattice {
+    private final double x0;
+    private final double z0;
+    private final double invCell;
+    private final int width;
+    private final int height;
+    private final double[] values;
+
+    NoiseLattice(double x0, double z0, double cell, int width, int height, double[] values) {
+        this.x0 = x0;
+        this.z0 = z0;
+        this.invCell = 1.0 / cell;
+        this.width = width;
+        this.height = height;
+        this.values = values;
+    }
+
+    /**
+     * Interpolates the noise at the given position.
+     *
+     * @param x the x-coordinate.
+     * @param z the z-coordinate.
+     * @return the interpolated noise value.
+     */
+    public double sample(double x, double z) {
+        double fx = Math.clamp((x - x0) * invCell, 0.0, width - 1);
+        double fz = Math.clamp((z - z0) * invCell, 0.0, height - 1);
+        int ix = Math.min((int) fx, width - 2);
+        int iz = Math.min((int) fz, height - 2);
+        if (ix < 0) ix = 0;
+        if (iz < 0) iz = 0;
+        double tx = fx - ix;
+        double tz = fz - iz;
+
+        int i = iz * width + ix;
+        double v00 = values[i];
+        double v10 = width > 1 ? values[i + 1] : v00;
+        double v01 = height > 1 ? values[i + width] : v00;
+        double v11 = width > 1 && height > 1 ? values[i + width + 1] : v01;
+
+        double top = v00 + (v10 - v00) * tx;
+        double bottom = v01 + (v11 - v01) * tx;
+        return top + (bottom - top) * tz;
+    }
+}
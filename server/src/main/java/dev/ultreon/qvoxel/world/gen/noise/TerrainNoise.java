@@ -28,7 +28,7 @@ import de.articdive.jnoise.pipeline.JNoise;
  * The TerrainNoise class generates terrain noise using a combination of various simplex noise sources.
  * It supports noise generation in one, two, three, and four dimensions.
  */
-public class TerrainNoise implements NoiseSource {
+public class TerrainNoise implements GridNoiseSource {
     public static final int OCEAN_ELEVATION = 72;
     public static final int OCEAN_ELEVATION_HEIGHT = 16;
     private final NoiseSource noise;
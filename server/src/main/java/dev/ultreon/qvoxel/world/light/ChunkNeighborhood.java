@@ -0,0 +1,120 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.world.light;
+
+import dev.ultreon.qvoxel.server.ServerChunk;
+import dev.ultreon.qvoxel.server.ServerWorld;
+import dev.ultreon.qvoxel.util.BlockVec;
+import dev.ultreon.qvoxel.world.BuilderChunk;
+import dev.ultreon.qvoxel.world.Chunk;
+import dev.ultreon.qvoxel.world.gen.GenerationBarrier;
+
+import java.util.Arrays;
+
+/**
+ * <p>Caches the chunks in a 3×3×3 area around a center chunk during light propagation.</p>
+ *
+ * <p>Light rarely travels further than one chunk from where an update starts, so this saves a chunk manager lookup
+ * for almost every step. Chunks outside the area are looked up directly. Chunks that aren't loaded are treated as
+ * missing, light doesn't spread into them. Not thread-safe.</p>
+ */
+final class ChunkNeighborhood {
+    private final ServerWorld world;
+    private final GenerationBarrier barrier;
+    private final ServerChunk[] chunks = new ServerChunk[27];
+    private int originX;
+    private int originY;
+    private int originZ;
+
+    private ServerChunk last;
+    private int lastX;
+    private int lastY;
+    private int lastZ;
+
+    ChunkNeighborhood(ServerWorld world, GenerationBarrier barrier) {
+        this.world = world;
+        this.barrier = barrier;
+    }
+
+    /**
+     * Centers the neighborhood on the chunk containing the given block.
+     */
+    void center(int x, int y, int z) {
+        clear();
+        originX = BlockVec.chunkOf(x);
+        originY = BlockVec.chunkOf(y);
+        originZ = BlockVec.chunkOf(z);
+    }
+
+    /**
+     * Centers the neighborhood on the given chunk.
+     */
+    void center(ServerChunk chunk) {
+        clear();
+        originX = chunk.vec.x;
+        originY = chunk.vec.y;
+        originZ = chunk.vec.z;
+        chunks[13] = chunk;
+    }
+
+    /**
+     * Gets the chunk containing the given block.
+     *
+     * @return the chunk, or {@code null} if it isn't loaded.
+     */
+    ServerChunk get(int x, int y, int z) {
+        int cx = BlockVec.chunkOf(x);
+        int cy = BlockVec.chunkOf(y);
+        int cz = BlockVec.chunkOf(z);
+        if (last != null && cx == lastX && cy == lastY && cz == lastZ) return last;
+
+        int dx = cx - originX + 1;
+        int dy = cy - originY + 1;
+        int dz = cz - originZ + 1;
+        ServerChunk chunk;
+        if (dx >= 0 && dx < 3 && dy >= 0 && dy < 3 && dz >= 0 && dz < 3) {
+            int index = (dx * 3 + dy) * 3 + dz;
+            chunk = chunks[index];
+            if (chunk == null) chunks[index] = chunk = load(cx, cy, cz);
+        } else {
+            chunk = load(cx, cy, cz);
+        }
+
+        if (chunk != null) {
+            last = chunk;
+            lastX = cx;
+            lastY = cy;
+            lastZ = cz;
+        }
+        return chunk;
+    }
+
+    /**
+     * Looks up a loaded chunk. Never loads or generates chunks, the light worker must not wait on world generation.
+     * Chunks that are still being generated only count once they reached the barrier.
+     */
+    private ServerChunk load(int cx, int cy, int cz) {
+        Chunk chunk = world.getChunkManager().getChunkOrNull(cx, cy, cz);
+        if (chunk instanceof BuilderChunk builder && builder.currentBarrier.isBefore(barrier)) return null;
+        return chunk instanceof ServerChunk serverChunk ? serverChunk : null;
+    }
+
+    /**
+     * Drops the cached chunks, so they can be unloaded.
+     */
+    void clear() {
+        Arrays.fill(chunks, null);
+        last = null;
+    }
+}
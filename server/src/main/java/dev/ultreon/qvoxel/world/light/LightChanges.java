@@ -0,0 +1,54 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.world.light;
+
+import dev.ultreon.qvoxel.server.ServerChunk;
+import dev.ultreon.qvoxel.world.World;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectLinkedOpenHashMap;
+
+import java.util.BitSet;
+import java.util.function.BiConsumer;
+
+/**
+ * Collects which light map entries changed during a batch of light updates, grouped per chunk. Not thread-safe.
+ *
+ * @see LightingSystem#processUpdates(LightChanges)
+ */
+public final class LightChanges {
+    private final Reference2ObjectLinkedOpenHashMap<ServerChunk, BitSet> changed = new Reference2ObjectLinkedOpenHashMap<>();
+
+    void mark(ServerChunk chunk, int index) {
+        BitSet indices = changed.get(chunk);
+        if (indices == null) {
+            indices = new BitSet(World.CHUNK_VOLUME);
+            changed.put(chunk, indices);
+        }
+        indices.set(index);
+    }
+
+    /**
+     * Calls the consumer for every chunk with changes, with the light map indices that changed.
+     */
+    public void forEach(BiConsumer<ServerChunk, BitSet> consumer) {
+        changed.forEach(consumer);
+    }
+
+    public boolean isEmpty() {
+        return changed.isEmpty();
+    }
+
+    public void clear() {
+        changed.clear();
+    }
+}
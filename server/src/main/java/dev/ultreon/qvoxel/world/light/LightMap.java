@@ -198,6 +198,35 @@ public class LightMap implements Cloneable, NetworkSerializable, GameComponent {
         return data[index];
     }
 
+    /**
+     * Retrieves the red, green and blue block light at the specified index, without the skylight.
+     *
+     * @param idx the index of the value to retrieve from the internal data array
+     * @return the block light packed as {@code 0xRRGGBB}
+     * @throws IndexOutOfBoundsException if the specified index is out of the array bounds
+     */
+    public int getRGB(int idx) {
+        return data[idx] >>> 8;
+    }
+
+    /**
+     * Sets the red, green and blue block light at the specified index, leaving the skylight as is.
+     *
+     * @param idx the index in the data array where the value will be set
+     * @param rgb the block light to set, packed as {@code 0xRRGGBB}
+     * @throws IndexOutOfBoundsException if the specified index is out of the array bounds
+     */
+    public void setRGB(int idx, int rgb) {
+        data[idx] = data[idx] & 0xFF | rgb << 8;
+    }
+
+    /**
+     * Sets the raw light value at the given index, as returned by {@link #get(int)}.
+     */
+    public void setLight(int index, int light) {
+        data[index] = light;
+    }
+
     /**
      * Sets the RGBS value at the specified index in the internal data array.
      * RGBS is a 32-bit integer containing the red, green, blue and sky values.
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2025. Quinten 'Qubix' Jungblut
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.ultreon.qvoxel.world.light;
+
+/**
+ * <p>A growable ring buffer of light updates, each being a {@linkplain dev.ultreon.qvoxel.util.BlockVec#pack(int, int, int)
+ * packed} block position with an int value.</p>
+ *
+ * <p>Entries are stored in primitive arrays, so queueing and polling don't allocate once the buffer has grown to the
+ * size of the largest update. Not thread-safe.</p>
+ */
+final class LightQueue {
+    private long[] positions;
+    private int[] values;
+    private int mask;
+    private int head;
+    private int size;
+
+    LightQueue(int capacity) {
+        int length = Integer.highestOneBit(Math.max(capacity, 16) - 1) << 1;
+        positions = new long[length];
+        values = new int[length];
+        mask = length - 1;
+    }
+
+    void add(long position, int value) {
+        if (size == positions.length) grow();
+
+        int tail = head + size & mask;
+        positions[tail] = position;
+        values[tail] = value;
+        size++;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the position of the first entry.
+     */
+    long peekPosition() {
+        return positions[head];
+    }
+
+    /**
+     * Gets the value of the first entry.
+     */
+    int peekValue() {
+        return values[head];
+    }
+
+    /**
+     * Removes the first entry.
+     */
+    void pop() {
+        head = head + 1 & mask;
+        size--;
+    }
+
+    void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    private void grow() {
+        int length = positions.length;
+        long[] newPositions = new long[length << 1];
+        int[] newValues = new int[length << 1];
+
+        // Unwrap the ring so the entries start at index 0 again.
+        int first = length - head;
+        System.arraycopy(positions, head, newPositions, 0, first);
+        System.arraycopy(positions, 0, newPositions, first, head);
+        System.arraycopy(values, head, newValues, 0, first);
+        System.arraycopy(values, 0, newValues, first, head);
+
+        positions = newPositions;
+        values = newValues;
+        mask = (length << 1) - 1;
+        head = 0;
+    }
+}
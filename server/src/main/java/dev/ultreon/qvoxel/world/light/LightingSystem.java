@@ -17,23 +17,64 @@ import dev.ultreon.qvoxel.block.state.BlockState;
 import dev.ultreon.qvoxel.server.ServerChunk;
 import dev.ultreon.qvoxel.server.ServerWorld;
 import dev.ultreon.qvoxel.util.BlockVec;
-import dev.ultreon.qvoxel.util.Direction;
 import dev.ultreon.qvoxel.world.BuilderChunk;
+import dev.ultreon.qvoxel.world.Chunk;
 import dev.ultreon.qvoxel.world.HeightmapType;
 import dev.ultreon.qvoxel.world.World;
 import dev.ultreon.qvoxel.world.gen.GenerationBarrier;
-
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.Queue;
+import org.jetbrains.annotations.Nullable;
 
 import static java.lang.Math.max;
 
+/**
+ * <p>Propagates skylight and colored block light through the world.</p>
+ *
+ * <p>Positions are queued as {@linkplain BlockVec#pack(int, int, int) packed longs} in {@link LightQueue}s and
+ * chunks are looked up through a {@link ChunkNeighborhood}, so propagation doesn't allocate per block. Block light
+ * sources are queued with {@link #addLightSource(int, int, int, int, int, int)} and
+ * {@link #removeLightSource(int, int, int)}, and applied as one batch by {@link #processUpdates(LightChanges)}: all
+ * removals first, then all additions, including the light that has to be restored around the removed area.</p>
+ *
+ * <p>Light sources can be queued from any thread while a batch is being processed, they end up in the next
+ * batch.</p>
+ */
 public class LightingSystem {
+    private static final int[] OFFSET_X = {1, -1, 0, 0, 0, 0};
+    private static final int[] OFFSET_Y = {0, 0, 1, -1, 0, 0};
+    private static final int[] OFFSET_Z = {0, 0, 0, 0, 1, -1};
+
     private final ServerWorld world;
+    private final ThreadLocal<SkyPropagation> skyPropagation;
+
+    // Queued block light sources, guarded by this.
+    private LightQueue pendingRemovals = new LightQueue(64);
+    private LightQueue pendingAdditions = new LightQueue(64);
+
+    // Block light batch state, guarded by processLock.
+    private final Object processLock = new Object();
+    private LightQueue batchRemovals = new LightQueue(64);
+    private LightQueue batchAdditions = new LightQueue(64);
+    private final LightQueue removalQueue = new LightQueue(4096);
+    private final LightQueue additionQueue = new LightQueue(4096);
+    private final ChunkNeighborhood blockChunks;
+    private LightChanges changes;
+
+    /**
+     * Skylight is initialized on the generator threads, so each thread gets its own queue and neighborhood.
+     */
+    private static final class SkyPropagation {
+        final LightQueue queue = new LightQueue(4096);
+        final ChunkNeighborhood chunks;
+
+        SkyPropagation(ServerWorld world) {
+            chunks = new ChunkNeighborhood(world, GenerationBarrier.PRE_LIGHTING);
+        }
+    }
 
     public LightingSystem(ServerWorld world) {
         this.world = world;
+        this.skyPropagation = ThreadLocal.withInitial(() -> new SkyPropagation(world));
+        this.blockChunks = new ChunkNeighborhood(world, GenerationBarrier.PRE_LIGHTING);
     }
 
     /* ---------------- SKY INITIALIZATION ---------------- */
@@ -46,249 +87,316 @@ public class LightingSystem {
         int baseY = chunk.vec.y * World.CHUNK_SIZE;
         int baseZ = chunk.vec.z * World.CHUNK_SIZE;
 
-        Queue<BlockVec> queue = new ArrayDeque<>();
-
-        // Step 1: Top-down initialization
-        for (int lx = 0; lx < World.CHUNK_SIZE; lx++) {
-            for (int lz = 0; lz < World.CHUNK_SIZE; lz++) {
-                int wx = baseX + lx;
-                int wz = baseZ + lz;
-                int top = world.getHeight(wx, wz, HeightmapType.LIGHT_BLOCKING);
-
-                int currentLight = 15;
-                for (int ly = World.CHUNK_SIZE - 1; ly >= 0; ly--) {
-                    int wy = baseY + ly;
-                    BlockState state = world.get(wx, wy, wz);
-
-                    if (wy >= top && state.isAir()) {
-                        setSkylight(chunk, lx, ly, lz, currentLight);
-                    } else {
-                        int opacity = state.getLightReduction(); // 0 for air, up to 15 for solid
-                        currentLight -= opacity;
-                        if (currentLight <= 0) currentLight = 0;
-                        setSkylight(chunk, lx, ly, lz, currentLight);
-                        if (opacity > 0) break; // stop once we hit solid
-                    }
-
-                    if (currentLight > 1) {
-                        queue.add(new BlockVec(wx, wy, wz));
+        SkyPropagation propagation = skyPropagation.get();
+        LightQueue queue = propagation.queue;
+        ChunkNeighborhood chunks = propagation.chunks;
+        chunks.center(chunk);
+        LightMap lightMap = chunk.getLightMap();
+
+        try {
+            // Step 1: Top-down initialization
+            for (int lx = 0; lx < World.CHUNK_SIZE; lx++) {
+                for (int lz = 0; lz < World.CHUNK_SIZE; lz++) {
+                    int wx = baseX + lx;
+                    int wz = baseZ + lz;
+                    int top = world.getHeight(wx, wz, HeightmapType.LIGHT_BLOCKING);
+
+                    int currentLight = 15;
+                    for (int ly = World.CHUNK_SIZE - 1; ly >= 0; ly--) {
+                        int wy = baseY + ly;
+                        BlockState state = chunk.get(lx, ly, lz);
+
+                        if (wy >= top && state.isAir()) {
+                            lightMap.setSky(lx, ly, lz, currentLight);
+                        } else {
+                            int opacity = state.getLightReduction(); // 0 for air, up to 15 for solid
+                            currentLight -= opacity;
+                            if (currentLight <= 0) currentLight = 0;
+                            lightMap.setSky(lx, ly, lz, currentLight);
+                            if (opacity > 0) break; // stop once we hit solid
+                        }
+
+                        if (currentLight > 1) {
+                            queue.add(BlockVec.pack(wx, wy, wz), 0);
+                        }
                     }
                 }
             }
-        }
-
-        // Step 2: Flood-fill propagation
-        while (!queue.isEmpty()) {
-            BlockVec pos = queue.poll();
-            int wx = pos.x;
-            int wy = pos.y;
-            int wz = pos.z;
-
-            int light = world.getLightingSystem().getSkylight(wx, wy, wz);
-            if (light <= 1) continue;
 
-            for (Direction dir : Direction.values()) {
-                int nx = wx + dir.getNormalX();
-                int ny = wy + dir.getNormalY();
-                int nz = wz + dir.getNormalZ();
-
-                BlockState neighbor = world.get(nx, ny, nz);
-                if (neighbor.blocksLight()) continue;
-
-                int neighborLight = world.getLightingSystem().getSkylight(nx, ny, nz);
-                int newLight = light - 1;
-
-                if (newLight > neighborLight) {
-                    world.getLightingSystem().setSkylight(world.getChunkAt(nx, ny, nz, GenerationBarrier.PRE_LIGHTING), nx, ny, nz, newLight);
-                    queue.add(new BlockVec(nx, ny, nz));
+            // Step 2: Flood-fill propagation
+            while (!queue.isEmpty()) {
+                long pos = queue.peekPosition();
+                queue.pop();
+                int wx = BlockVec.unpackX(pos);
+                int wy = BlockVec.unpackY(pos);
+                int wz = BlockVec.unpackZ(pos);
+
+                ServerChunk current = chunks.get(wx, wy, wz);
+                if (current == null) continue;
+                int light = current.getLightMap().getSky(BlockVec.localize(wx), BlockVec.localize(wy), BlockVec.localize(wz));
+                if (light <= 1) continue;
+
+                for (int i = 0; i < 6; i++) {
+                    int nx = wx + OFFSET_X[i];
+                    int ny = wy + OFFSET_Y[i];
+                    int nz = wz + OFFSET_Z[i];
+
+                    ServerChunk neighborChunk = chunks.get(nx, ny, nz);
+                    if (neighborChunk == null) continue;
+                    int lx = BlockVec.localize(nx);
+                    int ly = BlockVec.localize(ny);
+                    int lz = BlockVec.localize(nz);
+                    if (neighborChunk.get(lx, ly, lz).blocksLight()) continue;
+
+                    LightMap neighborMap = neighborChunk.getLightMap();
+                    int index = Chunk.getIndex(lx, ly, lz);
+                    int newLight = light - 1;
+                    if (newLight > neighborMap.getSky(index)) {
+                        neighborMap.setSky(index, newLight);
+                        queue.add(BlockVec.pack(nx, ny, nz), 0);
+                    }
                 }
             }
+        } finally {
+            queue.clear();
+            chunks.clear();
         }
     }
 
-    private int startPropogatingSky(int wx, int wy, int wz) {
-        int sky;
-        BlockState state = getChunkAt(wx, wy, wz).get(BlockVec.localize(wx), BlockVec.localize(wy), BlockVec.localize(wz));
-        int lightReduction = Math.max(state.getLightReduction(), 1);
+    /* ---------------- BLOCK LIGHTING ---------------- */
 
-        propogateSkyLight(wx, wy, wz, 15 - lightReduction);
-        sky = 15 - lightReduction;
-        return sky;
+    /**
+     * Queues a light source to be added by the next {@link #processUpdates(LightChanges)}.
+     */
+    public synchronized void addLightSource(int x, int y, int z, int r, int g, int b) {
+        pendingAdditions.add(BlockVec.pack(x, y, z), packRGB(r, g, b));
     }
 
-    private void propogateSkyLight(int startX, int startY, int startZ, int sky) {
-        Deque<int[]> queue = new ArrayDeque<>();
-        queue.addLast(new int[]{startX, startY, startZ, sky});
-
-        while (!queue.isEmpty()) {
-            int[] current = queue.pollFirst();
-            int x = current[0];
-            int y = current[1];
-            int z = current[2];
-            int cs = current[3];
-
-            // Clamp to non-negative
-            if (cs <= 0) continue;
-
-            // Current light
-            int existing = getSkylight(x, y, z);
-
-            // Mix colors by taking max of each channel
-            int newSky = Math.max(cs, existing);
-
-            // If mixed light is same as existing, skip
-            if (newSky == existing) continue;
-
-            // Set the mixed light
-            ServerChunk chunk = getChunkAt(x, y, z);
-            setSkylight(chunk, BlockVec.localize(x), BlockVec.localize(y), BlockVec.localize(z), newSky);
-
-            // Spread to neighbors
-            int[][] dirs = {{1, 0, 0}, {-1, 0, 0}, {0, 1, 0}, {0, -1, 0}, {0, 0, 1}, {0, 0, -1}};
-            BlockState state = get(x, y, z);
-            int reduction = max(state.getLightReduction(), 1);
-
-            for (int[] dir : dirs) {
-                int nx = x + dir[0];
-                int ny = y + dir[1];
-                int nz = z + dir[2];
-                queue.addLast(new int[]{
-                        nx, ny, nz,
-                        Math.max(0, cs - reduction)
-                });
-            }
-        }
+    /**
+     * Queues the light at a position to be removed by the next {@link #processUpdates(LightChanges)}.
+     */
+    public synchronized void removeLightSource(int x, int y, int z) {
+        pendingRemovals.add(BlockVec.pack(x, y, z), 0);
     }
 
-    /* ---------------- BLOCK LIGHTING ---------------- */
-
-    public void addLightSource(int x, int y, int z, int r, int g, int b) {
-        floodfillRGB(x, y, z, r, g, b);
+    /**
+     * Checks whether there are light source changes waiting to be processed.
+     */
+    public synchronized boolean hasPendingUpdates() {
+        return !pendingRemovals.isEmpty() || !pendingAdditions.isEmpty();
     }
 
-    public void removeLightSource(int x, int y, int z) {
-        reverseFloodfillRGB(x, y, z);
+    /**
+     * Applies all queued light source changes.
+     */
+    public void processUpdates() {
+        processUpdates(null);
     }
 
-    private void floodfillRGB(int startX, int startY, int startZ, int r, int g, int b) {
-        Deque<int[]> queue = new ArrayDeque<>();
-        queue.addLast(new int[]{startX, startY, startZ, r, g, b});
-
-        while (!queue.isEmpty()) {
-            int[] current = queue.pollFirst();
-            int x = current[0];
-            int y = current[1];
-            int z = current[2];
-            int cr = current[3];
-            int cg = current[4];
-            int cb = current[5];
-
-            // Clamp to non-negative
-            if (cr <= 0 && cg <= 0 && cb <= 0) continue;
-
-            // Current light
-            int[] existing = getRGB(x, y, z);
-            if (existing == null) continue;
-
-            // Mix colors by taking max of each channel
-            int newR = Math.max(cr, existing[0]);
-            int newG = Math.max(cg, existing[1]);
-            int newB = Math.max(cb, existing[2]);
-
-            // If mixed light is same as existing, skip
-            if (newR == existing[0] && newG == existing[1] && newB == existing[2]) continue;
-
-            // Set the mixed light
-            setRGB(x, y, z, newR, newG, newB);
-
-            // Spread to neighbors
-            int[][] dirs = {{1, 0, 0}, {-1, 0, 0}, {0, 1, 0}, {0, -1, 0}, {0, 0, 1}, {0, 0, -1}};
-            BlockState state = get(x, y, z);
-            int reduction = max(state.getLightReduction(), 1);
-
-            for (int[] dir : dirs) {
-                int nx = x + dir[0];
-                int ny = y + dir[1];
-                int nz = z + dir[2];
-                queue.addLast(new int[]{
-                        nx, ny, nz,
-                        Math.max(0, cr - reduction),
-                        Math.max(0, cg - reduction),
-                        Math.max(0, cb - reduction)
-                });
+    /**
+     * Applies all queued light source changes.
+     *
+     * @param changes collects the positions of which the block light changed, or {@code null}.
+     */
+    public void processUpdates(@Nullable LightChanges changes) {
+        synchronized (processLock) {
+            synchronized (this) {
+                if (pendingRemovals.isEmpty() && pendingAdditions.isEmpty()) return;
+
+                LightQueue removals = batchRemovals;
+                LightQueue additions = batchAdditions;
+                batchRemovals = pendingRemovals;
+                batchAdditions = pendingAdditions;
+                pendingRemovals = removals;
+                pendingAdditions = additions;
             }
-        }
-    }
 
-    private void reverseFloodfillRGB(int x, int y, int z) {
-        Deque<int[]> queue = new ArrayDeque<>();
-        int[] original = getRGB(x, y, z);
-        if (original == null) return;
+            long first = batchRemovals.isEmpty() ? batchAdditions.peekPosition() : batchRemovals.peekPosition();
+            blockChunks.center(BlockVec.unpackX(first), BlockVec.unpackY(first), BlockVec.unpackZ(first));
+            this.changes = changes;
 
-        setRGB(x, y, z, 0, 0, 0);
-        queue.addLast(new int[]{x, y, z});
+            try {
+                while (!batchRemovals.isEmpty()) {
+                    long pos = batchRemovals.peekPosition();
+                    batchRemovals.pop();
+                    startRemoval(pos);
+                }
+                propagateRemovals();
 
-        Deque<int[]> toAdd = new ArrayDeque<>();
+                while (!batchAdditions.isEmpty()) {
+                    long pos = batchAdditions.peekPosition();
+                    int rgb = batchAdditions.peekValue();
+                    batchAdditions.pop();
+                    startAddition(pos, rgb);
+                }
+                propagateAdditions();
+            } finally {
+                batchRemovals.clear();
+                batchAdditions.clear();
+                removalQueue.clear();
+                additionQueue.clear();
+                blockChunks.clear();
+                this.changes = null;
+            }
+        }
+    }
 
-        while (!queue.isEmpty()) {
-            int[] current = queue.pollFirst();
-            int cx = current[0], cy = current[1], cz = current[2];
+    private void startRemoval(long pos) {
+        int x = BlockVec.unpackX(pos);
+        int y = BlockVec.unpackY(pos);
+        int z = BlockVec.unpackZ(pos);
+        ServerChunk chunk = blockChunks.get(x, y, z);
+        if (chunk == null) return;
+
+        LightMap map = chunk.getLightMap();
+        int index = Chunk.getIndex(BlockVec.localize(x), BlockVec.localize(y), BlockVec.localize(z));
+        int original = map.getRGB(index);
+        if (original == 0) return;
+
+        map.setRGB(index, 0);
+        markChanged(chunk, index);
+        removalQueue.add(pos, original);
+    }
 
-            int[][] dirs = {{1,0,0},{-1,0,0},{0,1,0},{0,-1,0},{0,0,1},{0,0,-1}};
-            for (int[] dir : dirs) {
-                int nx = cx + dir[0], ny = cy + dir[1], nz = cz + dir[2];
-                int[] neighbor = getRGB(nx, ny, nz);
-                if (neighbor != null && (neighbor[0] > 0 || neighbor[1] > 0 || neighbor[2] > 0)) {
-                    setRGB(nx, ny, nz, 0, 0, 0);
-                    queue.addLast(new int[]{nx, ny, nz});
+    /**
+     * Darkens every channel that was lit by the removed light. Neighbors that are at least as bright on a channel are
+     * lit by something else, so they're queued to spread their light back into the darkened area. Light sources
+     * inside the darkened area are queued to be added again.
+     */
+    private void propagateRemovals() {
+        while (!removalQueue.isEmpty()) {
+            long pos = removalQueue.peekPosition();
+            int light = removalQueue.peekValue();
+            removalQueue.pop();
+            int x = BlockVec.unpackX(pos);
+            int y = BlockVec.unpackY(pos);
+            int z = BlockVec.unpackZ(pos);
+
+            for (int i = 0; i < 6; i++) {
+                int nx = x + OFFSET_X[i];
+                int ny = y + OFFSET_Y[i];
+                int nz = z + OFFSET_Z[i];
+                ServerChunk chunk = blockChunks.get(nx, ny, nz);
+                if (chunk == null) continue;
+
+                int lx = BlockVec.localize(nx);
+                int ly = BlockVec.localize(ny);
+                int lz = BlockVec.localize(nz);
+                LightMap map = chunk.getLightMap();
+                int index = Chunk.getIndex(lx, ly, lz);
+                int neighbor = map.getRGB(index);
+                if (neighbor == 0) continue;
+
+                int removed = 0;
+                int removedMask = 0;
+                boolean brighter = false;
+                for (int shift = 0; shift <= 16; shift += 8) {
+                    int current = light >> shift & 0xFF;
+                    int other = neighbor >> shift & 0xFF;
+                    if (current == 0 || other == 0) continue;
+
+                    if (other < current) {
+                        removed |= other << shift;
+                        removedMask |= 0xFF << shift;
+                    } else {
+                        brighter = true;
+                    }
                 }
-                if (nx == x && ny == y && nz == z) continue;
-                int lightEmission = world.get(nx, ny, nz).getLightEmission();
-                if (lightEmission > 0) {
-                    toAdd.addLast(new int[]{nx, ny, nz, lightEmission >> 16 & 0xFF, lightEmission >> 8 & 0xFF, lightEmission & 0xFF});
+
+                long neighborPos = BlockVec.pack(nx, ny, nz);
+                if (removed != 0) {
+                    map.setRGB(index, neighbor & ~removedMask);
+                    markChanged(chunk, index);
+                    removalQueue.add(neighborPos, removed);
+
+                    int emission = chunk.get(lx, ly, lz).getLightEmission();
+                    if (emission > 0) batchAdditions.add(neighborPos, emission & 0xFFFFFF);
                 }
+                if (brighter) additionQueue.add(neighborPos, 0);
             }
         }
-
-        for (int[] toAddLight : toAdd) {
-            floodfillRGB(toAddLight[0], toAddLight[1], toAddLight[2], toAddLight[3], toAddLight[4], toAddLight[5]);
-        }
     }
 
-    /* ---------------- SKY LIGHTING ---------------- */
-
-    private int getSkylight(int x, int y, int z) {
-        return getChunkAt(x, y, z).getLightMap().getSky(BlockVec.localize(x), BlockVec.localize(y), BlockVec.localize(z));
+    private void startAddition(long pos, int rgb) {
+        int x = BlockVec.unpackX(pos);
+        int y = BlockVec.unpackY(pos);
+        int z = BlockVec.unpackZ(pos);
+        ServerChunk chunk = blockChunks.get(x, y, z);
+        if (chunk == null) return;
+
+        LightMap map = chunk.getLightMap();
+        int index = Chunk.getIndex(BlockVec.localize(x), BlockVec.localize(y), BlockVec.localize(z));
+        int existing = map.getRGB(index);
+        int mixed = maxRGB(existing, rgb);
+        if (mixed != existing) {
+            map.setRGB(index, mixed);
+            markChanged(chunk, index);
+        }
+        additionQueue.add(pos, 0);
     }
 
-    private void setSkylight(ServerChunk chunk, int x, int y, int z, int s) {
-        chunk.getLightMap().setSky(x, y, z, s);
+    /**
+     * Spreads the light of every queued position to its neighbors, mixing colors by taking the max of each channel.
+     * The light is read from the light map when a position is polled, so positions that were darkened after being
+     * queued don't spread stale light.
+     */
+    private void propagateAdditions() {
+        while (!additionQueue.isEmpty()) {
+            long pos = additionQueue.peekPosition();
+            additionQueue.pop();
+            int x = BlockVec.unpackX(pos);
+            int y = BlockVec.unpackY(pos);
+            int z = BlockVec.unpackZ(pos);
+            ServerChunk chunk = blockChunks.get(x, y, z);
+            if (chunk == null) continue;
+
+            int lx = BlockVec.localize(x);
+            int ly = BlockVec.localize(y);
+            int lz = BlockVec.localize(z);
+            int light = chunk.getLightMap().getRGB(Chunk.getIndex(lx, ly, lz));
+            if (light == 0) continue;
+
+            int spread = subtractRGB(light, max(chunk.get(lx, ly, lz).getLightReduction(), 1));
+            if (spread == 0) continue;
+
+            for (int i = 0; i < 6; i++) {
+                int nx = x + OFFSET_X[i];
+                int ny = y + OFFSET_Y[i];
+                int nz = z + OFFSET_Z[i];
+                ServerChunk neighborChunk = blockChunks.get(nx, ny, nz);
+                if (neighborChunk == null) continue;
+
+                LightMap map = neighborChunk.getLightMap();
+                int index = Chunk.getIndex(BlockVec.localize(nx), BlockVec.localize(ny), BlockVec.localize(nz));
+                int existing = map.getRGB(index);
+                int mixed = maxRGB(existing, spread);
+                if (mixed == existing) continue;
+
+                map.setRGB(index, mixed);
+                markChanged(neighborChunk, index);
+                additionQueue.add(BlockVec.pack(nx, ny, nz), 0);
+            }
+        }
     }
 
     /* ---------------- HELPERS ---------------- */
 
-    private int[] getRGB(int x, int y, int z) {
-        ServerChunk c = getChunkAt(x, y, z);
-        if (c == null) return null;
-        var map = c.getLightMap();
-        return new int[]{
-                map.getRed(BlockVec.localize(x), BlockVec.localize(y), BlockVec.localize(z)),
-                map.getGreen(BlockVec.localize(x), BlockVec.localize(y), BlockVec.localize(z)),
-                map.getBlue(BlockVec.localize(x), BlockVec.localize(y), BlockVec.localize(z))
-        };
+    private void markChanged(ServerChunk chunk, int index) {
+        if (changes != null) changes.mark(chunk, index);
     }
 
-    private void setRGB(int x, int y, int z, int r, int g, int b) {
-        ServerChunk c = getChunkAt(x, y, z);
-        if (c == null) return;
-        c.getLightMap().set(BlockVec.localize(x), BlockVec.localize(y), BlockVec.localize(z), r, g, b);
+    private static int packRGB(int r, int g, int b) {
+        return (r & 0xFF) << 16 | (g & 0xFF) << 8 | b & 0xFF;
     }
 
-    private ServerChunk getChunkAt(int x, int y, int z) {
-        return world.getChunkManager().getChunkAt(x, y, z, GenerationBarrier.PRE_LIGHTING);
+    private static int maxRGB(int a, int b) {
+        return max(a & 0xFF0000, b & 0xFF0000) | max(a & 0xFF00, b & 0xFF00) | max(a & 0xFF, b & 0xFF);
     }
 
-    private BlockState get(int x, int y, int z) {
-        return world.get(x, y, z);
+    private static int subtractRGB(int rgb, int amount) {
+        int r = max((rgb >> 16 & 0xFF) - amount, 0);
+        int g = max((rgb >> 8 & 0xFF) - amount, 0);
+        int b = max((rgb & 0xFF) - amount, 0);
+        return r << 16 | g << 8 | b;
     }
 }
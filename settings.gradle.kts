@@ -17,6 +17,7 @@ include("client")
 include("server")
 include("gameprovider")
 include("logging")
+include("loadtest")
 
 include("devutils")
 //include("api:kotlin")